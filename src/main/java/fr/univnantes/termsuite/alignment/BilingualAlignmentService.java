@@ -24,10 +24,13 @@ package fr.univnantes.termsuite.alignment;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -37,12 +40,21 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -77,7 +89,6 @@ import fr.univnantes.termsuite.model.TermProperty;
 import fr.univnantes.termsuite.model.Word;
 import fr.univnantes.termsuite.resources.BilingualDictionary;
 import fr.univnantes.termsuite.utils.Pair;
-import fr.univnantes.termsuite.utils.StringUtils;
 import fr.univnantes.termsuite.utils.TermUtils;
 import fr.univnantes.termsuite.utils.WordUtils;
  
@@ -121,6 +132,70 @@ public class BilingualAlignmentService {
 	@Inject(optional=true)
 	private Map<Term, Term> manualDico = new HashMap<>();
 	
+	private boolean distributionalIndexEnabled = false;
+	private volatile DistributionalIndex distributionalIndex;
+	
+	/**
+	 * Enables or disables the inverted index of target context vectors
+	 * used by {@link #alignDistributional(TermService, int, int)} to 
+	 * retrieve its candidates without scanning the whole target terminology.
+	 * 
+	 * The index is built once, on first use, and requires the {@link Cosine} distance.
+	 * 
+	 * @param enabled
+	 * 			<code>true</code> to enable the index
+	 * @return
+	 * 			this service
+	 */
+	public BilingualAlignmentService setDistributionalIndexEnabled(boolean enabled) {
+		Preconditions.checkState(!enabled || distance instanceof Cosine, 
+				"Distributional index requires %s distance. Got: %s", 
+				Cosine.class.getSimpleName(), 
+				distance.getClass().getSimpleName());
+		this.distributionalIndexEnabled = enabled;
+		return this;
+	}
+	
+	public boolean isDistributionalIndexEnabled() {
+		return distributionalIndexEnabled;
+	}
+	
+	private volatile NeoclassicalAffixIndex neoclassicalAffixIndex;
+	
+	private NeoclassicalAffixIndex getNeoclassicalAffixIndex() {
+		if(neoclassicalAffixIndex == null) {
+			synchronized(this) {
+				if(neoclassicalAffixIndex == null) {
+					neoclassicalAffixIndex = new NeoclassicalAffixIndex(
+							targetTermino.getTerms(), 
+							targetCandidate -> getMorphologicalExtensionsAsTerms(
+									targetTermino,
+									targetIndexes.getIndex(TermIndexType.LEMMA_LOWER_CASE),
+									targetCandidate, 
+									targetCandidate.getWords().get(0).getWord().getNeoclassicalAffix()));
+					LOGGER.debug("Neoclassical affix index of {} target compounds built", neoclassicalAffixIndex.size());
+				}
+			}
+		}
+		return neoclassicalAffixIndex;
+	}
+	
+	private DistributionalIndex getDistributionalIndex() {
+		if(distributionalIndex == null) {
+			synchronized(this) {
+				if(distributionalIndex == null) {
+					Stopwatch sw = Stopwatch.createStarted();
+					distributionalIndex = new DistributionalIndex(targetTermino.terms()
+							.filter(TermService::isSingleWord)
+							.filter(t -> t.getContext() != null)
+							.collect(Collectors.toList()));
+					LOGGER.debug("Distributional index of {} target vectors built in {}", distributionalIndex.size(), sw);
+				}
+			}
+		}
+		return distributionalIndex;
+	}
+	
 
 	public BilingualAlignmentService addTranslation(TermService sourceTerm, TermService targetTerm) {
 		return addTranslation(sourceTerm.getTerm(), targetTerm.getTerm());
@@ -276,34 +351,18 @@ public class BilingualAlignmentService {
 		 */
 		Map<TermService, TermService> targetCandidatesBySWTExtension = Maps.newHashMap();
 		Set<TermService> targetCandidatesHavingSameAffix = Sets.newHashSet();
-		for(TermService targetCandidate:targetTermino.getTerms()) {
-			Word targetCompound = targetCandidate.getWords().get(0).getWord();
-			if(targetCandidate.isCompound() && targetCompound.getCompoundType() == CompoundType.NEOCLASSICAL) {
-				String targetNeoclassicalAffixString = WordUtils.getComponentSubstring(targetCompound, targetCompound.getNeoclassicalAffix());
-				
-				boolean isValidTargetCandidate = false;
-				// Case1: we have translations from dico for neoclassical affix
-				if(!targetNeoclassicalAffixes.isEmpty()) 
-					isValidTargetCandidate = targetNeoclassicalAffixes.contains(targetNeoclassicalAffixString);
-				// Case2: we don't, then we have to test validity on graphical pure graphical equality
-				else
-					isValidTargetCandidate = StringUtils
-						.replaceAccents(targetNeoclassicalAffixString).toLowerCase()
-						.equals(StringUtils.replaceAccents(sourceNeoclassicalAffixString).toLowerCase());
-					
-				if (isValidTargetCandidate) {
-					targetCandidatesHavingSameAffix.add(targetCandidate);
-
-					Collection<TermService> targetExtensions = getMorphologicalExtensionsAsTerms(
-							targetTermino,
-							targetIndexes.getIndex(TermIndexType.LEMMA_LOWER_CASE),
-							targetCandidate, 
-							targetCompound.getNeoclassicalAffix());
-
-					for (TermService morphologicalExtensin : targetExtensions)
-						targetCandidatesBySWTExtension.put(morphologicalExtensin, targetCandidate);
-				}
-			}
+		NeoclassicalAffixIndex neoclassicalAffixIndex = getNeoclassicalAffixIndex();
+		List<TermService> targetCandidates;
+		// Case1: we have translations from dico for neoclassical affix
+		if(!targetNeoclassicalAffixes.isEmpty()) 
+			targetCandidates = neoclassicalAffixIndex.getCompounds(targetNeoclassicalAffixes);
+		// Case2: we don't, then we have to test validity on graphical pure graphical equality
+		else
+			targetCandidates = neoclassicalAffixIndex.getCompoundsByNormalizedAffix(sourceNeoclassicalAffixString);
+		for(TermService targetCandidate:targetCandidates) {
+			targetCandidatesHavingSameAffix.add(targetCandidate);
+			for (TermService morphologicalExtensin : neoclassicalAffixIndex.getMorphologicalExtensions(targetCandidate))
+				targetCandidatesBySWTExtension.put(morphologicalExtensin, targetCandidate);
 		}
 		
 		/*
@@ -433,22 +492,31 @@ public class BilingualAlignmentService {
 				targetTermino);
 		ExplainedValue v;
 		int nbVectorsNotComputed = 0;
-		int nbVectorsComputed = 0;
-		for(TermService targetTerm:targetTermino.terms().filter(TermService::isSingleWord).collect(Collectors.toList())) {
-			if(targetTerm.getFrequency() < minCandidateFrequency)
-				continue;
-			if(targetTerm.getContext() != null) {
-				nbVectorsComputed++;
-				v = distance.getExplainedValue(translatedSourceVector, targetTerm.getContext());
-				TranslationCandidate candidate = new TranslationCandidate(
-						AlignmentMethod.DISTRIBUTIONAL,
-						targetTerm, 
-						v.getValue(), 
-						sourceTerm,
-						v.getExplanation());
-				alignedCandidateQueue.add(candidate);
-			}
-		};
+		List<TermService> targetTerms;
+		if(isDistributionalIndexEnabled()) {
+			targetTerms = getDistributionalIndex().getTopCandidates(translatedSourceVector, nbCandidates, minCandidateFrequency);
+		} else {
+			targetTerms = Lists.newArrayList();
+			for(TermService targetTerm:targetTermino.terms().filter(TermService::isSingleWord).collect(Collectors.toList())) {
+				if(targetTerm.getFrequency() < minCandidateFrequency)
+					continue;
+				if(targetTerm.getContext() != null) 
+					targetTerms.add(targetTerm);
+			};
+		}
+		List<ContextVector> targetVectors = targetTerms.stream().map(TermService::getContext).collect(Collectors.toList());
+		int nbVectorsComputed = targetVectors.size();
+		List<ExplainedValue> values = distance.getExplainedValues(translatedSourceVector, targetVectors);
+		for(int i = 0; i < nbVectorsComputed; i++) {
+			v = values.get(i);
+			TranslationCandidate candidate = new TranslationCandidate(
+					AlignmentMethod.DISTRIBUTIONAL,
+					targetTerms.get(i), 
+					v.getValue(), 
+					sourceTerm,
+					v.getExplanation());
+			alignedCandidateQueue.add(candidate);
+		}
 		if(nbVectorsNotComputed > 0) {
 			LOGGER.warn(MSG_SEVERAL_VECTORS_NOT_COMPUTED, nbVectorsComputed, nbVectorsNotComputed);	
 		}
@@ -482,6 +550,79 @@ public class BilingualAlignmentService {
 				true);
 	}
 
+	/**
+	 * Aligns several source terms concurrently, on a work-stealing pool 
+	 * of <code>nbThreads</code> threads.
+	 * 
+	 * All indexes and relations required by the alignment are built before 
+	 * the first term is aligned. The candidates of each source term are given
+	 * to the <code>sink</code> from the calling thread and in the order of
+	 * <code>sourceTerms</code>, so the sink does not need to be thread-safe. 
+	 * At most <code>4 * nbThreads</code> terms are aligned ahead of the sink.
+	 * 
+	 * @see #align(Term, int, int)
+	 * @param sourceTerms
+	 * 				The source terms to align
+	 * @param nbCandidates
+	 * 				The maximum number of target translation candidates
+	 * @param minCandidateFrequency
+	 * 				The minimum frequency allowed for target translation candidates
+	 * @param nbThreads
+	 * 				The number of alignment threads
+	 * @param sink
+	 * 				Consumes each source term with its ranked list of {@link TranslationCandidate}
+	 */
+	public void alignAll(Stream<Term> sourceTerms, int nbCandidates, int minCandidateFrequency, int nbThreads,
+			BiConsumer<Term, List<TranslationCandidate>> sink) {
+		Preconditions.checkArgument(nbThreads > 0, "Bad number of threads: %s", nbThreads);
+		prepareConcurrentAlignment();
+		
+		int capacity = 4 * nbThreads;
+		Deque<Term> pendingTerms = new ArrayDeque<>(capacity);
+		Deque<ForkJoinTask<List<TranslationCandidate>>> pendingTasks = new ArrayDeque<>(capacity);
+		ForkJoinPool pool = new ForkJoinPool(nbThreads);
+		LOGGER.debug("Starting alignment on {} threads", nbThreads);
+		try {
+			Iterator<Term> it = sourceTerms.iterator();
+			while(it.hasNext() || !pendingTasks.isEmpty()) {
+				if(it.hasNext() && pendingTasks.size() < capacity) {
+					Term sourceTerm = it.next();
+					pendingTerms.add(sourceTerm);
+					pendingTasks.add(pool.submit(() -> align(sourceTerm, nbCandidates, minCandidateFrequency)));
+				} else 
+					sink.accept(pendingTerms.poll(), pendingTasks.poll().get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TermSuiteException("Interrupted while aligning", e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException)e.getCause();
+			throw new TermSuiteException("Alignment failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/*
+	 * Builds all lazily created structures shared by alignment threads.
+	 */
+	private void prepareConcurrentAlignment() {
+		for(TermIndexType indexType:new TermIndexType[]{
+				TermIndexType.WORD_LEMMAS, 
+				TermIndexType.LEMMA_LOWER_CASE, 
+				TermIndexType.ALLCOMP_PAIRS}) {
+			sourceIndexes.getIndex(indexType);
+			targetIndexes.getIndex(indexType);
+		}
+		targetIndexes.getIndex(TermIndexType.SWT_LEMMAS_SWT_TERMS_ONLY);
+		sourceTermino.extensions().findAny();
+		targetTermino.extensions().findAny();
+		getNeoclassicalAffixIndex();
+		if(distributionalIndexEnabled)
+			getDistributionalIndex();
+	}
+
 	private List<TranslationCandidate> alignSwtTermList(List<TermService> terms, int nbCandidates, int minCandidateFrequency, boolean allowDistributionalAlignment) {
 		Preconditions.checkArgument(!terms.isEmpty());
 		
@@ -779,7 +920,7 @@ public class BilingualAlignmentService {
 				 * 1- create candidate combine terms
 				 */
 				String key1 = candidate1.getTerm().getLemma() + "+" + candidate2.getTerm().getLemma();
-				List<Term> candidateCombinedTerms = targetIndexes.getIndex(TermIndexType.ALLCOMP_PAIRS).getTerms(key1);
+				List<Term> candidateCombinedTerms = Lists.newArrayList(targetIndexes.getIndex(TermIndexType.ALLCOMP_PAIRS).getTerms(key1));
 				String key2 = candidate2.getTerm().getLemma() + "+" + candidate1.getTerm().getLemma();
 				candidateCombinedTerms.addAll(targetIndexes.getIndex(TermIndexType.ALLCOMP_PAIRS).getTerms(key2));
 				if(candidateCombinedTerms.isEmpty())
@@ -862,7 +1003,7 @@ public class BilingualAlignmentService {
 	}
 
 
-	private boolean ensuredExtensionsAreComputed = false;
+	private volatile boolean ensuredExtensionsAreComputed = false;
 	private void ensureHasExtensionRelationsComputred(TerminologyService termino) {
 		if(!ensuredExtensionsAreComputed) {
 			if(!termino.extensions().findAny().isPresent()) 
@@ -970,33 +1111,36 @@ public class BilingualAlignmentService {
 			BilingualDictionary dictionary, int translationStrategy, TerminologyService targetTermino) {
 		
 		
-		ContextVector targetVector = new ContextVector();
-		
-		for(ContextVector.Entry entry:sourceVector.getEntries()) {
-			Set<Term> translations = Sets.newHashSet();
-			for(String targetLemma:dictionary.getTranslations(entry.getCoTerm().getLemma())) {
-				Collection<Term> translatedTerms = targetIndexes.getIndex(TermIndexType.SWT_LEMMAS_SWT_TERMS_ONLY).getTerms(targetLemma);
-				if(!translatedTerms.isEmpty()) 
-					translations.add(translatedTerms.iterator().next());
-			}
-			switch (translationStrategy) {
-			case TRANSLATION_STRATEGY_PRORATA:
-				fillTargetVectorSProrata(targetVector, entry, translations);
-				break;
-			case TRANSLATION_STRATEGY_MOST_FREQUENT:
-				fillTargetVectorSMost(targetVector, entry, translations, TermProperty.FREQUENCY);
-				break;
-			case TRANSLATION_STRATEGY_MOST_SPECIFIC:
-				fillTargetVectorSMost(targetVector, entry, translations, TermProperty.SPECIFICITY);
-				break;
-			case TRANSLATION_STRATEGY_EQUI_REPARTITION:
-				fillTargetVectorSEquiRepartition(targetVector, entry, translations);
-				break;
-			default:
-				throw new IllegalArgumentException("Invalid translation strategy: " + translationStrategy);
-			}
+		CoTermTranslationTable translationTable = dictionary == this.dico ?
+				translationTables.computeIfAbsent(translationStrategy, strategy -> createTranslationTable(dictionary, strategy))
+					: createTranslationTable(dictionary, translationStrategy);
+		return translationTable.translate(sourceVector);
+	}
+	
+	private final ConcurrentMap<Integer, CoTermTranslationTable> translationTables = new ConcurrentHashMap<>();
+	
+	private CoTermTranslationTable createTranslationTable(BilingualDictionary dictionary, int translationStrategy) {
+		Function<Set<Term>, CoTermTranslationTable.Row> rowFactory;
+		switch (translationStrategy) {
+		case TRANSLATION_STRATEGY_PRORATA:
+			rowFactory = BilingualAlignmentService::prorataTranslations;
+			break;
+		case TRANSLATION_STRATEGY_MOST_FREQUENT:
+			rowFactory = translations -> mostPropertyTranslation(translations, TermProperty.FREQUENCY);
+			break;
+		case TRANSLATION_STRATEGY_MOST_SPECIFIC:
+			rowFactory = translations -> mostPropertyTranslation(translations, TermProperty.SPECIFICITY);
+			break;
+		case TRANSLATION_STRATEGY_EQUI_REPARTITION:
+			rowFactory = BilingualAlignmentService::equiRepartitionTranslations;
+			break;
+		default:
+			throw new IllegalArgumentException("Invalid translation strategy: " + translationStrategy);
 		}
-		return targetVector;
+		return new CoTermTranslationTable(
+				dictionary, 
+				targetIndexes.getIndex(TermIndexType.SWT_LEMMAS_SWT_TERMS_ONLY), 
+				rowFactory);
 	}
 	
 
@@ -1026,33 +1170,27 @@ public class BilingualAlignmentService {
 	 *     and 3 = ( 7 / 7 ) * 3
 	 *     
 	 * 
-	 * @param translatedVector
-	 * 			the target vector to be fill 
-	 * @param sourceTermEntry
-	 * 			the source vector's component to translated and add to target vector
 	 * @param candidateTranslations
-	 * 			the candidate translations of the <code>sourceTermEntry</code> given by the
+	 * 			the candidate translations of a source co-term given by the
 	 * 			bilingual dictionary.
+	 * @return
+	 * 			the weighted translations of the source co-term
 	 */
-	private static void fillTargetVectorSProrata(ContextVector translatedVector,
-			ContextVector.Entry sourceTermEntry, Set<Term> candidateTranslations) {
+	private static CoTermTranslationTable.Row prorataTranslations(Set<Term> candidateTranslations) {
 		/*
 		 * Do the cross product of translation frequencies
 		 */
+		Term[] targetTerms = candidateTranslations.toArray(new Term[candidateTranslations.size()]);
+		int[] frequencies = new int[targetTerms.length];
 		int totalFreqInTargetTermino = 0;
-		for(Term tt : candidateTranslations) 
-			totalFreqInTargetTermino += tt.getFrequency();
-		
-		for(Term targetTerm:candidateTranslations) {
-			int prorataCooccs = targetTerm.getFrequency() * sourceTermEntry.getNbCooccs() / totalFreqInTargetTermino;
-			translatedVector.addEntry(targetTerm, prorataCooccs, sourceTermEntry.getAssocRate());
+		for(int i = 0; i < targetTerms.length; i++) {
+			frequencies[i] = targetTerms[i].getFrequency();
+			totalFreqInTargetTermino += frequencies[i];
 		}
+		return new CoTermTranslationTable.Row(targetTerms, frequencies, totalFreqInTargetTermino, 1);
 	}
 	
 	/**
-	 * This method implements the {@value #TRANSLATION_STRATEGY_MOST_FREQUENT} 
-	 * strategy for context vector translation.
-	 * 
 	 * 
 	 * Explanation of strategy:
 	 * 
@@ -1061,31 +1199,26 @@ public class BilingualAlignmentService {
 	 * Example of candidate translations for "noir" from dico: black, dark
 	 * Example of candidate translations for "chien" from dico: dog
 	 * 
-	 * Suppose that frequencies in target term index are : 
-	 *   - black : 35
-	 *   - dark : 15
-	 *   - dog : 7
 	 *   
-	 * The translated vector would be : <black: 10, dog: 3>
+	 * The translated vector would be : <black: 5,  dark: 5, dog: 3>
 	 * 
-	 * @param translatedVector
-	 * 			the target vector to be fill 
-	 * @param sourceTermEntry
-	 * 			the source vector's component to translated and add to target vector
 	 * @param candidateTranslations
-	 * 			the candidate translations of the <code>sourceTermEntry</code> given by the
-	 * 			bilingual dictionary.
-	 * @param termMeasure 
-	 * 
+	 * @return
 	 */
-	private static void fillTargetVectorSMost(ContextVector translatedVector,
-			ContextVector.Entry sourceTermEntry, Set<Term> candidateTranslations, TermProperty termProperty) {
-		fillTargetVectorWithMostProperty(translatedVector, sourceTermEntry,
-				candidateTranslations, termProperty);
+	private static CoTermTranslationTable.Row equiRepartitionTranslations(Set<Term> candidateTranslations) {
+		/*
+		 * Do the cross product of translation frequencies
+		 */
+		Term[] targetTerms = candidateTranslations.toArray(new Term[candidateTranslations.size()]);
+		int[] ones = new int[targetTerms.length];
+		Arrays.fill(ones, 1);
+		return new CoTermTranslationTable.Row(targetTerms, ones, targetTerms.length, targetTerms.length);
 	}
-	
-	
+
 	/**
+	 * This method implements the {@value #TRANSLATION_STRATEGY_MOST_FREQUENT} 
+	 * strategy for context vector translation.
+	 * 
 	 * 
 	 * Explanation of strategy:
 	 * 
@@ -1094,30 +1227,23 @@ public class BilingualAlignmentService {
 	 * Example of candidate translations for "noir" from dico: black, dark
 	 * Example of candidate translations for "chien" from dico: dog
 	 * 
+	 * Suppose that frequencies in target term index are : 
+	 *   - black : 35
+	 *   - dark : 15
+	 *   - dog : 7
 	 *   
-	 * The translated vector would be : <black: 5,  dark: 5, dog: 3>
+	 * The translated vector would be : <black: 10, dog: 3>
 	 * 
-	 * @param translatedVector
-	 * @param sourceTermEntry
 	 * @param candidateTranslations
+	 * 			the candidate translations of a source co-term given by the
+	 * 			bilingual dictionary.
+	 * @return
+	 * 			the weighted translations of the source co-term
+	 * @param termProperty
+	 * 			the property whose greatest value selects the translation
+	 * 
 	 */
-	private static  void fillTargetVectorSEquiRepartition(ContextVector translatedVector,
-			ContextVector.Entry sourceTermEntry, Set<Term> candidateTranslations) {
-		/*
-		 * Do the cross product of translation frequencies
-		 */
-		for(Term targetTerm:candidateTranslations) {
-			int nbCooccs = sourceTermEntry.getNbCooccs()/candidateTranslations.size();
-			translatedVector.addEntry(
-					targetTerm, 
-					nbCooccs, 
-					sourceTermEntry.getAssocRate()/candidateTranslations.size());
-		}
-	}
-
-	private static void fillTargetVectorWithMostProperty(
-			ContextVector translatedVector,
-			ContextVector.Entry sourceTermEntry,
+	private static CoTermTranslationTable.Row mostPropertyTranslation(
 			Set<Term> candidateTranslations, final TermProperty termProperty) {
 		Preconditions.checkArgument(termProperty.isNumeric());
 		
@@ -1132,10 +1258,12 @@ public class BilingualAlignmentService {
 		}
 		
 		if(mostFrequent != null) 
+			return new CoTermTranslationTable.Row(new Term[]{mostFrequent}, new int[]{1}, 1, 1);
+		else
 			/*
 			 * mostFrequent would be null if candidateTranslations is empty
 			 */
-			translatedVector.addEntry(mostFrequent, sourceTermEntry.getNbCooccs(), sourceTermEntry.getAssocRate());
+			return CoTermTranslationTable.Row.empty();
 	}
 
 
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.alignment;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import fr.univnantes.termsuite.index.TermIndex;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.resources.BilingualDictionary;
+
+/**
+ * 
+ * A table giving, for each source co-term lemma, its weighted translations 
+ * into target single-word terms for one vector translation strategy.
+ * 
+ * Rows are computed once per source lemma, the first time the lemma is met,
+ * so that translating a context vector is reduced to a sparse matrix-vector 
+ * product instead of dictionary and index lookups for every entry of every vector.
+ * 
+ * @see BilingualAlignmentService#translateVector(ContextVector, BilingualDictionary, int, fr.univnantes.termsuite.framework.service.TerminologyService)
+ *
+ */
+class CoTermTranslationTable {
+	
+	/**
+	 * 
+	 * The translations of one source co-term. A source entry with 
+	 * <code>nbCooccs</code> co-occurrences and an association rate 
+	 * <code>assocRate</code> is translated into target entries with
+	 * <code>cooccNumerators[i] * nbCooccs / cooccDenominator</code> 
+	 * co-occurrences (integer division) and an association rate 
+	 * <code>assocRate / rateDivisor</code>.
+	 *
+	 */
+	static class Row {
+		private static final Row EMPTY = new Row(new Term[0], new int[0], 1, 1);
+		
+		private final Term[] targets;
+		private final int[] cooccNumerators;
+		private final int cooccDenominator;
+		private final int rateDivisor;
+		
+		Row(Term[] targets, int[] cooccNumerators, int cooccDenominator, int rateDivisor) {
+			Preconditions.checkArgument(targets.length == cooccNumerators.length);
+			this.targets = targets;
+			this.cooccNumerators = cooccNumerators;
+			this.cooccDenominator = cooccDenominator;
+			this.rateDivisor = rateDivisor;
+		}
+		
+		static Row empty() {
+			return EMPTY;
+		}
+		
+		private void addTo(ContextVector targetVector, ContextVector.Entry sourceEntry) {
+			for(int i = 0; i < targets.length; i++)
+				targetVector.addEntry(
+						targets[i], 
+						cooccNumerators[i] * sourceEntry.getNbCooccs() / cooccDenominator,
+						sourceEntry.getAssocRate() / rateDivisor);
+		}
+		
+		int size() {
+			return targets.length;
+		}
+	}
+
+	private final BilingualDictionary dictionary;
+	private final TermIndex targetSwtIndex;
+	private final Function<Set<Term>, Row> rowFactory;
+	private final ConcurrentMap<String, Row> rows = Maps.newConcurrentMap();
+	
+	/**
+	 * 
+	 * @param dictionary
+	 * 			the dictionary giving the target lemmas of a source lemma
+	 * @param targetSwtIndex
+	 * 			the index of target single-word terms by lemma
+	 * @param rowFactory
+	 * 			the translation strategy, weighting the candidate translations of a co-term 
+	 */
+	CoTermTranslationTable(BilingualDictionary dictionary, TermIndex targetSwtIndex, Function<Set<Term>, Row> rowFactory) {
+		this.dictionary = dictionary;
+		this.targetSwtIndex = targetSwtIndex;
+		this.rowFactory = rowFactory;
+	}
+	
+	Row getRow(String sourceLemma) {
+		return rows.computeIfAbsent(sourceLemma.toLowerCase(), this::computeRow);
+	}
+
+	private Row computeRow(String sourceLemma) {
+		Set<Term> translations = Sets.newHashSet();
+		for(String targetLemma:dictionary.getTranslations(sourceLemma)) {
+			List<Term> translatedTerms = targetSwtIndex.getTerms(targetLemma);
+			if(!translatedTerms.isEmpty()) 
+				translations.add(translatedTerms.iterator().next());
+		}
+		return translations.isEmpty() ? Row.empty() : rowFactory.apply(translations);
+	}
+	
+	public ContextVector translate(ContextVector sourceVector) {
+		ContextVector targetVector = new ContextVector();
+		for(ContextVector.Entry entry:sourceVector.getEntries()) 
+			getRow(entry.getCoTerm().getLemma()).addTo(targetVector, entry);
+		return targetVector;
+	}
+	
+	public int size() {
+		return rows.size();
+	}
+}
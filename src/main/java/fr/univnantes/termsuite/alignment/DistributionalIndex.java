@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.alignment;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.MinMaxPriorityQueue;
+
+import fr.univnantes.termsuite.framework.service.TermService;
+import fr.univnantes.termsuite.model.CoTermIds;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.FrozenContextVector;
+
+/**
+ * 
+ * An inverted index from co-terms to the context vectors of target 
+ * terms, used to retrieve the top candidates of a distributional alignment
+ * with the {@link fr.univnantes.termsuite.metrics.Cosine} distance without 
+ * comparing the source vector to every target vector.
+ * 
+ * Dot products are accumulated term-at-a-time over the postings
+ * of the source co-terms only, so that the retrieval is exact: candidates 
+ * are ordered by cosine, then by term, as {@link TranslationCandidate}s are.
+ * 
+ */
+class DistributionalIndex {
+	
+	private static class Postings {
+		private int[] targets = new int[4];
+		private double[] rates = new double[4];
+		private int size = 0;
+		
+		private void add(int target, double rate) {
+			if(size == targets.length) {
+				targets = Arrays.copyOf(targets, 2 * size);
+				rates = Arrays.copyOf(rates, 2 * size);
+			}
+			targets[size] = target;
+			rates[size] = rate;
+			size++;
+		}
+	}
+
+	private final CoTermIds coTermIds = new CoTermIds();
+	private final List<TermService> terms;
+	private final String[] groupingKeys;
+	private final int[] frequencies;
+	private final double[] squareSums;
+	private final Map<Integer, Postings> postings = Maps.newHashMap();
+	
+	DistributionalIndex(List<TermService> terms) {
+		this.terms = Lists.newArrayList(terms);
+		this.groupingKeys = new String[terms.size()];
+		this.frequencies = new int[terms.size()];
+		this.squareSums = new double[terms.size()];
+		for(int t = 0; t < terms.size(); t++) {
+			TermService term = terms.get(t);
+			FrozenContextVector vector = term.getContext().freeze(coTermIds);
+			groupingKeys[t] = term.getGroupingKey();
+			frequencies[t] = term.getFrequency();
+			squareSums[t] = vector.getSquareSum();
+			for(int i = 0; i < vector.size(); i++)
+				postings.computeIfAbsent(vector.getId(i), id -> new Postings()).add(t, vector.getAssocRate(i));
+		}
+	}
+	
+	public int size() {
+		return terms.size();
+	}
+	
+	/**
+	 * Retrieves the target terms having the highest cosine with a given vector.
+	 * 
+	 * @param vector
+	 * 			the (translated) source vector
+	 * @param nbCandidates
+	 * 			the maximum number of target terms returned
+	 * @param minCandidateFrequency
+	 * 			the minimum frequency of returned target terms
+	 * @return
+	 * 			the target terms, sorted by cosine desc
+	 */
+	public List<TermService> getTopCandidates(ContextVector vector, int nbCandidates, int minCandidateFrequency) {
+		FrozenContextVector source = vector.freeze(coTermIds);
+		double[] scores = new double[terms.size()];
+		for(int i = 0; i < source.size(); i++) {
+			Postings p = postings.get(source.getId(i));
+			if(p == null)
+				continue;
+			double rate = source.getAssocRate(i);
+			for(int j = 0; j < p.size; j++)
+				scores[p.targets[j]] += rate * p.rates[j];
+		}
+		double sourceSum = source.getSquareSum();
+		for(int t = 0; t < scores.length; t++)
+			scores[t] = sourceSum == 0d || squareSums[t] == 0d ? 0d : scores[t] / Math.sqrt(sourceSum * squareSums[t]);
+		
+		Comparator<Integer> order = (t1, t2) -> {
+			int cmp = Double.compare(scores[t2], scores[t1]);
+			return cmp == 0 ? groupingKeys[t1].compareTo(groupingKeys[t2]) : cmp;
+		};
+		MinMaxPriorityQueue<Integer> queue = MinMaxPriorityQueue.orderedBy(order).maximumSize(nbCandidates).create();
+		for(int t = 0; t < scores.length; t++) {
+			if(frequencies[t] < minCandidateFrequency)
+				continue;
+			if(queue.size() < nbCandidates || order.compare(t, queue.peekLast()) < 0)
+				queue.add(t);
+		}
+		
+		List<TermService> candidates = Lists.newArrayListWithCapacity(queue.size());
+		while(!queue.isEmpty())
+			candidates.add(terms.get(queue.pollFirst()));
+		return candidates;
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.alignment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+
+import fr.univnantes.termsuite.framework.service.TermService;
+import fr.univnantes.termsuite.model.CompoundType;
+import fr.univnantes.termsuite.model.Word;
+import fr.univnantes.termsuite.utils.StringUtils;
+import fr.univnantes.termsuite.utils.WordUtils;
+
+/**
+ * 
+ * An index of the neoclassical compounds of a terminology by the 
+ * string of their neoclassical affix, used by the neoclassical alignment 
+ * method to find target candidates without scanning the whole terminology.
+ * 
+ * Terms are returned in the iteration order of the indexed terminology.
+ *
+ */
+class NeoclassicalAffixIndex {
+
+	private final List<TermService> compounds = Lists.newArrayList();
+	private final Multimap<String, Integer> compoundsByAffix = ArrayListMultimap.create();
+	private final Multimap<String, Integer> compoundsByNormalizedAffix = ArrayListMultimap.create();
+	private final Function<TermService, Collection<TermService>> extensionFunction;
+	private final ConcurrentMap<TermService, Collection<TermService>> extensions = Maps.newConcurrentMap();
+	
+	/**
+	 * 
+	 * @param terms
+	 * 			the terms to index
+	 * @param extensionFunction
+	 * 			gives the morphological extensions of an indexed compound
+	 */
+	NeoclassicalAffixIndex(Collection<TermService> terms, Function<TermService, Collection<TermService>> extensionFunction) {
+		this.extensionFunction = extensionFunction;
+		for(TermService term:terms) {
+			if(!term.isCompound())
+				continue;
+			Word compound = term.getWords().get(0).getWord();
+			if(compound.getCompoundType() == CompoundType.NEOCLASSICAL) {
+				String affix = WordUtils.getComponentSubstring(compound, compound.getNeoclassicalAffix());
+				compoundsByAffix.put(affix, compounds.size());
+				compoundsByNormalizedAffix.put(normalize(affix), compounds.size());
+				compounds.add(term);
+			}
+		}
+	}
+	
+	static String normalize(String affix) {
+		return StringUtils.replaceAccents(affix).toLowerCase();
+	}
+	
+	public int size() {
+		return compounds.size();
+	}
+	
+	/**
+	 * Gives the neoclassical compounds having one of the given affixes.
+	 * 
+	 * @param affixes
+	 * 			the exact affix strings
+	 * @return
+	 * 			the compounds
+	 */
+	public List<TermService> getCompounds(Collection<String> affixes) {
+		List<Integer> ids = Lists.newArrayList();
+		for(String affix:affixes)
+			ids.addAll(compoundsByAffix.get(affix));
+		return toCompounds(ids);
+	}
+
+	/**
+	 * Gives the neoclassical compounds whose affix is equal to a given 
+	 * affix, case and accents insensitively.
+	 * 
+	 * @param affix
+	 * 			the affix string
+	 * @return
+	 * 			the compounds
+	 */
+	public List<TermService> getCompoundsByNormalizedAffix(String affix) {
+		return toCompounds(Lists.newArrayList(compoundsByNormalizedAffix.get(normalize(affix))));
+	}
+
+	private List<TermService> toCompounds(List<Integer> ids) {
+		ids.sort(null);
+		List<TermService> terms = Lists.newArrayListWithCapacity(ids.size());
+		for(int id:ids)
+			terms.add(compounds.get(id));
+		return terms;
+	}
+	
+	/**
+	 * Gives the morphological extensions of an indexed compound. Computed once
+	 * per compound.
+	 * 
+	 * @param compound
+	 * 			the compound
+	 * @return
+	 * 			the extensions of the compound
+	 */
+	public Collection<TermService> getMorphologicalExtensions(TermService compound) {
+		return extensions.computeIfAbsent(compound, extensionFunction);
+	}
+}
@@ -51,6 +51,7 @@ public class BilingualAligner {
 	private Optional<IndexedCorpus> targetCorpus = Optional.empty();
 	private Optional<BilingualDictionary> dico = Optional.empty();
 	private Class<? extends SimilarityDistance> distance = Cosine.class;
+	private boolean distributionalIndex = false;
 	
 	
 	public BilingualAligner setSourceTerminology(Terminology sourceTerminology) {
@@ -97,6 +98,21 @@ public class BilingualAligner {
 		return this;
 	}
 	
+	/**
+	 * Makes the distributional alignment retrieve its candidates from an 
+	 * inverted index of target context vectors instead of a full scan
+	 * of target single-word terms. Requires the {@link Cosine} distance.
+	 * 
+	 * @param distributionalIndex
+	 * 			<code>true</code> to use the index
+	 * @return
+	 * 			this aligner builder
+	 */
+	public BilingualAligner setDistributionalIndex(boolean distributionalIndex) {
+		this.distributionalIndex = distributionalIndex;
+		return this;
+	}
+	
 	public BilingualAligner setTargetTerminology(IndexedCorpus targetCorpus) {
 		checkCorpus(targetCorpus);
 		checkLang();
@@ -136,6 +152,7 @@ public class BilingualAligner {
 			);
 		Injector alignerInjector = Guice.createInjector(alignerModule);
 		BilingualAlignmentService alignService = alignerInjector.getInstance(BilingualAlignmentService.class);
+		alignService.setDistributionalIndexEnabled(distributionalIndex);
 		return alignService;
 	}
 	
@@ -11,6 +11,8 @@ import java.nio.file.Paths;
 
 import com.google.common.base.Charsets;
 
+import fr.univnantes.termsuite.io.bin.BinaryOptions;
+import fr.univnantes.termsuite.io.bin.BinaryTerminologyIO;
 import fr.univnantes.termsuite.io.json.JsonOptions;
 import fr.univnantes.termsuite.io.json.JsonTerminologyIO;
 import fr.univnantes.termsuite.model.IndexedCorpus;
@@ -68,4 +70,44 @@ public class IndexedCorpusIO {
 			throw new RuntimeException(e);
 		}
 	}
+
+	public static void toBinary(IndexedCorpus termino, Path path) throws IOException {
+		toBinary(termino, path, new BinaryOptions());
+	}
+
+	public static void toBinary(IndexedCorpus termino, Path path, BinaryOptions options) throws IOException {
+		BinaryTerminologyIO.save(path, termino, options);
+	}
+
+	public static IndexedCorpus fromBinary(Path path) {
+		return fromBinary(path, new BinaryOptions());
+	}
+
+	public static IndexedCorpus fromBinary(Path path, BinaryOptions options) {
+		try {
+			return BinaryTerminologyIO.load(path, options);
+		} catch (IOException e) {
+			throw new TermSuiteException(e);
+		}
+	}
+
+	/**
+	 * Loads an indexed corpus from either a binary or a json file, 
+	 * depending on the header of the file.
+	 * 
+	 * @param path
+	 * 			the path to the binary or json file
+	 * @return
+	 * 			the loaded indexed corpus
+	 */
+	public static IndexedCorpus fromFile(Path path) {
+		try {
+			if(BinaryTerminologyIO.isBinaryTerminology(path))
+				return fromBinary(path);
+			else
+				return fromJson(path);
+		} catch (IOException e) {
+			throw new TermSuiteException(e);
+		}
+	}
 }
@@ -0,0 +1,139 @@
+package fr.univnantes.termsuite.api;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.model.Document;
+import fr.univnantes.termsuite.model.Lang;
+
+/**
+ * A {@link TXTCorpus} that reads its documents ahead of consumers.
+ *
+ * Documents are read with NIO on a background thread and buffered
+ * in a bounded queue, so that disk (or network) reads overlap with
+ * the processing of previous documents. The text of a document
+ * returned by {@link #documents()} is already read when
+ * {@link #readDocumentText(Document)} is invoked.
+ *
+ * @see TXTCorpus
+ */
+public class PrefetchingTXTCorpus extends TXTCorpus {
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger(0);
+
+	private int prefetchSize;
+	private ConcurrentMap<String, String> prefetchedTexts = new ConcurrentHashMap<>();
+
+	public PrefetchingTXTCorpus(Lang lang, Path rootDirectory, int prefetchSize) {
+		super(lang, rootDirectory);
+		Preconditions.checkArgument(prefetchSize > 0, "Prefetch size must be positive. Got: %s", prefetchSize);
+		this.prefetchSize = prefetchSize;
+	}
+
+	public int getPrefetchSize() {
+		return prefetchSize;
+	}
+
+	@Override
+	public Stream<Document> documents() {
+		BlockingQueue<Prefetched> queue = new ArrayBlockingQueue<>(prefetchSize);
+		Thread reader = new Thread(() -> {
+			try(Stream<Document> documents = walkDocuments()) {
+				Iterator<Document> it = documents.iterator();
+				while(it.hasNext()) {
+					Document doc = it.next();
+					queue.put(new Prefetched(doc, readText(doc), null));
+				}
+				queue.put(Prefetched.END);
+			} catch(InterruptedException e) {
+				// stream closed by consumer
+			} catch(RuntimeException e) {
+				try {
+					queue.put(new Prefetched(null, null, e));
+				} catch (InterruptedException e1) {
+					// stream closed by consumer
+				}
+			}
+		}, "corpus-reader-" + THREAD_COUNT.incrementAndGet());
+		reader.setDaemon(true);
+		reader.start();
+
+		Iterator<Document> iterator = new Iterator<Document>() {
+			private Prefetched next = null;
+
+			@Override
+			public boolean hasNext() {
+				if(next == null) {
+					try {
+						next = queue.take();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new TermSuiteException("Interrupted while reading corpus " + PrefetchingTXTCorpus.this, e);
+					}
+					if(next.error != null)
+						throw next.error;
+				}
+				return next != Prefetched.END;
+			}
+
+			@Override
+			public Document next() {
+				if(!hasNext())
+					throw new NoSuchElementException();
+				Document doc = next.document;
+				prefetchedTexts.put(doc.getUrl(), next.text);
+				next = null;
+				return doc;
+			}
+		};
+
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(reader::interrupt);
+	}
+
+	@Override
+	public String readDocumentText(Document doc) {
+		String text = prefetchedTexts.remove(doc.getUrl());
+		return text == null ? super.readDocumentText(doc) : text;
+	}
+
+	private String readText(Document doc) {
+		try {
+			byte[] bytes = Files.readAllBytes(Paths.get(doc.getUrl()));
+			return cleanRawText(new String(bytes, getEncoding()));
+		} catch (IOException e) {
+			throw new TermSuiteException(
+					"Could not read file content for document " + doc.getUrl(),
+					e);
+		}
+	}
+
+	private static class Prefetched {
+		private static final Prefetched END = new Prefetched(null, null, null);
+
+		private Document document;
+		private String text;
+		private RuntimeException error;
+
+		private Prefetched(Document document, String text, RuntimeException error) {
+			this.document = document;
+			this.text = text;
+			this.error = error;
+		}
+	}
+}
@@ -6,8 +6,12 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -24,6 +28,7 @@ import org.apache.uima.resource.ResourceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Preconditions;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 
@@ -34,6 +39,7 @@ import fr.univnantes.termsuite.framework.modules.PreprocessingModule;
 import fr.univnantes.termsuite.framework.modules.TermSuiteModule;
 import fr.univnantes.termsuite.framework.service.CorpusService;
 import fr.univnantes.termsuite.framework.service.ImporterService;
+import fr.univnantes.termsuite.framework.service.PreprocessingExecutor;
 import fr.univnantes.termsuite.framework.service.PreprocessorService;
 import fr.univnantes.termsuite.index.Terminology;
 import fr.univnantes.termsuite.model.CorpusMetadata;
@@ -43,6 +49,8 @@ import fr.univnantes.termsuite.model.Lang;
 import fr.univnantes.termsuite.model.OccurrenceStore;
 import fr.univnantes.termsuite.model.Tagger;
 import fr.univnantes.termsuite.types.SourceDocumentInformation;
+import fr.univnantes.termsuite.uima.readers.BinaryCasConstants;
+import fr.univnantes.termsuite.uima.readers.BinaryCasSerializer;
 import fr.univnantes.termsuite.uima.readers.JsonCasSerializer;
 import fr.univnantes.termsuite.uima.readers.TSVCasSerializer;
 import fr.univnantes.termsuite.utils.JCasUtils;
@@ -62,6 +70,8 @@ public class Preprocessor {
 	private Optional<Path> xmiPath = Optional.empty();
 	private Optional<Path> tsvPath = Optional.empty();
 	private Optional<Path> jsonPath = Optional.empty();
+	private Optional<Path> binaryPath = Optional.empty();
+	private boolean binaryWithText = true;
 
 	
 	private Path taggerPath;
@@ -69,6 +79,44 @@ public class Preprocessor {
 	private Optional<TermHistory> history = Optional.empty();
 	private Optional<PipelineListener> listener = Optional.empty();
 	private List<AnalysisEngineDescription> customAEs = new ArrayList<>();
+	private int nbThreads = 1;
+	private boolean columnarProperties = false;
+	
+	/**
+	 * Sets the number of threads running the preprocessing pipeline.
+	 * 
+	 * When greater than 1, the analysis engine is replicated on each 
+	 * thread, and CASes created from {@link TextualCorpus} documents are 
+	 * recycled through a bounded pool.
+	 * 
+	 * @param nbThreads
+	 * 			the number of preprocessing threads
+	 * @return
+	 * 		This preprocessor builder object
+	 * 
+	 * @see PreprocessingExecutor
+	 */
+	public Preprocessor setNbThreads(int nbThreads) {
+		Preconditions.checkArgument(nbThreads > 0, "Bad number of threads: %s", nbThreads);
+		this.nbThreads = nbThreads;
+		return this;
+	}
+	
+	/**
+	 * Stores the numeric and boolean properties of the extracted terms 
+	 * and relations in primitive columns instead of per-term maps.
+	 * 
+	 * @param columnarProperties
+	 * 			<code>true</code> to create a columnar terminology
+	 * @return
+	 * 		This preprocessor builder object
+	 * 
+	 * @see TermSuiteFactory#createColumnarTerminology(Lang, String)
+	 */
+	public Preprocessor setColumnarProperties(boolean columnarProperties) {
+		this.columnarProperties = columnarProperties;
+		return this;
+	}
 	
 	public Preprocessor setTaggerPath(Path taggerPath) {
 		this.taggerPath = taggerPath;
@@ -122,7 +170,9 @@ public class Preprocessor {
 
 	public IndexedCorpus toIndexedCorpus(TXTCorpus textCorpus, int maxSize, OccurrenceStore occurrenceStore) {
 		String name = asService(textCorpus.getLang()).generateTerminologyName(textCorpus);
-		Terminology termino = TermSuiteFactory.createTerminology(textCorpus.getLang(), name);
+		Terminology termino = columnarProperties ?
+				TermSuiteFactory.createColumnarTerminology(textCorpus.getLang(), name)
+				: TermSuiteFactory.createTerminology(textCorpus.getLang(), name);
 		
 		return  toIndexedCorpus(textCorpus, maxSize, TermSuiteFactory.createIndexedCorpus(termino, occurrenceStore));
 	}
@@ -130,6 +180,18 @@ public class Preprocessor {
 	public IndexedCorpus toIndexedCorpus(TextualCorpus textCorpus, int maxSize, IndexedCorpus indexedCorpus) {
 		Lang lang = textCorpus.getLang();
 
+		if(nbThreads > 1) {
+			PreprocessorService preprocService = asService(lang);
+			return toIndexedCorpus(
+					preprocService, 
+					maxSize, 
+					indexedCorpus, 
+					consumer -> new PreprocessingExecutor(preprocService, nbThreads).process(
+							textCorpus.documents(), 
+							(cas, doc) -> initCas(cas, textCorpus, doc, textCorpus.readDocumentText(doc)), 
+							consumer));
+		}
+		
 		return toIndexedCorpus(
 				lang, 
 				textCorpus.documents()
@@ -140,10 +202,9 @@ public class Preprocessor {
 	
 	public IndexedCorpus toIndexedCorpus(TextualCorpus textCorpus, int maxSize) {
 		return toIndexedCorpus(
-				textCorpus.getLang(),
-				textCorpus.documents()
-					.map(doc -> toCas(textCorpus, doc, textCorpus.readDocumentText(doc))),
-				maxSize
+				textCorpus,
+				maxSize,
+				TermSuiteFactory.createIndexedCorpus(textCorpus.getLang())
 			);
 	}
 	
@@ -151,17 +212,7 @@ public class Preprocessor {
 		JCas cas;
 		try {
 			cas = JCasFactory.createJCas();
-			cas.setDocumentLanguage(doc.getLang().getCode());
-			cas.setDocumentText(documentText);
-			SourceDocumentInformation sdi = JCasUtils.initJCasSDI(
-				cas, 
-				doc.getLang().getCode(), 
-				documentText, 
-				doc.getUrl(),
-				doc.getSize()
-				);
-			sdi.setCorpusSize(corpusSize);
-			sdi.setNbDocuments(nbDocuments);
+			initCas(cas, doc, documentText, nbDocuments, corpusSize);
 			return cas;
 		} catch (UIMAException e) {
 			throw new TermSuiteException(
@@ -169,9 +220,43 @@ public class Preprocessor {
 					e);
 		}
 	}
+
 	public static JCas toCas(TextualCorpus corpus, Document doc, String documentText) {
 		return toCas(doc, documentText, corpus.getNbDocuments(), corpus.getTotalSize());
 	}
+
+	/**
+	 * Sets the document text and the {@link SourceDocumentInformation} 
+	 * of a blank CAS.
+	 * 
+	 * @param cas
+	 * 			the blank CAS, e.g. a recycled one
+	 * @param doc
+	 * 			the document
+	 * @param documentText
+	 * 			the text of the document
+	 * @param nbDocuments
+	 * 			the number of documents in the corpus
+	 * @param corpusSize
+	 * 			the size of the corpus
+	 */
+	public static void initCas(JCas cas, Document doc, String documentText, int nbDocuments, long corpusSize) {
+		cas.setDocumentLanguage(doc.getLang().getCode());
+		cas.setDocumentText(documentText);
+		SourceDocumentInformation sdi = JCasUtils.initJCasSDI(
+			cas, 
+			doc.getLang().getCode(), 
+			documentText, 
+			doc.getUrl(),
+			doc.getSize()
+			);
+		sdi.setCorpusSize(corpusSize);
+		sdi.setNbDocuments(nbDocuments);
+	}
+
+	public static void initCas(JCas cas, TextualCorpus corpus, Document doc, String documentText) {
+		initCas(cas, doc, documentText, corpus.getNbDocuments(), corpus.getTotalSize());
+	}
 			
 	public IndexedCorpus toIndexedCorpus(
 			Lang lang, 
@@ -190,6 +275,27 @@ public class Preprocessor {
 			int maxSize,
 			IndexedCorpus indexedCorpus) {
 		PreprocessorService preprocService = asService(lang);
+		return toIndexedCorpus(
+				preprocService, 
+				maxSize, 
+				indexedCorpus, 
+				consumer -> {
+					if(nbThreads > 1)
+						new PreprocessingExecutor(preprocService, nbThreads).processCases(blankCasStream, consumer);
+					else
+						blankCasStream.map(preprocService::prepare).forEach(consumer);
+				});
+	}
+
+	/*
+	 * Runs the preprocessing, giving each prepared CAS to the importer, 
+	 * unless the indexed corpus can be loaded from cache.
+	 */
+	private IndexedCorpus toIndexedCorpus(
+			PreprocessorService preprocService,
+			int maxSize,
+			IndexedCorpus indexedCorpus,
+			Consumer<Consumer<JCas>> preprocessing) {
 		if(preprocessedCorpusCachePath.isPresent()) {
 			if(preprocessedCorpusCachePath.get().toFile().exists()) {
 				logger.info("Cached preprocessed terminology found at path {}", preprocessedCorpusCachePath.get());
@@ -204,18 +310,13 @@ public class Preprocessor {
 				logger.info("No cached terminology found");
 		}
 		
-		Stream<JCas> preparedStream = blankCasStream.map(preprocService::prepare);
-		
 		Injector injector = Guice.createInjector(new ImporterModule(indexedCorpus, maxSize));
 		ImporterService importer = injector.getInstance(ImporterService.class);
 
+		UnaryOperator<JCas> casExporter = casExporter(preprocService);
 		
-		preparedStream = configureCASExport(preprocService, preparedStream);
-		
-		
-//		
 		logger.info("Starting preprocessing pipeline");
-		preparedStream.forEach(importer::importCas);
+		preprocessing.accept(cas -> importer.importCas(casExporter.apply(cas)));
 		
 		if(preprocessedCorpusCachePath.isPresent()) {
 			logger.info("Saving preprocessed terminology to cache path {}", preprocessedCorpusCachePath.get());
@@ -229,19 +330,30 @@ public class Preprocessor {
 	}
 
 	private Stream<JCas> configureCASExport(PreprocessorService preprocService, Stream<JCas> preparedStream) {
-		if(xmiPath.isPresent())
-			preparedStream = preparedStream.map(cas -> preprocService.toXMICas(
-					cas, 
-					toCasFile(xmiPath.get(), cas, "xmi")));
-		if(tsvPath.isPresent())
-			preparedStream = preparedStream.map(cas -> preprocService.toTSVCas(
-					cas, 
-					toCasFile(tsvPath.get(), cas, "tsv")));
-		if(jsonPath.isPresent())
-			preparedStream = preparedStream.map(cas -> preprocService.toJSONCas(
-					cas, 
-					toCasFile(jsonPath.get(), cas, "json")));
-		return preparedStream;
+		return preparedStream.map(casExporter(preprocService));
+	}
+
+	private UnaryOperator<JCas> casExporter(PreprocessorService preprocService) {
+		return cas -> {
+			if(xmiPath.isPresent())
+				preprocService.toXMICas(
+						cas, 
+						toCasFile(xmiPath.get(), cas, "xmi"));
+			if(tsvPath.isPresent())
+				preprocService.toTSVCas(
+						cas, 
+						toCasFile(tsvPath.get(), cas, "tsv"));
+			if(jsonPath.isPresent())
+				preprocService.toJSONCas(
+						cas, 
+						toCasFile(jsonPath.get(), cas, "json"));
+			if(binaryPath.isPresent())
+				preprocService.toBinaryCas(
+						cas, 
+						toCasFile(binaryPath.get(), cas, BinaryCasConstants.BINARY_EXTENSION),
+						binaryWithText);
+			return cas;
+		};
 	}
 	
 	private Path toCasFile(Path parentDestination, JCas cas, String newExtension) {
@@ -256,7 +368,16 @@ public class Preprocessor {
 	}
 	
 	public void run(TXTCorpus textCorpus) {
-		asStream(textCorpus).count();
+		if(nbThreads > 1) {
+			PreprocessorService preprocService = asService(textCorpus);
+			preprocService.checkLang(textCorpus);
+			UnaryOperator<JCas> casExporter = casExporter(preprocService);
+			new PreprocessingExecutor(preprocService, nbThreads).process(
+					textCorpus.documents(), 
+					(cas, doc) -> initCas(cas, textCorpus, doc, textCorpus.readDocumentText(doc)), 
+					casExporter::apply);
+		} else
+			asStream(textCorpus).count();
 	}
 
 	/**
@@ -328,8 +449,11 @@ public class Preprocessor {
 			ResourceManager resMgr = UIMAFramework.newDefaultResourceManager();
 	    	AnalysisEngineDescription aaeDesc;
 			aaeDesc = createEngineDescription(builder.create());
-			// Instantiate AAE
-			aae = UIMAFramework.produceAnalysisEngine(aaeDesc, resMgr, null);
+			// Instantiate AAE, replicated once per preprocessing thread
+			Map<String, Object> aaeParams = new HashMap<>();
+			if(nbThreads > 1)
+				aaeParams.put(AnalysisEngine.PARAM_NUM_SIMULTANEOUS_REQUESTS, nbThreads);
+			aae = UIMAFramework.produceAnalysisEngine(aaeDesc, resMgr, aaeParams);
 		} catch (ResourceInitializationException e) {
 			throw new TermSuiteException(e);
 		}
@@ -386,4 +510,37 @@ public class Preprocessor {
 		this.jsonPath = Optional.of(jsonPath);
 		return this;
 	}
+
+	/**
+	 * Activates export of CAS files to the compact binary annotation format.
+	 * 
+	 * @param binaryPath
+	 * 			the path to directory where to write annotation files
+	 * @return
+	 * 		This preprocessor builder object
+	 * 
+	 * @see BinaryCasSerializer
+	 */
+	public Preprocessor exportAnnotationsToBinary(Path binaryPath) {
+		return exportAnnotationsToBinary(binaryPath, true);
+	}
+
+	/**
+	 * Activates export of CAS files to the compact binary annotation format.
+	 * 
+	 * @param binaryPath
+	 * 			the path to directory where to write annotation files
+	 * @param withText
+	 * 			<code>false</code> to keep only the covered text of words 
+	 * 			instead of the full document text
+	 * @return
+	 * 		This preprocessor builder object
+	 * 
+	 * @see BinaryCasSerializer
+	 */
+	public Preprocessor exportAnnotationsToBinary(Path binaryPath, boolean withText) {
+		this.binaryPath = Optional.of(binaryPath);
+		this.binaryWithText = withText;
+		return this;
+	}
 }
@@ -1,6 +1,7 @@
 package fr.univnantes.termsuite.api;
 
 import java.io.FileInputStream;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.stream.Stream;
 
@@ -11,6 +12,8 @@ import org.apache.uima.jcas.JCas;
 
 import fr.univnantes.termsuite.model.FileSystemCorpus;
 import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.uima.readers.BinaryCasConstants;
+import fr.univnantes.termsuite.uima.readers.BinaryCasDeserializer;
 import fr.univnantes.termsuite.uima.readers.JsonCasDeserializer;
 
 public class XMICorpus extends FileSystemCorpus implements PreprocessedCorpus {
@@ -19,6 +22,8 @@ public class XMICorpus extends FileSystemCorpus implements PreprocessedCorpus {
 	public static final String XMI_EXTENSION = "xmi";
 	public static final String JSON_PATTERN = "**/*.json";
 	public static final String JSON_EXTENSION = "json";
+	public static final String BINARY_PATTERN = "**/*." + BinaryCasConstants.BINARY_EXTENSION;
+	public static final String BINARY_EXTENSION = BinaryCasConstants.BINARY_EXTENSION;
 
 	public XMICorpus(Lang lang, Path rootDirectory, String pattern, String extension) {
 		super(lang, rootDirectory, pattern, extension);
@@ -37,8 +42,12 @@ public class XMICorpus extends FileSystemCorpus implements PreprocessedCorpus {
 							XmiCasDeserializer.deserialize(new FileInputStream(path.toFile()), cas);
 						} else if(getExtension().equals(XMICorpus.JSON_EXTENSION)) {
 							JsonCasDeserializer.deserialize(new FileInputStream(path.toFile()), cas);
+						} else if(getExtension().equals(XMICorpus.BINARY_EXTENSION)) {
+							try(InputStream is = new FileInputStream(path.toFile())) {
+								BinaryCasDeserializer.deserialize(is, jCas);
+							}
 						} else
-							throw new IllegalArgumentException("Expected a XMI or JSON " + XMICorpus.class.getSimpleName());
+							throw new IllegalArgumentException("Expected a XMI, JSON or binary " + XMICorpus.class.getSimpleName());
 						return jCas;
 					} catch (Exception e) {
 						throw new TermSuiteException(e);
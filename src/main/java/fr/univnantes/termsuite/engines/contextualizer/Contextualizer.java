@@ -23,8 +23,10 @@ package fr.univnantes.termsuite.engines.contextualizer;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 
@@ -82,13 +84,19 @@ public class Contextualizer extends SimpleEngine {
 			t.dropContext();
 		
 		
-		// 1- index all occurrences in source documents
-		logger.debug("1 - Create occurrence index");
-		computeDocumentViews();
-		
-		
-		// 2- Generate context vectors
-		long total = setContexts();
+		long total;
+		if(options.isParallel()) {
+			// 1,2- count co-occurrences of all documents in parallel
+			total = setContextsInParallel();
+		} else {
+			// 1- index all occurrences in source documents
+			logger.debug("1 - Create occurrence index");
+			computeDocumentViews();
+			
+			
+			// 2- Generate context vectors
+			total = setContexts();
+		}
 		
 		
 		// 3- Normalize context vectors
@@ -122,6 +130,38 @@ public class Contextualizer extends SimpleEngine {
 		return total;
 	}
 
+	/**
+	 * Computes the context vectors of all single-word terms without 
+	 * building any {@link DocumentView}, by counting co-occurrences of 
+	 * all documents in parallel with a {@link CooccurrenceCounter}.
+	 * 
+	 * Gives the same context vectors as {@link #setContexts()}.
+	 * 
+	 * @return
+	 * 			the number of context vectors computed
+	 */
+	public long setContextsInParallel() {
+		List<Term> swts = terminology.terms()
+				.filter(TermService::isSingleWord)
+				.map(TermService::getTerm)
+				.collect(Collectors.toList());
+		logger.debug("1,2 - Count co-occurrences in parallel. (number of contexts to compute: {})", 
+				swts.size());
+		CooccurrenceCounter counter = new CooccurrenceCounter(swts, options.getScope());
+		SparseIntVector[] counts = counter.count(occurrenceStore);
+		int cooccFrequencyThreshhold = options.getMinimumCooccFrequencyThreshold();
+		IntStream.range(0, counter.size()).parallel().forEach(id -> {
+			ContextVector vector = new ContextVector(counter.getTerm(id));
+			if(counts[id] != null)
+				counts[id].forEach((coTermId, nbCooccs) -> {
+					if(nbCooccs >= cooccFrequencyThreshhold)
+						vector.addEntry(counter.getTerm(coTermId), nbCooccs, 0d);
+				});
+			counter.getTerm(id).setContext(vector);
+		});
+		return swts.size();
+	}
+
 	public void computeDocumentViews() {
 		documentViews = new HashMap<>();
 		for(Document document:occurrenceStore.getDocuments()) 
@@ -17,6 +17,9 @@ public class ContextualizerOptions   extends JsonConfigObject {
 	@JsonProperty("association-rate")
 	private Class<? extends AssociationRate> associationRate = LogLikelihood.class;
 
+	@JsonProperty("parallel")
+	private boolean parallel = true;
+
 	
 	@Override
 	public boolean equals(Object obj) {
@@ -26,6 +29,7 @@ public class ContextualizerOptions   extends JsonConfigObject {
 					&& scope == o.scope
 					&& minimumCooccFrequencyThreshold == o.minimumCooccFrequencyThreshold
 					&& associationRate.equals(o.associationRate)
+					&& parallel == o.parallel
 					;
 		} else return false;
 	}
@@ -59,6 +63,15 @@ public class ContextualizerOptions   extends JsonConfigObject {
 		return this;
 	}
 	
+	public boolean isParallel() {
+		return parallel;
+	}
+	
+	public ContextualizerOptions setParallel(boolean parallel) {
+		this.parallel = parallel;
+		return this;
+	}
+	
 	public void setEnabled(boolean enabled) {
 		this.enabled = enabled;
 	}
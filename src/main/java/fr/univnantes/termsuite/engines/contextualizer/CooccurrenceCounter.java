@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.engines.contextualizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermOccurrence;
+
+/**
+ * 
+ * Counts co-occurrences of single-word terms in a window of 
+ * <code>radius</code> single-word term occurrences on each side
+ * of every occurrence.
+ * 
+ * Terms are given dense <code>int</code> ids, each document is reduced to 
+ * sorted primitive arrays of occurrences, and documents are processed 
+ * in parallel, each fork-join task accumulating counts into its own 
+ * {@link SparseIntVector}s before they are merged.
+ * 
+ * Windows are the same as the ones iterated by {@link DocumentView}: 
+ * occurrences overlapping the center occurrence are skipped and the
+ * center term is never counted as its own co-term.
+ * 
+ * @see Contextualizer
+ */
+public class CooccurrenceCounter {
+	
+	private final List<Term> terms;
+	private final int radius;
+	
+	public CooccurrenceCounter(List<Term> singleWordTerms, int radius) {
+		Preconditions.checkArgument(radius >= 0, "Bad radius: %s", radius);
+		this.terms = ImmutableList.copyOf(singleWordTerms);
+		this.radius = radius;
+	}
+	
+	/**
+	 * @param id
+	 * 			a dense term id
+	 * @return
+	 * 			the term having this id, i.e. its position in the list 
+	 * 			of terms given at construction time
+	 */
+	public Term getTerm(int id) {
+		return terms.get(id);
+	}
+	
+	public int size() {
+		return terms.size();
+	}
+	
+	/**
+	 * Counts co-occurrences of all terms in all documents.
+	 * 
+	 * @param occurrenceStore
+	 * 			the store to read term occurrences from
+	 * @return
+	 * 			the co-occurrence counts of each term, indexed by term id, 
+	 * 			<code>null</code> when a term has no co-term.
+	 */
+	public SparseIntVector[] count(OccurrenceStore occurrenceStore) {
+		return indexDocuments(occurrenceStore)
+			.values()
+			.parallelStream()
+			.collect(
+				() -> new SparseIntVector[terms.size()],
+				this::countWindows,
+				CooccurrenceCounter::merge);
+	}
+
+	private Map<String, DocumentOccurrences> indexDocuments(OccurrenceStore occurrenceStore) {
+		ConcurrentMap<String, DocumentOccurrences> documents = Maps.newConcurrentMap();
+		IntStream.range(0, terms.size()).parallel().forEach(id -> {
+			for(TermOccurrence occ:occurrenceStore.getOccurrences(terms.get(id)))
+				documents.computeIfAbsent(occ.getSourceDocument().getUrl(), url -> new DocumentOccurrences())
+					.add(occ.getBegin(), occ.getEnd(), id);
+		});
+		documents.values().parallelStream().forEach(DocumentOccurrences::sort);
+		return documents;
+	}
+	
+	private void countWindows(SparseIntVector[] counts, DocumentOccurrences doc) {
+		int[] begins = doc.begins;
+		int[] ends = doc.ends;
+		int[] ids = doc.ids;
+		for(int p = 0; p < doc.size; p++) {
+			int center = ids[p];
+			SparseIntVector vector = counts[center];
+			if(vector == null)
+				vector = counts[center] = new SparseIntVector();
+			int kept = 0;
+			for(int j = p - 1; j >= 0 && kept < radius; j--) {
+				if(ends[j] > begins[p])
+					continue;
+				kept++;
+				if(ids[j] != center)
+					vector.increment(ids[j]);
+			}
+			kept = 0;
+			for(int j = p + 1; j < doc.size && kept < radius; j++) {
+				if(begins[j] < ends[p])
+					continue;
+				kept++;
+				if(ids[j] != center)
+					vector.increment(ids[j]);
+			}
+		}
+	}
+
+	private static void merge(SparseIntVector[] counts, SparseIntVector[] other) {
+		for(int id = 0; id < counts.length; id++) {
+			if(other[id] == null)
+				continue;
+			else if(counts[id] == null)
+				counts[id] = other[id];
+			else if(counts[id].size() >= other[id].size())
+				counts[id].addAll(other[id]);
+			else {
+				other[id].addAll(counts[id]);
+				counts[id] = other[id];
+			}
+		}
+	}
+
+	/*
+	 * The single-word term occurrences of a document, as parallel primitive 
+	 * arrays sorted by begin offset.
+	 * 
+	 * There is no need to sort on end offsets, since two occurrences 
+	 * sharing a begin offset always overlap and never appear in 
+	 * each other's windows.
+	 */
+	private static class DocumentOccurrences {
+		private int[] begins = new int[16];
+		private int[] ends = new int[16];
+		private int[] ids = new int[16];
+		private int size = 0;
+		
+		private synchronized void add(int begin, int end, int id) {
+			if(size == begins.length) {
+				begins = Arrays.copyOf(begins, size << 1);
+				ends = Arrays.copyOf(ends, size << 1);
+				ids = Arrays.copyOf(ids, size << 1);
+			}
+			begins[size] = begin;
+			ends[size] = end;
+			ids[size] = id;
+			size++;
+		}
+
+		private synchronized void sort() {
+			long[] keys = new long[size];
+			for(int i = 0; i < size; i++)
+				keys[i] = ((long)begins[i] << 32) | i;
+			Arrays.sort(keys);
+			int[] sortedBegins = new int[size];
+			int[] sortedEnds = new int[size];
+			int[] sortedIds = new int[size];
+			for(int i = 0; i < size; i++) {
+				int index = (int)keys[i];
+				sortedBegins[i] = begins[index];
+				sortedEnds[i] = ends[index];
+				sortedIds[i] = ids[index];
+			}
+			this.begins = sortedBegins;
+			this.ends = sortedEnds;
+			this.ids = sortedIds;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.engines.contextualizer;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * 
+ * A sparse vector of <code>int</code> counts indexed by non-negative 
+ * <code>int</code> keys, backed by an open-addressing hash table of 
+ * primitive arrays so that incrementing an entry never allocates.
+ * 
+ * This class is not thread-safe.
+ *
+ */
+public class SparseIntVector {
+	private static final int EMPTY = -1;
+	private static final float LOAD_FACTOR = 0.6f;
+	
+	@FunctionalInterface
+	public interface EntryConsumer {
+		void accept(int key, int value);
+	}
+	
+	private int[] keys;
+	private int[] values;
+	private int size = 0;
+	private int threshold;
+	
+	public SparseIntVector() {
+		this(8);
+	}
+
+	public SparseIntVector(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int)(expectedSize / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.values = new int[capacity];
+		this.threshold = (int)(capacity * LOAD_FACTOR);
+	}
+	
+	private static int slot(int key, int mask) {
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+	
+	public void increment(int key) {
+		add(key, 1);
+	}
+	
+	public void add(int key, int delta) {
+		Preconditions.checkArgument(key >= 0, "Bad key: %s. Keys must be positive", key);
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+		while(keys[i] != EMPTY) {
+			if(keys[i] == key) {
+				values[i] += delta;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = delta;
+		if(++size > threshold)
+			rehash();
+	}
+
+	private void rehash() {
+		int[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		allocate(oldKeys.length << 1);
+		int mask = keys.length - 1;
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] != EMPTY) {
+				int i = slot(oldKeys[j], mask);
+				while(keys[i] != EMPTY)
+					i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	public int get(int key) {
+		int mask = keys.length - 1;
+		int i = slot(key, mask);
+		while(keys[i] != EMPTY) {
+			if(keys[i] == key)
+				return values[i];
+			i = (i + 1) & mask;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Adds all counts of another vector to this one.
+	 * 
+	 * @param other
+	 * 			the vector to merge into this one
+	 */
+	public void addAll(SparseIntVector other) {
+		other.forEach(this::add);
+	}
+	
+	public void forEach(EntryConsumer consumer) {
+		for(int i = 0; i < keys.length; i++)
+			if(keys[i] != EMPTY)
+				consumer.accept(keys[i], values[i]);
+	}
+
+	public int size() {
+		return size;
+	}
+}
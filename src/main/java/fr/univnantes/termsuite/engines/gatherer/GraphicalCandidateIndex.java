@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.engines.gatherer;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.metrics.BandedLevenshtein;
+import fr.univnantes.termsuite.metrics.FastDiacriticInsensitiveLevenshtein;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.utils.StringUtils;
+
+/**
+ * 
+ * Finds the pairs of terms of a term class whose lemmas are graphically 
+ * similar, i.e. which {@link FastDiacriticInsensitiveLevenshtein} 
+ * normalized similarity is greater than or equal to a threshold.
+ * 
+ * Lemmas are normalized once. Candidate pairs are generated from an 
+ * inverted index of lemma bigrams and filtered on length and on the 
+ * number of shared bigrams (q-gram lemma) before the distance is verified 
+ * with a {@link BandedLevenshtein}. Pairs too short for the bigram filter 
+ * to be sound are compared exhaustively.
+ * 
+ * Not thread-safe.
+ *
+ */
+public class GraphicalCandidateIndex {
+	private static final int Q = 2;
+	
+	@FunctionalInterface
+	public static interface SimilarPairConsumer {
+		public void accept(Term t1, Term t2, double similarity);
+	}
+	
+	private double threshold;
+	private Term[] terms;
+	private String[] normalized;
+	private int[] lengths;
+	private long[][] grams;
+	private BandedLevenshtein levenshtein = new BandedLevenshtein();
+	private long nbComparisons = 0;
+	
+	public GraphicalCandidateIndex(List<Term> termClass, double threshold) {
+		Preconditions.checkArgument(threshold > 0 && threshold <= 1, 
+				"Similarity threshold must be in ]0,1]. Got: %s", threshold);
+		this.threshold = threshold;
+		
+		int size = termClass.size();
+		String[] lemmas = new String[size];
+		String[] norms = new String[size];
+		for(int i = 0; i < size; i++) {
+			lemmas[i] = termClass.get(i).getLemma();
+			norms[i] = StringUtils.replaceAccents(lemmas[i]).toLowerCase();
+		}
+
+		/*
+		 * Sorting by normalized length ensures that when a term is 
+		 * processed, all terms already indexed are not longer.
+		 */
+		Integer[] order = new Integer[size];
+		for(int i = 0; i < size; i++)
+			order[i] = i;
+		Arrays.sort(order, Comparator.comparingInt(i -> norms[i].length()));
+		
+		this.terms = new Term[size];
+		this.normalized = new String[size];
+		this.lengths = new int[size];
+		this.grams = new long[size][];
+		for(int i = 0; i < size; i++) {
+			terms[i] = termClass.get(order[i]);
+			normalized[i] = norms[order[i]];
+			lengths[i] = lemmas[order[i]].length();
+			grams[i] = grams(normalized[i]);
+		}
+	}
+	
+	/*
+	 * Bigrams are numbered by occurrence, so that intersecting two 
+	 * gram sets counts common bigrams with their multiplicity.
+	 */
+	private static long[] grams(String s) {
+		if(s.length() < Q)
+			return new long[0];
+		long[] grams = new long[s.length() - Q + 1];
+		for(int i = 0; i < grams.length; i++) {
+			long gram = ((long)s.charAt(i) << 16) | s.charAt(i + 1);
+			int occurrence = 0;
+			for(int j = 0; j < i; j++)
+				if(grams[j] >>> 16 == gram)
+					occurrence++;
+			grams[i] = (gram << 16) | occurrence;
+		}
+		return grams;
+	}
+	
+	private int maxDistance(int i, int j) {
+		int length = Math.max(lengths[i], lengths[j]);
+		return (int)Math.ceil((1 - threshold) * length);
+	}
+	
+	/**
+	 * Invokes the consumer once for each pair of similar terms.
+	 * 
+	 * @param consumer
+	 * 			the pair consumer
+	 */
+	public void forEachSimilarPair(SimilarPairConsumer consumer) {
+		int maxLength = 0;
+		for(int length:lengths)
+			maxLength = Math.max(maxLength, length);
+		int globalMaxDistance = (int)Math.ceil((1 - threshold) * maxLength);
+		
+		Map<Long, Postings> postings = new HashMap<>();
+		int[] sharedGrams = new int[terms.length];
+		int[] touched = new int[terms.length];
+		
+		for(int i = 0; i < terms.length; i++) {
+			int n = normalized[i].length();
+			if(n - Q + 1 - Q * globalMaxDistance > 0) {
+				/*
+				 * Any similar term already indexed shares at least one 
+				 * bigram with term i.
+				 */
+				int nbTouched = 0;
+				for(long gram:grams[i]) {
+					Postings list = postings.get(gram);
+					if(list == null)
+						continue;
+					for(int k = 0; k < list.size; k++) {
+						int j = list.ids[k];
+						if(sharedGrams[j]++ == 0)
+							touched[nbTouched++] = j;
+					}
+				}
+				for(int k = 0; k < nbTouched; k++) {
+					int j = touched[k];
+					verify(j, i, sharedGrams[j], consumer);
+					sharedGrams[j] = 0;
+				}
+			} else {
+				for(int j = 0; j < i; j++)
+					verify(j, i, -1, consumer);
+			}
+			for(long gram:grams[i])
+				postings.computeIfAbsent(gram, g -> new Postings()).add(i);
+		}
+	}
+
+	/*
+	 * nbSharedGrams is -1 when unknown
+	 */
+	private void verify(int j, int i, int nbSharedGrams, SimilarPairConsumer consumer) {
+		int maxDistance = maxDistance(i, j);
+		int n = normalized[i].length();
+		if(n - normalized[j].length() > maxDistance)
+			return;
+		if(nbSharedGrams >= 0 && nbSharedGrams < n - Q + 1 - Q * maxDistance)
+			return;
+		nbComparisons++;
+		int distance = levenshtein.compute(normalized[j], normalized[i], maxDistance);
+		if(distance <= maxDistance) {
+			double similarity = 1.0 - ((double) distance / (double) Math.max(lengths[i], lengths[j]));
+			if(similarity >= threshold)
+				consumer.accept(terms[j], terms[i], similarity);
+		}
+	}
+	
+	/**
+	 * @return
+	 * 		the number of edit distances computed so far
+	 */
+	public long getNbComparisons() {
+		return nbComparisons;
+	}
+	
+	/*
+	 * The ids of the terms having a given bigram
+	 */
+	private static class Postings {
+		private int[] ids = new int[4];
+		private int size = 0;
+		
+		private void add(int id) {
+			if(size == ids.length)
+				ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = id;
+		}
+	}
+}
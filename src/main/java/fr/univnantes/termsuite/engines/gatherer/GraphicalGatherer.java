@@ -77,26 +77,17 @@ public class GraphicalGatherer extends SimpleEngine {
 	
 	protected void gather(Collection<Term> termClass, String clsName, AtomicLong comparisonCounter) {
 		GraphicalDirection ordering = new GraphicalDirection();
-		List<Term> terms = termClass.getClass().isAssignableFrom(List.class) ? 
+		List<Term> terms = termClass instanceof List ? 
 				(List<Term>) termClass
 					: Lists.newArrayList(termClass);
 	
-		Term t1, t2;
-		double dist;
-		for(int i=0; i<terms.size();i++) {
-			t1 = terms.get(i);
-			for(int j=i+1; j<terms.size();j++) {
-				comparisonCounter.incrementAndGet();
-				t2 = terms.get(j);
-				dist = distance.computeNormalized(t1.getLemma(), t2.getLemma(), this.options.getGraphicalSimilarityThreshold());
-				if(dist >= this.options.getGraphicalSimilarityThreshold()) {
-					List<Term> pair = Lists.newArrayList(t1, t2);
-					Collections.sort(pair, ordering);
-					createGraphicalRelation(pair.get(0), pair.get(1), dist);
-					
-				}
-			}
-		}
+		GraphicalCandidateIndex index = new GraphicalCandidateIndex(terms, this.options.getGraphicalSimilarityThreshold());
+		index.forEachSimilarPair((t1, t2, similarity) -> {
+			List<Term> pair = Lists.newArrayList(t1, t2);
+			Collections.sort(pair, ordering);
+			createGraphicalRelation(pair.get(0), pair.get(1), similarity);
+		});
+		comparisonCounter.addAndGet(index.getNbComparisons());
 	}
 	
 	protected Relation createGraphicalRelation(Term from, Term to, Double similarity) {
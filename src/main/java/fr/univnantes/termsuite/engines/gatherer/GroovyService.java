@@ -1,6 +1,7 @@
 package fr.univnantes.termsuite.engines.gatherer;
 
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import com.google.common.collect.Maps;
 
 import fr.univnantes.termsuite.api.TermSuiteException;
+import fr.univnantes.termsuite.engines.gatherer.VariantRuleCompiler.CompiledRule;
 import fr.univnantes.termsuite.engines.splitter.CompoundUtils;
 import fr.univnantes.termsuite.framework.InjectLogger;
 import fr.univnantes.termsuite.model.Component;
@@ -32,17 +34,25 @@ public class GroovyService {
 	private ConcurrentMap<Term, GroovyTerm> groovyTerms = Maps.newConcurrentMap();
 	private ConcurrentMap<String, GroovyComponent> groovyComponents = Maps.newConcurrentMap();
 	private ConcurrentMap<VariantRule, GroovyObject> groovyRules = Maps.newConcurrentMap();
+	private ConcurrentMap<VariantRule, Optional<CompiledRule>> compiledRules = Maps.newConcurrentMap();
 	
 	@Inject
 	private GroovyHelper groovyHelper;
 	
 	public GroovyTerm asGroovyTerm(Term term) {
-		if(!this.groovyTerms.containsKey(term))
-			this.groovyTerms.put(term, new GroovyTerm(term, this));
-		return this.groovyTerms.get(term);
+		return this.groovyTerms.computeIfAbsent(term, t -> new GroovyTerm(t, this));
 	}
 	
-	private GroovyObject asGroovyRule(VariantRule rule) {
+	private Optional<CompiledRule> asCompiledRule(VariantRule rule) {
+		return this.compiledRules.computeIfAbsent(rule, r -> {
+			Optional<CompiledRule> compiled = VariantRuleCompiler.compile(r.getExpression(), groovyHelper);
+			if(!compiled.isPresent())
+				logger.debug("Variant rule {} cannot be compiled, falling back to groovy: {}", r.getName(), r.getExpression());
+			return compiled;
+		});
+	}
+	
+	private synchronized GroovyObject asGroovyRule(VariantRule rule) {
 		if(!this.groovyRules.containsKey(rule)) {
 			try {
 				String script = String.format(""
@@ -75,23 +85,18 @@ public class GroovyService {
 	public GroovyComponent asGroovyComponent(Word word, int componentIndex) {
 		String key = String.format(COMPONENT_KEY_FORMAT, word.getLemma(), componentIndex);
 		
-		if(!this.groovyComponents.containsKey(key)) {
+		return this.groovyComponents.computeIfAbsent(key, k -> {
 			Set<String> candidateStrings = new HashSet<>();
 			for(Component comp:CompoundUtils.getPossibleComponentsAt(word, componentIndex)) {
 				candidateStrings.add(comp.getLemma());
 				candidateStrings.add(comp.getSubstring());
 			}
-			this.groovyComponents.put(
-					key, 
-					new GroovyComponent(candidateStrings));
-		}
-		return this.groovyComponents.get(key);
+			return new GroovyComponent(candidateStrings);
+		});
 	}
 	
 	public GroovyWord asGroovyWord(TermWord termWord) {
-		if(!this.groovyWords.containsKey(termWord))
-			this.groovyWords.put(termWord, new GroovyWord(termWord, this));
-		return groovyWords.get(termWord);
+		return this.groovyWords.computeIfAbsent(termWord, w -> new GroovyWord(w, this));
 	}
 	
 	public void clear() {
@@ -103,6 +108,14 @@ public class GroovyService {
 	public boolean matchesRule(VariantRule rule, Term source, Term target) {
 		GroovyTerm s = asGroovyTerm(source);
 		GroovyTerm t = asGroovyTerm(target);
+		Optional<CompiledRule> compiled = asCompiledRule(rule);
+		if(compiled.isPresent()) {
+			try {
+				return compiled.get().matches(s, t);
+			} catch(IndexOutOfBoundsException e) {
+				return false;
+			}
+		}
 		try {
 			boolean matches = (boolean) asGroovyRule(rule).invokeMethod(
 				GROOVY_MATCH_METHOD_NAME, 
@@ -23,13 +23,17 @@ package fr.univnantes.termsuite.engines.gatherer;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
 
 import fr.univnantes.termsuite.framework.service.TermService;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermWord;
 
 /**
  * 
@@ -43,6 +47,8 @@ public class VariantRule {
 
 	protected String name;
 	protected String expression;
+	private int[] sourceLemmaIndices = new int[0];
+	private int[] targetLemmaIndices = new int[0];
 
 	protected boolean sourceCompound = false;
 	protected boolean targetCompound = false;
@@ -144,6 +150,58 @@ public class VariantRule {
 
 	public void setExpression(String expression) {
 		this.expression = expression;
+		List<int[]> equalities = VariantRuleCompiler.getLemmaEqualities(expression);
+		this.sourceLemmaIndices = equalities.stream().mapToInt(eq -> eq[0]).toArray();
+		this.targetLemmaIndices = equalities.stream().mapToInt(eq -> eq[1]).toArray();
+	}
+	
+	/**
+	 * @return
+	 * 		<code>true</code> if the rule requires some source words to have the same 
+	 * 		lemmas as some target words, i.e. if source and target candidates 
+	 * 		can be joined on {@link #getSourceJoinKey(Term)} and {@link #getTargetJoinKey(Term)}.
+	 */
+	public boolean isJoinable() {
+		return sourceLemmaIndices.length > 0;
+	}
+
+	/**
+	 * The lemmas of the source words that must equal the lemmas
+	 * of the target words returned by {@link #getTargetJoinKey(Term)}.
+	 * 
+	 * @param source
+	 * 			the candidate source term
+	 * @return
+	 * 			the list of lemmas, or <code>null</code> if the source 
+	 * 			is too short to ever match the rule
+	 */
+	public List<String> getSourceJoinKey(Term source) {
+		return getJoinKey(source, sourceLemmaIndices);
+	}
+
+	/**
+	 * The lemmas of the target words that must equal the lemmas
+	 * of the source words returned by {@link #getSourceJoinKey(Term)}.
+	 * 
+	 * @param target
+	 * 			the candidate target term
+	 * @return
+	 * 			the list of lemmas, or <code>null</code> if the target 
+	 * 			is too short to ever match the rule
+	 */
+	public List<String> getTargetJoinKey(Term target) {
+		return getJoinKey(target, targetLemmaIndices);
+	}
+
+	private static List<String> getJoinKey(Term term, int[] wordIndices) {
+		List<TermWord> words = term.getWords();
+		ImmutableList.Builder<String> key = ImmutableList.builder();
+		for(int index:wordIndices) {
+			if(index >= words.size() || words.get(index).getWord().getLemma() == null)
+				return null;
+			key.add(words.get(index).getWord().getLemma());
+		}
+		return key.build();
 	}
 	
 	public boolean isSourceAcceptable(TermService source) {
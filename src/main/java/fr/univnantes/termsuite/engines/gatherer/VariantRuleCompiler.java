@@ -0,0 +1,436 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.engines.gatherer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * 
+ * Compiles the groovy expression of a {@link VariantRule} into a tree of 
+ * plain java predicates, so that rules can be evaluated on each 
+ * source/target pair without groovy dynamic dispatch.
+ * 
+ * Only the subset of the groovy syntax used by variant rules is supported:
+ * <code>s</code> and <code>t</code> accessors (<code>s[0]</code>, 
+ * <code>s[0][1]</code>, <code>.lemma</code>, <code>.stem</code>, 
+ * <code>.compound</code>, <code>.components.size()</code>, ...), 
+ * <code>==</code>, <code>!=</code>, <code>&&</code>, <code>||</code>, 
+ * <code>!</code>, string and integer literals and the helper functions
+ * <code>prefix</code>, <code>synonym</code> and <code>deriv</code>. 
+ * 
+ * Any other expression is rejected and must be evaluated by groovy.
+ * 
+ * @see GroovyService#matchesRule(VariantRule, fr.univnantes.termsuite.model.Term, fr.univnantes.termsuite.model.Term)
+ *
+ */
+public class VariantRuleCompiler {
+
+	@FunctionalInterface
+	public static interface CompiledRule {
+		/**
+		 * Evaluates the rule. Like the groovy rule, it throws an 
+		 * {@link IndexOutOfBoundsException} when the expression 
+		 * refers to a word or a component that does not exist.
+		 */
+		public boolean matches(GroovyTerm s, GroovyTerm t);
+	}
+
+	private static enum Type {TERM, WORD, COMPONENT, WORD_LIST, COMPONENT_LIST, STRING, BOOLEAN, INT}
+	
+	private static class Value {
+		private Type type;
+		private Function<GroovyTerm[], Object> getter;
+		
+		/*
+		 * When the value is s, t, s[i], t[i], s[i].lemma or t[i].lemma,
+		 * the term (0 for s, 1 for t) and the word index it refers to.
+		 */
+		private int side = -1;
+		private int wordIndex = -1;
+		
+		/*
+		 * The s[i] == t[j] equalities that must hold for a boolean value 
+		 * to be true.
+		 */
+		private List<int[]> lemmaEqualities = Collections.emptyList();
+		
+		private Value(Type type, Function<GroovyTerm[], Object> getter) {
+			this.type = type;
+			this.getter = getter;
+		}
+		
+		private boolean isLemmaOfWord() {
+			return wordIndex != -1;
+		}
+	}
+
+	private static class UnsupportedExpressionException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private UnsupportedExpressionException(String message) {
+			super(message);
+		}
+	}
+
+	private GroovyHelper helper;
+	private String expression;
+	private int pos;
+	
+	private VariantRuleCompiler(String expression, GroovyHelper helper) {
+		this.expression = expression;
+		this.helper = helper;
+	}
+	
+	/**
+	 * Compiles a variant rule expression.
+	 * 
+	 * @param expression
+	 * 			the groovy expression of the rule
+	 * @param helper
+	 * 			the helper that is given to <code>prefix</code>, 
+	 * 			<code>synonym</code> and <code>deriv</code> functions.
+	 * @return
+	 * 			the compiled rule, or {@link Optional#empty()} if the 
+	 * 			expression is not supported by the compiler.
+	 */
+	public static Optional<CompiledRule> compile(String expression, GroovyHelper helper) {
+		try {
+			Function<GroovyTerm[], Object> getter = new VariantRuleCompiler(expression, helper).parse().getter;
+			return Optional.of((s, t) -> (Boolean)getter.apply(new GroovyTerm[]{s, t}));
+		} catch(UnsupportedExpressionException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Extracts the word lemma equalities that any source/target pair 
+	 * must satisfy to match a variant rule, i.e. the <code>s[i]==t[j]</code> 
+	 * comparisons of the top-level conjunction of the expression.
+	 * 
+	 * @param expression
+	 * 			the groovy expression of the rule
+	 * @return
+	 * 			the list of <code>{i, j}</code> index pairs. The list is empty
+	 * 			when the expression has no such equality or is not 
+	 * 			supported by the compiler.
+	 */
+	public static List<int[]> getLemmaEqualities(String expression) {
+		try {
+			return ImmutableList.copyOf(new VariantRuleCompiler(expression, null).parse().lemmaEqualities);
+		} catch(UnsupportedExpressionException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	private Value parse() {
+		Value value = parseOr();
+		skipSpaces();
+		if(pos != expression.length())
+			throw error("unexpected character");
+		return asBoolean(value);
+	}
+	
+	private Value parseOr() {
+		Value left = parseAnd();
+		while(accept("||")) {
+			Function<GroovyTerm[], Object> l = asBoolean(left).getter;
+			Function<GroovyTerm[], Object> r = asBoolean(parseAnd()).getter;
+			left = new Value(Type.BOOLEAN, st -> (Boolean)l.apply(st) || (Boolean)r.apply(st));
+		}
+		return left;
+	}
+
+	private Value parseAnd() {
+		Value left = parseNot();
+		while(accept("&&")) {
+			Function<GroovyTerm[], Object> l = asBoolean(left).getter;
+			Value right = parseNot();
+			Function<GroovyTerm[], Object> r = asBoolean(right).getter;
+			List<int[]> lemmaEqualities = ImmutableList.<int[]>builder()
+					.addAll(left.lemmaEqualities)
+					.addAll(right.lemmaEqualities)
+					.build();
+			left = new Value(Type.BOOLEAN, st -> (Boolean)l.apply(st) && (Boolean)r.apply(st));
+			left.lemmaEqualities = lemmaEqualities;
+		}
+		return left;
+	}
+
+	private Value parseNot() {
+		if(!lookingAt("!=") && accept("!")) {
+			Function<GroovyTerm[], Object> operand = asBoolean(parseNot()).getter;
+			return new Value(Type.BOOLEAN, st -> !(Boolean)operand.apply(st));
+		}
+		return parseComparison();
+	}
+
+	private Value parseComparison() {
+		Value left = parseOperand();
+		boolean negated;
+		if(accept("=="))
+			negated = false;
+		else if(accept("!="))
+			negated = true;
+		else
+			return left;
+		Value right = parseOperand();
+		if(left.type == Type.STRING && !(right.type == Type.STRING))
+			/*
+			 * Groovy compares strings with compareTo(), a string is 
+			 * never equal to a word or a component.
+			 */
+			throw error("string compared to a non-string value");
+		Function<GroovyTerm[], Object> l = left.getter;
+		Function<GroovyTerm[], Object> r = right.getter;
+		Value comparison = new Value(Type.BOOLEAN, st -> negated != areEqual(l.apply(st), r.apply(st)));
+		if(!negated && left.isLemmaOfWord() && right.isLemmaOfWord() && left.side != right.side)
+			comparison.lemmaEqualities = left.side == 0 ?
+					Collections.singletonList(new int[]{left.wordIndex, right.wordIndex})
+					: Collections.singletonList(new int[]{right.wordIndex, left.wordIndex});
+		return comparison;
+	}
+
+	private static boolean areEqual(Object left, Object right) {
+		if(left == right)
+			return true;
+		else if(left == null || right == null)
+			return false;
+		else
+			return left.equals(right);
+	}
+
+	private Value parseOperand() {
+		skipSpaces();
+		if(accept("(")) {
+			Value value = parseOr();
+			expect(")");
+			return value;
+		} else if(lookingAt("\"") || lookingAt("'")) {
+			String literal = parseString();
+			return new Value(Type.STRING, st -> literal);
+		} else if(pos < expression.length() && Character.isDigit(expression.charAt(pos))) {
+			Integer literal = parseInt();
+			return new Value(Type.INT, st -> literal);
+		}
+		String identifier = parseIdentifier();
+		switch(identifier) {
+		case "s":
+			return parsePath(term(0));
+		case "t":
+			return parsePath(term(1));
+		case "true":
+			return new Value(Type.BOOLEAN, st -> Boolean.TRUE);
+		case "false":
+			return new Value(Type.BOOLEAN, st -> Boolean.FALSE);
+		case "prefix":
+			return parseBinaryHelperCall((s, t) -> helper.isPrefixOf(s, t));
+		case "synonym":
+			return parseBinaryHelperCall((s, t) -> helper.areSynonym(s, t));
+		case "deriv":
+			expect("(");
+			String pattern = parseStringArgument();
+			expect(",");
+			Function<GroovyTerm[], Object> s = asType(parseOr(), Type.WORD).getter;
+			expect(",");
+			Function<GroovyTerm[], Object> t = asType(parseOr(), Type.WORD).getter;
+			expect(")");
+			return new Value(Type.BOOLEAN, st -> helper.derivesInto(pattern, (GroovyWord)s.apply(st), (GroovyWord)t.apply(st)));
+		default:
+			throw error("unknown identifier " + identifier);
+		}
+	}
+
+	@FunctionalInterface
+	private static interface WordPredicate {
+		public boolean test(GroovyWord s, GroovyWord t);
+	}
+
+	private Value parseBinaryHelperCall(WordPredicate function) {
+		expect("(");
+		Function<GroovyTerm[], Object> s = asType(parseOr(), Type.WORD).getter;
+		expect(",");
+		Function<GroovyTerm[], Object> t = asType(parseOr(), Type.WORD).getter;
+		expect(")");
+		return new Value(Type.BOOLEAN, st -> function.test((GroovyWord)s.apply(st), (GroovyWord)t.apply(st)));
+	}
+
+	private String parseStringArgument() {
+		skipSpaces();
+		if(!lookingAt("\"") && !lookingAt("'"))
+			throw error("string literal expected");
+		return parseString();
+	}
+
+	private static Value term(int side) {
+		Value value = new Value(Type.TERM, st -> st[side]);
+		value.side = side;
+		return value;
+	}
+
+	private Value parsePath(Value value) {
+		while(true) {
+			if(accept("[")) {
+				skipSpaces();
+				int index = parseInt();
+				expect("]");
+				value = index(value, index);
+			} else if(accept(".")) {
+				value = property(value, parseIdentifier());
+			} else
+				return value;
+		}
+	}
+
+	private Value index(Value value, int index) {
+		Function<GroovyTerm[], Object> getter = value.getter;
+		switch(value.type) {
+		case TERM:
+			Value word = new Value(Type.WORD, st -> ((GroovyTerm)getter.apply(st)).getAt(index));
+			word.side = value.side;
+			word.wordIndex = index;
+			return word;
+		case WORD:
+			return new Value(Type.COMPONENT, st -> ((GroovyWord)getter.apply(st)).getAt(index));
+		case WORD_LIST:
+		case COMPONENT_LIST:
+			return new Value(
+					value.type == Type.WORD_LIST ? Type.WORD : Type.COMPONENT, 
+					st -> ((List<?>)getter.apply(st)).get(index));
+		default:
+			throw error("cannot index a value of type " + value.type);
+		}
+	}
+
+	private Value property(Value value, String property) {
+		Function<GroovyTerm[], Object> getter = value.getter;
+		if(accept("(")) {
+			expect(")");
+			if(property.equals("size") && (value.type == Type.WORD_LIST || value.type == Type.COMPONENT_LIST))
+				return new Value(Type.INT, st -> ((List<?>)getter.apply(st)).size());
+			else
+				throw error("unsupported method " + property);
+		}
+		if(value.type == Type.TERM) {
+			switch(property) {
+			case "compound": return new Value(Type.BOOLEAN, st -> ((GroovyTerm)getter.apply(st)).compound);
+			case "neoclassical": return new Value(Type.BOOLEAN, st -> ((GroovyTerm)getter.apply(st)).neoclassical);
+			case "isSingleWord": return new Value(Type.BOOLEAN, st -> ((GroovyTerm)getter.apply(st)).isSingleWord);
+			case "pattern": return new Value(Type.STRING, st -> ((GroovyTerm)getter.apply(st)).pattern);
+			case "lemma": return new Value(Type.STRING, st -> ((GroovyTerm)getter.apply(st)).lemma);
+			case "stem": return new Value(Type.STRING, st -> ((GroovyTerm)getter.apply(st)).stem);
+			case "words": return new Value(Type.WORD_LIST, st -> ((GroovyTerm)getter.apply(st)).words);
+			}
+		} else if(value.type == Type.WORD) {
+			switch(property) {
+			case "compound": return new Value(Type.BOOLEAN, st -> ((GroovyWord)getter.apply(st)).compound);
+			case "neoclassical": return new Value(Type.BOOLEAN, st -> ((GroovyWord)getter.apply(st)).neoclassical);
+			case "lemma": 
+				Value lemma = new Value(Type.STRING, st -> ((GroovyWord)getter.apply(st)).lemma);
+				lemma.side = value.side;
+				lemma.wordIndex = value.wordIndex;
+				return lemma;
+			case "stem": return new Value(Type.STRING, st -> ((GroovyWord)getter.apply(st)).stem);
+			case "syntacticLabel": return new Value(Type.STRING, st -> ((GroovyWord)getter.apply(st)).syntacticLabel);
+			case "components": return new Value(Type.COMPONENT_LIST, st -> ((GroovyWord)getter.apply(st)).components);
+			}
+		}
+		throw error("unsupported property " + property + " on " + value.type);
+	}
+
+	private static Value asBoolean(Value value) {
+		if(value.type != Type.BOOLEAN)
+			throw new UnsupportedExpressionException("boolean expected, got " + value.type);
+		return value;
+	}
+	
+	private Value asType(Value value, Type type) {
+		if(value.type != type)
+			throw error(type + " expected, got " + value.type);
+		return value;
+	}
+
+	private String parseIdentifier() {
+		skipSpaces();
+		int start = pos;
+		while(pos < expression.length() && Character.isJavaIdentifierPart(expression.charAt(pos)))
+			pos++;
+		if(start == pos || !Character.isJavaIdentifierStart(expression.charAt(start)))
+			throw error("identifier expected");
+		return expression.substring(start, pos);
+	}
+
+	private int parseInt() {
+		int start = pos;
+		while(pos < expression.length() && Character.isDigit(expression.charAt(pos)))
+			pos++;
+		if(start == pos)
+			throw error("integer expected");
+		return Integer.parseInt(expression.substring(start, pos));
+	}
+
+	private String parseString() {
+		char quote = expression.charAt(pos++);
+		int start = pos;
+		while(pos < expression.length() && expression.charAt(pos) != quote) {
+			char c = expression.charAt(pos);
+			if(c == '\\' || c == '$')
+				// escapes and GStrings are left to groovy
+				throw error("unsupported string literal");
+			pos++;
+		}
+		if(pos == expression.length())
+			throw error("unterminated string literal");
+		return expression.substring(start, pos++);
+	}
+
+	private void skipSpaces() {
+		while(pos < expression.length() && Character.isWhitespace(expression.charAt(pos)))
+			pos++;
+	}
+
+	private boolean lookingAt(String token) {
+		skipSpaces();
+		return expression.startsWith(token, pos);
+	}
+
+	private boolean accept(String token) {
+		if(lookingAt(token)) {
+			pos += token.length();
+			return true;
+		} else
+			return false;
+	}
+
+	private void expect(String token) {
+		if(!accept(token))
+			throw error("'" + token + "' expected");
+	}
+
+	private UnsupportedExpressionException error(String message) {
+		return new UnsupportedExpressionException(String.format("%s at position %d in expression: %s", message, pos, expression));
+	}
+}
@@ -1,6 +1,7 @@
 package fr.univnantes.termsuite.engines.gatherer;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -8,6 +9,8 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.inject.Inject;
 
 import fr.univnantes.termsuite.engines.SimpleEngine;
@@ -90,24 +93,52 @@ public abstract class VariationTypeGatherer extends SimpleEngine {
 			if(targets.isEmpty())
 				continue;
 			
-			long complexity = sources.size() * targets.size();
-			if(complexity > DEFAULT_MAX_CLASS_COMPLEXITY)
-				logger.debug("Skipping term class {} because complexity is too high. Complexity: {}. Max: {}", clsName, complexity, DEFAULT_MAX_CLASS_COMPLEXITY);
-			
-			for(Term source:sources) {
-				for(Term target:targets) {
-					if(source.equals(target))
-						continue;
-					
-					cnt.incrementAndGet();
-					if(groovyService.matchesRule(rule, source, target)) 
-						createVariationRuleRelation(termino, source, target, rule);
-				}
+			if(rule.isJoinable()) 
+				gatherJoin(termino, groovyService, rule, sources, targets, cnt);
+			else {
+				long complexity = (long)sources.size() * targets.size();
+				if(complexity > DEFAULT_MAX_CLASS_COMPLEXITY)
+					logger.debug("Skipping term class {} because complexity is too high. Complexity: {}. Max: {}", clsName, complexity, DEFAULT_MAX_CLASS_COMPLEXITY);
+				
+				for(Term source:sources) 
+					for(Term target:targets) 
+						compare(termino, groovyService, rule, source, target, cnt);
 			}
 		}
 	}
 
-	private synchronized void createVariationRuleRelation(TerminologyService terminoService, Term source, Term target, VariantRule rule) {
+	/*
+	 * Only compares the sources and the targets that have the same 
+	 * lemmas at the word positions the rule requires to be equal.
+	 */
+	private void gatherJoin(TerminologyService termino, GroovyService groovyService, VariantRule rule,
+			Set<Term> sources, Set<Term> targets, AtomicLong cnt) {
+		Multimap<List<String>, Term> targetsByKey = HashMultimap.create();
+		for(Term target:targets) {
+			List<String> key = rule.getTargetJoinKey(target);
+			if(key != null)
+				targetsByKey.put(key, target);
+		}
+		
+		for(Term source:sources) {
+			List<String> key = rule.getSourceJoinKey(source);
+			if(key == null)
+				continue;
+			for(Term target:targetsByKey.get(key))
+				compare(termino, groovyService, rule, source, target, cnt);
+		}
+	}
+
+	private void compare(TerminologyService termino, GroovyService groovyService, VariantRule rule, Term source,
+			Term target, AtomicLong cnt) {
+		if(source.equals(target))
+			return;
+		cnt.incrementAndGet();
+		if(groovyService.matchesRule(rule, source, target)) 
+			createVariationRuleRelation(termino, source, target, rule);
+	}
+
+	private void createVariationRuleRelation(TerminologyService terminoService, Term source, Term target, VariantRule rule) {
 		Optional<RelationService> variation = terminoService.getVariation(source, target);
 				
 		if(!variation.isPresent()){
@@ -1,5 +1,7 @@
 package fr.univnantes.termsuite.engines.splitter;
 
+import java.util.Objects;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import fr.univnantes.termsuite.utils.JsonConfigObject;
@@ -34,6 +36,9 @@ public class MorphologicalOptions  extends JsonConfigObject {
 	@JsonProperty("segment-similarity-th")
 	private double segmentSimilarityThreshold;
 	
+	@JsonProperty("segment-cache-dir")
+	private String segmentCacheDirectory;
+	
 	
 	@Override
 	public boolean equals(Object obj) {
@@ -51,6 +56,7 @@ public class MorphologicalOptions  extends JsonConfigObject {
 					&& delta == o.delta
 					&& scoreThreshold == o.scoreThreshold
 					&& segmentSimilarityThreshold == o.segmentSimilarityThreshold
+					&& Objects.equals(segmentCacheDirectory, o.segmentCacheDirectory)
 					;
 		} else return false;
 	}
@@ -128,6 +134,22 @@ public class MorphologicalOptions  extends JsonConfigObject {
 		this.segmentSimilarityThreshold = segmentSimilarityThreshold;
 		return this;
 	}
+
+	public String getSegmentCacheDirectory() {
+		return segmentCacheDirectory;
+	}
+	
+	/**
+	 * Sets the directory of the persistent segment match cache 
+	 * of the native splitter, or <code>null</code> to disable it.
+	 * 
+	 * @see SegmentMatchCache
+	 */
+	public MorphologicalOptions setSegmentCacheDirectory(String segmentCacheDirectory) {
+		this.segmentCacheDirectory = segmentCacheDirectory;
+		return this;
+	}
+	
 	public boolean isPrefixSplitterEnabled() {
 		return prefixSplitterEnabled;
 	}
@@ -3,8 +3,11 @@ package fr.univnantes.termsuite.engines.splitter;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -14,6 +17,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.function.BiFunction;
 
 import org.apache.commons.lang.mutable.MutableLong;
 import org.slf4j.Logger;
@@ -24,8 +28,11 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 import fr.univnantes.termsuite.engines.SimpleEngine;
+import fr.univnantes.termsuite.engines.splitter.SegmentMatchCache.SegmentMatch;
 import fr.univnantes.termsuite.framework.Index;
 import fr.univnantes.termsuite.framework.InjectLogger;
 import fr.univnantes.termsuite.framework.Parameter;
@@ -70,7 +77,9 @@ public class NativeSplitter extends SimpleEngine {
 	private SimpleWordSet stopList;
 
 	private CompostIndex compostIndex;
+	private Optional<SegmentMatchCache> segmentMatchCache = Optional.empty();
 	private static IndexingKey<String, String> similarityIndexingKey = TermSuiteUtils.KEY_THREE_FIRST_LETTERS;
+	private static final int MAX_LENGTH_DIFFERENCE = 3;
 
 	@Index(type=TermIndexType.SWT_LEMMAS_SWT_TERMS_ONLY)
 	private TermIndex swtLemmaIndex;
@@ -87,6 +96,31 @@ public class NativeSplitter extends SimpleEngine {
 		             }
 		           });
 
+	/*
+	 * Best score entries among the inflections (for the last segment of a 
+	 * segmentation) or the transformations (for the other segments) of a
+	 * segment. Shared by all segmentations of all words.
+	 */
+	private LoadingCache<String, SegmentScoreEntry> inflectedScoreEntries = CacheBuilder.newBuilder()
+			.maximumSize(100000)
+			.recordStats()
+			.build(
+				new CacheLoader<String, SegmentScoreEntry>() {
+					public SegmentScoreEntry load(String segment) { // no checked exception
+						return getBestInflectedScoreEntry(segment, inflectionRules);
+					}
+				});
+
+	private LoadingCache<String, SegmentScoreEntry> transformedScoreEntries = CacheBuilder.newBuilder()
+			.maximumSize(100000)
+			.recordStats()
+			.build(
+				new CacheLoader<String, SegmentScoreEntry>() {
+					public SegmentScoreEntry load(String segment) { // no checked exception
+						return getBestInflectedScoreEntry(segment, transformationRules);
+					}
+				});
+
 	private LoadingCache<String, String> segmentLemmaCache = CacheBuilder.newBuilder()
 			.maximumSize(100000)
 			.recordStats()
@@ -101,6 +135,7 @@ public class NativeSplitter extends SimpleEngine {
 	@Override
 	public void execute() {
 		buildCompostIndex();
+		openSegmentMatchCache();
 
 		final MutableLong cnt = new MutableLong(0);
 		
@@ -137,7 +172,12 @@ public class NativeSplitter extends SimpleEngine {
 			.forEach( word -> {
 				cnt.increment();
 				
-				Map<Segmentation, Double> scores = computeScores(word.getLemma());
+				/*
+				 * Only the best segmentation is needed, unless all 
+				 * scores are to be reported to the history.
+				 */
+				int nbSegmentations = isWatched(word) ? Integer.MAX_VALUE : 1;
+				Map<Segmentation, Double> scores = computeScores(word.getLemma(), nbSegmentations);
 				watchScores(word, scores);
 				if(scores.size() > 0) {
 	
@@ -146,26 +186,7 @@ public class NativeSplitter extends SimpleEngine {
 					/*
 					 *  compare segmentations in a deterministic way.
 					 */
-					segmentations.sort(new Comparator<Segmentation>() {
-						@Override
-						public int compare(Segmentation o1, Segmentation o2) {
-							int comp = Double.compare(scores.get(o2), scores.get(o1));
-							if(comp != 0)
-								return comp;
-							comp = Integer.compare(o1.getSegments().size(), o2.getSegments().size());
-							if(comp != 0)
-								return comp;	
-							for(int i = 0; i< o1.getSegments().size(); i++) {
-								comp = Integer.compare(
-									o2.getSegments().get(i).getEnd(), 
-									o1.getSegments().get(i).getEnd()
-								);
-								if(comp != 0)
-									return comp;
-							}
-							return 0;
-						}
-					});
+					segmentations.sort((o1, o2) -> SegmentationFinder.compare(o1, scores.get(o1), o2, scores.get(o2)));
 					
 					Segmentation bestSegmentation = segmentations.get(0);
 					
@@ -215,7 +236,15 @@ public class NativeSplitter extends SimpleEngine {
 		logger.debug("segment score hit count: " + segmentScoreEntries.stats().hitCount());
 		logger.debug("segment score hit rate: " + segmentScoreEntries.stats().hitRate());
 		logger.debug("segment score eviction count: " + segmentScoreEntries.stats().evictionCount());
+		if(segmentMatchCache.isPresent()) {
+			logger.info("Segment match cache {}: {}", 
+					segmentMatchCache.get().getPath(), 
+					segmentMatchCache.get().stats());
+			segmentMatchCache.get().save();
+		}
 		segmentScoreEntries.invalidateAll();
+		inflectedScoreEntries.invalidateAll();
+		transformedScoreEntries.invalidateAll();
 		segmentLemmaCache.invalidateAll();
 		logger.debug("Num of compound words after native splitting: {}", words.stream().filter(Word::isCompound).count());
 	}
@@ -235,6 +264,10 @@ public class NativeSplitter extends SimpleEngine {
 		}
 	}
 
+	private boolean isWatched(Word word) {
+		return history.isPresent() && history.get().isStringWatched(word.getLemma());
+	}
+
 	private void watchScores(Word word, Map<Segmentation, Double> scores) {
 		if(history.isPresent()) {
 			if(history.get().isStringWatched(word.getLemma())) {
@@ -268,16 +301,44 @@ public class NativeSplitter extends SimpleEngine {
 	}
 
 	/*
-	 * Compute scores for all segmentations of the word
+	 * The cached matches depend on the dictionary, the neoclassical prefixes 
+	 * and the parameters of the similarity search.
 	 */
-	private Map<Segmentation, Double> computeScores(String wordStr) {
-		Map<Segmentation, Double> scores = Maps.newHashMap();
-		List<Segmentation> rawSegmentations = Segmentation.getSegmentations(wordStr, this.opt.getMaxNumberOfComponents(), this.opt.getMinComponentSize());
-		for(Segmentation segmentation:rawSegmentations) {
-			double segmentationScore = computeSegmentationScore(segmentation);
-			if(segmentationScore >= this.opt.getScoreThreshold())
-				scores.put(segmentation, segmentationScore);
+	private void openSegmentMatchCache() {
+		if(this.opt.getSegmentCacheDirectory() == null || this.opt.getSegmentSimilarityThreshold() == 1) {
+			segmentMatchCache = Optional.empty();
+			return;
+		}
+		Hasher hasher = Hashing.murmur3_128().newHasher()
+				.putDouble(this.opt.getSegmentSimilarityThreshold())
+				.putInt(MAX_LENGTH_DIFFERENCE);
+		for(SimpleWordSet wordSet:new SimpleWordSet[]{languageDico, neoclassicalPrefixes}) {
+			List<String> elements = Lists.newArrayList(wordSet.getElements());
+			Collections.sort(elements);
+			hasher.putInt(elements.size());
+			for(String element:elements)
+				hasher.putString(element, StandardCharsets.UTF_8).putChar('\n');
 		}
+		segmentMatchCache = Optional.of(SegmentMatchCache.open(
+				Paths.get(this.opt.getSegmentCacheDirectory()),
+				terminology.getLang(), 
+				hasher.hash().toString()));
+	}
+
+	/*
+	 * Compute scores for the best segmentations of the word
+	 */
+	private Map<Segmentation, Double> computeScores(String wordStr, int nbSegmentations) {
+		Map<Segmentation, Double> scores = Maps.newHashMap();
+		SegmentationFinder finder = new SegmentationFinder(
+				wordStr, 
+				this.opt.getMaxNumberOfComponents(), 
+				this.opt.getMinComponentSize(), 
+				(begin, end) -> end == wordStr.length() ?
+						inflectedScoreEntries.getUnchecked(wordStr.substring(begin, end)).getScore() :
+							transformedScoreEntries.getUnchecked(wordStr.substring(begin, end)).getScore());
+		for(Segmentation segmentation:finder.findBestSegmentations(this.opt.getScoreThreshold(), nbSegmentations))
+			scores.put(segmentation, computeSegmentationScore(segmentation));
 		return scores;
 	}
 	
@@ -289,8 +350,8 @@ public class NativeSplitter extends SimpleEngine {
 		int index = 0;
 		for(Segment s:segmentation.getSegments()) {
 			SegmentScoreEntry scoreEntry = index == (segmentation.size() - 1) ? 
-					getBestInflectedScoreEntry(s, this.inflectionRules):
-						getBestInflectedScoreEntry(s, this.transformationRules);
+					inflectedScoreEntries.getUnchecked(s.getSubstring()):
+						transformedScoreEntries.getUnchecked(s.getSubstring());
 			sum+=scoreEntry.getScore();
 			s.setLemma(scoreEntry.getDicoEntry() == null ? 
 					s.getSubstring() : 
@@ -304,10 +365,10 @@ public class NativeSplitter extends SimpleEngine {
 	/*
 	 * Returns the best score of a segment considering all its possible inflections or transformations.
 	 */
-	private SegmentScoreEntry getBestInflectedScoreEntry(Segment s,
+	private SegmentScoreEntry getBestInflectedScoreEntry(String segment,
 			CompostInflectionRules rules) {
-		SegmentScoreEntry bestScoreEntry = this.segmentScoreEntries.getUnchecked(s.getSubstring());
-		for(String seg:rules.getInflections(s.getSubstring())) {
+		SegmentScoreEntry bestScoreEntry = this.segmentScoreEntries.getUnchecked(segment);
+		for(String seg:rules.getInflections(segment)) {
 			SegmentScoreEntry scoreEntry = this.segmentScoreEntries.getUnchecked(seg);
 			if(scoreEntry.getScore()>bestScoreEntry.getScore()) 
 				bestScoreEntry = scoreEntry;
@@ -331,19 +392,23 @@ public class NativeSplitter extends SimpleEngine {
 				// do not compare similarity of this segment to the index
 				return SegmentScoreEntry.SCORE_ZERO;
 					
-			// Find an entry by similarity
-			Iterator<CompostIndexEntry> it = compostIndex.closedEntryCandidateIterator(segment);
-			int entryLength = segment.length();
-			double dist = 0;
-			CompostIndexEntry entry;
-			while(it.hasNext()) {
-				entry = it.next();
-				dist = distance.computeNormalized(segment, entry.getText());
-				if(Math.abs(entry.getText().length() - entryLength) <= 3 
-						&& dist >= this.opt.getSegmentSimilarityThreshold()) {
-					indexSimilarity = dist;
-					closestEntry = entry;
-				}
+			/*
+			 * Find the closest entry by similarity, among dictionary entries 
+			 * (which can be cached across runs) and among corpus-only entries. 
+			 * Ties go to the first entry in lexicographic order.
+			 */
+			SegmentMatch dictionaryMatch = segmentMatchCache.isPresent() ?
+					segmentMatchCache.get().get(segment, this::findDictionaryMatch) :
+						findDictionaryMatch(segment);
+			SegmentMatch corpusMatch = findClosestMatch(segment, compostIndex::getCloseCorpusEntries);
+			SegmentMatch match = dictionaryMatch;
+			if(corpusMatch.isMatch() && (!match.isMatch() 
+					|| corpusMatch.getSimilarity() > match.getSimilarity()
+					|| (corpusMatch.getSimilarity() == match.getSimilarity() && corpusMatch.getText().compareTo(match.getText()) < 0)))
+				match = corpusMatch;
+			if(match.isMatch()) {
+				closestEntry = compostIndex.getEntry(match.getText());
+				indexSimilarity = match.getSimilarity();
 			}
 			if(closestEntry == null) {
 				// could not find any close entry in the compost index
@@ -382,6 +447,33 @@ public class NativeSplitter extends SimpleEngine {
 		return new SegmentScoreEntry(segment, findSegmentLemma(segment), score, closestEntry);
 	}
 
+	private SegmentMatch findDictionaryMatch(String segment) {
+		return findClosestMatch(segment, compostIndex::getCloseDictionaryEntries);
+	}
+
+	/*
+	 * Finds the closest entry of a segment by similarity. An entry can only 
+	 * reach the similarity threshold when its edit distance to the segment is
+	 * lower than (1 - threshold) times the longest of both lengths, so the 
+	 * index search is bounded accordingly (plus one to stay safe from rounding)
+	 * and the exact similarity is computed on the few remaining entries only.
+	 */
+	private SegmentMatch findClosestMatch(String segment, BiFunction<String, Integer, List<CompostIndexEntry>> search) {
+		int entryLength = segment.length();
+		int maxDistance = Math.max(0, 1 + (int) ((1 - this.opt.getSegmentSimilarityThreshold()) * (entryLength + MAX_LENGTH_DIFFERENCE)));
+		SegmentMatch match = SegmentMatch.NO_MATCH;
+		double dist = 0;
+		for(CompostIndexEntry entry:search.apply(segment, maxDistance)) {
+			if(Math.abs(entry.getText().length() - entryLength) > MAX_LENGTH_DIFFERENCE)
+				continue;
+			dist = distance.computeNormalized(segment, entry.getText());
+			if(dist >= this.opt.getSegmentSimilarityThreshold() 
+					&& (!match.isMatch() || dist > match.getSimilarity()))
+				match = new SegmentMatch(entry.getText(), dist);
+		}
+		return match;
+	}
+
 	private Optional<Double> maxSpec = Optional.empty();
 
 	public double getMaxSpec() {
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.engines.splitter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Maps;
+
+import fr.univnantes.termsuite.api.TermSuiteException;
+import fr.univnantes.termsuite.model.Lang;
+
+/**
+ * 
+ * A persistent cache of the closest dictionary entries of native splitter 
+ * segments, shared by all runs and all JVMs using the same cache directory.
+ * 
+ * Unlike segment scores, which depend on the terminology, the closest 
+ * dictionary entry of a segment only depends on the language resources 
+ * and on the similarity threshold. There is one cache file per language 
+ * and resource version, so a change to the resources never reuses 
+ * stale matches.
+ * 
+ * The file is read once when the cache is opened. New matches are 
+ * written back by {@link #save()}, merged with those saved meanwhile by 
+ * other runs, and the file is replaced atomically. Saves are serialized
+ * across JVMs by a lock on a sibling <code>.lock</code> file.
+ * 
+ * Since the cache directory is shared by all runs and corpora, the number 
+ * of entries is bounded. On save, the entries used by the saving run are
+ * written first, then the entries of the file in their order, until the 
+ * maximum is reached. Entries not used by recent runs are thus evicted first.
+ *
+ */
+public class SegmentMatchCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SegmentMatchCache.class);
+	
+	private static final int MAGIC = 0x53454743;
+	private static final int FORMAT_VERSION = 1;
+	
+	public static final int DEFAULT_MAX_ENTRIES = 500000;
+	
+	/*
+	 * File locks are held by the JVM, so concurrent saves within the 
+	 * same JVM must be serialized before acquiring them.
+	 */
+	private static final Object SAVE_LOCK = new Object();
+	
+	/**
+	 * The closest dictionary entry of a segment, if any.
+	 */
+	public static class SegmentMatch {
+		public static final SegmentMatch NO_MATCH = new SegmentMatch(null, 0d);
+		
+		private String text;
+		private double similarity;
+
+		public SegmentMatch(String text, double similarity) {
+			this.text = text;
+			this.similarity = similarity;
+		}
+		
+		public String getText() {
+			return text;
+		}
+		
+		public double getSimilarity() {
+			return similarity;
+		}
+		
+		public boolean isMatch() {
+			return text != null;
+		}
+	}
+
+	private Path path;
+	private String version;
+	private int maxEntries;
+	private ConcurrentMap<String, SegmentMatch> matches = Maps.newConcurrentMap();
+	
+	/*
+	 * The matches read or computed by this run, written first on save
+	 */
+	private ConcurrentMap<String, SegmentMatch> usedMatches = Maps.newConcurrentMap();
+	private AtomicBoolean hasNewMatches = new AtomicBoolean(false);
+	private AtomicLong hitCount = new AtomicLong(0);
+	private AtomicLong missCount = new AtomicLong(0);
+
+	private SegmentMatchCache(Path path, String version, int maxEntries) {
+		this.path = path;
+		this.version = version;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Opens the cache of a language in a directory with {@link #DEFAULT_MAX_ENTRIES}
+	 * maximum entries.
+	 * 
+	 * @see #open(Path, Lang, String, int)
+	 */
+	public static SegmentMatchCache open(Path directory, Lang lang, String version) {
+		return open(directory, lang, version, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Opens the cache of a language in a directory, loading the matches 
+	 * saved by previous runs for the same resource version.
+	 * 
+	 * @param directory
+	 * 			the cache directory, created if it does not exist
+	 * @param lang
+	 * 			the language of the segments
+	 * @param version
+	 * 			a version string identifying the resources and options the matches
+	 * 			were computed with
+	 * @param maxEntries
+	 * 			the maximum number of entries held in memory and written to the file
+	 * @return
+	 * 			the cache
+	 */
+	public static SegmentMatchCache open(Path directory, Lang lang, String version, int maxEntries) {
+		Preconditions.checkNotNull(directory);
+		Preconditions.checkNotNull(version);
+		Preconditions.checkArgument(maxEntries > 0, "Max entries must be strictly positive. Got: %s", maxEntries);
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new TermSuiteException("Could not create segment cache directory " + directory, e);
+		}
+		SegmentMatchCache cache = new SegmentMatchCache(
+				directory.resolve(String.format("segment-matches-%s-%s.bin", lang.getCode(), version)), 
+				version,
+				maxEntries);
+		cache.matches.putAll(cache.read());
+		LOGGER.debug("Loaded {} segment matches from {}", cache.matches.size(), cache.path);
+		return cache;
+	}
+
+	/**
+	 * Returns the match of a segment, computing and caching it if absent.
+	 * 
+	 * Once the cache holds its maximum number of entries, new matches 
+	 * are not cached in memory anymore, but they are still saved in place 
+	 * of the entries of the file not used by this run.
+	 */
+	public SegmentMatch get(String segment, Function<String, SegmentMatch> loader) {
+		SegmentMatch match = matches.get(segment);
+		boolean computed = match == null;
+		if(computed) {
+			missCount.incrementAndGet();
+			match = loader.apply(segment);
+			if(matches.size() < maxEntries)
+				matches.put(segment, match);
+		} else
+			hitCount.incrementAndGet();
+		if(usedMatches.size() < maxEntries) {
+			usedMatches.put(segment, match);
+			if(computed)
+				hasNewMatches.set(true);
+		}
+		return match;
+	}
+	
+	public int size() {
+		return matches.size();
+	}
+	
+	public CacheStats stats() {
+		return new CacheStats(hitCount.get(), missCount.get(), missCount.get(), 0, 0, 0);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Writes the matches computed since the cache was opened, together
+	 * with the ones currently in the cache file.
+	 */
+	public void save() {
+		if(!hasNewMatches.get())
+			return;
+		Path lockPath = path.resolveSibling(path.getFileName() + ".lock");
+		synchronized(SAVE_LOCK) {
+			try(FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					FileLock lock = lockChannel.lock()) {
+				write();
+			} catch (IOException e) {
+				throw new TermSuiteException("Could not lock segment cache " + lockPath, e);
+			}
+		}
+	}
+	
+	/*
+	 * Merges the cache file with the matches of this cache and replaces it.
+	 * Must be invoked while holding the lock file.
+	 */
+	private void write() {
+		Map<String, SegmentMatch> toWrite = Maps.newLinkedHashMap();
+		for(Map.Entry<String, SegmentMatch> e:usedMatches.entrySet()) {
+			if(toWrite.size() >= maxEntries)
+				break;
+			toWrite.put(e.getKey(), e.getValue());
+		}
+		for(Map.Entry<String, SegmentMatch> e:read().entrySet()) {
+			if(toWrite.size() >= maxEntries)
+				break;
+			toWrite.putIfAbsent(e.getKey(), e.getValue());
+		}
+		Path tmp = path.resolveSibling(path.getFileName() + "." + Thread.currentThread().getId() + "." + System.nanoTime() + ".tmp");
+		try {
+			try(OutputStream os = Files.newOutputStream(tmp); 
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				writeString(out, version);
+				out.writeInt(toWrite.size());
+				for(Map.Entry<String, SegmentMatch> e:toWrite.entrySet()) {
+					writeString(out, e.getKey());
+					SegmentMatch match = e.getValue();
+					out.writeBoolean(match.isMatch());
+					if(match.isMatch()) {
+						writeString(out, match.getText());
+						out.writeDouble(match.getSimilarity());
+					}
+				}
+			}
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			hasNewMatches.set(false);
+			LOGGER.debug("Saved {} segment matches ({} bytes) to {}", toWrite.size(), Files.size(path), path);
+		} catch (IOException e) {
+			throw new TermSuiteException("Could not save segment cache " + path, e);
+		} finally {
+			try {
+				Files.deleteIfExists(tmp);
+			} catch (IOException e) {
+				LOGGER.warn("Could not delete temporary file {}", tmp);
+			}
+		}
+	}
+	
+	/*
+	 * Reads the cache file, ignoring it (with a warning) if it is 
+	 * corrupted or was written in another format or version.
+	 */
+	private Map<String, SegmentMatch> read() {
+		Map<String, SegmentMatch> read = Maps.newLinkedHashMap();
+		if(!Files.exists(path))
+			return read;
+		try(InputStream is = Files.newInputStream(path);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+			long maxLength = Files.size(path);
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !version.equals(readString(in, maxLength))) {
+				LOGGER.warn("Ignoring segment cache {}: unexpected format or version", path);
+				return read;
+			}
+			int size = Math.min(in.readInt(), maxEntries);
+			for(int i = 0; i < size; i++) {
+				String segment = readString(in, maxLength);
+				SegmentMatch match = in.readBoolean() ?
+						new SegmentMatch(readString(in, maxLength), in.readDouble()) :
+							SegmentMatch.NO_MATCH;
+				read.put(segment, match);
+			}
+			return read;
+		} catch (EOFException e) {
+			LOGGER.warn("Ignoring truncated segment cache {}", path);
+			return Maps.newHashMap();
+		} catch (IOException e) {
+			throw new TermSuiteException("Could not read segment cache " + path, e);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in, long maxLength) throws IOException {
+		int length = in.readInt();
+		if(length < 0 || length > maxLength)
+			throw new EOFException();
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -41,7 +41,7 @@ public class Segmentation {
 		this.segments = Lists.newArrayList(segments);
 	}
 
-	private Segmentation(String word, List<CuttingPoint> cuttingPoints) {
+	Segmentation(String word, List<CuttingPoint> cuttingPoints) {
 		super();
 		this.string = word;
 		this.cuttingPoints = cuttingPoints;
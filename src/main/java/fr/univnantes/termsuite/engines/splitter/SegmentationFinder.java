@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.engines.splitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.MinMaxPriorityQueue;
+
+import fr.univnantes.termsuite.utils.TermSuiteConstants;
+
+/**
+ * 
+ * Finds the best segmentations of a word, among the segmentations 
+ * enumerated by {@link Segmentation#getSegmentations(String, int, int)},
+ * without enumerating all of them.
+ * 
+ * The score of a segmentation is the average of the scores of its 
+ * segments. Each segment is scored once per word. For each sub-span 
+ * of the word and each number of segments, the best achievable sum 
+ * of segment scores is computed by dynamic programming. A partial 
+ * segmentation is then pruned as soon as none of its completions can
+ * reach the score threshold, or the score of the worst segmentation 
+ * kept so far when the requested number of segmentations is found.
+ *
+ */
+public class SegmentationFinder {
+	
+	/*
+	 * Slack on the pruning bounds, which sum segment scores in
+	 * another order than the final segmentation scores.
+	 */
+	private static final double EPSILON = 1e-9;
+
+	@FunctionalInterface
+	public static interface SegmentScorer {
+		/**
+		 * @return the score of the segment <code>[begin, end)</code> of the word
+		 */
+		public double getScore(int begin, int end);
+	}
+
+	/**
+	 * Compares two segmentations, the best one first: highest score, then 
+	 * fewest segments, then longest leftmost segments.
+	 */
+	public static int compare(Segmentation o1, double score1, Segmentation o2, double score2) {
+		int comp = Double.compare(score2, score1);
+		if(comp != 0)
+			return comp;
+		comp = Integer.compare(o1.getSegments().size(), o2.getSegments().size());
+		if(comp != 0)
+			return comp;	
+		for(int i = 0; i< o1.getSegments().size(); i++) {
+			comp = Integer.compare(
+				o2.getSegments().get(i).getEnd(), 
+				o1.getSegments().get(i).getEnd()
+			);
+			if(comp != 0)
+				return comp;
+		}
+		return 0;
+	}
+	
+	private static class ScoredSegmentation {
+		private Segmentation segmentation;
+		private double score;
+		
+		private ScoredSegmentation(Segmentation segmentation, double score) {
+			this.segmentation = segmentation;
+			this.score = score;
+		}
+	}
+
+	private String word;
+	private int nbMaxComponents;
+	private int minComponentSize;
+	private SegmentScorer scorer;
+	
+	private double[][] segmentScores;
+	private Map<Long, double[]> bestSums = Maps.newHashMap();
+
+	private double scoreThreshold;
+	private int nbSegmentations;
+	private MinMaxPriorityQueue<ScoredSegmentation> best;
+	private List<CuttingPoint> cuttingPoints;
+	
+	public SegmentationFinder(String word, int nbMaxComponents, int minComponentSize, SegmentScorer scorer) {
+		super();
+		this.word = word;
+		this.nbMaxComponents = nbMaxComponents;
+		this.minComponentSize = minComponentSize;
+		this.scorer = scorer;
+		this.segmentScores = new double[word.length() + 1][];
+	}
+	
+	/**
+	 * Finds the best segmentations of the word whose score is greater 
+	 * than or equal to <code>scoreThreshold</code>.
+	 * 
+	 * @param scoreThreshold
+	 * 			the minimum score of a segmentation
+	 * @param nbSegmentations
+	 * 			the maximum number of segmentations returned
+	 * @return
+	 * 			the segmentations, the best one first
+	 */
+	public List<Segmentation> findBestSegmentations(double scoreThreshold, int nbSegmentations) {
+		Preconditions.checkArgument(nbSegmentations > 0, "nbSegmentations must be greater than 0: %s", nbSegmentations);
+		this.scoreThreshold = scoreThreshold;
+		this.nbSegmentations = nbSegmentations;
+		this.best = MinMaxPriorityQueue
+				.orderedBy((ScoredSegmentation o1, ScoredSegmentation o2) -> compare(o1.segmentation, o1.score, o2.segmentation, o2.score))
+				.maximumSize(nbSegmentations)
+				.create();
+		this.cuttingPoints = Lists.newArrayListWithCapacity(nbMaxComponents);
+		search(0, word.length(), nbMaxComponents, 0d, 0);
+		List<Segmentation> segmentations = Lists.newArrayListWithCapacity(best.size());
+		while(!best.isEmpty())
+			segmentations.add(best.pollFirst().segmentation);
+		return segmentations;
+	}
+
+	/*
+	 * Enumerates the segmentations of the span [begin, end) like 
+	 * Segmentation#getSegmentations does. fixedSum and fixedCount
+	 * are the sum and the number of the segments outside the span.
+	 */
+	private void search(int begin, int end, int nbMaxComponents, double fixedSum, int fixedCount) {
+		if(!canReachThreshold(fixedSum, fixedCount, getBestSums(begin, end, nbMaxComponents)))
+			return;
+		int hyphenIndex = getHyphenIndex(begin, end);
+		if(hyphenIndex != -1) {
+			cuttingPoints.add(new CuttingPoint(hyphenIndex, 1, true));
+			offer();
+			if(nbMaxComponents > 2) {
+				if((hyphenIndex - begin) >= 2*minComponentSize)
+					search(begin, hyphenIndex, nbMaxComponents - 1, fixedSum + getSegmentScore(hyphenIndex + 1, end), fixedCount + 1);
+				if((end - hyphenIndex - 1) >= 2*minComponentSize)
+					search(hyphenIndex + 1, end, nbMaxComponents - 1, fixedSum + getSegmentScore(begin, hyphenIndex), fixedCount + 1);
+			}
+			cuttingPoints.remove(cuttingPoints.size() - 1);
+		} else {
+			for(int i = begin + minComponentSize; i <= end - minComponentSize; i++) {
+				cuttingPoints.add(new CuttingPoint(i, 0, false));
+				offer();
+				if(nbMaxComponents > 2 && (end - i) >= 2*minComponentSize)
+					search(i, end, nbMaxComponents - 1, fixedSum + getSegmentScore(begin, i), fixedCount + 1);
+				cuttingPoints.remove(cuttingPoints.size() - 1);
+			}
+		}
+	}
+
+	/*
+	 * Scores the segmentation defined by the current cutting points and 
+	 * keeps it if it is among the best ones.
+	 */
+	private void offer() {
+		List<CuttingPoint> sorted = new ArrayList<>(cuttingPoints);
+		Collections.sort(sorted);
+		double sum = 0;
+		int lastBegin = 0;
+		for(CuttingPoint cp:sorted) {
+			sum += getSegmentScore(lastBegin, cp.getIndex());
+			lastBegin = cp.getIndex() + cp.getOffset();
+		}
+		sum += getSegmentScore(lastBegin, word.length());
+		double score = sum / (sorted.size() + 1);
+		if(score >= scoreThreshold && score >= getCurrentThreshold())
+			best.offer(new ScoredSegmentation(new Segmentation(word, sorted), score));
+	}
+	
+	private double getCurrentThreshold() {
+		if(best.size() < nbSegmentations)
+			return scoreThreshold;
+		else
+			return Math.max(scoreThreshold, best.peekLast().score);
+	}
+
+	/*
+	 * Whether a segmentation made of the fixed segments and c segments of the span,
+	 * which sum at most bestSums[c], can reach the current threshold.
+	 */
+	private boolean canReachThreshold(double fixedSum, int fixedCount, double[] bestSums) {
+		double threshold = getCurrentThreshold();
+		for(int c = 2; c < bestSums.length; c++)
+			if(bestSums[c] != Double.NEGATIVE_INFINITY 
+					&& fixedSum + bestSums[c] - threshold * (fixedCount + c) >= -EPSILON)
+				return true;
+		return false;
+	}
+
+	/*
+	 * The best sums of segment scores of the segmentations of the span [begin, end), 
+	 * indexed by number of segments.
+	 */
+	private double[] getBestSums(int begin, int end, int nbMaxComponents) {
+		long key = ((long)begin * (word.length() + 1) + end) * (this.nbMaxComponents + 1) + nbMaxComponents;
+		double[] sums = bestSums.get(key);
+		if(sums == null) {
+			sums = new double[Math.max(nbMaxComponents, 1) + 1];
+			Arrays.fill(sums, Double.NEGATIVE_INFINITY);
+			if(nbMaxComponents > 1) {
+				int hyphenIndex = getHyphenIndex(begin, end);
+				if(hyphenIndex != -1) {
+					double left = getSegmentScore(begin, hyphenIndex);
+					double right = getSegmentScore(hyphenIndex + 1, end);
+					sums[2] = left + right;
+					if(nbMaxComponents > 2) {
+						if((hyphenIndex - begin) >= 2*minComponentSize)
+							merge(sums, right, getBestSums(begin, hyphenIndex, nbMaxComponents - 1));
+						if((end - hyphenIndex - 1) >= 2*minComponentSize)
+							merge(sums, left, getBestSums(hyphenIndex + 1, end, nbMaxComponents - 1));
+					}
+				} else {
+					for(int i = begin + minComponentSize; i <= end - minComponentSize; i++) {
+						double left = getSegmentScore(begin, i);
+						sums[2] = Math.max(sums[2], left + getSegmentScore(i, end));
+						if(nbMaxComponents > 2 && (end - i) >= 2*minComponentSize)
+							merge(sums, left, getBestSums(i, end, nbMaxComponents - 1));
+					}
+				}
+			}
+			bestSums.put(key, sums);
+		}
+		return sums;
+	}
+
+	private static void merge(double[] sums, double segmentScore, double[] spanSums) {
+		for(int c = 2; c < spanSums.length; c++)
+			if(spanSums[c] != Double.NEGATIVE_INFINITY)
+				sums[c + 1] = Math.max(sums[c + 1], segmentScore + spanSums[c]);
+	}
+
+	private int getHyphenIndex(int begin, int end) {
+		int hyphenIndex = word.indexOf(TermSuiteConstants.HYPHEN, begin);
+		return hyphenIndex < end ? hyphenIndex : -1;
+	}
+
+	private double getSegmentScore(int begin, int end) {
+		if(segmentScores[begin] == null) {
+			segmentScores[begin] = new double[word.length() + 1];
+			Arrays.fill(segmentScores[begin], Double.NaN);
+		}
+		double score = segmentScores[begin][end];
+		if(Double.isNaN(score)) {
+			score = scorer.getScore(begin, end);
+			segmentScores[begin][end] = score;
+		}
+		return score;
+	}
+}
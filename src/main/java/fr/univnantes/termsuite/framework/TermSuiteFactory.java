@@ -52,6 +52,7 @@ import fr.univnantes.termsuite.model.RelationType;
 import fr.univnantes.termsuite.model.Term;
 import fr.univnantes.termsuite.model.TermProperty;
 import fr.univnantes.termsuite.model.occurrences.EmptyOccurrenceStore;
+import fr.univnantes.termsuite.model.occurrences.ColumnarOccurrenceStore;
 import fr.univnantes.termsuite.model.occurrences.MemoryOccurrenceStore;
 import fr.univnantes.termsuite.model.occurrences.XodusOccurrenceStore;
 import fr.univnantes.termsuite.utils.TermHistory;
@@ -61,6 +62,10 @@ public class TermSuiteFactory {
 		return new Terminology(name, lang);
 	}
 
+	public static Terminology createColumnarTerminology(Lang lang, String name) {
+		return new Terminology(name, lang, true);
+	}
+
 	public static OccurrenceStore createEmptyOccurrenceStore(Lang lang) {
 		return new EmptyOccurrenceStore(lang);
 	}
@@ -69,6 +74,10 @@ public class TermSuiteFactory {
 		return new MemoryOccurrenceStore(lang);
 	}
 
+	public static OccurrenceStore createColumnarOccurrenceStore(Lang lang) {
+		return new ColumnarOccurrenceStore(lang);
+	}
+
 	public static OccurrenceStore createPersitentOccurrenceStore(String storeUrl, Lang lang) {
 		return new XodusOccurrenceStore(lang, storeUrl);
 	}
@@ -225,16 +234,22 @@ public class TermSuiteFactory {
 		try {
 			AtomicInteger json = new AtomicInteger(0);
 			AtomicInteger xmi = new AtomicInteger(0);
+			AtomicInteger binary = new AtomicInteger(0);
 			
 			Files.walk(rootDirectory)
 				.filter(file -> file.toFile().isFile())
 				.forEach(filePath-> {
-					if(filePath.getFileName().endsWith(XMICorpus.JSON_EXTENSION))
+					String fileName = filePath.getFileName().toString();
+					if(fileName.endsWith("." + XMICorpus.JSON_EXTENSION))
 						json.incrementAndGet();
-					else if(filePath.getFileName().endsWith(XMICorpus.XMI_EXTENSION))
+					else if(fileName.endsWith("." + XMICorpus.XMI_EXTENSION))
 						xmi.incrementAndGet();
+					else if(fileName.endsWith("." + XMICorpus.BINARY_EXTENSION))
+						binary.incrementAndGet();
 				});
 			
+			if(binary.intValue() > json.intValue() && binary.intValue() > xmi.intValue()) 
+				return createBinaryPreprocessedCorpus(lang, rootDirectory);
 			if(json.intValue() > xmi.intValue()) 
 				return createJsonPreprocessedCorpus(lang, rootDirectory);
 			return createXMIPreprocessedCorpus(lang, rootDirectory);
@@ -251,6 +266,14 @@ public class TermSuiteFactory {
 				XMICorpus.JSON_EXTENSION);
 	}
 
+	public static XMICorpus createBinaryPreprocessedCorpus(Lang lang, Path rootDirectory) {
+		return new XMICorpus(
+				lang, 
+				rootDirectory, 
+				XMICorpus.BINARY_PATTERN, 
+				XMICorpus.BINARY_EXTENSION);
+	}
+
 	public static XMICorpus createXMIPreprocessedCorpus(Lang lang, Path rootDirectory) {
 		return new XMICorpus(
 				lang, 
@@ -263,7 +286,7 @@ public class TermSuiteFactory {
 		TermIndex index;
 		try {
 			index = new TermIndex(lemmaLowerCase.getProviderClass().newInstance());
-			terminology.getTerms().values().forEach(index::addToIndex);
+			index.addAll(terminology.getTerms().values());
 			return index;
 		} catch (Exception e) {
 			throw new TermSuiteException(e);
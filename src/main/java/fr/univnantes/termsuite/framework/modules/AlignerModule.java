@@ -43,6 +43,6 @@ public class AlignerModule extends AbstractModule{
 		bind(Lang.class).annotatedWith(TargetLanguage.class).toInstance(targetTermino.getLang());
 		bind(BilingualDictionary.class).toInstance(dico);
 		if(distance.isPresent())
-			bind(distance.get()).in(Singleton.class);
+			bind(SimilarityDistance.class).to(distance.get()).in(Singleton.class);
 	}
 }
@@ -27,13 +27,33 @@ public class CorpusService {
 	}
 
 
+	/**
+	 * Computes the number of documents and the total size of a corpus.
+	 * 
+	 * Documents are read only when neither the corpus nor the documents 
+	 * themselves know their sizes.
+	 * 
+	 * @param corpus
+	 * 			the textual corpus
+	 * @return
+	 * 			the corpus metadata
+	 * @throws IOException
+	 */
 	public CorpusMetadata computeMetadata(TextualCorpus corpus) throws IOException {
+		if(corpus instanceof FileSystemCorpus)
+			return ((FileSystemCorpus) corpus).getMetadata();
+		
+		int nbDocuments = corpus.getNbDocuments();
+		long totalSize = corpus.getTotalSize();
+		if(nbDocuments != -1 && totalSize != -1)
+			return new CorpusMetadata(nbDocuments, totalSize);
 		
 		AtomicLong corpusSize = new AtomicLong(0);
 		AtomicLong documentCount = new AtomicLong(0);
 		
 		corpus.documents().forEach(doc -> {
-			corpusSize.addAndGet(corpus.readDocumentText(doc).length());
+			long size = doc.getSize();
+			corpusSize.addAndGet(size != -1 ? size : corpus.readDocumentText(doc).length());
 			documentCount.incrementAndGet();
 		});
 			
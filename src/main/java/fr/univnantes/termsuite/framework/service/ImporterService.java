@@ -21,12 +21,19 @@
  *******************************************************************************/
 package fr.univnantes.termsuite.framework.service;
 
+import static java.util.stream.Collectors.toList;
+
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.uima.cas.FSIterator;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
@@ -71,76 +78,111 @@ public class ImporterService {
 	@Named("maxSize")
 	private int maxSize;
 
+	/*
+	 * Terms grouped by frequency, so that cleaning does not 
+	 * need to scan the terminology. Only maintained when maxSize 
+	 * filtering is activated.
+	 */
+	private TermFrequencyBuckets frequencyBuckets = null;
+
 	private AtomicInteger casCount = new AtomicInteger(0);
 
-	private Semaphore mutex = new Semaphore(1);
+	/*
+	 * CASes are imported concurrently under the read lock, 
+	 * cleaning requires the write lock.
+	 */
+	private ReadWriteLock importLock = new ReentrantReadWriteLock();
 	
+	/**
+	 * Imports a CAS to the terminology. 
+	 * 
+	 * This method is thread-safe, so several CASes can be imported 
+	 * concurrently, e.g. from a parallel {@link Stream}. Cleaning (when
+	 * maxSize is set) is done in mutual exclusion with imports.
+	 * 
+	 * @param jCas
+	 * 			the CAS to import
+	 */
 	public void importCas(JCas jCas)  {
-		mutex.acquireUninterruptibly();
-		importToTerminology(jCas);
-		cleanIfTooBig();
+		importLock.readLock().lock();
+		try {
+			importToTerminology(jCas);
+		} finally {
+			importLock.readLock().unlock();
+		}
+		if(maxSize != -1) {
+			importLock.writeLock().lock();
+			try {
+				cleanIfTooBig();
+			} finally {
+				importLock.writeLock().unlock();
+			}
+		}
 		int incrementAndGet = casCount.incrementAndGet();
-		mutex.release();
 		if(incrementAndGet % 10 == 0)
 			this.occurrenceStore.log();
 	}
 
-	private TermService createOrGetTerm(String[] pattern, Word[] words) {
+	private TermService createOrGetTerm(String termGroupingKey, String[] pattern, Word[] words, String spottingRule) {
 		Preconditions.checkArgument(pattern.length > 0, MSG_PATTERN_EMPTY);
 		Preconditions.checkArgument(words.length > 0, MSG_LEMMAS_EMPTY);
 		Preconditions.checkArgument(words.length == pattern.length, MSG_NOT_SAME_LENGTH);
 
-		String termGroupingKey = TermSuiteUtils.getGroupingKey(pattern, words);
-	
-		TermService term;
-		if(this.terminoService.containsTerm(termGroupingKey)) {
-			term = this.terminoService.getTerm(termGroupingKey);
-		} else {
+		return this.terminoService.getOrAddTerm(termGroupingKey, () -> {
 			TermBuilder builder = new TermBuilder();
 			for (int i = 0; i < pattern.length; i++)
 				builder.addWord(words[i], pattern[i]);
 			builder.setFrequency(0);
-			Term t = builder.create();
-			this.terminoService.addTerm(t);
-			term = this.terminoService.getTerm(t.getGroupingKey());
-		}
-		return term;
+			builder.setSpottingRule(spottingRule);
+			return builder.create();
+		});
+	}
+
+	private Word createOrGetWord(String lemma, String stem) {
+		return this.terminoService.getOrAddWord(lemma, () -> new Word(lemma, stem));
 	}
 
-	private synchronized Word createOrGetWord(String lemma, String stem) {
-		if(!this.terminoService.containsWord(lemma))
-			this.terminoService.addWord(new Word(lemma, stem));
-		return this.terminoService.getWord(lemma);
+	private synchronized TermFrequencyBuckets getFrequencyBuckets() {
+		if(frequencyBuckets == null) {
+			frequencyBuckets = new TermFrequencyBuckets();
+			frequencyBuckets.addAll(terminoService.terms().map(TermService::getTerm).collect(toList()));
+		}
+		return frequencyBuckets;
 	}
 
 	public void importToTerminology(JCas jCas) {
+		TermFrequencyBuckets buckets = maxSize == -1 ? null : getFrequencyBuckets();
 		Optional<SourceDocumentInformation> sdi = JCasUtils.getSourceDocumentAnnotation(jCas);
 		String currentFileURI = sdi.isPresent() ? sdi.get().getUri() : "(no source uri given)";
+		
+		/*
+		 * Frequencies are counted locally to the CAS and then added
+		 * once per term, so that concurrent imports rarely contend 
+		 * on frequent terms.
+		 */
+		Map<TermService, MutableInt> frequencies = new HashMap<>();
 		FSIterator<Annotation> it = jCas.getAnnotationIndex(TermOccAnnotation.type).iterator();
 		TermOccAnnotation toa;
 		while(it.hasNext()) {
 			toa = (TermOccAnnotation) it.next();
 			String gKey = TermSuiteUtils.getGroupingKey(toa);
 			
-			TermService term;
-			if(terminoService.containsTerm(gKey))
-				term = terminoService.getTerm(gKey);
-			else {
+			TermService term = terminoService.getTermUnchecked(gKey);
+			if(term == null) {
 				Word[] words = new Word[toa.getWords().size()];
 				for (int i = 0; i < toa.getWords().size(); i++) {
 					WordAnnotation wa = toa.getWords(i);
-					if(this.terminoService.containsWord(wa.getLemma()))
-						words[i] = this.terminoService.getWord(wa.getLemma());
-					else
-						words[i]= createOrGetWord(wa.getLemma(), wa.getStem());
+					words[i]= createOrGetWord(wa.getLemma(), wa.getStem());
 				}
 
 				term = createOrGetTerm(
-						toa.getPattern().toStringArray(), words);
-				term.setSpottingRule(toa.getSpottingRuleName());
+						gKey,
+						toa.getPattern().toStringArray(), 
+						words,
+						toa.getSpottingRuleName());
 			}
 
-			term.incrementFrequency(1);
+			frequencies.computeIfAbsent(term, t -> new MutableInt(0)).increment();
 			occurrenceStore.addOccurrence(
 					term.getTerm(),
 					currentFileURI, 
@@ -149,6 +191,13 @@ public class ImporterService {
 					toa.getCoveredText());
 		}
 		
+		for(Map.Entry<TermService, MutableInt> e:frequencies.entrySet()) {
+			if(buckets != null)
+				buckets.increment(e.getKey(), e.getValue().intValue());
+			else
+				e.getKey().incrementFrequency(e.getValue().intValue());
+		}
+		
 		FSIterator<Annotation> termIt = jCas.getAnnotationIndex(TermOccAnnotation.type).iterator();
 		terminoService.incrementSpottedTermsNum(Iterators.size(termIt));
 		FSIterator<Annotation> wordIt = jCas.getAnnotationIndex(WordAnnotation.type).iterator();
@@ -168,7 +217,7 @@ public class ImporterService {
 						maxSize, 
 						currentThreshold);
 				
-				terminoService.removeAll(t-> t.getFrequency() < currentThreshold);
+				terminoService.removeTerms(getFrequencyBuckets().removeBelow(currentThreshold));
 	
 				long sizeAfter = terminoService.termCount();
 				double removalRatio = ((double)(sizeBefore - sizeAfter))/sizeBefore;
@@ -1,6 +1,7 @@
 package fr.univnantes.termsuite.framework.service;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -13,25 +14,50 @@ import com.google.common.collect.Sets;
 
 import fr.univnantes.termsuite.api.TermSuiteException;
 import fr.univnantes.termsuite.framework.InjectLogger;
+import fr.univnantes.termsuite.index.ShardedTermIndex;
 import fr.univnantes.termsuite.index.TermIndex;
 import fr.univnantes.termsuite.index.TermIndexType;
+import fr.univnantes.termsuite.index.TermIndexValueProvider;
 import fr.univnantes.termsuite.index.Terminology;
 import fr.univnantes.termsuite.model.Term;
 
 public class IndexService {
+	
+	public static final int DEFAULT_NB_SHARDS = Runtime.getRuntime().availableProcessors();
 
 	@InjectLogger 
 	Logger logger;
 	
 	Terminology terminology;
 	
+	private int nbShards;
+	
 	private Stopwatch indexingSW = Stopwatch.createUnstarted();
 
 	private ConcurrentMap<TermIndexType, TermIndex> termIndexes = new ConcurrentHashMap<>();
 	
 	public IndexService(Terminology terminology) {
+		this(terminology, DEFAULT_NB_SHARDS);
+	}
+
+	/**
+	 * 
+	 * @param terminology
+	 * 			the terminology to index
+	 * @param nbShards
+	 * 			the number of shards of each created {@link TermIndex}. 
+	 * 			When <code>1</code>, plain single-lock {@link TermIndex}es 
+	 * 			are created, {@link ShardedTermIndex}es otherwise.
+	 */
+	public IndexService(Terminology terminology, int nbShards) {
 		super();
+		Preconditions.checkArgument(nbShards > 0, "Number of shards must be strictly positive. Got: %s", nbShards);
 		this.terminology = terminology;
+		this.nbShards = nbShards;
+	}
+	
+	public int getNbShards() {
+		return nbShards;
 	}
 
 	public void addTerm(Term term) {
@@ -40,9 +66,15 @@ public class IndexService {
 	}
 
 	public TermIndex getIndex(TermIndexType indexType) {
-		if(!this.termIndexes.containsKey(indexType))
-			createIndex(indexType);
-		return this.termIndexes.get(indexType);
+		TermIndex termIndex = this.termIndexes.get(indexType);
+		if(termIndex == null) {
+			synchronized(this) {
+				termIndex = this.termIndexes.get(indexType);
+				if(termIndex == null)
+					termIndex = createIndex(indexType);
+			}
+		}
+		return termIndex;
 	}
 	
 	private TermIndex createIndex(TermIndexType indexType) {
@@ -52,15 +84,16 @@ public class IndexService {
 		indexingSW.start();
 		TermIndex termIndex;
 		try {
-			termIndex = new TermIndex(indexType.getProviderClass().newInstance());
+			TermIndexValueProvider valueProvider = indexType.getProviderClass().newInstance();
+			termIndex = nbShards == 1 ? 
+					new TermIndex(valueProvider) 
+						: new ShardedTermIndex(valueProvider, nbShards);
 		} catch (InstantiationException | IllegalAccessException e) {
 			indexingSW.stop();
 			throw new TermSuiteException(e);
 		}
+		termIndex.addAll(this.terminology.getTerms().values());
 		this.termIndexes.put(indexType, termIndex);
-
-		for(Term t:this.terminology.getTerms().values()) 
-			termIndex.addToIndex(t);
 		indexingSW.stop();
 		return termIndex;
 	}
@@ -87,12 +120,14 @@ public class IndexService {
 		Iterator<Term> it;
 		Term t;
 		int initialSize;
-		for(String key:termIndex.getClasses().keySet()) {
+		List<Term> terms;
+		for(String key:termIndex.keySet()) {
 			th = 1;
-			initialSize = termIndex.getClasses().get(key).size();
-			while (termIndex.getClasses().get(key).size() > maxSize) {
+			terms = termIndex.getTerms(key);
+			initialSize = terms.size();
+			while (terms.size() > maxSize) {
 				th++;
-				it = termIndex.getClasses().get(key).iterator();
+				it = terms.iterator();
 				while(it.hasNext()) {
 					t = it.next();
 					if(t.getFrequency()<th)
@@ -104,7 +139,7 @@ public class IndexService {
 						key,
 						th,
 						initialSize,
-						termIndex.getClasses().get(key).size()
+						terms.size()
 						);
 			}
 		}
@@ -113,17 +148,17 @@ public class IndexService {
 	public void dropBiggerEntries(TermIndexType termIndexType, int threshholdSize) {
 		TermIndex termIndex = checkIndexCreated(termIndexType);
 		Set<String> toRemove = Sets.newHashSet();
-		for(String key:termIndex.getClasses().keySet()) {
-			if(termIndex.getClasses().get(key).size() >= threshholdSize)
+		for(String key:termIndex.keySet()) {
+			if(termIndex.getTerms(key).size() >= threshholdSize)
 				toRemove.add(key);
 		}
 		for(String rem:toRemove) {
 			logger.warn("Removing key {} from custom index {} because its size {} is bigger than the threshhold {}",
 					rem,
 					termIndexType,
-					termIndex.getClasses().get(rem).size(),
+					termIndex.getTerms(rem).size(),
 					threshholdSize);
-			termIndex.getClasses().removeAll(rem);
+			termIndex.dropEntry(rem);
 		}
 	}
 
@@ -133,10 +168,11 @@ public class IndexService {
 	}
 
 	public void cleanSingletonKeys(TermIndex termIndex) {
-		Iterator<String> it = termIndex.getClasses().keySet().iterator();
-		while(it.hasNext())
-			if(termIndex.getClasses().get(it.next()).size() == 1)
-				it.remove();
+		Set<String> toRemove = Sets.newHashSet();
+		for(String key:termIndex.keySet())
+			if(termIndex.getTerms(key).size() == 1)
+				toRemove.add(key);
+		toRemove.forEach(termIndex::dropEntry);
 	}
 
 }
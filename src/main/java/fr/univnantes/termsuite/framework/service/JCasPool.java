@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.framework.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.api.TermSuiteException;
+
+/**
+ * 
+ * A bounded pool of {@link JCas}, so that CASes are recycled with {@link JCas#reset()} 
+ * instead of being created for each document.
+ * 
+ * At most <code>capacity</code> CASes are created, {@link #acquire()} blocks
+ * while all of them are in use.
+ *
+ */
+public class JCasPool {
+	
+	private final int capacity;
+	private final Semaphore permits;
+	private final BlockingQueue<JCas> freeCases = new LinkedBlockingQueue<>();
+	
+	public JCasPool(int capacity) {
+		Preconditions.checkArgument(capacity > 0, "Bad capacity: %s", capacity);
+		this.capacity = capacity;
+		this.permits = new Semaphore(capacity);
+	}
+	
+	/**
+	 * Gets a blank CAS from the pool, or creates it if the pool has
+	 * not reached its capacity yet.
+	 * 
+	 * @return
+	 * 			a blank CAS
+	 * @throws InterruptedException
+	 * 			if interrupted while waiting for a CAS to be released
+	 */
+	public JCas acquire() throws InterruptedException {
+		permits.acquire();
+		JCas cas = freeCases.poll();
+		if(cas == null) {
+			try {
+				cas = JCasFactory.createJCas();
+			} catch (UIMAException e) {
+				permits.release();
+				throw new TermSuiteException("Could not create JCas", e);
+			}
+		}
+		return cas;
+	}
+	
+	/**
+	 * Resets a CAS and gives it back to the pool.
+	 * 
+	 * @param cas
+	 * 			a CAS acquired from this pool
+	 */
+	public void release(JCas cas) {
+		try {
+			cas.reset();
+			freeCases.add(cas);
+		} finally {
+			permits.release();
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.framework.service;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.uima.jcas.JCas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.api.TermSuiteException;
+import fr.univnantes.termsuite.model.Document;
+
+/**
+ * 
+ * Runs the preprocessing pipeline of a {@link PreprocessorService} on 
+ * several worker threads.
+ * 
+ * Documents are read in the calling thread and handed to the workers, which 
+ * fill a CAS, process it with the analysis engine and pass it to a 
+ * consumer (CAS exports, terminology import). The number of documents in 
+ * flight is bounded by a {@link JCasPool} of twice the number of threads, 
+ * so reading blocks whenever the workers fall behind.
+ * 
+ * The analysis engine of the {@link PreprocessorService} must accept 
+ * concurrent {@link PreprocessorService#prepare(JCas)} invocations, i.e. 
+ * it must have been produced with as many simultaneous requests as there 
+ * are threads, and so must the consumer.
+ *
+ */
+public class PreprocessingExecutor {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PreprocessingExecutor.class);
+	
+	private final PreprocessorService preprocessorService;
+	private final int nbThreads;
+	private final int capacity;
+	
+	public PreprocessingExecutor(PreprocessorService preprocessorService, int nbThreads) {
+		Preconditions.checkArgument(nbThreads > 0, "Bad number of threads: %s", nbThreads);
+		this.preprocessorService = preprocessorService;
+		this.nbThreads = nbThreads;
+		this.capacity = 2 * nbThreads;
+	}
+	
+	/**
+	 * Preprocesses documents, recycling CASes through a {@link JCasPool}.
+	 * 
+	 * The CAS given to the consumer is reset and reused as soon as the 
+	 * consumer returns, so it must not be retained.
+	 * 
+	 * @param documents
+	 * 			the documents to preprocess
+	 * @param casInitializer
+	 * 			sets the document text and metadata to a blank CAS
+	 * @param casConsumer
+	 * 			consumes the preprocessed CASes
+	 */
+	public void process(Stream<Document> documents, BiConsumer<JCas, Document> casInitializer, Consumer<JCas> casConsumer) {
+		JCasPool pool = new JCasPool(capacity);
+		run(documents, 
+				doc -> {
+					JCas cas = pool.acquire();
+					return () -> {
+						try {
+							casInitializer.accept(cas, doc);
+							casConsumer.accept(preprocessorService.prepare(cas));
+						} finally {
+							pool.release(cas);
+						}
+					};
+				});
+	}
+
+	/**
+	 * Preprocesses CASes that are already initialized. CASes are not recycled.
+	 * 
+	 * @param blankCases
+	 * 			the CASes to preprocess
+	 * @param casConsumer
+	 * 			consumes the preprocessed CASes
+	 */
+	public void processCases(Stream<JCas> blankCases, Consumer<JCas> casConsumer) {
+		Semaphore inFlight = new Semaphore(capacity);
+		run(blankCases, 
+				cas -> {
+					inFlight.acquire();
+					return () -> {
+						try {
+							casConsumer.accept(preprocessorService.prepare(cas));
+						} finally {
+							inFlight.release();
+						}
+					};
+				});
+	}
+
+	@FunctionalInterface
+	private interface TaskFactory<T> {
+		/*
+		 * Blocks until the task can be submitted
+		 */
+		Runnable create(T input) throws InterruptedException;
+	}
+	
+	private <T> void run(Stream<T> inputs, TaskFactory<T> taskFactory) {
+		AtomicInteger threadCount = new AtomicInteger(0);
+		ExecutorService workers = Executors.newFixedThreadPool(nbThreads, r -> {
+			Thread thread = new Thread(r, "preprocessor-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		LOGGER.debug("Starting preprocessing on {} threads", nbThreads);
+		try {
+			Iterator<T> it = inputs.iterator();
+			while(it.hasNext() && error.get() == null) {
+				Runnable task = taskFactory.create(it.next());
+				workers.execute(() -> {
+					try {
+						task.run();
+					} catch(Throwable t) {
+						error.compareAndSet(null, t);
+					}
+				});
+			}
+			workers.shutdown();
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TermSuiteException("Interrupted while preprocessing", e);
+		} finally {
+			workers.shutdownNow();
+		}
+		if(error.get() != null) {
+			if(error.get() instanceof TermSuiteException)
+				throw (TermSuiteException)error.get();
+			throw new TermSuiteException("Preprocessing failed", error.get());
+		}
+	}
+}
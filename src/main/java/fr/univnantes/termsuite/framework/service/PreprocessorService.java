@@ -4,6 +4,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
@@ -37,6 +38,7 @@ import fr.univnantes.termsuite.model.IndexedCorpus;
 import fr.univnantes.termsuite.model.Lang;
 import fr.univnantes.termsuite.projection.DocumentProjection;
 import fr.univnantes.termsuite.projection.DocumentProjectionService;
+import fr.univnantes.termsuite.uima.readers.BinaryCasSerializer;
 import fr.univnantes.termsuite.uima.readers.JsonCasSerializer;
 import fr.univnantes.termsuite.uima.readers.TSVCasSerializer;
 import fr.univnantes.termsuite.utils.JCasUtils;
@@ -135,6 +137,17 @@ public class PreprocessorService {
 		}
 	}
 
+	public JCas toBinaryCas(JCas cas, Path filePath, boolean withText) {
+		logger.debug("Exporting CAS to {}", filePath);
+		try(OutputStream os = new FileOutputStream(makeParentDirs(filePath).toFile())) {
+			BinaryCasSerializer.serialize(os, cas, withText);
+			logger.debug("Binary CAS export succeeded");
+			return cas;
+		} catch (IOException e) {
+			throw new TermSuiteException(e);
+		}
+	}
+
 	private Path makeParentDirs(Path path) {
 		path.getParent().toFile().mkdirs();
 		return path;
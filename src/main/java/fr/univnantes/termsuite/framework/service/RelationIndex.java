@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.framework.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import fr.univnantes.termsuite.model.Relation;
+import fr.univnantes.termsuite.model.RelationType;
+import fr.univnantes.termsuite.model.Term;
+
+/**
+ * 
+ * Concurrent adjacency index of the relations of a terminology, 
+ * partitioned by {@link RelationType}. 
+ * 
+ * Relations can be added from several threads without any lock. 
+ * Adding and removing the same relation concurrently is not supported.
+ * 
+ * @see TerminologyService
+ */
+class RelationIndex {
+	
+	private ConcurrentMap<Relation, Relation> relations = new ConcurrentHashMap<>();
+	private Map<RelationType, Set<Relation>> relationsByType = new EnumMap<>(RelationType.class);
+	private ConcurrentMap<Term, Set<Relation>> outboundRelations = new ConcurrentHashMap<>();
+	private ConcurrentMap<Term, Set<Relation>> inboundRelations = new ConcurrentHashMap<>();
+	
+	RelationIndex() {
+		for(RelationType type:RelationType.values())
+			relationsByType.put(type, ConcurrentHashMap.newKeySet());
+	}
+
+	/**
+	 * Adds a relation to the index, unless an equal relation 
+	 * (same source, same target, same type) is already indexed.
+	 * 
+	 * @param relation
+	 * 			the relation to add
+	 * @return
+	 * 			the relation already indexed, or <code>null</code> if
+	 * 			<code>relation</code> has been added.
+	 */
+	Relation addIfAbsent(Relation relation) {
+		Relation existing = relations.putIfAbsent(relation, relation);
+		if(existing != null)
+			return existing;
+		relationsByType.get(relation.getType()).add(relation);
+		addAdjacency(outboundRelations, relation.getFrom(), relation);
+		addAdjacency(inboundRelations, relation.getTo(), relation);
+		return null;
+	}
+
+	/**
+	 * Removes a relation from the index.
+	 * 
+	 * @param relation
+	 * 			the relation to remove
+	 * @return
+	 * 			the indexed relation equal to <code>relation</code> that has been 
+	 * 			removed, or <code>null</code> if there was none.
+	 */
+	Relation remove(Relation relation) {
+		Relation removed = relations.remove(relation);
+		if(removed == null)
+			return null;
+		relationsByType.get(relation.getType()).remove(relation);
+		removeAdjacency(outboundRelations, relation.getFrom(), relation);
+		removeAdjacency(inboundRelations, relation.getTo(), relation);
+		return removed;
+	}
+
+	private static void addAdjacency(ConcurrentMap<Term, Set<Relation>> adjacency, Term term, Relation relation) {
+		adjacency.compute(term, (t, set) -> {
+			if(set == null)
+				set = ConcurrentHashMap.newKeySet(2);
+			set.add(relation);
+			return set;
+		});
+	}
+
+	private static void removeAdjacency(ConcurrentMap<Term, Set<Relation>> adjacency, Term term, Relation relation) {
+		adjacency.computeIfPresent(term, (t, set) -> {
+			set.remove(relation);
+			return set.isEmpty() ? null : set;
+		});
+	}
+
+	boolean contains(Relation relation) {
+		return relations.containsKey(relation);
+	}
+
+	Relation get(Term from, RelationType type, Term to) {
+		for(Relation relation:getOutboundRelations(from))
+			if(relation.getType() == type && relation.getTo().equals(to))
+				return relation;
+		return null;
+	}
+	
+	Set<Relation> getOutboundRelations(Term from) {
+		return outboundRelations.getOrDefault(from, Collections.emptySet());
+	}
+
+	Set<Relation> getInboundRelations(Term to) {
+		return inboundRelations.getOrDefault(to, Collections.emptySet());
+	}
+
+	Stream<Relation> relations(RelationType type) {
+		return relationsByType.get(type).stream();
+	}
+
+	int size() {
+		return relations.size();
+	}
+}
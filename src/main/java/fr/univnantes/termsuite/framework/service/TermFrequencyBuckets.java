@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.framework.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import fr.univnantes.termsuite.model.Term;
+
+/**
+ * 
+ * Groups terms by frequency so that all terms under a frequency 
+ * threshold can be found without scanning the whole terminology.
+ * 
+ * Buckets must be kept up to date by invoking {@link #incremented(Term, int)}
+ * each time the frequency of a tracked term is incremented.
+ * 
+ * @see ImporterService#cleanIfTooBig()
+ */
+public class TermFrequencyBuckets {
+	
+	private NavigableMap<Integer, Set<Term>> buckets = new TreeMap<>();
+	private int size = 0;
+
+	public synchronized void add(Term term) {
+		if(getBucket(frequency(term)).add(term))
+			size++;
+	}
+
+	public synchronized void addAll(Collection<Term> terms) {
+		for(Term term:terms)
+			add(term);
+	}
+	
+	/**
+	 * Increments the frequency of a term and moves it to the bucket 
+	 * of its new frequency, atomically.
+	 * 
+	 * @param term
+	 * 			the term
+	 * @param increment
+	 * 			the frequency increment
+	 */
+	public synchronized void increment(TermService term, int increment) {
+		term.incrementFrequency(increment);
+		incremented(term.getTerm(), increment);
+	}
+	
+	/**
+	 * Moves a term to the bucket of its new frequency.
+	 * 
+	 * @param term
+	 * 			the term, which frequency has already been incremented
+	 * @param increment
+	 * 			the frequency increment
+	 */
+	public synchronized void incremented(Term term, int increment) {
+		int frequency = frequency(term);
+		if(removeFromBucket(term, frequency - increment))
+			getBucket(frequency).add(term);
+		else
+			add(term);
+	}
+
+	/**
+	 * Removes all terms having a frequency strictly lower than a threshold.
+	 * 
+	 * Costs O(log(k) + n), where k is the number of distinct frequencies and
+	 * n the number of terms removed.
+	 * 
+	 * @param threshold
+	 * 			the frequency threshold
+	 * @return
+	 * 			the removed terms
+	 */
+	public synchronized List<Term> removeBelow(int threshold) {
+		NavigableMap<Integer, Set<Term>> head = buckets.headMap(threshold, false);
+		List<Term> removed = Lists.newArrayList();
+		for(Set<Term> bucket:head.values())
+			removed.addAll(bucket);
+		head.clear();
+		size -= removed.size();
+		return removed;
+	}
+	
+	public synchronized int size() {
+		return size;
+	}
+
+	private Set<Term> getBucket(int frequency) {
+		return buckets.computeIfAbsent(frequency, f -> Sets.newHashSet());
+	}
+
+	private boolean removeFromBucket(Term term, int frequency) {
+		Set<Term> bucket = buckets.get(frequency);
+		if(bucket == null || !bucket.remove(term))
+			return false;
+		if(bucket.isEmpty())
+			buckets.remove(frequency);
+		return true;
+	}
+
+	private static int frequency(Term term) {
+		Integer frequency = term.getFrequency();
+		return frequency == null ? 0 : frequency;
+	}
+}
@@ -17,16 +17,17 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
 
+import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 
 import fr.univnantes.termsuite.api.TermOrdering;
@@ -65,55 +66,37 @@ public class TerminologyService {
 	@Inject
 	private IndexService indexService;
 
-	private Multimap<Term, Relation> inboundRelations =  null;
-	private Multimap<Term, Relation> outboundRelations =  null;
+	private volatile RelationIndex relationIndex =  null;
 	
-	private Semaphore relationMutex = new Semaphore(1);
 	private Semaphore termMutex = new Semaphore(1);
 	
-	private synchronized void initRelations() {
-		if(inboundRelations == null) {
-			inboundRelations = HashMultimap.create(); 
-			outboundRelations = HashMultimap.create(); 
-			this.termino.getRelations().forEach(r-> {
-				outboundRelations.put(r.getFrom(), r);
-				inboundRelations.put(r.getTo(), r);
-			});
+	private RelationIndex getRelationIndex() {
+		if(relationIndex == null) {
+			synchronized (this) {
+				if(relationIndex == null) {
+					RelationIndex index = new RelationIndex();
+					this.termino.getRelations().forEach(index::addIfAbsent);
+					relationIndex = index;
+				}
+			}
 		}
-	}
-	
-	private Multimap<Term, Relation> getOutboundRelations() {
-		initRelations();
-		return outboundRelations;
+		return relationIndex;
 	}
 
-	private Multimap<Term, Relation> getInboundRelations() {
-		initRelations();
-		return inboundRelations;
-	}
-	
-
 	public RelationService getRelationOrCreate(Term from, RelationType type, Term to) {
-		RelationService r;
-		relationMutex.acquireUninterruptibly();
-		Optional<RelationService> relation = getRelation(from, type, to);
-		if(relation.isPresent())
-			r =  relation.get();
-		else {
-			Relation created = new Relation(type, from, to);
-			privateAddRelation(created);
-			r = asRelationService(created);
-		}
-		relationMutex.release();
-		return r;
+		Relation existing = getRelationIndex().get(from, type, to);
+		if(existing != null)
+			return asRelationService(existing);
+		Relation created = new Relation(type, from, to);
+		return asRelationService(MoreObjects.firstNonNull(addRelationIfAbsent(created), created));
 	}
 
 	public Optional<RelationService> getRelation(Term from, RelationType type, Term to) {
-		return outboundRelations(from).filter(rel -> rel.getTo().equals(to) && type == rel.getType()).findAny();
+		return Optional.ofNullable(getRelationIndex().get(from, type, to)).map(this::asRelationService);
 	}
 	
 	public Stream<Relation> getRelations(Term from, Term to, RelationType type, RelationType... types) {
-		Stream<Relation> stream = this.getOutboundRelations().get(from)
+		Stream<Relation> stream = getRelationIndex().getOutboundRelations(from)
 					.stream()
 					.filter(relation -> relation.getTo().equals(to));
 		
@@ -136,7 +119,7 @@ public class TerminologyService {
 	}
 	
 	public Stream<RelationService> variations() {
-		return relations().filter(r -> r.getRelation().getType() == RelationType.VARIATION);
+		return relations(RelationType.VARIATION);
 	}
 	
 	public Stream<RelationService> variations(VariationType type) {
@@ -145,9 +128,11 @@ public class TerminologyService {
 	}
 
 	public Stream<RelationService> relations(RelationType type, RelationType... types) {
-		EnumSet<RelationType> typeSet = EnumSet.of(type, types);
-		return relations()
-				.filter(r -> typeSet.contains(r.getRelation().getType()));
+		Stream<Relation> stream = getRelationIndex().relations(type);
+		for(RelationType other:EnumSet.of(type, types))
+			if(other != type)
+				stream = Stream.concat(stream, getRelationIndex().relations(other));
+		return stream.map(this::asRelationService);
 	}
 
 	public Collection<TermService> getTerms() {
@@ -183,8 +168,7 @@ public class TerminologyService {
 
 
 	public Stream<RelationService> inboundRelations(Term target) {
-		return this.getInboundRelations()
-				.get(target)
+		return getRelationIndex().getInboundRelations(target)
 				.stream()
 				.map(this::asRelationService);
 	}
@@ -196,8 +180,7 @@ public class TerminologyService {
 	}
 	
 	public Stream<RelationService> outboundRelations(Term source) {
-		return this.getOutboundRelations()
-				.get(source)
+		return getRelationIndex().getOutboundRelations(source)
 				.stream()
 				.map(this::asRelationService)
 				;
@@ -215,25 +198,19 @@ public class TerminologyService {
 				.filter(r-> r.getRelation().getType() == RelationType.VARIATION);
 	}
 
-	public synchronized Optional<RelationService> getVariation(Term from, Term to) {
-		return variations(from, to).findAny();
+	public Optional<RelationService> getVariation(Term from, Term to) {
+		return getRelation(from, RelationType.VARIATION, to);
 	}
 
 	public RelationService createVariation(VariationType variationType, Term from, Term to) {
 		Preconditions.checkArgument(!from.equals(to), 
 				MSG_REFLEXION_NOT_ALLOWED, from, variationType, to);
-		relationMutex.acquireUninterruptibly();
-		RelationService r;
-		Optional<RelationService> existing = variations(from, to).findAny();
-		if(!existing.isPresent()) {
-			Relation relation = TermSuiteFactory.createVariation(variationType, from, to);
-			relation.setProperty(variationType.getRelationProperty(), true);
-			privateAddRelation(relation);
-			r = asRelationService(relation);
-		} else
-			r = existing.get();
-		relationMutex.release();
-		return r;
+		Relation existing = getRelationIndex().get(from, RelationType.VARIATION, to);
+		if(existing != null)
+			return asRelationService(existing);
+		Relation relation = TermSuiteFactory.createVariation(variationType, from, to);
+		relation.setProperty(variationType.getRelationProperty(), true);
+		return asRelationService(MoreObjects.firstNonNull(addRelationIfAbsent(relation), relation));
 	}
 
 	public Stream<RelationService> relations(RelationProperty property, Object value) {
@@ -338,6 +315,7 @@ public class TerminologyService {
 		termMutex.acquireUninterruptibly();
 		Preconditions.checkArgument(
 				!containsTerm(term.getGroupingKey()));
+		this.termino.bindProperties(term);
 		this.termino.getTerms().put(term.getGroupingKey(), term);
 		for(TermWord tw:term.getWords())
 			privateAddWord(tw.getWord(), false);
@@ -345,6 +323,63 @@ public class TerminologyService {
 		termMutex.release();
 	}
 
+	/**
+	 * Gets the term having a given grouping key, or creates and adds it 
+	 * to the terminology if it does not exist yet.
+	 * 
+	 * Safe to invoke concurrently: the term is created once per grouping 
+	 * key whatever the number of threads asking for it.
+	 * 
+	 * @param groupingKey
+	 * 			the grouping key of the term
+	 * @param termFactory
+	 * 			creates the term when it is absent from the terminology
+	 * @return
+	 * 			the term
+	 */
+	public TermService getOrAddTerm(String groupingKey, Supplier<Term> termFactory) {
+		Term term = this.termino.getTerms().get(groupingKey);
+		if(term == null) {
+			AtomicBoolean created = new AtomicBoolean(false);
+			term = this.termino.getTerms().computeIfAbsent(groupingKey, key -> {
+				Term t = termFactory.get();
+				Preconditions.checkArgument(t.getGroupingKey().equals(key), 
+						"Bad grouping key %s for term. Expected: %s", t.getGroupingKey(), key);
+				this.termino.bindProperties(t);
+				created.set(true);
+				return t;
+			});
+			if(created.get()) {
+				for(TermWord tw:term.getWords())
+					this.termino.getWords().putIfAbsent(tw.getWord().getLemma(), tw.getWord());
+				termMutex.acquireUninterruptibly();
+				indexService.addTerm(term);
+				termMutex.release();
+			}
+		}
+		return asTermService(term);
+	}
+
+	/**
+	 * Gets the word having a given lemma, or creates and adds it 
+	 * to the terminology if it does not exist yet.
+	 * 
+	 * Safe to invoke concurrently.
+	 * 
+	 * @param lemma
+	 * 			the lemma of the word
+	 * @param wordFactory
+	 * 			creates the word when it is absent from the terminology
+	 * @return
+	 * 			the word
+	 */
+	public Word getOrAddWord(String lemma, Supplier<Word> wordFactory) {
+		Word word = this.termino.getWords().get(lemma);
+		return word == null ? 
+				this.termino.getWords().computeIfAbsent(lemma, l -> wordFactory.get())
+				: word;
+	}
+
 	public void addWord(Word word) {
 		privateAddWord(word, true);
 	}
@@ -377,11 +412,11 @@ public class TerminologyService {
 	
 	public void removeTerm(Term t) {
 		termMutex.acquireUninterruptibly();
-		this.termino.getTerms().remove(t.getGroupingKey());
+		Term removed = this.termino.getTerms().remove(t.getGroupingKey());
 		// remove from variants
 		List<Relation> toRem = Lists.newLinkedList();
-		toRem.addAll(this.getOutboundRelations().get(t));
-		toRem.addAll(this.getInboundRelations().get(t));
+		toRem.addAll(getRelationIndex().getOutboundRelations(t));
+		toRem.addAll(getRelationIndex().getInboundRelations(t));
 		removeRelations(toRem);
 		
 		/*
@@ -400,17 +435,23 @@ public class TerminologyService {
 		}
 		indexService.removeTerm(t);
 		occurrenceStore.removeTerm(t);
+		termServices.remove(t);
+		if(removed != null)
+			this.termino.releaseProperties(removed);
 		termMutex.release();
 	}
 
 	public void removeTerms(Collection<Term> terms) {
 		termMutex.acquireUninterruptibly();
 		List<Relation> toRem = Lists.newLinkedList();
+		List<Term> removed = Lists.newArrayListWithCapacity(terms.size());
 		for(Term t:terms) {
-			this.termino.getTerms().remove(t.getGroupingKey());
+			Term r = this.termino.getTerms().remove(t.getGroupingKey());
+			if(r != null)
+				removed.add(r);
 			// remove from variants
-			toRem.addAll(this.getOutboundRelations().get(t));
-			toRem.addAll(this.getInboundRelations().get(t));
+			toRem.addAll(getRelationIndex().getOutboundRelations(t));
+			toRem.addAll(getRelationIndex().getInboundRelations(t));
 		}
 		removeRelations(toRem);
 		
@@ -422,16 +463,22 @@ public class TerminologyService {
 		 * thus they must be checked from removal.
 		 * 
 		 */
-		for(Term t:terms) {
-			if(t.getContext() != null) {
-				for(Term o:this.termino.getTerms().values()) {
-					if(o.getContext() != null)
+		List<Term> withContext = terms.stream()
+				.filter(t -> t.getContext() != null)
+				.collect(toList());
+		if(!withContext.isEmpty()) {
+			for(Term o:this.termino.getTerms().values()) {
+				if(o.getContext() != null)
+					for(Term t:withContext)
 						o.getContext().removeCoTerm(t);
-				}
 			}
+		}
+		for(Term t:terms) {
 			indexService.removeTerm(t);
 			occurrenceStore.removeTerm(t);
+			termServices.remove(t);
 		}
+		removed.forEach(this.termino::releaseProperties);
 		termMutex.release();
 	}
 
@@ -443,29 +490,30 @@ public class TerminologyService {
 		this.termino.getNbSpottedTerms().addAndGet(nbSpottedTerms);
 	}
 
-	public void addRelation(Relation termVariation) {
-		relationMutex.acquireUninterruptibly();
-		privateAddRelation(termVariation);
-		relationMutex.release();
+	public void addRelation(Relation relation) {
+		Preconditions.checkArgument(
+				addRelationIfAbsent(relation) == null,
+				MSG_DUPLICATE_RELATION, relation);
 	}
 
 	/*
-	 * Must be invoked under mutex
+	 * Returns the equal relation that was already in the terminology, 
+	 * or null if the given relation has been added.
 	 */
-	private void privateAddRelation(Relation relation) {
+	private Relation addRelationIfAbsent(Relation relation) {
 		Preconditions.checkArgument(!relation.getFrom().equals(relation.getTo()),
 				MSG_REFLEXION_NOT_ALLOWED,
 				relation.getFrom(),
 				relation.getType(),
 				relation.getTo()
 				);
-		initRelations();
-		Preconditions.checkArgument(
-				!this.termino.getRelations().contains(relation),
-				MSG_DUPLICATE_RELATION, relation);
-		this.termino.getRelations().add(relation);
-		this.getOutboundRelations().put(relation.getFrom(), relation);
-		this.getInboundRelations().put(relation.getTo(), relation);
+		this.termino.bindProperties(relation);
+		Relation existing = getRelationIndex().addIfAbsent(relation);
+		if(existing == null)
+			this.termino.getRelations().add(relation);
+		else
+			this.termino.releaseProperties(relation);
+		return existing;
 	}
 
 	public void removeRelation(RelationService variation) {
@@ -473,22 +521,16 @@ public class TerminologyService {
 	}
 	
 	public void removeRelations(Collection<Relation> relations) {
-		relationMutex.acquireUninterruptibly();
-		this.termino.getRelations().removeAll(relations);
-		for(Relation relation:relations) {
-			this.getOutboundRelations().remove(relation.getFrom(), relation);
-			this.getInboundRelations().remove(relation.getTo(), relation);
-		}
-		relationMutex.release();
+		for(Relation relation:relations) 
+			removeRelation(relation);
 	}
 
 
 	public void removeRelation(Relation relation) {
-		relationMutex.acquireUninterruptibly();
 		this.termino.getRelations().remove(relation);
-		this.getOutboundRelations().remove(relation.getFrom(), relation);
-		this.getInboundRelations().remove(relation.getTo(), relation);
-		relationMutex.release();
+		Relation removed = getRelationIndex().remove(relation);
+		if(removed != null)
+			this.termino.releaseProperties(removed);
 	}
 
 	public List<TermService> getTerms(TermOrdering ordering) {
@@ -628,10 +670,8 @@ public class TerminologyService {
 	}
 
 	public void addRelations(Set<Relation> relations) {
-		relationMutex.acquireUninterruptibly();
 		for(Relation r:relations)
-			privateAddRelation(r);
-		relationMutex.release();
+			addRelation(r);
 	}
 
 	public TerminologyService cloneTerminology() {
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.index;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+
+import fr.univnantes.termsuite.model.Term;
+
+/**
+ * A {@link TermIndex} whose classes are partitioned into shards by key hash.
+ * 
+ * Each shard is guarded by its own lock, so that concurrent writers only 
+ * contend when they index terms in the same shard, and {@link #addAll(Collection)}
+ * computes term classes and fills shards in parallel.
+ */
+public class ShardedTermIndex extends TermIndex {
+	
+	private static final int MIN_CHUNK_SIZE = 1000;
+
+	private TermIndexValueProvider valueProvider;
+	
+	private List<ListMultimap<String, Term>> shards;
+	
+	public ShardedTermIndex(TermIndexValueProvider valueProvider, int nbShards) {
+		super(valueProvider, null);
+		Preconditions.checkArgument(nbShards > 0, "Number of shards must be strictly positive. Got: %s", nbShards);
+		this.valueProvider = valueProvider;
+		this.shards = new ArrayList<>(nbShards);
+		for(int i = 0; i < nbShards; i++)
+			this.shards.add(Multimaps.synchronizedListMultimap(ArrayListMultimap.create()));
+	}
+	
+	private int shardIndex(String key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return (h & Integer.MAX_VALUE) % shards.size();
+	}
+	
+	private ListMultimap<String, Term> shard(String key) {
+		return shards.get(shardIndex(key));
+	}
+	
+	public int getNbShards() {
+		return shards.size();
+	}
+
+	/**
+	 * A snapshot of all index keys, safe to stream in parallel.
+	 */
+	@Override
+	public Collection<String> keySet() {
+		List<String> keys = new ArrayList<>();
+		for(ListMultimap<String, Term> shard:shards) {
+			synchronized (shard) {
+				keys.addAll(shard.keySet());
+			}
+		}
+		return keys;
+	}
+
+	@Override
+	public List<Term> getTerms(String key) {
+		return shard(key).get(key);
+	}
+
+	@Override
+	public void addToIndex(Term term) {
+		Collection<String> classes = valueProvider.getClasses(term);
+		if(classes != null) {
+			for(String cls:classes) {
+				if(cls!= null)			
+					shard(cls).put(cls, term);
+			}
+		}
+	}
+
+	/**
+	 * Indexes a whole collection of terms in two parallel passes: 
+	 * classes are computed by chunks of terms and bucketized by shard, 
+	 * then each shard is filled by a single thread. The order of terms
+	 * in each class is the iteration order of the given collection.
+	 */
+	@Override
+	public void addAll(Collection<Term> terms) {
+		List<Term> termList = terms instanceof List ? (List<Term>)terms : new ArrayList<>(terms);
+		int chunkSize = Math.max(
+				MIN_CHUNK_SIZE, 
+				termList.size() / (4 * Runtime.getRuntime().availableProcessors()) + 1);
+		List<List<Term>> chunks = Lists.partition(termList, chunkSize);
+		
+		List<List<List<Map.Entry<String, Term>>>> bucketizedChunks = chunks
+				.parallelStream()
+				.map(this::bucketize)
+				.collect(toList());
+		
+		IntStream.range(0, shards.size()).parallel().forEach(shardIndex -> {
+			ListMultimap<String, Term> shard = shards.get(shardIndex);
+			synchronized (shard) {
+				for(List<List<Map.Entry<String, Term>>> buckets:bucketizedChunks)
+					for(Map.Entry<String, Term> e:buckets.get(shardIndex))
+						shard.put(e.getKey(), e.getValue());
+			}
+		});
+	}
+
+	private List<List<Map.Entry<String, Term>>> bucketize(List<Term> chunk) {
+		List<List<Map.Entry<String, Term>>> buckets = new ArrayList<>(shards.size());
+		for(int i = 0; i < shards.size(); i++)
+			buckets.add(new ArrayList<>());
+		for(Term term:chunk) {
+			Collection<String> classes = valueProvider.getClasses(term);
+			if(classes != null) {
+				for(String cls:classes) {
+					if(cls!= null)
+						buckets.get(shardIndex(cls)).add(Maps.immutableEntry(cls, term));
+				}
+			}
+		}
+		return buckets;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for(ListMultimap<String, Term> shard:shards)
+			size += shard.size();
+		return size;
+	}
+
+	@Override
+	public void removeTerm(Term t) {
+		for(String k:valueProvider.getClasses(t))
+			shard(k).remove(k, t);
+	}
+
+	@Override
+	public boolean containsKey(String key) {
+		return shard(key).containsKey(key);
+	}
+
+	@Override
+	public void dropEntry(String key) {
+		shard(key).removeAll(key);
+	}
+
+	/**
+	 * An immutable snapshot of all shards merged into one multimap.
+	 * 
+	 * Use {@link #getTerms(String)} and {@link #dropEntry(String)} to 
+	 * modify the index.
+	 */
+	@Override
+	public ListMultimap<String, Term> getClasses() {
+		ImmutableListMultimap.Builder<String, Term> builder = ImmutableListMultimap.builder();
+		for(ListMultimap<String, Term> shard:shards) {
+			synchronized (shard) {
+				builder.putAll(shard);
+			}
+		}
+		return builder.build();
+	}
+}
@@ -40,9 +40,13 @@ public class TermIndex {
 	private Semaphore mutex = new Semaphore(1);
 	
 	public TermIndex(TermIndexValueProvider valueProvider) {
+		this(valueProvider, Multimaps.synchronizedListMultimap(ArrayListMultimap.create()));
+	}
+
+	protected TermIndex(TermIndexValueProvider valueProvider, ListMultimap<String, Term> classes) {
 		super();
 		this.valueProvider = valueProvider;
-		this.classes =  Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
+		this.classes = classes;
 	}
 
 	public Collection<String> keySet() {
@@ -65,6 +69,18 @@ public class TermIndex {
 		mutex.release();
 	}
 
+	/**
+	 * Indexes a whole collection of terms. Order of terms in each
+	 * index class is the iteration order of the given collection.
+	 * 
+	 * @param terms
+	 * 			the terms to index
+	 */
+	public void addAll(Collection<Term> terms) {
+		for(Term term:terms)
+			addToIndex(term);
+	}
+
 	public int size() {
 		return this.classes.size();
 	}
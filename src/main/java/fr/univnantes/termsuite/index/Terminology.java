@@ -22,7 +22,6 @@
 package fr.univnantes.termsuite.index;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,8 +31,11 @@ import java.util.concurrent.atomic.AtomicLong;
 import com.google.common.base.MoreObjects;
 
 import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.PropertyColumns;
 import fr.univnantes.termsuite.model.Relation;
+import fr.univnantes.termsuite.model.RelationProperty;
 import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermProperty;
 import fr.univnantes.termsuite.model.Word;
 
 /**
@@ -51,7 +53,7 @@ public class Terminology  {
 	 */
 	private ConcurrentMap<String, Term> terms = new ConcurrentHashMap<>();
 	private ConcurrentMap<String, Word> words = new ConcurrentHashMap<>();
-	private Set<Relation> relations = new HashSet<>();
+	private Set<Relation> relations = ConcurrentHashMap.newKeySet();
 	
 	private String name;
 	private Lang lang;
@@ -60,9 +62,94 @@ public class Terminology  {
 	private AtomicLong nbWordAnnotations = new AtomicLong();
 	private AtomicLong nbSpottedTerms = new AtomicLong();
 	
+	/*
+	 * Primitive property storage, null when properties are 
+	 * stored by terms and relations themselves.
+	 */
+	private PropertyColumns<TermProperty> termColumns;
+	private PropertyColumns<RelationProperty> relationColumns;
+	
 	public Terminology(String name, Lang lang) {
+		this(name, lang, false);
+	}
+	
+	/**
+	 * @param name
+	 * 			the name of the terminology
+	 * @param lang
+	 * 			the language of the terminology
+	 * @param columnarProperties
+	 * 			if <code>true</code>, numeric and boolean properties of 
+	 * 			terms and relations are stored in primitive columns 
+	 * 			(see {@link PropertyColumns}).
+	 */
+	public Terminology(String name, Lang lang, boolean columnarProperties) {
 		this.lang = lang;
 		this.name = name;
+		if(columnarProperties) {
+			this.termColumns = new PropertyColumns<>(TermProperty.class);
+			this.relationColumns = new PropertyColumns<>(RelationProperty.class);
+		}
+	}
+	
+	public boolean hasColumnarProperties() {
+		return termColumns != null;
+	}
+	
+	/**
+	 * @return
+	 * 		the columns of term properties, or <code>null</code> if 
+	 * 		this terminology has no columnar properties
+	 */
+	public PropertyColumns<TermProperty> getTermColumns() {
+		return termColumns;
+	}
+
+	/**
+	 * @return
+	 * 		the columns of relation properties, or <code>null</code> if 
+	 * 		this terminology has no columnar properties
+	 */
+	public PropertyColumns<RelationProperty> getRelationColumns() {
+		return relationColumns;
+	}
+
+	/**
+	 * Moves the properties of a term to the columns of this terminology, if any.
+	 * Must be invoked before the term is added to the terminology.
+	 */
+	public void bindProperties(Term term) {
+		if(termColumns != null)
+			term.bindColumns(termColumns);
+	}
+
+	/**
+	 * Moves the properties of a relation to the columns of this terminology, if any.
+	 * Must be invoked before the relation is added to the terminology.
+	 */
+	public void bindProperties(Relation relation) {
+		if(relationColumns != null)
+			relation.bindColumns(relationColumns);
+	}
+	
+	/**
+	 * Moves the properties of a term back from the columns of this terminology, 
+	 * if any, and frees its column id. Must be invoked after the term 
+	 * has been removed from the terminology.
+	 */
+	public void releaseProperties(Term term) {
+		if(termColumns != null)
+			term.unbindColumns(termColumns);
+	}
+
+	/**
+	 * Moves the properties of a relation back from the columns of this terminology, 
+	 * if any, and frees its column id. Must be invoked after the relation 
+	 * has been removed from, or not added to, the terminology.
+	 */
+	public void releaseProperties(Relation relation) {
+		if(relationColumns != null)
+			relation.unbindColumns(relationColumns);
 	}
 	
 	public Map<String, Term> getTerms() {
@@ -0,0 +1,60 @@
+package fr.univnantes.termsuite.io.bin;
+
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+
+public class BinaryOptions {
+
+	private boolean metadataOnly = false;
+	private boolean withOccurrences = true;
+	private boolean withContexts = true;
+	private boolean embeddedOccurrences = true;
+	private Optional<String> persistentOccStorePath = Optional.empty();
+
+	public BinaryOptions metadataOnly(boolean metadataOnly) {
+		this.metadataOnly = metadataOnly;
+		return this;
+	}
+
+	public boolean isMetadataOnly() {
+		return metadataOnly;
+	}
+
+	public BinaryOptions withOccurrences(boolean withOccurrences) {
+		this.withOccurrences = withOccurrences;
+		return this;
+	}
+
+	public BinaryOptions withContexts(boolean withContexts) {
+		this.withContexts = withContexts;
+		return this;
+	}
+
+	public boolean isWithOccurrences() {
+		return withOccurrences;
+	}
+
+	public boolean isEmbeddedOccurrences() {
+		return embeddedOccurrences;
+	}
+
+	public boolean isWithContexts() {
+		return withContexts;
+	}
+
+	public BinaryOptions persistentOccStorePath(String persistentOccStorePath) {
+		Preconditions.checkNotNull(persistentOccStorePath, "persistentOccStorePath must not be null");
+		this.persistentOccStorePath = Optional.of(persistentOccStorePath);
+		this.embeddedOccurrences = false;
+		return this;
+	}
+
+	public boolean isPersistentOccStore() {
+		return this.persistentOccStorePath.isPresent();
+	}
+
+	public String getPersistentOccStorePath() {
+		return persistentOccStorePath.get();
+	}
+}
@@ -0,0 +1,819 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.io.bin;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.engines.gatherer.PropertyValue;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.Component;
+import fr.univnantes.termsuite.model.CompoundType;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.IndexedCorpus;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Property;
+import fr.univnantes.termsuite.model.PropertyHolder;
+import fr.univnantes.termsuite.model.PropertyHolderBase;
+import fr.univnantes.termsuite.model.Relation;
+import fr.univnantes.termsuite.model.RelationProperty;
+import fr.univnantes.termsuite.model.RelationType;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermBuilder;
+import fr.univnantes.termsuite.model.TermOccurrence;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.model.TermWord;
+import fr.univnantes.termsuite.model.Word;
+import fr.univnantes.termsuite.model.WordBuilder;
+
+/**
+ * Reads and writes an {@link IndexedCorpus} in a compact binary format 
+ * that is much faster to reload than the json format.
+ * 
+ * <p>
+ * The file starts with a table giving the offset and the length of each 
+ * section of the file:
+ * <ul>
+ * <li>a string table shared by all other sections, where strings are 
+ * referenced by their index,</li>
+ * <li>words and terms, referenced by their dense index in the file,</li>
+ * <li>term and relation properties, stored column by column,</li>
+ * <li>relations, stored as three columns (type, from, to),</li>
+ * <li>context vectors and embedded occurrences.</li>
+ * </ul>
+ * 
+ * <p>
+ * Each section is memory-mapped only when it is decoded, so sections 
+ * excluded by {@link BinaryOptions} are never read from disk, and strings
+ * are decoded on first access.
+ * 
+ * @see fr.univnantes.termsuite.io.json.JsonTerminologyIO
+ */
+public class BinaryTerminologyIO {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(BinaryTerminologyIO.class);
+
+	/*
+	 * "TSBT" in ascii
+	 */
+	private static final int MAGIC = 0x54534254;
+	private static final int FORMAT_VERSION = 1;
+	
+	private static final int NO_STRING = -1;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final byte OCCURRENCE_STORAGE_EMBEDDED = 0;
+	private static final byte OCCURRENCE_STORAGE_DISK = 1;
+	
+	/*
+	 * Type tags of values in collection properties
+	 */
+	private static final byte VALUE_NULL = 0;
+	private static final byte VALUE_INT = 1;
+	private static final byte VALUE_LONG = 2;
+	private static final byte VALUE_DOUBLE = 3;
+	private static final byte VALUE_BOOLEAN = 4;
+	private static final byte VALUE_STRING = 5;
+
+	private static enum Section {
+		METADATA, 
+		STRINGS, 
+		WORDS, 
+		TERMS, 
+		TERM_PROPERTIES, 
+		RELATIONS, 
+		RELATION_PROPERTIES, 
+		CONTEXTS, 
+		OCCURRENCES, 
+		DOCUMENTS
+	}
+
+	private static final int HEADER_SIZE = 3 * Integer.BYTES 
+			+ Section.values().length * (Integer.BYTES + 2 * Long.BYTES);
+
+	private static final String MSG_NOT_A_BINARY_TERMINOLOGY = "Not a binary terminology file: %s";
+	private static final String MSG_BAD_VERSION = "Unsupported binary terminology format version %s (expected: %s) in file %s";
+	private static final String MSG_MISSING_SECTION = "Missing section %s in binary terminology file";
+	private static final String MSG_SECTION_TOO_LARGE = "Section %s is too large to be memory-mapped: %s bytes";
+
+	/**
+	 * Checks whether a file is a binary terminology by reading its header.
+	 * 
+	 * @param path
+	 * 			the file path
+	 * @return
+	 * 			<code>true</code> if the file starts with the binary terminology magic number
+	 * @throws IOException
+	 */
+	public static boolean isBinaryTerminology(Path path) throws IOException {
+		if(!path.toFile().isFile())
+			return false;
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+			while(buffer.hasRemaining() && channel.read(buffer) != -1);
+			return !buffer.hasRemaining() && buffer.getInt(0) == MAGIC;
+		}
+	}
+	
+	public static void save(Path path, IndexedCorpus corpus, BinaryOptions options) throws IOException {
+		Stopwatch sw = Stopwatch.createStarted();
+		try(FileChannel channel = FileChannel.open(path, 
+				StandardOpenOption.CREATE, 
+				StandardOpenOption.WRITE, 
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			new SectionWriter(channel, options).write(corpus);
+		}
+		LOGGER.debug("Binary terminology saved to {} in {}", path, sw);
+	}
+
+	public static IndexedCorpus load(Path path, BinaryOptions options) throws IOException {
+		Stopwatch sw = Stopwatch.createStarted();
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			IndexedCorpus corpus = new SectionReader(channel, path, options).read();
+			LOGGER.debug("Binary terminology loaded from {} in {}", path, sw);
+			return corpus;
+		}
+	}
+
+	private static class SectionWriter {
+		private FileChannel channel;
+		private BinaryOptions options;
+		private DataOutputStream out;
+		
+		private Map<String, Integer> stringIds = new HashMap<>();
+		private List<String> strings = Lists.newArrayList();
+		
+		private Map<Section, long[]> sections = new EnumMap<>(Section.class);
+		private Section currentSection;
+		private long currentSectionStart;
+		
+		private SectionWriter(FileChannel channel, BinaryOptions options) {
+			this.channel = channel;
+			this.options = options;
+		}
+
+		private void write(IndexedCorpus corpus) throws IOException {
+			channel.position(HEADER_SIZE);
+			out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+			Terminology termino = corpus.getTerminology();
+
+			List<Word> words = Lists.newArrayList(termino.getWords().values());
+			Map<String, Integer> wordIds = new HashMap<>();
+			for(Word w:words)
+				wordIds.put(w.getLemma(), wordIds.size());
+
+			List<Term> terms = Lists.newArrayList(termino.getTerms().values());
+			Map<String, Integer> termIds = new HashMap<>();
+			for(Term t:terms)
+				termIds.put(t.getGroupingKey(), termIds.size());
+
+			List<Relation> relations = Lists.newArrayList();
+			for(Relation r:termino.getRelations())
+				if(termIds.containsKey(r.getFrom().getGroupingKey()) && termIds.containsKey(r.getTo().getGroupingKey()))
+					relations.add(r);
+				else
+					LOGGER.warn("Ignoring relation {} because one of its terms is not in terminology", r);
+			
+			writeMetadata(termino);
+			writeWords(words);
+			writeTerms(terms, wordIds);
+			writeProperties(Section.TERM_PROPERTIES, TermProperty.class, terms);
+			writeRelations(relations, termIds);
+			writeProperties(Section.RELATION_PROPERTIES, RelationProperty.class, relations);
+			if(options.isWithContexts())
+				writeContexts(terms, termIds);
+			if(options.isWithOccurrences() && options.isEmbeddedOccurrences())
+				writeOccurrences(corpus.getOccurrenceStore(), terms);
+			
+			// strings must be written last since all other sections add strings
+			writeStrings();
+			out.flush();
+			writeHeader();
+		}
+		
+		private void startSection(Section section) throws IOException {
+			out.flush();
+			currentSection = section;
+			currentSectionStart = channel.position();
+		}
+
+		private void endSection() throws IOException {
+			out.flush();
+			long length = channel.position() - currentSectionStart;
+			Preconditions.checkState(length <= Integer.MAX_VALUE, MSG_SECTION_TOO_LARGE, currentSection, length);
+			sections.put(currentSection, new long[]{currentSectionStart, length});
+		}
+
+		private int stringId(String string) {
+			if(string == null)
+				return NO_STRING;
+			Integer id = stringIds.get(string);
+			if(id == null) {
+				id = strings.size();
+				strings.add(string);
+				stringIds.put(string, id);
+			}
+			return id;
+		}
+
+		private void writeText(String text) throws IOException {
+			byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		private void writeMetadata(Terminology termino) throws IOException {
+			startSection(Section.METADATA);
+			writeText(termino.getName());
+			writeText(termino.getLang().getCode());
+			out.writeBoolean(termino.getCorpusId() != null);
+			if(termino.getCorpusId() != null)
+				writeText(termino.getCorpusId());
+			out.writeLong(termino.getNbWordAnnotations().longValue());
+			out.writeLong(termino.getNbSpottedTerms().longValue());
+			out.writeBoolean(termino.hasColumnarProperties());
+			if(options.isPersistentOccStore()) {
+				out.writeByte(OCCURRENCE_STORAGE_DISK);
+				writeText(options.getPersistentOccStorePath());
+			} else
+				out.writeByte(OCCURRENCE_STORAGE_EMBEDDED);
+			endSection();
+		}
+
+		private void writeWords(List<Word> words) throws IOException {
+			startSection(Section.WORDS);
+			out.writeInt(words.size());
+			for(Word w:words) {
+				out.writeInt(stringId(w.getLemma()));
+				out.writeInt(stringId(w.getStem()));
+				if(w.isCompound()) {
+					out.writeInt(stringId(w.getCompoundType().name()));
+					out.writeInt(w.getComponents().size());
+					for(Component c:w.getComponents()) {
+						out.writeInt(c.getBegin());
+						out.writeInt(c.getEnd());
+						out.writeInt(stringId(c.getSubstring()));
+						out.writeInt(stringId(c.getLemma()));
+						out.writeBoolean(c.isNeoclassicalAffix());
+					}
+				} else {
+					out.writeInt(NO_STRING);
+					out.writeInt(0);
+				}
+			}
+			endSection();
+		}
+		
+		private void writeTerms(List<Term> terms, Map<String, Integer> wordIds) throws IOException {
+			startSection(Section.TERMS);
+			out.writeInt(terms.size());
+			for(Term t:terms) {
+				out.writeInt(t.getWords().size());
+				for(TermWord tw:t.getWords()) {
+					out.writeInt(wordIds.get(tw.getWord().getLemma()));
+					out.writeInt(stringId(tw.getSyntacticLabel()));
+					out.writeBoolean(tw.isSwt());
+				}
+			}
+			endSection();
+		}
+
+		/*
+		 * Each column starts with the json field of the property, followed by a 
+		 * bitmap of the holders having the property set, and by the values of 
+		 * these holders.
+		 */
+		private <P extends Enum<P> & Property<?>> void writeProperties(Section section, Class<P> cls, 
+				List<? extends PropertyHolder<P>> holders) throws IOException {
+			startSection(section);
+			out.writeInt(holders.size());
+			Set<P> properties = EnumSet.noneOf(cls);
+			for(P p:cls.getEnumConstants()) {
+				for(PropertyHolder<P> h:holders) {
+					if(h.get(p) != null) {
+						properties.add(p);
+						break;
+					}
+				}
+			}
+			out.writeInt(properties.size());
+			for(P p:properties) {
+				long[] bitmap = new long[(holders.size() + Long.SIZE - 1) / Long.SIZE];
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				DataOutputStream values = new DataOutputStream(bytes);
+				for(int i = 0; i < holders.size(); i++) {
+					Object value = holders.get(i).get(p);
+					if(value != null) {
+						bitmap[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+						writePropertyValue(values, p, value);
+					}
+				}
+				out.writeInt(stringId(p.getJsonField()));
+				for(long l:bitmap)
+					out.writeLong(l);
+				bytes.writeTo(out);
+			}
+			endSection();
+		}
+		
+		private <P extends Enum<P> & Property<?>> void writePropertyValue(DataOutputStream values, P p, Object value) throws IOException {
+			Class<?> range = p.getRange();
+			if(range.equals(Integer.class))
+				values.writeInt((Integer)value);
+			else if(range.equals(Long.class))
+				values.writeLong((Long)value);
+			else if(range.equals(Float.class))
+				values.writeFloat((Float)value);
+			else if(range.equals(Double.class))
+				values.writeDouble((Double)value);
+			else if(range.equals(Boolean.class))
+				values.writeBoolean((Boolean)value);
+			else if(range.equals(String.class))
+				values.writeInt(stringId((String)value));
+			else if(PropertyValue.class.isAssignableFrom(range))
+				values.writeInt(stringId(((PropertyValue)value).getSerializedString()));
+			else if(Collection.class.isAssignableFrom(range)) {
+				Collection<?> collection = (Collection<?>)value;
+				values.writeInt(collection.size());
+				for(Object o:collection)
+					writeCollectionElement(values, o);
+			} else
+				throw new UnsupportedOperationException(String.format("Cannot serialize property %s. Unsupported range: %s", p, range));
+		}
+
+		private void writeCollectionElement(DataOutputStream values, Object o) throws IOException {
+			if(o == null)
+				values.writeByte(VALUE_NULL);
+			else if(o instanceof Integer) {
+				values.writeByte(VALUE_INT);
+				values.writeInt((Integer)o);
+			} else if(o instanceof Long) {
+				values.writeByte(VALUE_LONG);
+				values.writeLong((Long)o);
+			} else if(o instanceof Double || o instanceof Float) {
+				values.writeByte(VALUE_DOUBLE);
+				values.writeDouble(((Number)o).doubleValue());
+			} else if(o instanceof Boolean) {
+				values.writeByte(VALUE_BOOLEAN);
+				values.writeBoolean((Boolean)o);
+			} else if(o instanceof String) {
+				values.writeByte(VALUE_STRING);
+				values.writeInt(stringId((String)o));
+			} else
+				throw new IllegalStateException("Value type not allowed in value collections: " + o.getClass());
+		}
+
+		private void writeRelations(List<Relation> relations, Map<String, Integer> termIds) throws IOException {
+			startSection(Section.RELATIONS);
+			out.writeInt(relations.size());
+			for(Relation r:relations)
+				out.writeInt(stringId(r.getType().getShortName()));
+			for(Relation r:relations)
+				out.writeInt(termIds.get(r.getFrom().getGroupingKey()));
+			for(Relation r:relations)
+				out.writeInt(termIds.get(r.getTo().getGroupingKey()));
+			endSection();
+		}
+
+		private void writeContexts(List<Term> terms, Map<String, Integer> termIds) throws IOException {
+			startSection(Section.CONTEXTS);
+			int nbVectors = 0;
+			for(Term t:terms)
+				if(t.getContext() != null)
+					nbVectors++;
+			out.writeInt(nbVectors);
+			for(int i = 0; i < terms.size(); i++) {
+				ContextVector context = terms.get(i).getContext();
+				if(context == null)
+					continue;
+				List<ContextVector.Entry> entries = Lists.newArrayList();
+				for(ContextVector.Entry e:context.getEntries())
+					if(termIds.containsKey(e.getCoTerm().getGroupingKey()))
+						entries.add(e);
+				out.writeInt(i);
+				out.writeInt(entries.size());
+				for(ContextVector.Entry e:entries) {
+					out.writeInt(termIds.get(e.getCoTerm().getGroupingKey()));
+					out.writeInt(e.getNbCooccs());
+					out.writeDouble(e.getAssocRate());
+				}
+			}
+			endSection();
+		}
+		
+		private void writeOccurrences(OccurrenceStore store, List<Term> terms) throws IOException {
+			Map<String, Integer> documentIds = new LinkedHashMap<>();
+			startSection(Section.OCCURRENCES);
+			out.writeInt(terms.size());
+			for(Term t:terms) {
+				Collection<TermOccurrence> occurrences = store.getOccurrences(t);
+				out.writeInt(occurrences.size());
+				for(TermOccurrence o:occurrences) {
+					String url = o.getSourceDocument().getUrl();
+					Integer documentId = documentIds.get(url);
+					if(documentId == null) {
+						documentId = documentIds.size();
+						documentIds.put(url, documentId);
+					}
+					out.writeInt(documentId);
+					out.writeInt(o.getBegin());
+					out.writeInt(o.getEnd());
+					out.writeInt(stringId(o.getCoveredText()));
+				}
+			}
+			endSection();
+
+			startSection(Section.DOCUMENTS);
+			out.writeInt(documentIds.size());
+			for(String url:documentIds.keySet())
+				out.writeInt(stringId(url));
+			endSection();
+		}
+
+		/*
+		 * The number of strings and the length of the utf-8 blob, followed by 
+		 * the blob and by the offsets of each string in the blob.
+		 */
+		private void writeStrings() throws IOException {
+			startSection(Section.STRINGS);
+			int[] offsets = new int[strings.size() + 1];
+			long blobLength = 0;
+			out.writeInt(strings.size());
+			out.flush();
+			long blobLengthPosition = channel.position();
+			out.writeInt(0);
+			for(int i = 0; i < strings.size(); i++) {
+				byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+				out.write(bytes);
+				blobLength += bytes.length;
+				Preconditions.checkState(blobLength <= Integer.MAX_VALUE, MSG_SECTION_TOO_LARGE, Section.STRINGS, blobLength);
+				offsets[i + 1] = (int)blobLength;
+			}
+			for(int offset:offsets)
+				out.writeInt(offset);
+			out.flush();
+			ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+			length.putInt(0, (int)blobLength);
+			writeFully(length, blobLengthPosition);
+			endSection();
+		}
+
+		private void writeHeader() throws IOException {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC);
+			header.putInt(FORMAT_VERSION);
+			header.putInt(sections.size());
+			for(Map.Entry<Section, long[]> e:sections.entrySet()) {
+				header.putInt(e.getKey().ordinal());
+				header.putLong(e.getValue()[0]);
+				header.putLong(e.getValue()[1]);
+			}
+			header.rewind();
+			writeFully(header, 0);
+		}
+
+		private void writeFully(ByteBuffer buffer, long position) throws IOException {
+			long p = position;
+			while(buffer.hasRemaining())
+				p += channel.write(buffer, p);
+		}
+	}
+	
+	private static class SectionReader {
+		private FileChannel channel;
+		private BinaryOptions options;
+		private Map<Section, long[]> sections = new EnumMap<>(Section.class);
+		private StringTable strings;
+		
+		private SectionReader(FileChannel channel, Path path, BinaryOptions options) throws IOException {
+			this.channel = channel;
+			this.options = options;
+			ByteBuffer header = readFully(0, 3 * Integer.BYTES);
+			Preconditions.checkArgument(header.getInt() == MAGIC, MSG_NOT_A_BINARY_TERMINOLOGY, path);
+			int version = header.getInt();
+			Preconditions.checkArgument(version == FORMAT_VERSION, MSG_BAD_VERSION, version, FORMAT_VERSION, path);
+			int nbSections = header.getInt();
+			ByteBuffer table = readFully(header.capacity(), nbSections * (Integer.BYTES + 2 * Long.BYTES));
+			for(int i = 0; i < nbSections; i++) {
+				Section section = Section.values()[table.getInt()];
+				sections.put(section, new long[]{table.getLong(), table.getLong()});
+			}
+		}
+		
+		private ByteBuffer readFully(long position, int length) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(length);
+			long p = position;
+			while(buffer.hasRemaining()) {
+				int read = channel.read(buffer, p);
+				Preconditions.checkState(read != -1, "Unexpected end of file");
+				p += read;
+			}
+			buffer.flip();
+			return buffer;
+		}
+
+		private boolean hasSection(Section section) {
+			return sections.containsKey(section);
+		}
+
+		private MappedByteBuffer map(Section section) throws IOException {
+			long[] entry = sections.get(section);
+			Preconditions.checkState(entry != null, MSG_MISSING_SECTION, section);
+			return channel.map(MapMode.READ_ONLY, entry[0], entry[1]);
+		}
+		
+		private static String readText(ByteBuffer buffer) {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		private IndexedCorpus read() throws IOException {
+			ByteBuffer metadata = map(Section.METADATA);
+			String name = readText(metadata);
+			Lang lang = Lang.forName(readText(metadata));
+			String corpusId = metadata.get() != 0 ? readText(metadata) : null;
+			long nbWordAnnotations = metadata.getLong();
+			long nbSpottedTerms = metadata.getLong();
+			boolean columnarProperties = metadata.get() != 0;
+			byte occurrenceStorage = metadata.get();
+			
+			Terminology termino = columnarProperties ? 
+					TermSuiteFactory.createColumnarTerminology(lang, name)
+					: TermSuiteFactory.createTerminology(lang, name);
+			if(corpusId != null)
+				termino.setCorpusId(corpusId);
+			termino.setNbWordAnnotations(new AtomicLong(nbWordAnnotations));
+			termino.setNbSpottedTerms(new AtomicLong(nbSpottedTerms));
+			OccurrenceStore occurrenceStore;
+			if(occurrenceStorage == OCCURRENCE_STORAGE_DISK)
+				occurrenceStore = TermSuiteFactory.createPersitentOccurrenceStore(readText(metadata), lang);
+			else
+				occurrenceStore = TermSuiteFactory.createMemoryOccurrenceStore(lang);
+			IndexedCorpus corpus = new IndexedCorpus(termino, occurrenceStore);
+			if(options.isMetadataOnly())
+				return corpus;
+
+			strings = new StringTable(map(Section.STRINGS));
+			Word[] words = readWords(termino);
+			Term[] terms = readTerms(termino, words);
+			readRelations(termino, terms);
+			if(options.isWithContexts() && hasSection(Section.CONTEXTS))
+				readContexts(terms);
+			if(options.isWithOccurrences() 
+					&& occurrenceStorage == OCCURRENCE_STORAGE_EMBEDDED 
+					&& hasSection(Section.OCCURRENCES))
+				readOccurrences(occurrenceStore, terms);
+			return corpus;
+		}
+
+		private Word[] readWords(Terminology termino) throws IOException {
+			ByteBuffer buffer = map(Section.WORDS);
+			Word[] words = new Word[buffer.getInt()];
+			for(int i = 0; i < words.length; i++) {
+				WordBuilder builder = WordBuilder.start(termino);
+				builder.setLemma(strings.get(buffer.getInt()));
+				builder.setStem(strings.get(buffer.getInt()));
+				int compoundType = buffer.getInt();
+				if(compoundType != NO_STRING)
+					builder.setCompoundType(CompoundType.fromName(strings.get(compoundType)));
+				int nbComponents = buffer.getInt();
+				for(int j = 0; j < nbComponents; j++) {
+					int begin = buffer.getInt();
+					int end = buffer.getInt();
+					String substring = strings.get(buffer.getInt());
+					String lemma = strings.get(buffer.getInt());
+					builder.addComponent(begin, end, substring, lemma, buffer.get() != 0);
+				}
+				words[i] = builder.create();
+				termino.getWords().put(words[i].getLemma(), words[i]);
+			}
+			return words;
+		}
+		
+		private Term[] readTerms(Terminology termino, Word[] words) throws IOException {
+			ByteBuffer buffer = map(Section.TERMS);
+			Term[] terms = new Term[buffer.getInt()];
+			for(int i = 0; i < terms.length; i++) {
+				TermBuilder builder = TermBuilder.start(termino);
+				int nbWords = buffer.getInt();
+				for(int j = 0; j < nbWords; j++) {
+					Word word = words[buffer.getInt()];
+					String label = strings.get(buffer.getInt());
+					builder.addWord(word, label, buffer.get() != 0);
+				}
+				terms[i] = builder.create();
+			}
+			readProperties(map(Section.TERM_PROPERTIES), TermProperty.class, terms);
+			for(Term t:terms) {
+				termino.bindProperties(t);
+				termino.getTerms().put(t.getGroupingKey(), t);
+			}
+			return terms;
+		}
+		
+		private <P extends Enum<P> & Property<?>> void readProperties(ByteBuffer buffer, Class<P> cls, 
+				PropertyHolder<P>[] holders) {
+			int nbHolders = buffer.getInt();
+			Preconditions.checkState(nbHolders == holders.length, 
+					"Bad number of %s values. Expected: %s. Got: %s", cls.getSimpleName(), holders.length, nbHolders);
+			int nbColumns = buffer.getInt();
+			long[] bitmap = new long[(holders.length + Long.SIZE - 1) / Long.SIZE];
+			for(int c = 0; c < nbColumns; c++) {
+				P property = PropertyHolderBase.fromJsonString(cls, strings.get(buffer.getInt()));
+				for(int i = 0; i < bitmap.length; i++)
+					bitmap[i] = buffer.getLong();
+				for(int i = 0; i < holders.length; i++)
+					if((bitmap[i / Long.SIZE] & (1L << (i % Long.SIZE))) != 0)
+						holders[i].setProperty(property, readPropertyValue(buffer, property));
+			}
+		}
+
+		private <P extends Enum<P> & Property<?>> Object readPropertyValue(ByteBuffer buffer, P property) {
+			Class<?> range = property.getRange();
+			if(range.equals(Integer.class))
+				return buffer.getInt();
+			else if(range.equals(Long.class))
+				return buffer.getLong();
+			else if(range.equals(Float.class))
+				return buffer.getFloat();
+			else if(range.equals(Double.class))
+				return buffer.getDouble();
+			else if(range.equals(Boolean.class))
+				return buffer.get() != 0;
+			else if(range.equals(String.class))
+				return strings.get(buffer.getInt());
+			else if(PropertyValue.class.isAssignableFrom(range)) {
+				String serialized = strings.get(buffer.getInt());
+				for(Object value:range.getEnumConstants())
+					if(((PropertyValue)value).getSerializedString().equals(serialized))
+						return value;
+				throw new IllegalStateException(String.format("Unkown value <%s> for enun class %s", serialized, range));
+			} else if(Set.class.isAssignableFrom(range)) {
+				int size = buffer.getInt();
+				Set<Object> values = new HashSet<>();
+				for(int i = 0; i < size; i++)
+					values.add(readCollectionElement(buffer));
+				return values;
+			} else
+				throw new UnsupportedOperationException(String.format(
+						"Unsupported property range <%s> in property %s", range, property));
+		}
+
+		private Object readCollectionElement(ByteBuffer buffer) {
+			byte type = buffer.get();
+			switch (type) {
+			case VALUE_NULL: return null;
+			case VALUE_INT: return buffer.getInt();
+			case VALUE_LONG: return buffer.getLong();
+			case VALUE_DOUBLE: return buffer.getDouble();
+			case VALUE_BOOLEAN: return buffer.get() != 0;
+			case VALUE_STRING: return strings.get(buffer.getInt());
+			default:
+				throw new IllegalStateException("Unknown value type in value collection: " + type);
+			}
+		}
+		
+		private void readRelations(Terminology termino, Term[] terms) throws IOException {
+			ByteBuffer buffer = map(Section.RELATIONS);
+			Relation[] relations = new Relation[buffer.getInt()];
+			Map<Integer, RelationType> types = new HashMap<>();
+			int typeColumn = Integer.BYTES;
+			int fromColumn = typeColumn + relations.length * Integer.BYTES;
+			int toColumn = fromColumn + relations.length * Integer.BYTES;
+			for(int i = 0; i < relations.length; i++) {
+				int type = buffer.getInt(typeColumn + i * Integer.BYTES);
+				RelationType relationType = types.get(type);
+				if(relationType == null) {
+					relationType = RelationType.fromShortName(strings.get(type));
+					types.put(type, relationType);
+				}
+				relations[i] = new Relation(
+						relationType, 
+						terms[buffer.getInt(fromColumn + i * Integer.BYTES)], 
+						terms[buffer.getInt(toColumn + i * Integer.BYTES)]);
+			}
+			readProperties(map(Section.RELATION_PROPERTIES), RelationProperty.class, relations);
+			for(Relation r:relations) {
+				termino.bindProperties(r);
+				termino.getRelations().add(r);
+			}
+		}
+
+		private void readContexts(Term[] terms) throws IOException {
+			ByteBuffer buffer = map(Section.CONTEXTS);
+			int nbVectors = buffer.getInt();
+			for(int i = 0; i < nbVectors; i++) {
+				Term term = terms[buffer.getInt()];
+				int nbEntries = buffer.getInt();
+				ContextVector context = new ContextVector(term);
+				for(int j = 0; j < nbEntries; j++) {
+					Term coTerm = terms[buffer.getInt()];
+					int nbCooccs = buffer.getInt();
+					context.addEntry(coTerm, nbCooccs, buffer.getDouble());
+				}
+				term.setContext(context);
+			}
+		}
+
+		private void readOccurrences(OccurrenceStore store, Term[] terms) throws IOException {
+			ByteBuffer documents = map(Section.DOCUMENTS);
+			String[] urls = new String[documents.getInt()];
+			for(int i = 0; i < urls.length; i++)
+				urls[i] = strings.get(documents.getInt());
+			
+			ByteBuffer buffer = map(Section.OCCURRENCES);
+			int nbTerms = buffer.getInt();
+			for(int i = 0; i < nbTerms; i++) {
+				int nbOccurrences = buffer.getInt();
+				for(int j = 0; j < nbOccurrences; j++) {
+					String url = urls[buffer.getInt()];
+					int begin = buffer.getInt();
+					int end = buffer.getInt();
+					store.addOccurrence(terms[i], url, begin, end, strings.get(buffer.getInt()));
+				}
+			}
+		}
+	}
+	
+	/*
+	 * Decodes strings lazily from the mapped string section.
+	 */
+	private static class StringTable {
+		private static final int BLOB_START = 2 * Integer.BYTES;
+		
+		private ByteBuffer buffer;
+		private int offsetsStart;
+		private String[] cache;
+		
+		private StringTable(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.cache = new String[buffer.getInt(0)];
+			this.offsetsStart = BLOB_START + buffer.getInt(Integer.BYTES);
+		}
+		
+		private String get(int id) {
+			if(id == NO_STRING)
+				return null;
+			String string = cache[id];
+			if(string == null) {
+				int begin = buffer.getInt(offsetsStart + id * Integer.BYTES);
+				int end = buffer.getInt(offsetsStart + (id + 1) * Integer.BYTES);
+				byte[] bytes = new byte[end - begin];
+				for(int i = 0; i < bytes.length; i++)
+					bytes[i] = buffer.get(BLOB_START + begin + i);
+				string = new String(bytes, StandardCharsets.UTF_8);
+				cache[id] = string;
+			}
+			return string;
+		}
+	}
+}
@@ -9,7 +9,9 @@ public class JsonOptions {
 	private boolean metadataOnly = false;
 	private boolean withOccurrences = true;
 	private boolean withContexts = true;
+	private boolean withRelations = true;
 	private boolean embeddedOccurrences = true;
+	private int loadingThreads = 1;
 	
 	public JsonOptions metadataOnly(boolean metadataOnly) {
 		this.metadataOnly = metadataOnly;
@@ -32,6 +34,26 @@ public class JsonOptions {
 		this.withContexts = withContexts;
 		return this;
 	}
+	public JsonOptions withRelations(boolean withRelations) {
+		this.withRelations = withRelations;
+		return this;
+	}
+	
+	/**
+	 * Sets the number of threads decoding terms and relations 
+	 * at loading time. When greater than 1, the terms and relations 
+	 * arrays are split into chunks decoded in parallel.
+	 * 
+	 * @param loadingThreads
+	 * 			the number of loading threads, 1 for sequential loading
+	 * @return
+	 * 			this options object
+	 */
+	public JsonOptions loadingThreads(int loadingThreads) {
+		Preconditions.checkArgument(loadingThreads >= 1, "Number of loading threads must be at least 1. Got: %s", loadingThreads);
+		this.loadingThreads = loadingThreads;
+		return this;
+	}
 	
 	public boolean isWithOccurrences() {
 		return withOccurrences;
@@ -48,6 +70,14 @@ public class JsonOptions {
 	public boolean isWithContexts() {
 		return withContexts;
 	}
+	
+	public boolean isWithRelations() {
+		return withRelations;
+	}
+	
+	public int getLoadingThreads() {
+		return loadingThreads;
+	}
 
 	private Optional<String> persistentOccStorePath = Optional.empty();
 	
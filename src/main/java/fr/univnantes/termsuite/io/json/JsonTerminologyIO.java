@@ -31,6 +31,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.io.IOUtils;
@@ -42,10 +47,13 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import fr.univnantes.termsuite.api.TermSuiteException;
 import fr.univnantes.termsuite.engines.gatherer.PropertyValue;
 import fr.univnantes.termsuite.framework.TermSuiteFactory;
 import fr.univnantes.termsuite.index.Terminology;
@@ -153,6 +161,19 @@ public class JsonTerminologyIO {
 	 * @throws IOException
 	 */
 	public static IndexedCorpus load(Reader reader, JsonOptions options) throws IOException {
+		if(options.getLoadingThreads() > 1) {
+			try(ChunkLoader loader = new ChunkLoader(options.getLoadingThreads())) {
+				return load(reader, options, loader);
+			}
+		} else
+			return load(reader, options, null);
+	}
+
+	/*
+	 * When the loader is not null, terms and relations are decoded 
+	 * by chunks on the loader's workers.
+	 */
+	private static IndexedCorpus load(Reader reader, JsonOptions options, ChunkLoader loader) throws IOException {
 		Terminology termino = null;
 		OccurrenceStore occurrenceStore = null;
 		IndexedCorpus indexedCorpus = null;
@@ -164,26 +185,17 @@ public class JsonTerminologyIO {
 		String compLemma = null;
 		String substring = null;
 		int fileSource = -1;
-		String wordLemma = null;
-		boolean isSWT;
-		String syntacticLabel = null;
 		boolean neoclassicalAffix = false;
 		int begin = -1;
 		int end = -1;
 		int nbWordAnnos = -1;
 		int nbSpottedTerms = -1;
-		Term b;
-		Term v;
 		String text;
-		String base;
-		String variant;
-//		String rule;
-		String relationType;
 
 		Map<Integer, String> inputSources = Maps.newTreeMap();
 		
 		
-		Map<String, List<TempVecEntry>> contextVectors = Maps.newHashMap();
+		Map<String, List<TempVecEntry>> contextVectors = Maps.newConcurrentMap();
 		
 		
 		// useful var for debug
@@ -278,82 +290,16 @@ public class JsonTerminologyIO {
 				}
 			} else if (TERMS.equals(fieldname)) {
 				jp.nextToken();
-				while ((tok = jp.nextToken()) != JsonToken.END_ARRAY) { 
-					TermBuilder builder = TermBuilder.start(termino);
-					List<TempVecEntry> currentContextVector = Lists.newArrayList();
-					Map<TermProperty, Object> properties = null;
-					String currentGroupingKey = null;
-					while ((tok = jp.nextToken()) != JsonToken.END_OBJECT) {
-						fieldname = jp.getCurrentName();
-						if (PROPERTIES.equals(fieldname)) {
-							properties = readProperties(TermProperty.class, jp);
-							Preconditions.checkState(properties.containsKey(TermProperty.GROUPING_KEY), MSG_NO_GROUPING_KEY_SET);
-							currentGroupingKey = (String)properties.get(TermProperty.GROUPING_KEY);
-						} else if (TERM_WORDS.equals(fieldname)) {
-							while ((tok = jp.nextToken()) != JsonToken.END_ARRAY) {
-								wordLemma = null;
-								syntacticLabel = null;
-								isSWT = false;
-								while ((tok = jp.nextToken()) != JsonToken.END_OBJECT) {
-									fieldname = jp.getCurrentName();
-									if (LEMMA.equals(fieldname)) 
-										wordLemma = jp.nextTextValue();
-									else if (IS_SWT.equals(fieldname)) 
-										isSWT = jp.nextBooleanValue();
-									else if (SYN.equals(fieldname)) 
-										syntacticLabel = jp.nextTextValue();
-								}
-								Preconditions.checkState(wordLemma != null, MSG_EXPECT_PROP_FOR_TERM_WORD, LEMMA);
-								Preconditions.checkState(termino.getWords().containsKey(wordLemma), MSG_WORD_NOT_FOUND, wordLemma);
-								Preconditions.checkState(syntacticLabel != null, MSG_EXPECT_PROP_FOR_TERM_WORD, SYN);
-								builder.addWord(termino.getWords().get(wordLemma), syntacticLabel, isSWT);
-							}
-						} else if (TERM_CONTEXT.equals(fieldname)) {
-							@SuppressWarnings("unused")
-							int totalCooccs = 0;
-							while ((tok = jp.nextToken()) != JsonToken.END_OBJECT) {
-								fieldname = jp.getCurrentName();
-								if (TOTAL_COOCCURRENCES.equals(fieldname)) 
-									/*
-									 * value never used since the total will 
-									 * be reincremented in the contextVector
-									 */
-									totalCooccs = jp.nextIntValue(-1);
-								else if (CO_OCCURRENCES.equals(fieldname)) {
-									jp.nextToken();
-									while ((tok = jp.nextToken()) != JsonToken.END_ARRAY) {
-										TempVecEntry entry = new TempVecEntry();
-										while ((tok = jp.nextToken()) != JsonToken.END_OBJECT) {
-											fieldname = jp.getCurrentName();
-											if (NB_COCCS.equals(fieldname)) 
-												entry.setNbCooccs(jp.nextIntValue(-1));
-											else if (ASSOC_RATE.equals(fieldname)) {
-												jp.nextToken();
-												entry.setAssocRate(jp.getFloatValue());
-											} else if (CO_TERM.equals(fieldname)) 
-												entry.setTermGroupingKey(jp.nextTextValue());
-											else if (FILE.equals(fieldname)) {
-												fileSource = jp.nextIntValue(-1);
-											}
-										}
-										currentContextVector.add(entry);
-									}
-								}
-							} 
-						} else
-							throw new IllegalStateException("Unexpected field name for term: " + fieldname);
-						//end if fieldname
-							 
-					} // end term object
-					Preconditions.checkState(currentGroupingKey != null, MSG_NO_GKEY_FOR_TERM);
-					Term t = builder.create();
-					t.setProperties(properties);
-					termino.getTerms().put(t.getGroupingKey(), t);
-
-					if(options.isWithContexts())
-						contextVectors.put(currentGroupingKey, currentContextVector);
-
+				while ((tok = jp.nextToken()) != JsonToken.END_ARRAY) {
+					if(loader == null)
+						readTerm(jp, termino, options, contextVectors);
+					else {
+						final Terminology t = termino;
+						loader.add(jp, p -> readTerm(p, t, options, contextVectors));
+					}
 				}// end array of terms
+				if(loader != null)
+					loader.flush();
 				
 			} else if (INPUT_SOURCES.equals(fieldname)) {
 				jp.nextToken();
@@ -368,50 +314,31 @@ public class JsonTerminologyIO {
 				}
 			} else if (TERM_RELATIONS.equals(fieldname)) {
 				jp.nextToken();
+				if(!options.isWithRelations()) {
+					jp.skipChildren();
+					continue;
+				}
+				if(loader != null)
+					// relations can only be resolved when all terms are loaded
+					loader.await();
 				while ((tok = jp.nextToken()) != JsonToken.END_ARRAY) {
-					base = null;
-					variant = null;
-					relationType = null;
-					Map<RelationProperty,Object> properties = new HashMap<>();
-					while ((tok = jp.nextToken()) != JsonToken.END_OBJECT) {
-						fieldname = jp.getCurrentName();
-						if (FROM.equals(fieldname)) 
-							base = jp.nextTextValue();
-						else if (TO.equals(fieldname)) 
-							variant = jp.nextTextValue();
-						else if (RELATION_TYPE.equals(fieldname)) 
-							relationType = jp.nextTextValue();
-						else if (PROPERTIES.equals(fieldname)) 
-							properties = readProperties(RelationProperty.class, jp);
-					}
-					
-					Preconditions.checkNotNull(base, MSG_EXPECT_PROP_FOR_VAR, FROM);
-					Preconditions.checkNotNull(variant, MSG_EXPECT_PROP_FOR_VAR, TO);
-					b = termino.getTerms().get(base);
-					v = termino.getTerms().get(variant);
-					if(b != null && v != null) {
-						
-						RelationType vType = RelationType.fromShortName(relationType);
-						
-						Relation tv = new Relation(
-								vType, 
-								b, 
-								v);
-						tv.setProperties(properties);
-						termino.getRelations().add(tv);
-					} else {
-						if(b==null)
-							LOGGER.warn("Could not build variant because term \"{}\" was not found.", base);
-						if(v==null)
-							LOGGER.warn("Could not build variant because term \"{}\" was not found.", variant);
+					if(loader == null)
+						readRelation(jp, termino);
+					else {
+						final Terminology t = termino;
+						loader.add(jp, p -> readRelation(p, t));
 					}
-						
-//					Preconditions.checkNotNull(b, MSG_TERM_DOES_NOT_EXIST, base);
-//					Preconditions.checkNotNull(v, MSG_TERM_DOES_NOT_EXIST, variant);
-					
 				} // end syntactic variations array
+				if(loader != null)
+					loader.flush();
 			} else if (TERM_OCCURRENCES.equals(fieldname)) {
 				tok = jp.nextToken();
+				if(!options.isWithOccurrences()) {
+					jp.skipChildren();
+					continue;
+				}
+				if(loader != null)
+					loader.await();
 				if(tok == JsonToken.START_ARRAY) {
 					String tid;
 					while ((tok = jp.nextToken()) != JsonToken.END_ARRAY) {
@@ -451,6 +378,8 @@ public class JsonTerminologyIO {
 			}
 		}
 		jp.close();
+		if(loader != null)
+			loader.await();
 		
 		if(options.isWithContexts()) {
 			/*
@@ -478,6 +407,136 @@ public class JsonTerminologyIO {
 		return indexedCorpus;
 	}
 
+	/*
+	 * Reads the term object starting at current token. May be invoked 
+	 * concurrently from loading workers.
+	 */
+	private static void readTerm(JsonParser jp, Terminology termino, JsonOptions options, 
+			Map<String, List<TempVecEntry>> contextVectors) throws IOException {
+		String fieldname;
+		String wordLemma;
+		String syntacticLabel;
+		boolean isSWT;
+		TermBuilder builder = TermBuilder.start(termino);
+		List<TempVecEntry> currentContextVector = Lists.newArrayList();
+		Map<TermProperty, Object> properties = null;
+		String currentGroupingKey = null;
+		while (jp.nextToken() != JsonToken.END_OBJECT) {
+			fieldname = jp.getCurrentName();
+			if (PROPERTIES.equals(fieldname)) {
+				properties = readProperties(TermProperty.class, jp);
+				Preconditions.checkState(properties.containsKey(TermProperty.GROUPING_KEY), MSG_NO_GROUPING_KEY_SET);
+				currentGroupingKey = (String)properties.get(TermProperty.GROUPING_KEY);
+			} else if (TERM_WORDS.equals(fieldname)) {
+				while (jp.nextToken() != JsonToken.END_ARRAY) {
+					wordLemma = null;
+					syntacticLabel = null;
+					isSWT = false;
+					while (jp.nextToken() != JsonToken.END_OBJECT) {
+						fieldname = jp.getCurrentName();
+						if (LEMMA.equals(fieldname)) 
+							wordLemma = jp.nextTextValue();
+						else if (IS_SWT.equals(fieldname)) 
+							isSWT = jp.nextBooleanValue();
+						else if (SYN.equals(fieldname)) 
+							syntacticLabel = jp.nextTextValue();
+					}
+					Preconditions.checkState(wordLemma != null, MSG_EXPECT_PROP_FOR_TERM_WORD, LEMMA);
+					Preconditions.checkState(termino.getWords().containsKey(wordLemma), MSG_WORD_NOT_FOUND, wordLemma);
+					Preconditions.checkState(syntacticLabel != null, MSG_EXPECT_PROP_FOR_TERM_WORD, SYN);
+					builder.addWord(termino.getWords().get(wordLemma), syntacticLabel, isSWT);
+				}
+			} else if (TERM_CONTEXT.equals(fieldname)) {
+				if(!options.isWithContexts()) {
+					jp.nextToken();
+					jp.skipChildren();
+					continue;
+				}
+				while (jp.nextToken() != JsonToken.END_OBJECT) {
+					fieldname = jp.getCurrentName();
+					if (TOTAL_COOCCURRENCES.equals(fieldname)) 
+						/*
+						 * value never used since the total will 
+						 * be reincremented in the contextVector
+						 */
+						jp.nextIntValue(-1);
+					else if (CO_OCCURRENCES.equals(fieldname)) {
+						jp.nextToken();
+						while (jp.nextToken() != JsonToken.END_ARRAY) {
+							TempVecEntry entry = new TempVecEntry();
+							while (jp.nextToken() != JsonToken.END_OBJECT) {
+								fieldname = jp.getCurrentName();
+								if (NB_COCCS.equals(fieldname)) 
+									entry.setNbCooccs(jp.nextIntValue(-1));
+								else if (ASSOC_RATE.equals(fieldname)) {
+									jp.nextToken();
+									entry.setAssocRate(jp.getFloatValue());
+								} else if (CO_TERM.equals(fieldname)) 
+									entry.setTermGroupingKey(jp.nextTextValue());
+								else if (FILE.equals(fieldname)) 
+									jp.nextIntValue(-1);
+							}
+							currentContextVector.add(entry);
+						}
+					}
+				} 
+			} else
+				throw new IllegalStateException("Unexpected field name for term: " + fieldname);
+			//end if fieldname
+		} // end term object
+		Preconditions.checkState(currentGroupingKey != null, MSG_NO_GKEY_FOR_TERM);
+		Term t = builder.create();
+		t.setProperties(properties);
+		termino.bindProperties(t);
+		termino.getTerms().put(t.getGroupingKey(), t);
+
+		if(options.isWithContexts())
+			contextVectors.put(currentGroupingKey, currentContextVector);
+	}
+
+	/*
+	 * Reads the relation object starting at current token. May be invoked 
+	 * concurrently from loading workers.
+	 */
+	private static void readRelation(JsonParser jp, Terminology termino) throws IOException {
+		String fieldname;
+		String base = null;
+		String variant = null;
+		String relationType = null;
+		Map<RelationProperty,Object> properties = new HashMap<>();
+		while (jp.nextToken() != JsonToken.END_OBJECT) {
+			fieldname = jp.getCurrentName();
+			if (FROM.equals(fieldname)) 
+				base = jp.nextTextValue();
+			else if (TO.equals(fieldname)) 
+				variant = jp.nextTextValue();
+			else if (RELATION_TYPE.equals(fieldname)) 
+				relationType = jp.nextTextValue();
+			else if (PROPERTIES.equals(fieldname)) 
+				properties = readProperties(RelationProperty.class, jp);
+		}
+		
+		Preconditions.checkNotNull(base, MSG_EXPECT_PROP_FOR_VAR, FROM);
+		Preconditions.checkNotNull(variant, MSG_EXPECT_PROP_FOR_VAR, TO);
+		Term b = termino.getTerms().get(base);
+		Term v = termino.getTerms().get(variant);
+		if(b != null && v != null) {
+			RelationType vType = RelationType.fromShortName(relationType);
+			Relation tv = new Relation(
+					vType, 
+					b, 
+					v);
+			tv.setProperties(properties);
+			termino.bindProperties(tv);
+			termino.getRelations().add(tv);
+		} else {
+			if(b==null)
+				LOGGER.warn("Could not build variant because term \"{}\" was not found.", base);
+			if(v==null)
+				LOGGER.warn("Could not build variant because term \"{}\" was not found.", variant);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private static <T extends Enum<T> & Property<?>> Map<T,Object> readProperties(Class<T> pCls, JsonParser jp) throws IOException {
 		Map<T,Object> properties = new HashMap<>();
@@ -713,19 +772,21 @@ public class JsonTerminologyIO {
 		/* Variants */
 		jg.writeFieldName(TERM_RELATIONS);
 		jg.writeStartArray();
-		for(Relation relation:terminology.getRelations()) {
-			jg.writeStartObject();
-			jg.writeFieldName(FROM);
-			jg.writeString(relation.getFrom().getGroupingKey());
-			jg.writeFieldName(TO);
-			jg.writeString(relation.getTo().getGroupingKey());
-			jg.writeFieldName(RELATION_TYPE);
-			jg.writeString(relation.getType().getShortName());
-			jg.writeFieldName(PROPERTIES);
-			jg.writeStartObject();
-			writeProperties(jg, relation);
-			jg.writeEndObject();
-			jg.writeEndObject();
+		if(options.isWithRelations()) {
+			for(Relation relation:terminology.getRelations()) {
+				jg.writeStartObject();
+				jg.writeFieldName(FROM);
+				jg.writeString(relation.getFrom().getGroupingKey());
+				jg.writeFieldName(TO);
+				jg.writeString(relation.getTo().getGroupingKey());
+				jg.writeFieldName(RELATION_TYPE);
+				jg.writeString(relation.getType().getShortName());
+				jg.writeFieldName(PROPERTIES);
+				jg.writeStartObject();
+				writeProperties(jg, relation);
+				jg.writeEndObject();
+				jg.writeEndObject();
+			}
 		}
 		jg.writeEndArray();
 		
@@ -793,6 +854,92 @@ public class JsonTerminologyIO {
 			throw new UnsupportedOperationException(String.format("Cannot serialize property %s. Unsupported range: %s", p, p.getRange()));
 	}
 
+	@FunctionalInterface
+	private interface EntryDecoder {
+		void decode(JsonParser jp) throws IOException;
+	}
+	
+	/*
+	 * Buffers the tokens of consecutive array entries into chunks and 
+	 * decodes each chunk on a worker. Tokenizing stays sequential, but 
+	 * building terms and relations from tokens is done in parallel.
+	 */
+	private static class ChunkLoader implements AutoCloseable {
+		private static final int CHUNK_SIZE = 2000;
+		
+		private ExecutorService workers;
+		private List<Future<?>> pending = Lists.newArrayList();
+		private TokenBuffer chunk;
+		private int chunkSize = 0;
+		private EntryDecoder chunkDecoder;
+		
+		private ChunkLoader(int nbThreads) {
+			AtomicInteger threadCount = new AtomicInteger(0);
+			this.workers = Executors.newFixedThreadPool(nbThreads, r -> {
+				Thread thread = new Thread(r, "json-loader-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		/*
+		 * Copies the entry starting at parser's current token to the current chunk
+		 */
+		private void add(JsonParser jp, EntryDecoder decoder) throws IOException {
+			if(chunk == null) {
+				chunk = new TokenBuffer(jp);
+				chunkDecoder = decoder;
+			}
+			chunk.copyCurrentStructure(jp);
+			if(++chunkSize >= CHUNK_SIZE)
+				flush();
+		}
+		
+		/*
+		 * Submits the current chunk to workers
+		 */
+		private void flush() {
+			if(chunk == null)
+				return;
+			TokenBuffer buffer = chunk;
+			EntryDecoder decoder = chunkDecoder;
+			pending.add(workers.submit(() -> {
+				try(JsonParser parser = buffer.asParser()) {
+					while(parser.nextToken() != null)
+						decoder.decode(parser);
+				}
+				return null;
+			}));
+			chunk = null;
+			chunkDecoder = null;
+			chunkSize = 0;
+		}
+		
+		/*
+		 * Waits for all submitted chunks to be decoded
+		 */
+		private void await() throws IOException {
+			flush();
+			try {
+				for(Future<?> f:pending)
+					f.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new TermSuiteException("Interrupted while loading json terminology", e);
+			} catch (ExecutionException e) {
+				Throwables.propagateIfPossible(e.getCause(), IOException.class);
+				throw new TermSuiteException("Could not load json terminology", e.getCause());
+			} finally {
+				pending.clear();
+			}
+		}
+
+		@Override
+		public void close() {
+			workers.shutdownNow();
+		}
+	}
+
 	private static class TempVecEntry {
 		String termGroupingKey;
 		double assocRate;
@@ -6,27 +6,18 @@ import java.io.IOException;
 import java.io.Writer;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 
 import fr.univnantes.termsuite.api.TermSuiteException;
 import fr.univnantes.termsuite.framework.Export;
@@ -37,8 +28,16 @@ import fr.univnantes.termsuite.model.CompoundType;
 import fr.univnantes.termsuite.model.Form;
 import fr.univnantes.termsuite.model.OccurrenceStore;
 import fr.univnantes.termsuite.model.Term;
-import fr.univnantes.termsuite.model.TermOccurrence;
 
+/**
+ * 
+ * Exports a terminology to TBX. 
+ * 
+ * The document is streamed to the writer with a {@link XMLStreamWriter}, 
+ * one term entry at a time, so the memory needed does not depend on the 
+ * size of the terminology. Each term is exported once. 
+ *
+ */
 public class TbxExporter {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(TbxExporter.class);
@@ -46,6 +45,9 @@ public class TbxExporter {
 	/** Prints float out numbers */
 	private static final NumberFormat NUMBER_FORMATTER = NumberFormat.getNumberInstance(Locale.US);
 
+	private static final String DOCTYPE_SYSTEM = "http://ttc-project.googlecode.com/files/tbxcore.dtd";
+	
+	private static final String INDENT = "  ";
 
 	/** Prefix used in langset ids */
 	private static final String LANGSET_ID_PREFIX = "langset-";
@@ -56,6 +58,9 @@ public class TbxExporter {
 	/** Prefix used in langset ids */
 	private static final String TIG_ID_PREFIX = "term-";
 	
+	private XMLStreamWriter xml;
+	private int depth = 0;
+	
 	@Export
 	public void export(TerminologyService termino, Writer writer, OccurrenceStore occurrenceStore) {
 		NUMBER_FORMATTER.setMaximumFractionDigits(4);
@@ -63,96 +68,61 @@ public class TbxExporter {
 		NUMBER_FORMATTER.setRoundingMode(RoundingMode.UP);
 		NUMBER_FORMATTER.setGroupingUsed(false);
 		try {
-			Document tbxDocument = prepareTBXDocument();
-			
-			try {
-				for(TermService t: termino.getTerms()) {
-					addTermEntry(tbxDocument, termino, occurrenceStore, t, false);
-					t.outboundRelations().forEach(v->
-						addTermEntry(tbxDocument, termino, occurrenceStore, v.getTo(), true));
-				}
-				exportTBXDocument(tbxDocument, writer);
-			} catch (TransformerException e) {
-				LOGGER.error("An error occurred when exporting term index to file");
-				throw new TermSuiteException(e);
-			}
-			
-		} catch (ParserConfigurationException e) {
+			writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+			xml = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+			xml.writeDTD(String.format("%n<!DOCTYPE martif SYSTEM \"%s\">", DOCTYPE_SYSTEM));
+			writeTBXHeader();
+			for(TermService t: termino.getTerms())
+				writeTermEntry(termino, occurrenceStore, t);
+			writeTBXFooter();
+			xml.flush();
+			xml.close();
+		} catch (XMLStreamException|IOException e) {
+			LOGGER.error("An error occurred when exporting term index to file");
 			throw new TermSuiteException(e);
+		} finally {
+			xml = null;
+			depth = 0;
 		}
 	}
 
 	
 	/**
-     * Prepare the TBX document that will contain the terms.
+     * Writes the TBX elements that come before the term entries.
      */
-	private Document prepareTBXDocument() throws ParserConfigurationException {
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		DocumentBuilder builder = factory.newDocumentBuilder();
-		Document tbxDocument = builder.newDocument();
-
-		Element martif = tbxDocument.createElement("martif");
-		martif.setAttribute("type", "TBX");
-		tbxDocument.appendChild(martif);
-
-		Element header = tbxDocument.createElement("martifHeader");
-		martif.appendChild(header);
-
-		Element fileDesc = tbxDocument.createElement("fileDesc");
-		header.appendChild(fileDesc);
-
-		Element encodingDesc = tbxDocument.createElement("encodingDesc");
-		header.appendChild(encodingDesc);
-
-		Element encodingP = tbxDocument.createElement("p");
-		encodingP.setAttribute("type", "XCSURI");
-		encodingP.setTextContent("http://ttc-project.googlecode.com/files/ttctbx.xcs");
-		encodingDesc.appendChild(encodingP);
-
-		Element sourceDesc = tbxDocument.createElement("sourceDesc");
-		Element p = tbxDocument.createElement("p");
-//		p.setTextContent(workingDir.getAbsolutePath());
-		sourceDesc.appendChild(p);
-		fileDesc.appendChild(sourceDesc);
-
-		Element text = tbxDocument.createElement("text");
-		martif.appendChild(text);
-
-        Element body = tbxDocument.createElement("body");
-		text.appendChild(body);
-		return tbxDocument;
+	private void writeTBXHeader() throws XMLStreamException {
+		startElement("martif");
+		xml.writeAttribute("type", "TBX");
+		
+		startElement("martifHeader");
+		startElement("fileDesc");
+		startElement("sourceDesc");
+		emptyElement("p");
+		endElement(); // sourceDesc
+		endElement(); // fileDesc
+		startElement("encodingDesc");
+		startElement("p");
+		xml.writeAttribute("type", "XCSURI");
+		xml.writeCharacters("http://ttc-project.googlecode.com/files/ttctbx.xcs");
+		endInlineElement(); // p
+		endElement(); // encodingDesc
+		endElement(); // martifHeader
+
+		startElement("text");
+		startElement("body");
     }
 
-
-	
-    /**
-     * Export the TBX document to a file specified in parameter.
-     *
-     * @throws TransformerException
-     */
-    private void exportTBXDocument(Document tbxDocument, Writer writer) throws TransformerException {
-        // Prepare the transformer to persist the file
-		TransformerFactory transformerFactory = TransformerFactory
-				.newInstance();
-		Transformer transformer = transformerFactory.newTransformer();
-		transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-		transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM,
-				"http://ttc-project.googlecode.com/files/tbxcore.dtd");
-		transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
-		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-		try {
-			transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-		} catch (IllegalArgumentException e) {
-			throw new TransformerException(e);
-		} // Ignore
-
-        // Actually persist the file
-		DOMSource source = new DOMSource(tbxDocument);
-		StreamResult result = new StreamResult(writer);
-		transformer.transform(source, result);
+	/**
+	 * Closes the TBX elements opened by {@link #writeTBXHeader()}.
+	 */
+	private void writeTBXFooter() throws XMLStreamException {
+		endElement(); // body
+		endElement(); // text
+		endElement(); // martif
+		xml.writeCharacters(System.lineSeparator());
+		xml.writeEndDocument();
 	}
     
-    
     private int currentId=0;
     private Map<Term, Integer> ids = new HashMap<>();
     
@@ -163,113 +133,150 @@ public class TbxExporter {
     }
     
     /**
-     * Add a term to the TBX document.
+     * Writes a term entry. A term that is the target of a relation 
+     * is typed as a variant.
      *
-     * @param doc
-     * @param langsetId
+     * @param termino
+     * @param occurrenceStore
      * @param term
-     * @param isVariant
-     * @throws IOException
+     * @throws XMLStreamException
      */
-	private void addTermEntry(Document tbxDocument, TerminologyService termino, OccurrenceStore occurrenceStore, TermService term, boolean isVariant) {
+	private void writeTermEntry(TerminologyService termino, OccurrenceStore occurrenceStore, TermService term) throws XMLStreamException {
 		String langsetId = LANGSET_ID_PREFIX + getId(term.getTerm());
-        Node body = tbxDocument.getElementsByTagName("body").item(0);
 
-		Element termEntry = tbxDocument.createElement("termEntry");
-		termEntry.setAttribute("xml:id",
-				TERMENTRY_ID_PREFIX + getId(term.getTerm()));
-		body.appendChild(termEntry);
-		Element langSet = tbxDocument.createElement("langSet");
-		langSet.setAttribute("xml:id", langsetId);
-		langSet.setAttribute("xml:lang", termino.getLang().getCode());
-		termEntry.appendChild(langSet);
+		startElement("termEntry");
+		writeId(TERMENTRY_ID_PREFIX + getId(term.getTerm()));
+		startElement("langSet");
+		writeId(langsetId);
+		xml.writeAttribute(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI, "lang", termino.getLang().getCode());
 
-		for (RelationService variation : term.inboundRelations().collect(toSet())) 
-			this.addTermBase(tbxDocument, langSet, variation.getFrom().getGroupingKey(), null);
+		boolean isVariant = false;
+		for (RelationService variation : term.inboundRelations().collect(toSet())) {
+			this.writeTermBase(variation.getFrom().getGroupingKey(), null);
+			isVariant = true;
+		}
 
 		for (RelationService variation : term.outboundRelations().collect(toSet())) {
-			this.addTermVariant(tbxDocument, langSet, String.format("langset-%d", getId(variation.getTo().getTerm())),
+			this.writeTermVariant(String.format("langset-%d", getId(variation.getTo().getTerm())),
 					variation.getTo().getGroupingKey());
 		}
-		Collection<TermOccurrence> allOccurrences = occurrenceStore.getOccurrences(term.getTerm());
-		this.addDescrip(tbxDocument, langSet, langSet, "nbOccurrences", allOccurrences.size());
+		this.writeDescrip("nbOccurrences", occurrenceStore.getOccurrenceCount(term.getTerm()));
 
-		Element tig = tbxDocument.createElement("tig");
-		tig.setAttribute("xml:id", TIG_ID_PREFIX + getId(term.getTerm()));
-		langSet.appendChild(tig);
-		Element termElmt = tbxDocument.createElement("term");
-		termElmt.setTextContent(term.getGroupingKey());
-		tig.appendChild(termElmt);
+		startElement("tig");
+		writeId(TIG_ID_PREFIX + getId(term.getTerm()));
+		startElement("term");
+		xml.writeCharacters(term.getGroupingKey());
+		endInlineElement(); // term
 
-		List<Form> forms = occurrenceStore.getForms(term.getTerm());
-		addNote(tbxDocument, langSet, tig, "termPilot", term.getPilot());
-
-		this.addNote(tbxDocument, langSet, tig, "termType", isVariant ? "variant" : "termEntry");
-		this.addNote(tbxDocument, 
-				langSet,
-				tig,
+		writeNote("termPilot", term.getPilot());
+		this.writeNote("termType", isVariant ? "variant" : "termEntry");
+		this.writeNote(
 				"partOfSpeech",
 				term.isMultiWord() ? "noun" : term.getWords().get(0).getSyntacticLabel());
-		this.addNote(tbxDocument, langSet, tig, "termPattern", term.getWords().get(0).getSyntacticLabel());
-		this.addNote(tbxDocument, langSet, tig, "termComplexity",
+		this.writeNote("termPattern", term.getWords().get(0).getSyntacticLabel());
+		this.writeNote("termComplexity",
 				this.getComplexity(term));
-		this.addDescrip(tbxDocument, langSet, tig, "termSpecificity",
+		this.writeDescrip("termSpecificity",
 				NUMBER_FORMATTER.format(term.getSpecificity()));
-		this.addDescrip(tbxDocument, langSet, tig, "nbOccurrences",
+		this.writeDescrip("nbOccurrences",
 				term.getFrequency());
-		this.addDescrip(tbxDocument, langSet, tig, "relativeFrequency",
+		this.writeDescrip("relativeFrequency",
 				NUMBER_FORMATTER.format(term.getFrequency()));
-		addDescrip(tbxDocument, langSet, tig, "formList",
-					buildFormListJSON(occurrenceStore, term.getTerm(), forms.size()));
-		 this.addDescrip(tbxDocument, langSet, tig, "domainSpecificity",
-				 term.getSpecificity());
+		writeDescrip("formList",
+				buildFormListJSON(occurrenceStore.getForms(term.getTerm())));
+		this.writeDescrip("domainSpecificity",
+				term.getSpecificity());
+		endElement(); // tig
+		endElement(); // langSet
+		endElement(); // termEntry
+	}
+
+	private void writeId(String id) throws XMLStreamException {
+		xml.writeAttribute(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI, "id", id);
 	}
 	
-	private void addDescrip(Document tbxDocument, Element lang, Element element,
-			String type, Object value) {
-		Element descrip = tbxDocument.createElement("descrip");
-		element.appendChild(descrip);
-		descrip.setAttribute("type", type);
-		descrip.setTextContent(value.toString());
+	private void writeDescrip(String type, Object value) throws XMLStreamException {
+		startElement("descrip");
+		xml.writeAttribute("type", type);
+		xml.writeCharacters(value.toString());
+		endInlineElement();
 	}
 
-	private void addTermBase(Document tbxDocument, Element lang, String target, Object value) {
-		Element descrip = tbxDocument.createElement("descrip");
-		lang.appendChild(descrip);
-		descrip.setAttribute("type", "termBase");
-		descrip.setAttribute("target", "#"+target);
-		if (value != null) {
-			descrip.setTextContent(value.toString());
-		}
+	private void writeTermBase(String target, Object value) throws XMLStreamException {
+		writeTarget("termBase", target, value);
 	}
 
-	private void addTermVariant(Document tbxDocument, Element lang, String target,
-			Object value) {
-		Element descrip = tbxDocument.createElement("descrip");
-		lang.appendChild(descrip);
-		descrip.setAttribute("type", "termVariant");
-		descrip.setAttribute("target", "#"+target);
+	private void writeTermVariant(String target, Object value) throws XMLStreamException {
+		writeTarget("termVariant", target, value);
+	}
+
+	private void writeTarget(String type, String target, Object value) throws XMLStreamException {
 		if (value != null) {
-			descrip.setTextContent(value.toString());
+			startElement("descrip");
+		} else {
+			indent();
+			xml.writeEmptyElement("descrip");
 		}
+		xml.writeAttribute("type", type);
+		xml.writeAttribute("target", "#"+target);
+		if (value != null) {
+			xml.writeCharacters(value.toString());
+			endInlineElement();
+		}
+	}
+
+	private void writeNote(String type, Object value) throws XMLStreamException {
+		startElement("termNote");
+		xml.writeAttribute("type", type);
+		xml.writeCharacters(value.toString());
+		endInlineElement();
+	}
+	
+	/*
+	 * Indentation helpers, reproducing the layout of an indenting transformer.
+	 */
+	private void indent() throws XMLStreamException {
+		xml.writeCharacters(System.lineSeparator());
+		for(int i = 0; i < depth; i++)
+			xml.writeCharacters(INDENT);
+	}
+	
+	private void startElement(String name) throws XMLStreamException {
+		indent();
+		xml.writeStartElement(name);
+		depth++;
+	}
+
+	private void emptyElement(String name) throws XMLStreamException {
+		indent();
+		xml.writeEmptyElement(name);
+	}
+
+	/*
+	 * Closes an element having children elements
+	 */
+	private void endElement() throws XMLStreamException {
+		depth--;
+		indent();
+		xml.writeEndElement();
 	}
 
-	private void addNote(Document tbxDocument, Element lang, Element element,
-			String type, Object value) {
-		Element termNote = tbxDocument.createElement("termNote");
-		element.appendChild(termNote);
-		termNote.setAttribute("type", type);
-		termNote.setTextContent(value.toString());
+	/*
+	 * Closes an element having text content only
+	 */
+	private void endInlineElement() throws XMLStreamException {
+		depth--;
+		xml.writeEndElement();
 	}
 
-	private String buildFormListJSON(OccurrenceStore occurrenceStore, Term term, int size) {
+	private String buildFormListJSON(List<Form> forms) {
 		StringBuilder sb = new StringBuilder("[");
 
 		int i = 0;
-		for (Form form:occurrenceStore.getForms(term)) {
+		for (Form form:forms) {
 			if (i > 0)
 				sb.append(", ");
-			sb.append("{term=\"").append(form);
+			sb.append("{term=\"").append(form.getText());
 			sb.append("\", count=").append(form.getCount()).append("}");
 			i++;
 		}
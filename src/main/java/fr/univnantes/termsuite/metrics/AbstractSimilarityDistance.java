@@ -22,7 +22,13 @@
 
 package fr.univnantes.termsuite.metrics;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.model.CoTermIds;
 import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.FrozenContextVector;
 
 
 /**
@@ -30,6 +36,9 @@ import fr.univnantes.termsuite.model.ContextVector;
  * An abstract implementation of {@link SimilarityDistance} that manages the 
  * similarity explanation.
  * 
+ * Context vectors are frozen with a {@link CoTermIds} dictionary owned by
+ * this distance instance, so that co-term ids are released with it.
+ * 
  * @see SimilarityDistance
  * @see Explanation
  * @author Damien Cram
@@ -38,6 +47,8 @@ import fr.univnantes.termsuite.model.ContextVector;
 public abstract class AbstractSimilarityDistance implements SimilarityDistance {
 
 	private int nbExplanation = 10;
+	
+	private final CoTermIds coTermIds = new CoTermIds();
 
 	public AbstractSimilarityDistance() {
 		super();
@@ -46,15 +57,41 @@ public abstract class AbstractSimilarityDistance implements SimilarityDistance {
 	@Override
 	public ExplainedValue getExplainedValue(
 			ContextVector v1, ContextVector v2) {
-		Explanation expl = new Explanation(nbExplanation);
-		double value = getValue(v1, v2, expl);
-		return new ExplainedValue(value, expl);
+		return getExplainedValue(v1.freeze(coTermIds), v2.freeze(coTermIds));
 	}
 
 	@Override
 	public double getValue(ContextVector v1, ContextVector v2) {
-		return getValue(v1, v2, Explanation.emptyExplanation());
+		return getValue(v1.freeze(coTermIds), v2.freeze(coTermIds), Explanation.emptyExplanation());
+	}
+	
+	@Override
+	public double[] getValues(ContextVector source, List<ContextVector> targets) {
+		FrozenContextVector frozenSource = source.freeze(coTermIds);
+		double[] values = new double[targets.size()];
+		for(int i = 0; i < values.length; i++)
+			values[i] = getValue(frozenSource, targets.get(i).freeze(coTermIds), Explanation.emptyExplanation());
+		return values;
 	}
 	
-	protected abstract double getValue(ContextVector source, ContextVector target, Explanation explainedValue);
+	@Override
+	public List<ExplainedValue> getExplainedValues(ContextVector source, List<ContextVector> targets) {
+		FrozenContextVector frozenSource = source.freeze(coTermIds);
+		List<ExplainedValue> values = Lists.newArrayListWithCapacity(targets.size());
+		for(ContextVector target:targets)
+			values.add(getExplainedValue(frozenSource, target.freeze(coTermIds)));
+		return values;
+	}
+
+	private ExplainedValue getExplainedValue(FrozenContextVector v1, FrozenContextVector v2) {
+		Explanation expl = new Explanation(nbExplanation);
+		double value = getValue(v1, v2, expl);
+		return new ExplainedValue(value, expl);
+	}
+
+	protected double getValue(ContextVector source, ContextVector target, Explanation explainedValue) {
+		return getValue(source.freeze(coTermIds), target.freeze(coTermIds), explainedValue);
+	}
+
+	protected abstract double getValue(FrozenContextVector source, FrozenContextVector target, Explanation explainedValue);
 }
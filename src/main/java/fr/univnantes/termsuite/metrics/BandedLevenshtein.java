@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.metrics;
+
+/**
+ * 
+ * A Levenshtein distance restricted to a diagonal band of width 
+ * <code>2 * maxDistance + 1</code> (Ukkonen), which computes the 
+ * distance in <code>O(maxDistance * length)</code> and gives up
+ * as soon as it is known to be greater than <code>maxDistance</code>.
+ * 
+ * Row buffers are reused from one invocation to the next, so an 
+ * instance must not be shared between threads.
+ * 
+ * @see Levenshtein
+ *
+ */
+public class BandedLevenshtein {
+	
+	private int[] previous = new int[16];
+	private int[] current = new int[16];
+
+	/**
+	 * @return
+	 * 		the edit distance between <code>s1</code> and <code>s2</code> 
+	 * 		if it is lower than or equal to <code>maxDistance</code>, 
+	 * 		<code>maxDistance + 1</code> otherwise.
+	 */
+	public int compute(CharSequence s1, CharSequence s2, int maxDistance) {
+		int n = s1.length();
+		int m = s2.length();
+		if(Math.abs(n - m) > maxDistance)
+			return maxDistance + 1;
+		if(n == 0 || m == 0)
+			return Math.max(n, m);
+		
+		if(previous.length < m + 1) {
+			previous = new int[m + 1];
+			current = new int[m + 1];
+		}
+		int outOfBand = maxDistance + 1;
+		for(int j = 0; j <= m; j++)
+			previous[j] = j <= maxDistance ? j : outOfBand;
+		
+		int[] prev = previous;
+		int[] cur = current;
+		for(int i = 1; i <= n; i++) {
+			int from = Math.max(1, i - maxDistance);
+			int to = Math.min(m, i + maxDistance);
+			cur[0] = i <= maxDistance ? i : outOfBand;
+			if(from > 1)
+				cur[from - 1] = outOfBand;
+			char c = s1.charAt(i - 1);
+			int rowMin = cur[0];
+			for(int j = from; j <= to; j++) {
+				int d;
+				if(c == s2.charAt(j - 1))
+					d = prev[j - 1];
+				else
+					d = 1 + Math.min(prev[j - 1], Math.min(prev[j], cur[j - 1]));
+				if(d > outOfBand)
+					d = outOfBand;
+				cur[j] = d;
+				if(d < rowMin)
+					rowMin = d;
+			}
+			if(to < m)
+				cur[to + 1] = outOfBand;
+			if(rowMin > maxDistance)
+				return outOfBand;
+			int[] tmp = prev;
+			prev = cur;
+			cur = tmp;
+		}
+		return Math.min(prev[m], outOfBand);
+	}
+}
@@ -41,40 +41,40 @@
  */
 package fr.univnantes.termsuite.metrics;
 
-import fr.univnantes.termsuite.model.ContextVector;
-import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.FrozenContextVector;
 
 public class Cosine extends AbstractSimilarityDistance {
 	
 	@Override
-	protected double getValue(ContextVector source, ContextVector target, Explanation expl) {
-		double sourceSum = getSquareSum(source);
+	protected double getValue(FrozenContextVector source, FrozenContextVector target, Explanation expl) {
+		double sourceSum = source.getSquareSum();
 		if(sourceSum == 0d)
 			return 0d;
 		
-		double targetSum = getSquareSum(target);
+		double targetSum = target.getSquareSum();
 		if(targetSum == 0d)
 			return 0d;
 
 		double sum = 0d;
-		for (Term t : source.terms())  {
-			double partial = source.getAssocRate(t) * target.getAssocRate(t);
-			if(partial > 0)
-				expl.addExplanation(t, partial);
-			sum += partial;
+		double partial;
+		int i = 0, j = 0, sourceId, targetId;
+		while(i < source.size() && j < target.size()) {
+			sourceId = source.getId(i);
+			targetId = target.getId(j);
+			if(sourceId < targetId)
+				i++;
+			else if(sourceId > targetId)
+				j++;
+			else {
+				partial = source.getAssocRate(i) * target.getAssocRate(j);
+				if(partial > 0)
+					expl.addExplanation(source.getCoTerm(i), partial);
+				sum += partial;
+				i++;
+				j++;
+			}
 		}
 		
 		return sum / Math.sqrt(sourceSum * targetSum);
 	}
-
-	private double getSquareSum(ContextVector vec) {
-		double sum = 0.0;
-		double val;
-		for (Term t : vec.terms()) {
-			val = vec.getAssocRate(t);
-			sum += val * val;
-		}
-		return sum;
-	}
-	
 }
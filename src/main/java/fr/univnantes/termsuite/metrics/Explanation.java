@@ -61,7 +61,12 @@ public class Explanation implements IExplanation {
 		}
 		@Override
 		public int compareTo(ExplanationFeature e) {
-			return Double.compare(e.value,  this.value);
+			/*
+			 * Ties are ordered by co-term so that the explanation does not depend
+			 * on the order co-terms are visited in, i.e. on their ids.
+			 */
+			int cmp = Double.compare(e.value,  this.value);
+			return cmp == 0 ? this.coTerm.getGroupingKey().compareTo(e.coTerm.getGroupingKey()) : cmp;
 		}
 		public Term getCoTerm() {
 			return coTerm;
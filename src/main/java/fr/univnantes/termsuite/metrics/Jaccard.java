@@ -41,36 +41,44 @@
  */
 package fr.univnantes.termsuite.metrics;
 
-import java.util.Set;
-
-import com.google.common.collect.Sets;
 import com.google.common.primitives.Doubles;
 
-import fr.univnantes.termsuite.model.ContextVector;
-import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.FrozenContextVector;
 
 public class Jaccard extends AbstractSimilarityDistance {
 	
 	@Override
-	protected double getValue(ContextVector source, ContextVector target, Explanation expl) {
+	protected double getValue(FrozenContextVector source, FrozenContextVector target, Explanation expl) {
 		double infSum = 0;
 		double supSum = 0;
-		Set<Term> terms = Sets.newHashSet();
-		terms.addAll(source.terms());
-		terms.addAll(target.terms());
 		double sourceValue;
 		double targetValue;
 		double partialInf;
-		double partialSup;
-		for (Term term : terms) {
-			sourceValue = source.getAssocRate(term);
-			targetValue = target.getAssocRate(term);
-			partialInf = Doubles.min(sourceValue, targetValue);
-			partialSup = Doubles.max(sourceValue, targetValue);
-			infSum += partialInf;
-			supSum += partialSup;
-			if(partialInf > 0)
-				expl.addExplanation(term, partialInf);
+		int i = 0, j = 0, sourceId, targetId;
+		
+		/*
+		 * Merge-join on the union of co-terms, a missing co-term having a rate of 0.
+		 */
+		while(i < source.size() || j < target.size()) {
+			sourceId = i < source.size() ? source.getId(i) : Integer.MAX_VALUE;
+			targetId = j < target.size() ? target.getId(j) : Integer.MAX_VALUE;
+			if(sourceId < targetId) {
+				sourceValue = source.getAssocRate(i++);
+				targetValue = 0d;
+			} else if(sourceId > targetId) {
+				sourceValue = 0d;
+				targetValue = target.getAssocRate(j++);
+			} else {
+				sourceValue = source.getAssocRate(i);
+				targetValue = target.getAssocRate(j);
+				partialInf = Doubles.min(sourceValue, targetValue);
+				if(partialInf > 0)
+					expl.addExplanation(source.getCoTerm(i), partialInf);
+				i++;
+				j++;
+			}
+			infSum += Doubles.min(sourceValue, targetValue);
+			supSum += Doubles.max(sourceValue, targetValue);
 		}
 		return supSum == 0 ? 0 : infSum / supSum;
 	}
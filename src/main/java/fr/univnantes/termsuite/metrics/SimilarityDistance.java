@@ -41,6 +41,10 @@
  */
 package fr.univnantes.termsuite.metrics;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
 import fr.univnantes.termsuite.model.ContextVector;
 
 /**
@@ -82,6 +86,43 @@ public interface SimilarityDistance {
 	 */
 	public ExplainedValue getExplainedValue(ContextVector first, ContextVector second);
 	
+	/**
+	 * Computes the values of the similarity distance between one source
+	 * {@link ContextVector} and several target {@link ContextVector}s.
+	 * 
+	 * @param source
+	 * 			the source context vector
+	 * @param targets
+	 * 			the target context vectors
+	 * @return
+	 * 			the distances, in the same order as <code>targets</code>
+	 */
+	public default double[] getValues(ContextVector source, List<ContextVector> targets) {
+		double[] values = new double[targets.size()];
+		for(int i = 0; i < values.length; i++)
+			values[i] = getValue(source, targets.get(i));
+		return values;
+	}
+
+	/**
+	 * Computes the explained values of the similarity distance between one source
+	 * {@link ContextVector} and several target {@link ContextVector}s.
+	 * 
+	 * @see #getExplainedValue(ContextVector, ContextVector)
+	 * @param source
+	 * 			the source context vector
+	 * @param targets
+	 * 			the target context vectors
+	 * @return
+	 * 			the explained values, in the same order as <code>targets</code>
+	 */
+	public default List<ExplainedValue> getExplainedValues(ContextVector source, List<ContextVector> targets) {
+		List<ExplainedValue> values = Lists.newArrayListWithCapacity(targets.size());
+		for(ContextVector target:targets)
+			values.add(getExplainedValue(source, target));
+		return values;
+	}
+	
 
 	@SuppressWarnings("unchecked")
 	public static Class<? extends SimilarityDistance>[] values() {
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.model;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Maps;
+
+/**
+ * 
+ * A dictionary of integer ids for the co-terms of {@link FrozenContextVector}s.
+ * 
+ * Two frozen vectors can only be compared when they have been frozen
+ * with the same dictionary. Like Term#equals, ids are based on the grouping 
+ * key, so that vectors of different terminologies (e.g. translated vectors
+ * in bilingual alignment) remain comparable.
+ * 
+ * A dictionary is meant to live as long as a single similarity computation
+ * run (a gatherer execution, an alignment) and is released with it.
+ * 
+ * @see ContextVector#freeze(CoTermIds)
+ *
+ */
+public class CoTermIds {
+	private final ConcurrentMap<String, Integer> ids = Maps.newConcurrentMap();
+	private final AtomicInteger idGenerator = new AtomicInteger(0);
+
+	public int getId(Term coTerm) {
+		return ids.computeIfAbsent(coTerm.getGroupingKey(), k -> idGenerator.getAndIncrement());
+	}
+	
+	public int size() {
+		return ids.size();
+	}
+}
@@ -50,7 +50,8 @@ import fr.univnantes.termsuite.engines.contextualizer.CrossTable;
  */
 public class ContextVector {
 	private ConcurrentMap<Term, Entry> entries = Maps.newConcurrentMap();
-	private List<Entry> _sortedEntries = null;
+	private volatile List<Entry> _sortedEntries = null;
+	private volatile FrozenContextVector _frozen = null;
 	private int totalCooccurrences = 0;
 
 	private Term term;
@@ -112,6 +113,28 @@ public class ContextVector {
 
 	private void setDirty() {
 		this._sortedEntries = null;
+		this._frozen = null;
+	}
+	
+	/**
+	 * Gives an immutable snapshot of this context vector suited for 
+	 * similarity computations. The snapshot is cached until this vector
+	 * is modified or frozen with another dictionary.
+	 * 
+	 * @see FrozenContextVector
+	 * @param coTermIds
+	 * 			the dictionary giving the ids of co-terms
+	 * @return
+	 * 			the frozen vector
+	 */
+	public FrozenContextVector freeze(CoTermIds coTermIds) {
+		Preconditions.checkNotNull(coTermIds);
+		FrozenContextVector frozen = this._frozen;
+		if(frozen == null || frozen.getCoTermIds() != coTermIds) {
+			frozen = new FrozenContextVector(Lists.newArrayList(entries.values()), coTermIds);
+			this._frozen = frozen;
+		}
+		return frozen;
 	}
 	
 	/**
@@ -121,13 +144,15 @@ public class ContextVector {
 	 * @return
 	 */
 	public List<Entry> getEntries() {
-		if(_sortedEntries == null) {
-			this._sortedEntries = Lists.newArrayListWithCapacity(entries.size());
+		List<Entry> sortedEntries = this._sortedEntries;
+		if(sortedEntries == null) {
+			sortedEntries = Lists.newArrayListWithCapacity(entries.size());
 			for(Map.Entry<Term, Entry> e:entries.entrySet())
-				this._sortedEntries.add(e.getValue());
-			Collections.sort(this._sortedEntries);
+				sortedEntries.add(e.getValue());
+			Collections.sort(sortedEntries);
+			this._sortedEntries = sortedEntries;
 		}
-		return _sortedEntries;
+		return sortedEntries;
 	}
 	
 	/**
@@ -163,6 +188,7 @@ public class ContextVector {
 		}
 		public void setAssocRate(double assocRate) {
 			this.assocRate = assocRate;
+			setDirty();
 		}
 		public double getAssocRate() {
 			return assocRate;
@@ -25,6 +25,7 @@ public abstract class FileSystemCorpus {
 	private Charset encoding = Charsets.UTF_8;
 	private String pattern;
 	private String extension;
+	private volatile CorpusMetadata metadata;
 
 	public FileSystemCorpus(Lang lang, Path rootDirectory, String pattern, String extension) {
 		super();
@@ -48,6 +49,7 @@ public abstract class FileSystemCorpus {
 
 	public void setRootDirectory(Path rootDirectory) {
 		this.rootDirectory = rootDirectory;
+		this.metadata = null;
 	}
 
 	public Charset getEncoding() {
@@ -64,6 +66,7 @@ public abstract class FileSystemCorpus {
 	
 	public void setPattern(String pattern) {
 		this.pattern = pattern;
+		this.metadata = null;
 	}
 
 	public String getExtension() {
@@ -118,19 +121,48 @@ public abstract class FileSystemCorpus {
 	
 
 	public int getNbDocuments() {
-		return (int)documents().count();
+		return getMetadata().getNbDocuments();
 	}
 
 	public long getTotalSize() {
-		final AtomicLong size = new AtomicLong(0);
-		documents().forEach(doc -> {
-			size.addAndGet(Paths.get(doc.getUrl()).toFile().length());
-		});
-		return size.longValue();
+		return getMetadata().getTotalSize();
+	}
+
+	/**
+	 * Gives the number of documents and the total byte size of this corpus. 
+	 * 
+	 * Sizes are read from the file system, so no document is read, and 
+	 * the corpus is walked only once: the metadata are computed on first 
+	 * invocation and cached.
+	 * 
+	 * @return
+	 * 		the metadata of this corpus
+	 */
+	public CorpusMetadata getMetadata() {
+		CorpusMetadata metadata = this.metadata;
+		if(metadata == null) {
+			final AtomicInteger nbDocuments = new AtomicInteger(0);
+			final AtomicLong size = new AtomicLong(0);
+			try(Stream<Document> documents = walkDocuments()) {
+				documents.forEach(doc -> {
+					nbDocuments.incrementAndGet();
+					size.addAndGet(doc.getSize());
+				});
+			}
+			metadata = new CorpusMetadata(nbDocuments.get(), size.get());
+			this.metadata = metadata;
+		}
+		return metadata;
 	}
 
 	public Stream<Document> documents() {
-		AtomicInteger documentIndex = new AtomicInteger(0);
+		return walkDocuments();
+	}
+	
+	/*
+	 * Lists documents of this corpus without reading them
+	 */
+	protected Stream<Document> walkDocuments() {
 		Stream<Document> pathWalker = pathWalker(
 				getRootDirectory(), 
 				getPattern(), 
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 
+ * An immutable snapshot of a {@link ContextVector} optimized for similarity
+ * computations. Co-terms are stored as a sorted array of integer ids
+ * with their association rates, so that two vectors can be compared
+ * by a linear merge-join instead of hash lookups.
+ * 
+ * The square sum of the rates is computed once at freeze time.
+ * 
+ * @see ContextVector#freeze(CoTermIds)
+ * @see CoTermIds
+ *
+ */
+public class FrozenContextVector {
+	
+	private final CoTermIds coTermIds;
+	private final int[] ids;
+	private final double[] rates;
+	private final Term[] coTerms;
+	private final double squareSum;
+
+	FrozenContextVector(List<ContextVector.Entry> entries, CoTermIds coTermIds) {
+		this.coTermIds = coTermIds;
+		int size = entries.size();
+		long[] sortKeys = new long[size];
+		for(int i = 0; i < size; i++)
+			sortKeys[i] = ((long)coTermIds.getId(entries.get(i).getCoTerm()) << 32) | i;
+		Arrays.sort(sortKeys);
+		this.ids = new int[size];
+		this.rates = new double[size];
+		this.coTerms = new Term[size];
+		double sum = 0d;
+		for(int i = 0; i < size; i++) {
+			ContextVector.Entry e = entries.get((int)sortKeys[i]);
+			this.ids[i] = (int)(sortKeys[i] >>> 32);
+			this.rates[i] = e.getAssocRate();
+			this.coTerms[i] = e.getCoTerm();
+			sum += rates[i] * rates[i];
+		}
+		this.squareSum = sum;
+	}
+	
+	/**
+	 * The dictionary the co-term ids of this vector come from.
+	 * 
+	 * @return
+	 */
+	public CoTermIds getCoTermIds() {
+		return coTermIds;
+	}
+	
+	public int size() {
+		return ids.length;
+	}
+	
+	/**
+	 * The id of the i-th co-term. Ids are sorted in ascending order.
+	 * 
+	 * @param i
+	 * @return
+	 */
+	public int getId(int i) {
+		return ids[i];
+	}
+
+	public double getAssocRate(int i) {
+		return rates[i];
+	}
+
+	public Term getCoTerm(int i) {
+		return coTerms[i];
+	}
+
+	/**
+	 * The sum of the squares of all association rates.
+	 * 
+	 * @return
+	 */
+	public double getSquareSum() {
+		return squareSum;
+	}
+}
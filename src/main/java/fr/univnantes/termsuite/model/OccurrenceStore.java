@@ -33,6 +33,18 @@ public interface OccurrenceStore extends Closeable {
 	public static enum State{COLLECTING,INDEXING,INDEXED}
 
 	public Collection<TermOccurrence> getOccurrences(Term term);
+	
+	/**
+	 * The number of distinct occurrences of a term, i.e. the size of
+	 * {@link #getOccurrences(Term)}. Stores should override it when 
+	 * they can count occurrences without materializing them.
+	 * 
+	 * @param term
+	 * @return
+	 */
+	public default int getOccurrenceCount(Term term) {
+		return getOccurrences(term).size();
+	}
 	public Type getStoreType();
 	public void flush();
 	
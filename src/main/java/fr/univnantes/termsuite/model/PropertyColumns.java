@@ -0,0 +1,266 @@
+package fr.univnantes.termsuite.model;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * 
+ * A struct-of-arrays storage for the primitive-valued properties 
+ * (numbers and booleans) of a set of {@link PropertyHolder}s.
+ * 
+ * Each bound holder is given a dense id, and each property value is 
+ * stored in a primitive column at that id. Columns are allocated by 
+ * chunks, so that they can grow while being read without any lock. 
+ * Values are held in atomic arrays, so concurrent readers never see 
+ * a partially written 64-bit value. Ids released by holders that are
+ * removed are reused by the next allocations.
+ * 
+ * @see PropertyHolder#bindColumns(PropertyColumns)
+ * @see PropertyHolder#unbindColumns(PropertyColumns)
+ * @see fr.univnantes.termsuite.index.Terminology
+ *
+ * @param <T>
+ * 			the property type
+ */
+public class PropertyColumns<T extends Enum<T> & Property<?>> {
+	private static final int CHUNK_BITS = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	
+	private static final int NO_COLUMN = -1;
+	private static final int BOOLEAN_COLUMN = -2;
+	
+	private static class Chunk {
+		/*
+		 * One bit per property for each id
+		 */
+		private AtomicLongArray setFlags = new AtomicLongArray(CHUNK_SIZE);
+		private AtomicLongArray booleanValues = new AtomicLongArray(CHUNK_SIZE);
+		
+		/*
+		 * Numeric values, as raw long bits
+		 */
+		private AtomicLongArray[] values;
+		
+		private Chunk(int nbColumns) {
+			this.values = new AtomicLongArray[nbColumns];
+			for(int i = 0; i < nbColumns; i++)
+				values[i] = new AtomicLongArray(CHUNK_SIZE);
+		}
+	}
+	
+	private int[] columns;
+	private int nbColumns = 0;
+	private AtomicInteger nextId = new AtomicInteger(0);
+	private Queue<Integer> freeIds = new ConcurrentLinkedQueue<>();
+	private AtomicInteger nbFreeIds = new AtomicInteger(0);
+	private volatile Chunk[] chunks = new Chunk[0];
+	
+	public PropertyColumns(Class<T> cls) {
+		T[] properties = cls.getEnumConstants();
+		Preconditions.checkArgument(properties.length <= Long.SIZE, 
+				"Too many properties in %s: %s. Max: %s", cls, properties.length, Long.SIZE);
+		this.columns = new int[properties.length];
+		for(T p:properties) {
+			if(p.getRange().equals(Boolean.class))
+				columns[p.ordinal()] = BOOLEAN_COLUMN;
+			else if(p.getRange().equals(Integer.class)
+					|| p.getRange().equals(Long.class)
+					|| p.getRange().equals(Float.class)
+					|| p.getRange().equals(Double.class))
+				columns[p.ordinal()] = nbColumns++;
+			else
+				columns[p.ordinal()] = NO_COLUMN;
+		}
+	}
+	
+	/**
+	 * @return
+	 * 		<code>true</code> if values of this property are stored in 
+	 * 		these columns, <code>false</code> if they must be stored 
+	 * 		by the holder itself. 
+	 */
+	public boolean supports(T property) {
+		return columns[property.ordinal()] != NO_COLUMN;
+	}
+
+	/**
+	 * Allocates a new id in columns, reusing a released id if any.
+	 * 
+	 * @return
+	 * 		the new id
+	 */
+	public int allocate() {
+		Integer free = freeIds.poll();
+		if(free != null) {
+			nbFreeIds.decrementAndGet();
+			return free;
+		}
+		int id = nextId.getAndIncrement();
+		int chunkIndex = id >> CHUNK_BITS;
+		if(chunkIndex >= chunks.length) {
+			synchronized(this) {
+				Chunk[] current = chunks;
+				if(chunkIndex >= current.length) {
+					Chunk[] grown = new Chunk[Math.max(chunkIndex + 1, current.length * 2)];
+					System.arraycopy(current, 0, grown, 0, current.length);
+					for(int i = current.length; i < grown.length; i++)
+						grown[i] = new Chunk(nbColumns);
+					chunks = grown;
+				}
+			}
+		}
+		return id;
+	}
+	
+	/**
+	 * Unsets all properties of an id and makes it available to
+	 * {@link #allocate()}. The id must not be used anymore by its holder.
+	 * 
+	 * @param id
+	 * 			the id to release
+	 */
+	public void release(int id) {
+		Preconditions.checkElementIndex(id, nextId.get());
+		Chunk chunk = chunk(id);
+		int offset = id & CHUNK_MASK;
+		chunk.setFlags.set(offset, 0L);
+		chunk.booleanValues.set(offset, 0L);
+		nbFreeIds.incrementAndGet();
+		freeIds.add(id);
+	}
+	
+	/**
+	 * @return
+	 * 		the number of ids allocated and not released
+	 */
+	public int size() {
+		return nextId.get() - nbFreeIds.get();
+	}
+	
+	/**
+	 * @return
+	 * 		the number of ids columns have room for
+	 */
+	public int capacity() {
+		return chunks.length * CHUNK_SIZE;
+	}
+	
+	private Chunk chunk(int id) {
+		return chunks[id >> CHUNK_BITS];
+	}
+
+	public boolean isSet(int id, T property) {
+		return (chunk(id).setFlags.get(id & CHUNK_MASK) & (1L << property.ordinal())) != 0;
+	}
+	
+	public void set(int id, T property, Object value) {
+		Chunk chunk = chunk(id);
+		int offset = id & CHUNK_MASK;
+		int column = columns[property.ordinal()];
+		long bit = 1L << property.ordinal();
+		if(column == BOOLEAN_COLUMN) {
+			boolean b = (Boolean)value;
+			long v;
+			do {
+				v = chunk.booleanValues.get(offset);
+			} while(!chunk.booleanValues.compareAndSet(offset, v, b ? v | bit : v & ~bit));
+		} else {
+			Preconditions.checkArgument(column != NO_COLUMN, "Property %s is not a primitive property", property);
+			chunk.values[column].set(offset, toBits(property.getRange(), value));
+		}
+		long flags;
+		do {
+			flags = chunk.setFlags.get(offset);
+		} while((flags & bit) == 0 && !chunk.setFlags.compareAndSet(offset, flags, flags | bit));
+	}
+
+	/**
+	 * @return
+	 * 		the boxed value of the property for this id, or <code>null</code> 
+	 * 		if the property is not set
+	 */
+	public Object get(int id, T property) {
+		if(!isSet(id, property))
+			return null;
+		Chunk chunk = chunk(id);
+		int offset = id & CHUNK_MASK;
+		int column = columns[property.ordinal()];
+		if(column == BOOLEAN_COLUMN)
+			return (chunk.booleanValues.get(offset) & (1L << property.ordinal())) != 0;
+		else
+			return fromBits(property.getRange(), chunk.values[column].get(offset));
+	}
+
+	/**
+	 * Reads a numeric property without boxing.
+	 * 
+	 * @return
+	 * 		the value of the property as a double, or {@link Double#NaN} 
+	 * 		if the property is not set
+	 */
+	public double getDouble(int id, T property) {
+		if(!isSet(id, property))
+			return Double.NaN;
+		long bits = bits(id, property);
+		Class<?> range = property.getRange();
+		if(range.equals(Double.class))
+			return Double.longBitsToDouble(bits);
+		else if(range.equals(Float.class))
+			return Float.intBitsToFloat((int)bits);
+		else
+			return bits;
+	}
+
+	/**
+	 * Reads an integral property (int or long) without boxing.
+	 * 
+	 * @return
+	 * 		the value of the property, or <code>0</code> if the property is not set
+	 */
+	public long getLong(int id, T property) {
+		Preconditions.checkArgument(!property.isDecimalNumber(), "Property %s is not an integral property", property);
+		return isSet(id, property) ? bits(id, property) : 0L;
+	}
+
+	/**
+	 * Reads a boolean property without boxing.
+	 * 
+	 * @return
+	 * 		the value of the property, or <code>false</code> if the property is not set
+	 */
+	public boolean getBoolean(int id, T property) {
+		Preconditions.checkArgument(columns[property.ordinal()] == BOOLEAN_COLUMN, "Property %s is not a boolean property", property);
+		return (chunk(id).booleanValues.get(id & CHUNK_MASK) & (1L << property.ordinal())) != 0;
+	}
+
+	private long bits(int id, T property) {
+		int column = columns[property.ordinal()];
+		Preconditions.checkArgument(column >= 0, "Property %s is not a numeric property", property);
+		return chunk(id).values[column].get(id & CHUNK_MASK);
+	}
+
+	private static long toBits(Class<?> range, Object value) {
+		if(range.equals(Double.class))
+			return Double.doubleToRawLongBits((Double)value);
+		else if(range.equals(Float.class))
+			return Float.floatToRawIntBits((Float)value);
+		else
+			return ((Number)value).longValue();
+	}
+
+	private static Object fromBits(Class<?> range, long bits) {
+		if(range.equals(Double.class))
+			return Double.longBitsToDouble(bits);
+		else if(range.equals(Float.class))
+			return Float.intBitsToFloat((int)bits);
+		else if(range.equals(Integer.class))
+			return (int)bits;
+		else
+			return bits;
+	}
+}
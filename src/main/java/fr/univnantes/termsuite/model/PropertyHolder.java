@@ -2,6 +2,7 @@ package fr.univnantes.termsuite.model;
 
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -15,38 +16,129 @@ public class PropertyHolder<T extends Enum<T> & Property<?>> {
 	private static final String ERR_PROPERTY_NOT_SET = "Property %s not set";
 	private static final String ERR_NOT_AN_INSTANCE = "Value <%s> is not an instance of range %s";
 	
-	protected Map<T, Object> properties;
+	private Class<T> cls;
+	
+	/*
+	 * Allocated on first write of a property that is not stored in columns
+	 */
+	private volatile Map<T, Object> properties = null;
+	
+	/*
+	 * When bound, primitive-valued properties are stored in columns instead 
+	 * of the properties map.
+	 */
+	private volatile PropertyColumns<T> columns = null;
+	private int columnId = -1;
 	
 	public PropertyHolder(Class<T> cls) {
 		super();
-		this.properties = Collections.synchronizedMap(new EnumMap<>(cls));
+		this.cls = cls;
+	}
+	
+	private Map<T, Object> properties() {
+		Map<T, Object> map = properties;
+		if(map == null) {
+			synchronized(this) {
+				map = properties;
+				if(map == null) {
+					map = Collections.synchronizedMap(new EnumMap<>(cls));
+					properties = map;
+				}
+			}
+		}
+		return map;
+	}
+	
+	/**
+	 * Moves the primitive-valued properties of this holder to columns.
+	 * 
+	 * Must be invoked before the holder is shared between threads. Does 
+	 * nothing if the holder is already bound.
+	 * 
+	 * @param columns
+	 * 			the property columns
+	 */
+	public void bindColumns(PropertyColumns<T> columns) {
+		if(this.columns != null)
+			return;
+		int id = columns.allocate();
+		Map<T, Object> map = properties;
+		if(map != null) {
+			synchronized(map) {
+				for(Iterator<Entry<T, Object>> it = map.entrySet().iterator(); it.hasNext(); ) {
+					Entry<T, Object> e = it.next();
+					if(columns.supports(e.getKey())) {
+						columns.set(id, e.getKey(), e.getValue());
+						it.remove();
+					}
+				}
+				if(map.isEmpty())
+					properties = null;
+			}
+		}
+		this.columnId = id;
+		this.columns = columns;
+	}
+	
+	/**
+	 * Moves the primitive-valued properties of this holder back from columns
+	 * to the holder itself and releases its id in columns, so that the id 
+	 * can be reused by another holder.
+	 * 
+	 * Must not be invoked concurrently with property writes. Does nothing 
+	 * if the holder is not bound to these columns.
+	 * 
+	 * @param columns
+	 * 			the property columns
+	 */
+	public void unbindColumns(PropertyColumns<T> columns) {
+		if(this.columns != columns)
+			return;
+		int id = this.columnId;
+		for(T p:cls.getEnumConstants())
+			if(columns.supports(p) && columns.isSet(id, p))
+				properties().put(p, columns.get(id, p));
+		this.columns = null;
+		this.columnId = -1;
+		columns.release(id);
+	}
+	
+	private boolean isInColumns(T property) {
+		return columns != null && columns.supports(property);
 	}
 
 	public void setProperty(T property, Object value) {
 		Preconditions.checkNotNull(property, ERR_PROPERTY_CANNOT_BE_NULL);
 		Preconditions.checkNotNull(value, ERR_VALUE_CANNOT_BE_NULL, property);
 		Preconditions.checkArgument(property.getRange().isInstance(value), ERR_NOT_AN_INSTANCE, value, property.getRange());
-		properties.put(property, value);
+		if(isInColumns(property))
+			columns.set(columnId, property, value);
+		else
+			properties().put(property, value);
 	}
 
 	public Object getPropertyValue(T property) {
 		Preconditions.checkNotNull(isPropertySet(property), ERR_PROPERTY_NOT_SET, property);
-		return properties.get(property);
+		return get(property);
 	}
 
 	public boolean isPropertySet(T property) {
 		Preconditions.checkNotNull(property, ERR_PROPERTY_CANNOT_BE_NULL);
-		return properties.containsKey(property);
+		if(isInColumns(property))
+			return columns.isSet(columnId, property);
+		else {
+			Map<T, Object> map = properties;
+			return map != null && map.containsKey(property);
+		}
 	}
 
 	public Object getPropertyValueUnchecked(T property) {
-		return properties.get(property);		
+		return get(property);		
 	}
 	
 	public String getPropertyStringValue(T property, String defaultValue) {
-		return properties.containsKey(property) ?
-				(String)properties.get(property)
-					: defaultValue;
+		String value = (String)get(property);
+		return value != null ? value : defaultValue;
 	}
 	
 	public String getStringUnchecked(T property) {
@@ -78,22 +170,32 @@ public class PropertyHolder<T extends Enum<T> & Property<?>> {
 	}
 
 	public Double getDouble(T property) {
+		if(isInColumns(property))
+			return columns.isSet(columnId, property) ? columns.getDouble(columnId, property) : null;
 		return (Double)getPropertyValue(property);
 	}
 
 	public Integer getInteger(T property) {
+		if(isInColumns(property))
+			return columns.isSet(columnId, property) ? (int)columns.getLong(columnId, property) : null;
 		return (Integer)getPropertyValue(property);
 	}
 
 	public Long getLong(T property) {
+		if(isInColumns(property))
+			return columns.isSet(columnId, property) ? columns.getLong(columnId, property) : null;
 		return (Long)getPropertyValue(property);
 	}
 
 	public Float getFloat(T property) {
+		if(isInColumns(property))
+			return columns.isSet(columnId, property) ? (float)columns.getDouble(columnId, property) : null;
 		return (Float)getPropertyValue(property);
 	}
 
 	public Boolean getBoolean(T property) {
+		if(isInColumns(property))
+			return columns.isSet(columnId, property) ? columns.getBoolean(columnId, property) : null;
 		return (Boolean)getPropertyValue(property);
 	}
 	
@@ -101,7 +203,13 @@ public class PropertyHolder<T extends Enum<T> & Property<?>> {
 	private static final String ERR_UNEXPECTED_PROPERTY_RANGE = "Unexpected property range <%s> for property %s";
 	public int compareNumericValue(T property, Double value) {
 		Preconditions.checkArgument(property.isNumeric(),ERR_PROPERTY_MUST_BE_NUMERIC, property);
-		if(property.getRange().equals(Double.class)) 
+		if(isInColumns(property)) {
+			Preconditions.checkState(columns.isSet(columnId, property), ERR_PROPERTY_NOT_SET, property);
+			if(property.isDecimalNumber())
+				return Double.compare(columns.getDouble(columnId, property), value);
+			else
+				return Double.compare(columns.getLong(columnId, property), value);
+		} else if(property.getRange().equals(Double.class)) 
 			return Double.compare(getDouble(property), value);
 		else if(property.getRange().equals(Integer.class)) 
 			return Double.compare(getInteger(property), value);
@@ -118,7 +226,13 @@ public class PropertyHolder<T extends Enum<T> & Property<?>> {
 	
 	public int compareNumericValue(T property, Long value) {
 		Preconditions.checkArgument(property.isNumeric(),ERR_PROPERTY_MUST_BE_NUMERIC, property);
-		if(property.getRange().equals(Double.class)) 
+		if(isInColumns(property)) {
+			Preconditions.checkState(columns.isSet(columnId, property), ERR_PROPERTY_NOT_SET, property);
+			if(property.isDecimalNumber())
+				return Double.compare(columns.getDouble(columnId, property), value);
+			else
+				return Long.compare(columns.getLong(columnId, property), value);
+		} else if(property.getRange().equals(Double.class)) 
 			return Double.compare(getDouble(property), value);
 		else if(property.getRange().equals(Integer.class)) 
 			return Long.compare(getInteger(property), value);
@@ -150,20 +264,37 @@ public class PropertyHolder<T extends Enum<T> & Property<?>> {
 	}
 	
 	public Map<T, Object> getProperties() {
-		return Collections.unmodifiableMap(this.properties);
+		Map<T, Object> map = properties;
+		if(columns == null)
+			return map == null ? Collections.emptyMap() : Collections.unmodifiableMap(map);
+		Map<T, Object> all = new EnumMap<>(cls);
+		for(T p:cls.getEnumConstants())
+			if(columns.supports(p) && columns.isSet(columnId, p))
+				all.put(p, columns.get(columnId, p));
+		if(map != null) {
+			synchronized(map) {
+				all.putAll(map);
+			}
+		}
+		return Collections.unmodifiableMap(all);
 	}
 	
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof PropertyHolder<?>) {
 			PropertyHolder<?> ph = (PropertyHolder<?>) obj;
-			return Objects.equal(properties, ph.properties);
+			return Objects.equal(getProperties(), ph.getProperties());
 		} else
 			return false;
 	}
 	
 	public Object get(T p) {
-		return properties.get(p);
+		if(isInColumns(p))
+			return columns.get(columnId, p);
+		else {
+			Map<T, Object> map = properties;
+			return map == null ? null : map.get(p);
+		}
 	}
 
 	public void setProperties(Map<T, Object> properties) {
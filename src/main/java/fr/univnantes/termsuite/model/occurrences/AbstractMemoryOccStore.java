@@ -3,8 +3,6 @@ package fr.univnantes.termsuite.model.occurrences;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -55,21 +53,15 @@ public abstract class AbstractMemoryOccStore  implements OccurrenceStore {
 	}
 	
 	protected Set<Document> protectedGetDocuments(Term t) {
-		if(!documentsByTerm.containsKey(t))
-			documentsByTerm.put(t, new HashSet<>(4));
-		return documentsByTerm.get(t);
+		return documentsByTerm.computeIfAbsent(t, term -> ConcurrentHashMap.newKeySet(4));
 	}
 
 	protected Map<String, AtomicInteger> protectedGetForms(Term t) {
-		if(!forms.containsKey(t))
-			forms.put(t, new HashMap<>(2));
-		return forms.get(t);
+		return forms.computeIfAbsent(t, term -> new ConcurrentHashMap<>(2));
 	}
 	
 	protected Document protectedGetDocument(String documentUrl) {
-		if(!documents.containsKey(documentUrl))
-			documents.put(documentUrl, new Document(lang, documentUrl));
-		return documents.get(documentUrl);
+		return documents.computeIfAbsent(documentUrl, url -> new Document(lang, url));
 	}
 
 	@Override
@@ -106,11 +98,8 @@ public abstract class AbstractMemoryOccStore  implements OccurrenceStore {
 
 		// store forms
 		Map<String, AtomicInteger> forms = protectedGetForms(term);
-		String coveredTextForm = toForm(coveredText);
-		if(forms.containsKey(coveredTextForm))
-			forms.get(coveredTextForm).incrementAndGet();
-		else
-			forms.put(coveredTextForm, new AtomicInteger(1));
+		forms.computeIfAbsent(toForm(coveredText), form -> new AtomicInteger(0))
+			.incrementAndGet();
 	}
 	
 	protected String toForm(String coveredText) {
@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.model.occurrences;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.model.Document;
+import fr.univnantes.termsuite.model.Form;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermOccurrence;
+
+/**
+ * 
+ * A memory-efficient in-memory {@link OccurrenceStore}.
+ * 
+ * Occurrences of a term are stored as (docId, begin, end, formId) 
+ * tuples packed in a single growable int array, where document
+ * and form ids refer to dictionaries shared by all terms. {@link TermOccurrence}
+ * objects are only materialized by {@link #getOccurrences(Term)}.
+ * 
+ * Like {@link MemoryOccurrenceStore}, a term has at most one occurrence
+ * per (document, begin, end): adding it again is ignored.
+ *
+ */
+public class ColumnarOccurrenceStore implements OccurrenceStore {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarOccurrenceStore.class);
+	private static final String ERR_DOC_DOES_NOT_EXIST = "Document %s does not exists";
+
+	private static final int DOC = 0;
+	private static final int BEGIN = 1;
+	private static final int END = 2;
+	private static final int FORM = 3;
+	private static final int STRIDE = 4;
+	
+	private static final int NO_FORM = -1;
+
+	private Lang lang;
+	
+	private Dictionary<Document> documents = new Dictionary<>();
+	private Map<String, Document> documentsByUrl = new ConcurrentHashMap<>();
+	private Dictionary<String> forms = new Dictionary<>();
+	
+	private Map<Term, OccurrenceColumns> occurrences = new ConcurrentHashMap<>();
+	private AtomicLong nbOccurrences = new AtomicLong(0);
+
+	public ColumnarOccurrenceStore(Lang lang) {
+		super();
+		this.lang = lang;
+	}
+
+	@Override
+	public Collection<TermOccurrence> getOccurrences(Term term) {
+		OccurrenceColumns columns = occurrences.get(term);
+		if(columns == null)
+			return Collections.emptySet();
+		int[] data = columns.snapshot();
+		List<TermOccurrence> termOccurrences = new ArrayList<>(data.length / STRIDE);
+		for(int i = 0; i < data.length; i += STRIDE)
+			termOccurrences.add(new TermOccurrence(
+					term, 
+					data[i + FORM] == NO_FORM ? null : forms.get(data[i + FORM]), 
+					documents.get(data[i + DOC]), 
+					data[i + BEGIN], 
+					data[i + END]));
+		return termOccurrences;
+	}
+
+	@Override
+	public int getOccurrenceCount(Term term) {
+		OccurrenceColumns columns = occurrences.get(term);
+		return columns == null ? 0 : columns.size();
+	}
+
+	@Override
+	public Type getStoreType() {
+		return Type.MEMORY;
+	}
+
+	@Override
+	public void flush() {
+		// nothing to do
+	}
+
+	@Override
+	public String getUrl() {
+		return null;
+	}
+
+	@Override
+	public void removeTerm(Term t) {
+		OccurrenceColumns columns = occurrences.remove(t);
+		if(columns != null)
+			nbOccurrences.addAndGet(-columns.size());
+	}
+
+	@Override
+	public void close() {
+		// do nothing
+	}
+
+	@Override
+	public List<Form> getForms(Term term) {
+		int[] counts = countForms(term);
+		List<Form> termForms = new ArrayList<>(counts.length / 2);
+		for(int i = 0; i < counts.length; i += 2)
+			termForms.add(new Form(forms.get(counts[i])).setCount(counts[i + 1]));
+		Collections.sort(termForms);
+		return termForms;
+	}
+
+	@Override
+	public String getMostFrequentForm(Term t) {
+		int[] counts = countForms(t);
+		int best = -1;
+		for(int i = 0; i < counts.length; i += 2)
+			if(best == -1 || counts[i + 1] > counts[best + 1])
+				best = i;
+		return best == -1 ? null : forms.get(counts[best]);
+	}
+
+	/*
+	 * Counts the forms of a term's occurrences only, as (formId, count) 
+	 * pairs in ascending formId order, so that the cost does not depend 
+	 * on the size of the shared form dictionary.
+	 */
+	private int[] countForms(Term term) {
+		OccurrenceColumns columns = occurrences.get(term);
+		if(columns == null)
+			return new int[0];
+		int[] data = columns.snapshot();
+		int[] formIds = new int[data.length / STRIDE];
+		int nbFormIds = 0;
+		for(int i = FORM; i < data.length; i += STRIDE)
+			if(data[i] != NO_FORM)
+				formIds[nbFormIds++] = data[i];
+		Arrays.sort(formIds, 0, nbFormIds);
+		int[] counts = new int[2 * nbFormIds];
+		int nbCounts = 0;
+		for(int i = 0; i < nbFormIds; i++) {
+			if(nbCounts == 0 || counts[nbCounts - 2] != formIds[i]) {
+				counts[nbCounts] = formIds[i];
+				nbCounts += 2;
+			}
+			counts[nbCounts - 1]++;
+		}
+		return Arrays.copyOf(counts, nbCounts);
+	}
+
+	@Override
+	public void addOccurrence(Term term, String documentUrl, int begin, int end, String coveredText) {
+		int docId = documents.id(documentsByUrl.computeIfAbsent(documentUrl, url -> new Document(lang, url)));
+		int formId = coveredText == null ? NO_FORM : forms.id(toForm(coveredText));
+		boolean added = occurrences
+			.computeIfAbsent(term, t -> new OccurrenceColumns())
+			.add(docId, begin, end, formId);
+		if(added)
+			nbOccurrences.incrementAndGet();
+	}
+
+	private String toForm(String coveredText) {
+		return coveredText.replaceAll("[\\s\r\n]+", " ");
+	}
+
+	@Override
+	public Document getDocument(String url) {
+		Preconditions.checkArgument(documentsByUrl.containsKey(url), ERR_DOC_DOES_NOT_EXIST, url);
+		return documentsByUrl.get(url);
+	}
+
+	@Override
+	public Collection<Document> getDocuments() {
+		return documentsByUrl.values();
+	}
+
+	@Override
+	public Set<Document> getDocuments(Term t) {
+		Set<Document> termDocuments = new HashSet<>();
+		OccurrenceColumns columns = occurrences.get(t);
+		if(columns != null) {
+			int[] data = columns.snapshot();
+			for(int i = DOC; i < data.length; i += STRIDE)
+				termDocuments.add(documents.get(data[i]));
+		}
+		return termDocuments;
+	}
+
+	@Override
+	public long size() {
+		return nbOccurrences.get();
+	}
+
+	@Override
+	public void log() {
+		if(LOGGER.isDebugEnabled()) {
+			LOGGER.debug(String.format("Nb documents: %d - Nb terms: %d - Nb forms: %d - Nb occurrences: %d", 
+					documents.size(),
+					occurrences.size(),
+					forms.size(),
+					nbOccurrences.get()
+			));
+		}
+	}
+	
+	/*
+	 * The occurrences of one term, without duplicate (doc, begin, end)
+	 */
+	private static class OccurrenceColumns {
+		/*
+		 * Below this number of rows, duplicates are found by a linear scan
+		 */
+		private static final int INDEX_THRESHOLD = 8;
+		
+		private int[] data = new int[STRIDE];
+		private int length = 0;
+		
+		/*
+		 * Open-addressing hash table of row numbers + 1 (0 means empty slot), 
+		 * built once the term has more than INDEX_THRESHOLD rows.
+		 */
+		private int[] index = null;
+		
+		/*
+		 * Adds a row unless a row with the same (doc, begin, end) exists.
+		 */
+		private synchronized boolean add(int docId, int begin, int end, int formId) {
+			if(index == null) {
+				for(int i = 0; i < length; i += STRIDE)
+					if(data[i + DOC] == docId && data[i + BEGIN] == begin && data[i + END] == end)
+						return false;
+			} else {
+				int mask = index.length - 1;
+				for(int slot = hash(docId, begin, end) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+					int i = (index[slot] - 1) * STRIDE;
+					if(data[i + DOC] == docId && data[i + BEGIN] == begin && data[i + END] == end)
+						return false;
+				}
+			}
+			append(docId, begin, end, formId);
+			int nbRows = length / STRIDE;
+			if(index != null && 4 * nbRows <= 3 * index.length)
+				indexRow(nbRows - 1);
+			else if(nbRows > INDEX_THRESHOLD)
+				buildIndex(Integer.highestOneBit(nbRows) << 2);
+			return true;
+		}
+		
+		private void buildIndex(int capacity) {
+			index = new int[capacity];
+			for(int row = 0; row < length / STRIDE; row++)
+				indexRow(row);
+		}
+		
+		private void indexRow(int row) {
+			int i = row * STRIDE;
+			int mask = index.length - 1;
+			int slot = hash(data[i + DOC], data[i + BEGIN], data[i + END]) & mask;
+			while(index[slot] != 0)
+				slot = (slot + 1) & mask;
+			index[slot] = row + 1;
+		}
+		
+		private static int hash(int docId, int begin, int end) {
+			int h = 31 * (31 * docId + begin) + end;
+			return h ^ (h >>> 16);
+		}
+		
+		private void append(int docId, int begin, int end, int formId) {
+			if(length == data.length)
+				data = Arrays.copyOf(data, data.length + Math.max(STRIDE, (data.length / STRIDE / 2) * STRIDE));
+			data[length + DOC] = docId;
+			data[length + BEGIN] = begin;
+			data[length + END] = end;
+			data[length + FORM] = formId;
+			length += STRIDE;
+		}
+		
+		private synchronized int[] snapshot() {
+			return Arrays.copyOf(data, length);
+		}
+		
+		private synchronized int size() {
+			return length / STRIDE;
+		}
+	}
+	
+	/*
+	 * Assigns dense int ids to values
+	 */
+	private static class Dictionary<T> {
+		private Map<T, Integer> ids = new ConcurrentHashMap<>();
+		private List<T> values = new ArrayList<>();
+		
+		private int id(T value) {
+			Integer id = ids.get(value);
+			if(id == null) {
+				synchronized (this) {
+					id = ids.get(value);
+					if(id == null) {
+						id = values.size();
+						values.add(value);
+						ids.put(value, id);
+					}
+				}
+			}
+			return id;
+		}
+		
+		private synchronized T get(int id) {
+			return values.get(id);
+		}
+
+		private synchronized int size() {
+			return values.size();
+		}
+	}
+}
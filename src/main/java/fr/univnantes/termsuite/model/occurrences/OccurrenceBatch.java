@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.model.occurrences;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * All occurrences of one term in one document, packed into
+ * primitive arrays.
+ * 
+ * Begin offsets are delta-encoded and end offsets are stored as
+ * lengths when the batch is serialized with {@link #encode()}. Covered 
+ * texts are stored once per batch in a form table.
+ *
+ */
+public class OccurrenceBatch {
+	
+	public static interface OccurrenceConsumer {
+		public void accept(int begin, int end, String coveredText);
+	}
+	
+	private static final int NO_FORM = -1;
+
+	private String termKey;
+	private String documentUrl;
+	
+	private int size = 0;
+	private int[] begins;
+	private int[] ends;
+	private int[] formIds;
+
+	private List<String> forms = new ArrayList<>(2);
+	private Map<String, Integer> formIndex = new HashMap<>(2);
+	
+	public OccurrenceBatch(String termKey, String documentUrl) {
+		this(termKey, documentUrl, 4);
+	}
+
+	private OccurrenceBatch(String termKey, String documentUrl, int initialCapacity) {
+		super();
+		this.termKey = termKey;
+		this.documentUrl = documentUrl;
+		this.begins = new int[initialCapacity];
+		this.ends = new int[initialCapacity];
+		this.formIds = new int[initialCapacity];
+	}
+
+	public synchronized void add(int begin, int end, String coveredText) {
+		if(size == begins.length) {
+			int newCapacity = Math.max(4, size * 2);
+			begins = Arrays.copyOf(begins, newCapacity);
+			ends = Arrays.copyOf(ends, newCapacity);
+			formIds = Arrays.copyOf(formIds, newCapacity);
+		}
+		begins[size] = begin;
+		ends[size] = end;
+		formIds[size] = toFormId(coveredText);
+		size++;
+	}
+
+	private int toFormId(String coveredText) {
+		if(coveredText == null)
+			return NO_FORM;
+		Integer id = formIndex.get(coveredText);
+		if(id == null) {
+			id = forms.size();
+			forms.add(coveredText);
+			formIndex.put(coveredText, id);
+		}
+		return id;
+	}
+	
+	public String getTermKey() {
+		return termKey;
+	}
+	
+	public String getDocumentUrl() {
+		return documentUrl;
+	}
+	
+	public synchronized int size() {
+		return size;
+	}
+	
+	public synchronized void forEach(OccurrenceConsumer consumer) {
+		for(int i = 0; i < size; i++)
+			consumer.accept(
+					begins[i], 
+					ends[i], 
+					formIds[i] == NO_FORM ? null : forms.get(formIds[i]));
+	}
+	
+	public synchronized byte[] encode() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + 12 * size);
+		try(DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(forms.size());
+			for(String form:forms)
+				out.writeUTF(form);
+			out.writeInt(size);
+			int lastBegin = 0;
+			for(int i = 0; i < size; i++) {
+				out.writeInt(begins[i] - lastBegin);
+				out.writeInt(ends[i] - begins[i]);
+				out.writeInt(formIds[i]);
+				lastBegin = begins[i];
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not encode occurrence batch", e);
+		}
+		return bytes.toByteArray();
+	}
+	
+	public static OccurrenceBatch decode(String termKey, String documentUrl, InputStream is) {
+		try(DataInputStream in = new DataInputStream(is)) {
+			int nbForms = in.readInt();
+			List<String> forms = new ArrayList<>(nbForms);
+			for(int i = 0; i < nbForms; i++)
+				forms.add(in.readUTF());
+			int size = in.readInt();
+			OccurrenceBatch batch = new OccurrenceBatch(termKey, documentUrl, Math.max(1, size));
+			int begin = 0;
+			int formId;
+			for(int i = 0; i < size; i++) {
+				begin += in.readInt();
+				batch.begins[i] = begin;
+				batch.ends[i] = begin + in.readInt();
+				formId = in.readInt();
+				batch.formIds[i] = formId == NO_FORM ? NO_FORM : batch.toFormId(forms.get(formId));
+			}
+			batch.size = size;
+			return batch;
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not decode occurrence batch", e);
+		}
+	}
+}
@@ -1,14 +1,26 @@
 package fr.univnantes.termsuite.model.occurrences;
 
-import static java.util.stream.Collectors.toList;
-
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Optional;
-import java.util.concurrent.Semaphore;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Lists;
+import com.google.common.base.Preconditions;
 
+import fr.univnantes.termsuite.model.Document;
 import fr.univnantes.termsuite.model.Lang;
 import fr.univnantes.termsuite.model.Term;
 import fr.univnantes.termsuite.model.TermOccurrence;
@@ -17,39 +29,122 @@ import jetbrains.exodus.entitystore.PersistentEntityStore;
 import jetbrains.exodus.entitystore.PersistentEntityStores;
 import jetbrains.exodus.entitystore.StoreTransaction;
 
+/**
+ * 
+ * An {@link AbstractMemoryOccStore} persisting occurrences to a Xodus entity store.
+ * 
+ * Occurrences are buffered as one {@link OccurrenceBatch} per term-document 
+ * pair until {@link #flush()} is invoked. Flushed batches are handed over 
+ * to a background writer thread through a bounded queue, so that 
+ * {@link #flush()} blocks (back-pressure) when the writer is 
+ * <code>maxPendingBatches</code> batches behind. The writer commits its 
+ * transaction every <code>commitSize</code> occurrences or every 
+ * <code>commitPeriodMillis</code> ms.
+ * 
+ * Reads wait for the writer only when some occurrences have not been 
+ * committed yet, so that reading a fully written store costs no 
+ * writer hand-off.
+ *
+ */
 public class XodusOccurrenceStore extends AbstractMemoryOccStore {
+	private static final Logger LOGGER = LoggerFactory.getLogger(XodusOccurrenceStore.class);
 
 	public static final String ENTITY_OCCURRENCE = "Occurrence";
+	public static final String ENTITY_OCCURRENCE_BATCH = "OccurrenceBatch";
 	public static final String P_DOCUMENT_URL = "docUrl";
 	public static final String P_TERM_KEY = "termKey";
 	public static final String P_COVERED_TEXT = "coveredText";
 	public static final String P_BEGIN = "begin";
 	public static final String P_END = "end";
+	public static final String B_OCCURRENCES = "occurrences";
+	
+	public static final int DEFAULT_COMMIT_SIZE = 200000;
+	public static final long DEFAULT_COMMIT_PERIOD_MILLIS = 5000;
+	public static final int DEFAULT_MAX_PENDING_BATCHES = 100000;
 	
 	private String url;
 	private PersistentEntityStore occStore;
 	
+	private int commitSize;
+	private long commitPeriodMillis;
+
+	/*
+	 * Occurrences not flushed yet, by document url and term key.
+	 */
+	private volatile Map<String, Map<String, OccurrenceBatch>> buffer = new ConcurrentHashMap<>();
+	private ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+
+	private BlockingQueue<PendingWrite> writeQueue;
+	private Thread writerThread;
+	private AtomicReference<Throwable> writerError = new AtomicReference<>();
+	
+	/*
+	 * Batches flushed and not committed yet by the writer
+	 */
+	private AtomicLong nbUncommittedBatches = new AtomicLong(0);
+	
+	private AtomicLong nbOccurrences = new AtomicLong(0);
+
 	public XodusOccurrenceStore(Lang lang, String url) {
+		this(lang, url, DEFAULT_COMMIT_SIZE, DEFAULT_COMMIT_PERIOD_MILLIS, DEFAULT_MAX_PENDING_BATCHES);
+	}
+
+	/**
+	 * 
+	 * @param lang
+	 * 			the language of the store
+	 * @param url
+	 * 			the Xodus store directory
+	 * @param commitSize
+	 * 			the number of occurrences written before the writer commits
+	 * @param commitPeriodMillis
+	 * 			the max delay before the writer commits written occurrences
+	 * @param maxPendingBatches
+	 * 			the number of flushed batches the writer can lag behind 
+	 * 			before {@link #flush()} blocks
+	 */
+	public XodusOccurrenceStore(Lang lang, String url, int commitSize, long commitPeriodMillis, int maxPendingBatches) {
 		super(lang);
+		Preconditions.checkArgument(commitSize > 0, "Commit size must be strictly positive. Got: %s", commitSize);
+		Preconditions.checkArgument(commitPeriodMillis > 0, "Commit period must be strictly positive. Got: %s", commitPeriodMillis);
+		Preconditions.checkArgument(maxPendingBatches > 0, "Max pending batches must be strictly positive. Got: %s", maxPendingBatches);
 		this.url = url;
+		this.commitSize = commitSize;
+		this.commitPeriodMillis = commitPeriodMillis;
+		this.writeQueue = new LinkedBlockingQueue<>(maxPendingBatches);
 		occStore = PersistentEntityStores.newInstance(url);
 	}
 
 	@Override
 	public Collection<TermOccurrence> getOccurrences(Term term) {
-		return occStore.computeInReadonlyTransaction(txn -> 
-			Lists.newArrayList(
-						txn.find(ENTITY_OCCURRENCE, P_TERM_KEY, term.getGroupingKey()).iterator())
-						.stream()
-						.map( e -> new TermOccurrence(
-								term,
-								(String)e.getProperty(P_COVERED_TEXT), 
-								protectedGetDocument((String)e.getProperty(P_DOCUMENT_URL)),
-								(int)e.getProperty(P_BEGIN),
-								(int)e.getProperty(P_END)
-							))
-						.collect(toList())
-		);
+		sync();
+		return occStore.computeInReadonlyTransaction(txn -> {
+			List<TermOccurrence> occurrences = new ArrayList<>();
+			
+			/*
+			 * Batch records
+			 */
+			for(Entity e:txn.find(ENTITY_OCCURRENCE_BATCH, P_TERM_KEY, term.getGroupingKey())) {
+				Document document = protectedGetDocument((String)e.getProperty(P_DOCUMENT_URL));
+				OccurrenceBatch
+					.decode(term.getGroupingKey(), document.getUrl(), e.getBlob(B_OCCURRENCES))
+					.forEach((begin, end, coveredText) -> occurrences.add(
+						new TermOccurrence(term, coveredText, document, begin, end)));
+			}
+
+			/*
+			 * One-entity-per-occurrence records written by older versions
+			 */
+			for(Entity e:txn.find(ENTITY_OCCURRENCE, P_TERM_KEY, term.getGroupingKey()))
+				occurrences.add(new TermOccurrence(
+						term,
+						(String)e.getProperty(P_COVERED_TEXT), 
+						protectedGetDocument((String)e.getProperty(P_DOCUMENT_URL)),
+						(int)e.getProperty(P_BEGIN),
+						(int)e.getProperty(P_END)
+					));
+			return occurrences;
+		});
 	}
 
 	@Override
@@ -57,29 +152,96 @@ public class XodusOccurrenceStore extends AbstractMemoryOccStore {
 		return Type.DISK;
 	}
 
+	/**
+	 * Hands all buffered occurrences over to the background writer. 
+	 * 
+	 * Blocks as long as the writer queue is full.
+	 */
 	@Override
 	public void flush() {
+		checkWriterError();
+		Map<String, Map<String, OccurrenceBatch>> flushed;
+		bufferLock.writeLock().lock();
 		try {
-			transactionMutex.acquire();
-			if(collectingTransaction.isPresent())  {
-				collectingTransaction.get().commit();
-				collectingTransaction = Optional.empty();
+			if(buffer.isEmpty())
+				return;
+			flushed = buffer;
+			buffer = new ConcurrentHashMap<>();
+			nbUncommittedBatches.addAndGet(flushed.values().stream().mapToInt(Map::size).sum());
+		} finally {
+			bufferLock.writeLock().unlock();
+		}
+		ensureWriterStarted();
+		for(Map<String, OccurrenceBatch> docBatches:flushed.values()) 
+			for(OccurrenceBatch batch:docBatches.values())
+				enqueue(new PendingWrite(batch, null));
+	}
+	
+	/**
+	 * Flushes the buffer and waits until the writer has committed 
+	 * all pending batches. Returns immediately if there is neither
+	 * buffered nor uncommitted occurrence.
+	 */
+	public void sync() {
+		checkWriterError();
+		if(!buffer.isEmpty())
+			flush();
+		if(nbUncommittedBatches.get() > 0) {
+			CountDownLatch committed = new CountDownLatch(1);
+			enqueue(new PendingWrite(null, committed));
+			try {
+				while(!committed.await(commitPeriodMillis, TimeUnit.MILLISECONDS))
+					checkWriterError();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+		checkWriterError();
+	}
+	
+	private void enqueue(PendingWrite write) {
+		try {
+			while(!writeQueue.offer(write, commitPeriodMillis, TimeUnit.MILLISECONDS)) {
+				LOGGER.debug("Xodus occurrence writer is {} batches behind. Waiting.", writeQueue.size());
+				checkWriterError();
 			}
-			transactionMutex.release();
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 			throw new RuntimeException(e);
 		}
 	}
 	
+	/**
+	 * The number of batches flushed but not yet written by 
+	 * the writer thread.
+	 */
+	public int getNbPendingBatches() {
+		return writeQueue.size();
+	}
 
-	private Semaphore transactionMutex = new Semaphore(1);
-	
-	private StoreTransaction getTransaction() {
-		if(!collectingTransaction.isPresent()) 
-			collectingTransaction = Optional.of(occStore.beginTransaction());
-		return collectingTransaction.get();
+	/**
+	 * The number of batches flushed but not yet committed by 
+	 * the writer thread.
+	 */
+	public long getNbUncommittedBatches() {
+		return nbUncommittedBatches.get();
 	}
 	
+	private synchronized void ensureWriterStarted() {
+		if(writerThread == null) {
+			writerThread = new Thread(new Writer(), "xodus-occurrence-writer");
+			writerThread.setDaemon(true);
+			writerThread.start();
+		}
+	}
+
+	private void checkWriterError() {
+		Throwable t = writerError.get();
+		if(t != null)
+			throw new IllegalStateException("Xodus occurrence writer failed", t);
+	}
+
 	@Override
 	public String getUrl() {
 		return url;
@@ -96,40 +258,108 @@ public class XodusOccurrenceStore extends AbstractMemoryOccStore {
 	@Override
 	public void close() {
 		try {
-			transactionMutex.acquire();
-			getTransaction().abort();
-			transactionMutex.release();
+			sync();
+			if(writerThread != null) {
+				enqueue(PendingWrite.STOP);
+				writerThread.join();
+			}
 		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 			throw new RuntimeException(e);
+		} finally {
+			occStore.close();
 		}
-		occStore.close();
 	}
 
-	private Optional<StoreTransaction> collectingTransaction = Optional.empty();
-	
 	@Override
 	public void addOccurrence(Term term, String documentUrl, int begin, int end, String coveredText) {
 		super.addOccurrence(term, documentUrl, begin, end, coveredText);
 		nbOccurrences.incrementAndGet();
+		String docUrl = protectedGetDocument(documentUrl).getUrl();
+		String form = coveredText == null ? null : toForm(coveredText);
+		bufferLock.readLock().lock();
 		try {
-			transactionMutex.acquire();
-			Entity entity = getTransaction().newEntity(ENTITY_OCCURRENCE);
-			entity.setProperty(P_BEGIN, begin);
-			entity.setProperty(P_END, end);
-			entity.setProperty(P_DOCUMENT_URL, protectedGetDocument(documentUrl).getUrl());
-			entity.setProperty(P_TERM_KEY, term.getGroupingKey());
-			if(coveredText != null)
-				entity.setProperty(P_COVERED_TEXT, toForm(coveredText));
-			transactionMutex.release();
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
+			buffer
+				.computeIfAbsent(docUrl, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(term.getGroupingKey(), k -> new OccurrenceBatch(k, docUrl))
+				.add(begin, end, form);
+		} finally {
+			bufferLock.readLock().unlock();
 		}
-
 	}
 
-	private AtomicLong nbOccurrences = new AtomicLong(0);
 	@Override
 	public long size() {
 		return nbOccurrences.longValue();
 	}
+	
+	private static class PendingWrite {
+		private static final PendingWrite STOP = new PendingWrite(null, null);
+		
+		private OccurrenceBatch batch;
+		private CountDownLatch committed;
+		
+		private PendingWrite(OccurrenceBatch batch, CountDownLatch committed) {
+			super();
+			this.batch = batch;
+			this.committed = committed;
+		}
+	}
+	
+	private class Writer implements Runnable {
+		private StoreTransaction txn = null;
+		private int nbUncommitted = 0;
+		private int nbUncommittedBatches = 0;
+		private long lastCommit = System.currentTimeMillis();
+
+		@Override
+		public void run() {
+			PendingWrite write;
+			try {
+				while(true) {
+					write = writeQueue.poll(commitPeriodMillis, TimeUnit.MILLISECONDS);
+					if(write == PendingWrite.STOP) {
+						commit();
+						return;
+					}
+					if(write != null && write.batch != null)
+						write(write.batch);
+					if(write != null && write.committed != null) {
+						commit();
+						write.committed.countDown();
+					} else if(nbUncommitted >= commitSize 
+							|| System.currentTimeMillis() - lastCommit >= commitPeriodMillis)
+						commit();
+				}
+			} catch (Throwable t) {
+				LOGGER.error("Could not write occurrences to Xodus store " + url, t);
+				writerError.set(t);
+				if(txn != null)
+					txn.abort();
+			}
+		}
+		
+		private void write(OccurrenceBatch batch) {
+			if(txn == null)
+				txn = occStore.beginTransaction();
+			Entity entity = txn.newEntity(ENTITY_OCCURRENCE_BATCH);
+			entity.setProperty(P_TERM_KEY, batch.getTermKey());
+			entity.setProperty(P_DOCUMENT_URL, batch.getDocumentUrl());
+			entity.setBlob(B_OCCURRENCES, new ByteArrayInputStream(batch.encode()));
+			nbUncommitted += batch.size();
+			nbUncommittedBatches++;
+		}
+		
+		private void commit() {
+			if(txn != null) {
+				LOGGER.trace("Committing {} occurrences to Xodus store {}", nbUncommitted, url);
+				txn.commit();
+				txn = null;
+			}
+			XodusOccurrenceStore.this.nbUncommittedBatches.addAndGet(-nbUncommittedBatches);
+			nbUncommittedBatches = 0;
+			nbUncommitted = 0;
+			lastCommit = System.currentTimeMillis();
+		}
+	}
 }
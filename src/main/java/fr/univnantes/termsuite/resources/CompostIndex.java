@@ -17,26 +17,45 @@
  * KIND, either express or implied.  See the License for the
  * specific language governing permissions and limitations
  * under the License.
- *
  *******************************************************************************/
 package fr.univnantes.termsuite.resources;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
-import com.google.common.collect.HashMultimap;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 
 import fr.univnantes.termsuite.engines.splitter.CompostIndexEntry;
 import fr.univnantes.termsuite.utils.IndexingKey;
 
+/**
+ * 
+ * The dictionary of the native splitter. Entries are grouped by
+ * indexing key and each group is stored in a character trie, so that 
+ * entries close to a segment are found by walking the trie with
+ * a Levenshtein row, pruning the branches that can no longer be 
+ * within the distance, instead of comparing the segment to every
+ * entry of the group.
+ * 
+ * Dictionary entries (dictionary words and neoclassical prefixes)
+ * and corpus-only entries are kept in separate tries, so that they 
+ * can also be searched separately.
+ * 
+ * Entries are meant to be added before the index is searched.
+ *
+ */
 public class CompostIndex {
+	private static final Comparator<CompostIndexEntry> TEXT_ORDER = Comparator.comparing(CompostIndexEntry::getText);
 	
 	private IndexingKey<String, String> indexingKey;
 	private Map<String, CompostIndexEntry> dico = Maps.newConcurrentMap();
-	private Multimap<String, CompostIndexEntry> indexedDico = Multimaps.synchronizedMultimap(HashMultimap.create());
+	private Map<String, TrieNode> dictionaryTries = Maps.newConcurrentMap();
+	private Map<String, TrieNode> corpusTries = Maps.newConcurrentMap();
 	
 	public CompostIndex(IndexingKey<String, String> indexingKey) {
 		super();
@@ -49,21 +68,52 @@ public class CompostIndex {
 			entry = new CompostIndexEntry();
 			entry.setText(lemma);
 			dico.put(lemma, entry);
-			indexedDico.put(indexingKey.getIndexKey(lemma), entry);
 		}
 		return entry;
 	}
+	
+	private static boolean isDictionaryEntry(CompostIndexEntry entry) {
+		return entry.isInDico() || entry.isInNeoClassicalPrefix();
+	}
+
+	/*
+	 * Moves the entry to the trie matching its flags.
+	 */
+	private void index(CompostIndexEntry entry, boolean wasIndexed, boolean wasDictionaryEntry) {
+		String key = indexingKey.getIndexKey(entry.getText());
+		boolean dictionaryEntry = isDictionaryEntry(entry);
+		if(wasIndexed) {
+			if(wasDictionaryEntry == dictionaryEntry)
+				return;
+			(wasDictionaryEntry ? dictionaryTries : corpusTries).get(key).remove(entry.getText());
+		}
+		(dictionaryEntry ? dictionaryTries : corpusTries)
+			.computeIfAbsent(key, k -> new TrieNode())
+			.add(entry.getText(), entry);
+	}
 
-	public void addDicoWord(String word) {
-		getCompostDicoEntry(word).setInDico(true);
+	public synchronized void addDicoWord(String word) {
+		boolean wasIndexed = dico.containsKey(word);
+		CompostIndexEntry entry = getCompostDicoEntry(word);
+		boolean wasDictionaryEntry = isDictionaryEntry(entry);
+		entry.setInDico(true);
+		index(entry, wasIndexed, wasDictionaryEntry);
 	}
 
-	public void addNeoclassicalPrefix(String word) {
-		getCompostDicoEntry(word).setInNeoClassicalPrefix(true);
+	public synchronized void addNeoclassicalPrefix(String word) {
+		boolean wasIndexed = dico.containsKey(word);
+		CompostIndexEntry entry = getCompostDicoEntry(word);
+		boolean wasDictionaryEntry = isDictionaryEntry(entry);
+		entry.setInNeoClassicalPrefix(true);
+		index(entry, wasIndexed, wasDictionaryEntry);
 	}
 
-	public void addInCorpus(String lemma) {
-		getCompostDicoEntry(lemma).setInCorpus(true);
+	public synchronized void addInCorpus(String lemma) {
+		boolean wasIndexed = dico.containsKey(lemma);
+		CompostIndexEntry entry = getCompostDicoEntry(lemma);
+		boolean wasDictionaryEntry = isDictionaryEntry(entry);
+		entry.setInCorpus(true);
+		index(entry, wasIndexed, wasDictionaryEntry);
 	}
 	
 	public CompostIndexEntry getEntry(String word) {
@@ -75,12 +125,141 @@ public class CompostIndex {
 	}
 	
 	public Iterator<CompostIndexEntry> closedEntryCandidateIterator(String segment) {
-		String indexKey = indexingKey.getIndexKey(segment);
-		return indexedDico.get(indexKey).iterator();
+		String key = indexingKey.getIndexKey(segment);
+		List<CompostIndexEntry> entries = Lists.newArrayList();
+		if(dictionaryTries.containsKey(key))
+			dictionaryTries.get(key).collect(entries);
+		if(corpusTries.containsKey(key))
+			corpusTries.get(key).collect(entries);
+		entries.sort(TEXT_ORDER);
+		return entries.iterator();
+	}
+
+	/**
+	 * Searches the entries having the same indexing key as <code>segment</code>
+	 * whose Levenshtein distance to <code>segment</code> is lower than
+	 * or equal to <code>maxDistance</code>. 
+	 * 
+	 * @param segment
+	 * 			the segment to search
+	 * @param maxDistance
+	 * 			the maximum edit distance
+	 * @return
+	 * 			the matching entries, in lexicographic order
+	 */
+	public List<CompostIndexEntry> getCloseEntries(String segment, int maxDistance) {
+		List<CompostIndexEntry> entries = getCloseDictionaryEntries(segment, maxDistance);
+		entries.addAll(getCloseCorpusEntries(segment, maxDistance));
+		entries.sort(TEXT_ORDER);
+		return entries;
+	}
+
+	/**
+	 * Same as {@link #getCloseEntries(String, int)}, restricted to dictionary 
+	 * words and neoclassical prefixes.
+	 */
+	public List<CompostIndexEntry> getCloseDictionaryEntries(String segment, int maxDistance) {
+		return search(dictionaryTries, segment, maxDistance);
+	}
+
+	/**
+	 * Same as {@link #getCloseEntries(String, int)}, restricted to the corpus 
+	 * lemmas that are neither dictionary words nor neoclassical prefixes.
+	 */
+	public List<CompostIndexEntry> getCloseCorpusEntries(String segment, int maxDistance) {
+		return search(corpusTries, segment, maxDistance);
+	}
+
+	private List<CompostIndexEntry> search(Map<String, TrieNode> tries, String segment, int maxDistance) {
+		Preconditions.checkArgument(maxDistance >= 0, "maxDistance must be positive: %s", maxDistance);
+		List<CompostIndexEntry> entries = Lists.newArrayList();
+		TrieNode root = tries.get(indexingKey.getIndexKey(segment));
+		if(root != null) {
+			int[] firstRow = new int[segment.length() + 1];
+			for(int j = 0; j < firstRow.length; j++)
+				firstRow[j] = j;
+			if(root.entry != null && firstRow[segment.length()] <= maxDistance)
+				entries.add(root.entry);
+			for(int i = 0; i < root.size; i++)
+				root.children[i].search(root.labels[i], segment, firstRow, maxDistance, entries);
+		}
+		return entries;
 	}
 
 	public boolean isNeoclassical(String segment) {
 		CompostIndexEntry e = getEntry(segment);
 		return e != null && e.isInNeoClassicalPrefix();
 	}
+	
+	private static class TrieNode {
+		private char[] labels = new char[0];
+		private TrieNode[] children = new TrieNode[0];
+		private int size = 0;
+		private CompostIndexEntry entry;
+
+		private void add(String text, CompostIndexEntry entry) {
+			TrieNode node = this;
+			for(int i = 0; i < text.length(); i++)
+				node = node.getOrCreateChild(text.charAt(i));
+			node.entry = entry;
+		}
+
+		private void remove(String text) {
+			TrieNode node = this;
+			for(int i = 0; i < text.length() && node != null; i++) {
+				int index = Arrays.binarySearch(node.labels, 0, node.size, text.charAt(i));
+				node = index >= 0 ? node.children[index] : null;
+			}
+			if(node != null)
+				node.entry = null;
+		}
+
+		private TrieNode getOrCreateChild(char c) {
+			int index = Arrays.binarySearch(labels, 0, size, c);
+			if(index >= 0)
+				return children[index];
+			int insertionPoint = -index - 1;
+			if(size == labels.length) {
+				labels = Arrays.copyOf(labels, Math.max(2, size * 2));
+				children = Arrays.copyOf(children, labels.length);
+			}
+			System.arraycopy(labels, insertionPoint, labels, insertionPoint + 1, size - insertionPoint);
+			System.arraycopy(children, insertionPoint, children, insertionPoint + 1, size - insertionPoint);
+			TrieNode child = new TrieNode();
+			labels[insertionPoint] = c;
+			children[insertionPoint] = child;
+			size++;
+			return child;
+		}
+
+		private void collect(List<CompostIndexEntry> entries) {
+			if(entry != null)
+				entries.add(entry);
+			for(int i = 0; i < size; i++)
+				children[i].collect(entries);
+		}
+
+		/*
+		 * Computes the Levenshtein row of this node from the row of its parent
+		 * and prunes the subtree as soon as no cell of the row is within the
+		 * maximum distance.
+		 */
+		private void search(char c, String segment, int[] previousRow, int maxDistance, List<CompostIndexEntry> entries) {
+			int[] row = new int[previousRow.length];
+			row[0] = previousRow[0] + 1;
+			int rowMin = row[0];
+			for(int j = 1; j < row.length; j++) {
+				if(segment.charAt(j - 1) == c)
+					row[j] = previousRow[j - 1];
+				else
+					row[j] = 1 + Math.min(previousRow[j - 1], Math.min(previousRow[j], row[j - 1]));
+				rowMin = Math.min(rowMin, row[j]);
+			}
+			if(entry != null && row[row.length - 1] <= maxDistance)
+				entries.add(entry);
+			if(rowMin <= maxDistance)
+				for(int i = 0; i < size; i++)
+					children[i].search(labels[i], segment, row, maxDistance, entries);
+		}
+	}
 }
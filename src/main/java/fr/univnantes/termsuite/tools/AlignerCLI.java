@@ -90,6 +90,7 @@ public class AlignerCLI extends CommandLineClient { // NO_UCD (public entry poin
 		declareFacultative(TermSuiteCliOption.N);
 		declareFacultative(TermSuiteCliOption.ALIGNER_TSV);
 		declareFacultative(TermSuiteCliOption.MIN_CANDIDATE_FREQUENCY);
+		declareFacultative(TermSuiteCliOption.ALIGNER_THREADS);
 	}
 
 	@Override
@@ -123,16 +124,25 @@ public class AlignerCLI extends CommandLineClient { // NO_UCD (public entry poin
 		
 		Injector sourceInjector = TermSuite.indexedCorpusInjector(sourceTermino);
 		PrintStream printStream = getPrintStream();
-		for(Term sourceTerm:getSourceTerms(sourceInjector)) {
-			List<TranslationCandidate> candidates = aligner.align(
-					sourceTerm, 
+		if(isSet(TermSuiteCliOption.ALIGNER_THREADS) && asInt(TermSuiteCliOption.ALIGNER_THREADS) > 1) {
+			aligner.alignAll(
+					getSourceTerms(sourceInjector).stream(), 
 					nbCandidates, 
-					minCandidateFrequency);
-			outputs(
-					printStream,
-					sourceTerm, 
-					candidates,
-					explain);
+					minCandidateFrequency, 
+					asInt(TermSuiteCliOption.ALIGNER_THREADS), 
+					(sourceTerm, candidates) -> outputs(printStream, sourceTerm, candidates, explain));
+		} else {
+			for(Term sourceTerm:getSourceTerms(sourceInjector)) {
+				List<TranslationCandidate> candidates = aligner.align(
+						sourceTerm, 
+						nbCandidates, 
+						minCandidateFrequency);
+				outputs(
+						printStream,
+						sourceTerm, 
+						candidates,
+						explain);
+			}
 		}
 	}
 
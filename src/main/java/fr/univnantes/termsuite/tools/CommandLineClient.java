@@ -192,7 +192,7 @@ public abstract class CommandLineClient {
 	}
 
 	protected IndexedCorpus asIndexedCorpus(CliOption path) {
-		return IndexedCorpusIO.fromJson(asPath(path));
+		return IndexedCorpusIO.fromFile(asPath(path));
 	}
 
 	public Path asDir(CliOption opt) {
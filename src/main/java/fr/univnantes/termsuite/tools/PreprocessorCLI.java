@@ -29,6 +29,8 @@ public class PreprocessorCLI extends CommandLineClient { // NO_UCD (public entry
 		clientHelper.declareHistory();
 		clientHelper.declareBigCorpusOptions();
 		declareFacultative(TermSuiteCliOption.TAGGER);
+		declareFacultative(TermSuiteCliOption.PREPROCESSOR_THREADS);
+		declareFacultative(TermSuiteCliOption.PREFETCH_DOCUMENTS);
 		declareMandatory(TermSuiteCliOption.TAGGER_PATH);
 		declareMandatory(TermSuiteCliOption.FROM_TXT_CORPUS_PATH);
 		declareMandatory(TermSuiteCliOption.LANGUAGE);
@@ -37,7 +39,12 @@ public class PreprocessorCLI extends CommandLineClient { // NO_UCD (public entry
 				TermSuiteCliOption.CAS_JSON, 
 				TermSuiteCliOption.CAS_TSV,
 				TermSuiteCliOption.CAS_XMI,
+				TermSuiteCliOption.CAS_BINARY,
 				TermSuiteCliOption.PREPARED_TERMINO_JSON);
+		declareFacultative(TermSuiteCliOption.CAS_BINARY_NO_TEXT);
+		declareConditional(
+				TermSuiteCliOption.CAS_BINARY_NO_TEXT, 
+				TermSuiteCliOption.CAS_BINARY);
 	}
 
 
@@ -50,6 +57,11 @@ public class PreprocessorCLI extends CommandLineClient { // NO_UCD (public entry
 		
 		preprocessor.setTaggerPath(asDir(TermSuiteCliOption.TAGGER_PATH));
 
+		if(isSet(TermSuiteCliOption.PREPROCESSOR_THREADS))
+			preprocessor.setNbThreads(asInt(TermSuiteCliOption.PREPROCESSOR_THREADS));
+
+		preprocessor.setColumnarProperties(isSet(TermSuiteCliOption.COMPACT_PROPERTIES));
+
 		if(clientHelper.getHistory().isPresent()) 
 			preprocessor.setHistory(clientHelper.getHistory().get());
 		
@@ -76,6 +88,12 @@ public class PreprocessorCLI extends CommandLineClient { // NO_UCD (public entry
 			LOGGER.debug("Configuring JSON CAS export to directory {}", dir);
 		}
 
+		if(isSet(TermSuiteCliOption.CAS_BINARY)) {
+			Path dir = asDir(TermSuiteCliOption.CAS_BINARY);
+			preprocessor.exportAnnotationsToBinary(dir, !isSet(TermSuiteCliOption.CAS_BINARY_NO_TEXT));
+			LOGGER.debug("Configuring binary CAS export to directory {}", dir);
+		}
+
 		if(isSet(TermSuiteCliOption.PREPARED_TERMINO_JSON)) {
 			Path destJson = asPath(TermSuiteCliOption.PREPARED_TERMINO_JSON);
 			try(FileWriter writer = new FileWriter(destJson.toFile())) {
@@ -85,10 +103,11 @@ public class PreprocessorCLI extends CommandLineClient { // NO_UCD (public entry
 						clientHelper.getOccurrenceStore(txtCorpus.getLang()));
 				JsonTerminologyIO.save(writer, corpus, new JsonOptions());
 			}
-		} else 
+		} else {
 			// consume
-			LOGGER.debug("Consuming the stream with #count() as there is no single-file terminology export.");
-			preprocessor.asStream(txtCorpus).count();
+			LOGGER.debug("Running the preprocessor as there is no single-file terminology export.");
+			preprocessor.run(txtCorpus);
+		}
 	}
 
 
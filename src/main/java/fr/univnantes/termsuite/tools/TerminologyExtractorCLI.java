@@ -91,7 +91,8 @@ public class TerminologyExtractorCLI extends CommandLineClient {// NO_UCD (publi
 		declareAtLeastOneOf(
 				TermSuiteCliOption.JSON, 
 				TermSuiteCliOption.TSV, 
-				TermSuiteCliOption.TBX);
+				TermSuiteCliOption.TBX,
+				TermSuiteCliOption.BINARY);
 
 		clientHelper.declareResourceOpts();
 		clientHelper.declareHistory();
@@ -100,6 +101,8 @@ public class TerminologyExtractorCLI extends CommandLineClient {// NO_UCD (publi
 		 * Preprocessor options
 		 */
 		declareFacultative(TermSuiteCliOption.TAGGER);
+		declareFacultative(TermSuiteCliOption.PREPROCESSOR_THREADS);
+		declareFacultative(TermSuiteCliOption.PREFETCH_DOCUMENTS);
 		declareConditional(
 				TermSuiteCliOption.FROM_TXT_CORPUS_PATH, 
 				TermSuiteCliOption.TAGGER_PATH);
@@ -145,6 +148,8 @@ public class TerminologyExtractorCLI extends CommandLineClient {// NO_UCD (publi
 			TermSuiteFactory.createTsvExporter(clientHelper.getTsvOptions()).export(corpus, asPath(TermSuiteCliOption.TSV));
 		if(isSet(TermSuiteCliOption.TBX))
 			TermSuiteFactory.createTbxExporter().export(corpus, asPath(TermSuiteCliOption.TBX));
+		if(isSet(TermSuiteCliOption.BINARY))
+			IndexedCorpusIO.toBinary(corpus, asPath(TermSuiteCliOption.BINARY));
 	}
 
 	private void checkOutputOptions() {
@@ -156,6 +161,8 @@ public class TerminologyExtractorCLI extends CommandLineClient {// NO_UCD (publi
 		}
 		if(isSet(TermSuiteCliOption.TBX))
 			asPath(TermSuiteCliOption.TBX);
+		if(isSet(TermSuiteCliOption.BINARY))
+			asPath(TermSuiteCliOption.BINARY);
 	} 
 
 	public Lang getLang() {
@@ -173,7 +180,7 @@ public class TerminologyExtractorCLI extends CommandLineClient {// NO_UCD (publi
 						TermSuiteFactory.createPreprocessedCorpus(getLang(), path), 
 						clientHelper.getCappedSize());
 			} else {
-				return IndexedCorpusIO.fromJson(path);
+				return IndexedCorpusIO.fromFile(path);
 			}
 		} else if(isSet(TermSuiteCliOption.FROM_TXT_CORPUS_PATH)) {
 			Preprocessor preprocessor = TermSuite.preprocessor()
@@ -182,6 +189,11 @@ public class TerminologyExtractorCLI extends CommandLineClient {// NO_UCD (publi
 			if(isSet(TermSuiteCliOption.TAGGER))
 				preprocessor.setTagger(Tagger.forName(asString(TermSuiteCliOption.TAGGER)));
 			
+			if(isSet(TermSuiteCliOption.PREPROCESSOR_THREADS))
+				preprocessor.setNbThreads(asInt(TermSuiteCliOption.PREPROCESSOR_THREADS));
+			
+			preprocessor.setColumnarProperties(isSet(TermSuiteCliOption.COMPACT_PROPERTIES));
+			
 			if(clientHelper.getHistory().isPresent())
 				preprocessor.setHistory(clientHelper.getHistory().get());
 			
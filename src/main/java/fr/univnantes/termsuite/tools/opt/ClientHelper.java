@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import fr.univnantes.termsuite.api.ExtractorOptions;
+import fr.univnantes.termsuite.api.PrefetchingTXTCorpus;
 import fr.univnantes.termsuite.api.ResourceConfig;
 import fr.univnantes.termsuite.api.TXTCorpus;
 import fr.univnantes.termsuite.api.TermSuite;
@@ -99,6 +100,7 @@ public class ClientHelper {
 		client.declareFacultative(TermSuiteCliOption.MORPHOLOGY_DERIVATIVE_DISABLED);
 		client.declareFacultative(TermSuiteCliOption.MORPHOLOGY_NATIVE_DISABLED);
 		client.declareFacultative(TermSuiteCliOption.MORPHOLOGY_PREFIX_DISABLED);
+		client.declareFacultative(TermSuiteCliOption.MORPHOLOGY_SEGMENT_CACHE);
 		
 
 		client.declareFacultative(TermSuiteCliOption.GATHERER_DISABLE_MERGER);
@@ -241,6 +243,8 @@ public class ClientHelper {
 			config.setDerivativesDetecterEnabled(!client.isSet(TermSuiteCliOption.MORPHOLOGY_DERIVATIVE_DISABLED));
 			config.setNativeSplittingEnabled(!client.isSet(TermSuiteCliOption.MORPHOLOGY_NATIVE_DISABLED));
 			config.setPrefixSplitterEnabled(!client.isSet(TermSuiteCliOption.MORPHOLOGY_PREFIX_DISABLED));
+			if(client.isSet(TermSuiteCliOption.MORPHOLOGY_SEGMENT_CACHE))
+				config.setSegmentCacheDirectory(client.asString(TermSuiteCliOption.MORPHOLOGY_SEGMENT_CACHE));
 		}
 	}
 
@@ -315,8 +319,10 @@ public class ClientHelper {
 	
 	public TXTCorpus getTxtCorpus() {
 		Path ascorpusPath = client.asDir(TermSuiteCliOption.FROM_TXT_CORPUS_PATH);
-		TXTCorpus txtCorpus = new TXTCorpus(client.getLang(), ascorpusPath);
-		if(txtCorpus.documents().findAny().isPresent())
+		TXTCorpus txtCorpus = client.isSet(TermSuiteCliOption.PREFETCH_DOCUMENTS) ?
+				new PrefetchingTXTCorpus(client.getLang(), ascorpusPath, client.asInt(TermSuiteCliOption.PREFETCH_DOCUMENTS))
+				: new TXTCorpus(client.getLang(), ascorpusPath);
+		if(txtCorpus.getNbDocuments() > 0)
 			return txtCorpus;
 		else
 			throw new TermSuiteCliException("No txt document found in corpus " + txtCorpus);
@@ -332,6 +338,8 @@ public class ClientHelper {
 	public OccurrenceStore getOccurrenceStore(Lang lang) {
 		if(client.isSet(TermSuiteCliOption.NO_OCCURRENCE)) {
 			return TermSuiteFactory.createEmptyOccurrenceStore(lang);
+		} else if(client.isSet(TermSuiteCliOption.COMPACT_OCCURRENCE)) {
+			return TermSuiteFactory.createColumnarOccurrenceStore(lang);
 		} else						
 			return TermSuiteFactory.createMemoryOccurrenceStore(lang);
 	}
@@ -342,5 +350,8 @@ public class ClientHelper {
 		 */
 		client.declareFacultative(TermSuiteCliOption.CAPPED_SIZE);
 		client.declareFacultative(TermSuiteCliOption.NO_OCCURRENCE);
+		client.declareFacultative(TermSuiteCliOption.COMPACT_OCCURRENCE);
+		client.declareAtMostOneOf(TermSuiteCliOption.NO_OCCURRENCE, TermSuiteCliOption.COMPACT_OCCURRENCE);
+		client.declareFacultative(TermSuiteCliOption.COMPACT_PROPERTIES);
 	}
 }
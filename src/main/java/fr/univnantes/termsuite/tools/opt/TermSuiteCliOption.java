@@ -31,6 +31,8 @@ public enum TermSuiteCliOption implements CliOption {
 	ENCODING(		"encoding", 	"e", 		OptType.T_ENC, 	"Encoding of the input corpus", Collections.EMPTY_LIST),
 	TAGGER(			"tagger", 		null, 		OptType.T_STRING, "Which POS tagger to use.", Tagger.stream().map(Tagger::getShortName).collect(toList())),
 	TAGGER_PATH(	"tagger-home",	"t", 		OptType.T_FILE, 	"Path to POS tagger's home", Collections.EMPTY_LIST),
+	PREPROCESSOR_THREADS("preprocessor-threads", null, OptType.T_INT, 	"Number of threads running the preprocessing pipeline", Collections.EMPTY_LIST),
+	PREFETCH_DOCUMENTS("prefetch-documents", null, OptType.T_INT, "Number of corpus documents read ahead on a background thread", Collections.EMPTY_LIST),
 	FROM_TXT_CORPUS_PATH("from-text-corpus", "c", OptType.T_DIR, "Directory to corpus (containing a list of .txt documents)", Collections.EMPTY_LIST),
 	WATCH(			"watch", 		null, 		OptType.T_TERM_LIST, 	"List of terms (grouping keys or lemmas) to log to output", Collections.EMPTY_LIST),
 	RESOURCE_DIR(	"resource-dir", null, 		OptType.T_DIR, 	"Custom resource directory", Collections.EMPTY_LIST),
@@ -40,6 +42,8 @@ public enum TermSuiteCliOption implements CliOption {
 	CAS_TSV(		"tsv-anno", 	null, 		OptType.T_DIR, 	"Path to TSV export directory of all spotted term annotations", Collections.EMPTY_LIST),
 	CAS_JSON(		"json-anno", 	null, 		OptType.T_DIR, 	"Path to JSON export directory of all spotted term annotations", Collections.EMPTY_LIST),
 	CAS_XMI(		"xmi-anno", 	null, 		OptType.T_DIR, 	"Path to XMI export directory of all spotted term annotations", Collections.EMPTY_LIST),
+	CAS_BINARY(		"bin-anno", 	null, 		OptType.T_DIR, 	"Path to compact binary export directory of all spotted term annotations", Collections.EMPTY_LIST),
+	CAS_BINARY_NO_TEXT("bin-anno-no-text", null, OptType.T_NONE, "Do not write document texts to binary annotation files, only word forms", Collections.EMPTY_LIST),
 	
 	
 	/*
@@ -47,7 +51,7 @@ public enum TermSuiteCliOption implements CliOption {
 	 */
 	
 	// CORPUS_LOADING_OPTIONS
-	FROM_PREPARED_CORPUS_PATH("from-prepared-corpus", null, OptType.T_DIR, "A file or directory path. Starts the terminology extraction pipeline from an XMI corpus or an imported terminology json file instead of a txt corpus.", Collections.EMPTY_LIST),
+	FROM_PREPARED_CORPUS_PATH("from-prepared-corpus", null, OptType.T_DIR, "A file or directory path. Starts the terminology extraction pipeline from an XMI corpus or an imported terminology json or binary file instead of a txt corpus.", Collections.EMPTY_LIST),
 	
 	
 	// PRE_FILTER
@@ -69,6 +73,7 @@ public enum TermSuiteCliOption implements CliOption {
 	MORPHOLOGY_PREFIX_DISABLED("disable-prefix-splitting", 	null, OptType.T_NONE, "Disable morphological prefix splitting", Collections.EMPTY_LIST),
 	MORPHOLOGY_DERIVATIVE_DISABLED("disable-derivative-splitting", null, OptType.T_NONE, "Disable morphological derivative splitting", Collections.EMPTY_LIST),
 	MORPHOLOGY_NATIVE_DISABLED("disable-native-splitting", 	null, OptType.T_NONE, "Disable morphological native splitting", Collections.EMPTY_LIST),
+	MORPHOLOGY_SEGMENT_CACHE("segment-cache", 				null, OptType.T_DIR, "Directory of the native splitter's segment cache, shared across runs", Collections.EMPTY_LIST),
 
 	
 	// GATHERER 
@@ -107,10 +112,13 @@ public enum TermSuiteCliOption implements CliOption {
 	TSV(	"tsv", 		null, 	OptType.T_FILE, 	"Outputs terminology to TSV file", Collections.EMPTY_LIST),
 	JSON(	"json", 	null, 	OptType.T_FILE, 	"Outputs terminology to JSON file", Collections.EMPTY_LIST),
 	TBX(	"tbx", 		null, 	OptType.T_FILE, 	"Outputs terminology to TBX file", Collections.EMPTY_LIST),
+	BINARY(	"binary", 	null, 	OptType.T_FILE, 	"Outputs terminology to binary file, much faster to reload than JSON", Collections.EMPTY_LIST),
 	
 	
 	// OTHER OPTIONS
 	NO_OCCURRENCE("no-occurrence", 	null, 	OptType.T_NONE, "Do not store occurrence offsets in memory while spotting. Allows to process bigger volumes of input text.", Collections.EMPTY_LIST),
+	COMPACT_OCCURRENCE("compact-occurrence", 	null, 	OptType.T_NONE, "Stores occurrence offsets in a compact columnar memory store. Allows to process bigger volumes of input text.", Collections.EMPTY_LIST),
+	COMPACT_PROPERTIES("compact-properties", 	null, 	OptType.T_NONE, "Stores numeric and boolean term properties in compact columns instead of per-term maps. Allows to process bigger volumes of input text.", Collections.EMPTY_LIST),
 	CAPPED_SIZE("capped-size", 	null, 	OptType.T_INT, "The maximum number of terms to keep in memory while spotting. Allows to process bigger volumes of input text.", Collections.EMPTY_LIST),
 	
 	
@@ -134,7 +142,8 @@ public enum TermSuiteCliOption implements CliOption {
 	MIN_CANDIDATE_FREQUENCY("min-candidate-frequency", null, OptType.T_INT, "The minimum frequency of target translation candidates", Collections.EMPTY_LIST),
 	DISTANCE(		"distance", 		null, OptType.T_INT_OR_FLOAT, "Similarity measure used for context vector alignment.", Arrays.stream(SimilarityDistance.values()).map(Class::getSimpleName).collect(toList())),
 	EXPLAIN(		"explain", 			null, OptType.T_NONE, "Shows for each aligned term the most influencial co-terms", Collections.EMPTY_LIST), 
-	ALIGNER_TSV(	"tsv", 				null, OptType.T_FILE, "A file path to write output of the bilingual aligner", Collections.EMPTY_LIST)
+	ALIGNER_TSV(	"tsv", 				null, OptType.T_FILE, "A file path to write output of the bilingual aligner", Collections.EMPTY_LIST),
+	ALIGNER_THREADS("aligner-threads", 	null, OptType.T_INT, "Number of threads aligning source terms", Collections.EMPTY_LIST)
 	
 	
 	;
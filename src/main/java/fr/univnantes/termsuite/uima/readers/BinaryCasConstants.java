@@ -0,0 +1,57 @@
+
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+
+package fr.univnantes.termsuite.uima.readers;
+
+/**
+ * Constants of the compact binary CAS format.
+ * 
+ * A binary CAS file is made of:
+ * <ol>
+ * <li>a header: {@link #MAGIC}, {@link #FORMAT_VERSION} and flags,</li>
+ * <li>the document text if {@link #FLAG_WITH_TEXT} is set, its length otherwise,</li>
+ * <li>a string table holding every distinct feature value of the document (tags, lemmas, etc.),</li>
+ * <li>the annotations: sdi, words, term occurrences and fixed expressions.</li>
+ * </ol>
+ * 
+ * Strings are referenced by their index in the string table, annotation 
+ * offsets are delta-encoded from the previous annotation of the same type,
+ * and term occurrence words are referenced by their index in the word list.
+ * All integers are written as variable-length integers.
+ * 
+ * @see BinaryCasSerializer
+ * @see BinaryCasDeserializer
+ */
+public class BinaryCasConstants {
+    public static final int MAGIC = 0x54534243;
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int FLAG_WITH_TEXT = 1;
+
+    public static final String BINARY_EXTENSION = "tscas";
+
+    /*
+     * The string reference of null values
+     */
+    static final int NULL_REF = 0;
+}
@@ -0,0 +1,261 @@
+
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+
+package fr.univnantes.termsuite.uima.readers;
+
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.FLAG_WITH_TEXT;
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.FORMAT_VERSION;
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.MAGIC;
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.NULL_REF;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.CASException;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.cas.StringArray;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.types.FixedExpression;
+import fr.univnantes.termsuite.types.SourceDocumentInformation;
+import fr.univnantes.termsuite.types.TermOccAnnotation;
+import fr.univnantes.termsuite.types.WordAnnotation;
+
+/**
+ * Reads a CAS written by {@link BinaryCasSerializer}.
+ * 
+ * Annotations are created directly with their JCas constructors 
+ * and term occurrence words are resolved by index, so no covered 
+ * annotation lookup is needed.
+ * 
+ * @see BinaryCasConstants
+ */
+public class BinaryCasDeserializer {
+
+    private static final int NB_WORD_FEATURES = 15;
+
+    public static void deserialize(InputStream inputStream, CAS cas) throws IOException {
+        try {
+            deserialize(inputStream, cas.getJCas());
+        } catch (CASException e) {
+            throw new IOException("Could not access JCas", e);
+        }
+    }
+
+    /**
+     * Fills an empty CAS from a binary CAS stream.
+     * 
+     * @param inputStream
+     *          the binary CAS stream, not closed by this method
+     * @param jCas
+     *          the CAS to fill
+     * @throws IOException
+     *          if the stream is not a valid binary CAS
+     */
+    public static void deserialize(InputStream inputStream, JCas jCas) throws IOException {
+        Preconditions.checkNotNull(inputStream, "Parameter input stream is null");
+        Preconditions.checkNotNull(jCas, "Parameter CAS is null");
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if(in.readInt() != MAGIC)
+            throw new IOException("Not a binary CAS stream");
+        int version = in.readUnsignedByte();
+        if(version != FORMAT_VERSION)
+            throw new IOException(String.format("Unsupported binary CAS format version %d. Expected: %d", version, FORMAT_VERSION));
+        int flags = in.readUnsignedByte();
+        String text = null;
+        int textLength = -1;
+        if((flags & FLAG_WITH_TEXT) != 0)
+            text = readString(in);
+        else
+            textLength = readVarInt(in) - 1;
+
+        String[] strings = new String[readVarInt(in) + 1];
+        for(int i = 1; i < strings.length; i++)
+            strings[i] = readString(in);
+
+        /*
+         * SDI
+         */
+        SourceDocumentInformation sdi = null;
+        if(in.readBoolean()) {
+            sdi = new SourceDocumentInformation(jCas);
+            sdi.setUri(string(strings, readVarInt(in)));
+            sdi.setOffsetInSource((int)readSignedVarLong(in));
+            sdi.setDocumentIndex((int)readSignedVarLong(in));
+            sdi.setNbDocuments((int)readSignedVarLong(in));
+            sdi.setDocumentSize(readSignedVarLong(in));
+            sdi.setCumulatedDocumentSize(readSignedVarLong(in));
+            sdi.setCorpusSize(readSignedVarLong(in));
+            sdi.setLastSegment(in.readBoolean());
+            sdi.setBegin((int)readSignedVarLong(in));
+            sdi.setEnd((int)readSignedVarLong(in));
+        }
+
+        /*
+         * Words. The text is rebuilt from word forms when it has been 
+         * dropped, so it must be read before word annotations are created.
+         */
+        int nbWords = readVarInt(in);
+        int[] begins = new int[nbWords];
+        int[] ends = new int[nbWords];
+        int[][] features = new int[nbWords][NB_WORD_FEATURES];
+        char[] chars = null;
+        if(text == null && textLength >= 0) {
+            chars = new char[textLength];
+            Arrays.fill(chars, ' ');
+        }
+        int lastBegin = 0;
+        for(int i = 0; i < nbWords; i++) {
+            begins[i] = lastBegin + (int)readSignedVarLong(in);
+            ends[i] = begins[i] + readVarInt(in);
+            lastBegin = begins[i];
+            for(int f = 0; f < NB_WORD_FEATURES; f++)
+                features[i][f] = readVarInt(in);
+            if(chars != null) {
+                String form = string(strings, readVarInt(in));
+                form.getChars(0, form.length(), chars, begins[i]);
+            }
+        }
+        if(chars != null)
+            text = new String(chars);
+        if(text != null)
+            jCas.setDocumentText(text);
+        if(sdi != null)
+            sdi.addToIndexes();
+
+        WordAnnotation[] words = new WordAnnotation[nbWords];
+        for(int i = 0; i < nbWords; i++) {
+            WordAnnotation wa = new WordAnnotation(jCas, begins[i], ends[i]);
+            int[] f = features[i];
+            wa.setCategory(string(strings, f[0]));
+            wa.setLemma(string(strings, f[1]));
+            wa.setStem(string(strings, f[2]));
+            wa.setTag(string(strings, f[3]));
+            wa.setSubCategory(string(strings, f[4]));
+            wa.setRegexLabel(string(strings, f[5]));
+            wa.setNumber(string(strings, f[6]));
+            wa.setGender(string(strings, f[7]));
+            wa.setCase(string(strings, f[8]));
+            wa.setMood(string(strings, f[9]));
+            wa.setTense(string(strings, f[10]));
+            wa.setPerson(string(strings, f[11]));
+            wa.setDegree(string(strings, f[12]));
+            wa.setFormation(string(strings, f[13]));
+            wa.setLabels(string(strings, f[14]));
+            wa.addToIndexes();
+            words[i] = wa;
+        }
+
+        /*
+         * Term occurrences
+         */
+        int nbTermOccs = readVarInt(in);
+        lastBegin = 0;
+        for(int i = 0; i < nbTermOccs; i++) {
+            int begin = lastBegin + (int)readSignedVarLong(in);
+            int end = begin + readVarInt(in);
+            lastBegin = begin;
+            TermOccAnnotation toa = new TermOccAnnotation(jCas, begin, end);
+            int patternSize = readVarInt(in) - 1;
+            if(patternSize >= 0) {
+                StringArray pattern = new StringArray(jCas, patternSize);
+                for(int j = 0; j < patternSize; j++)
+                    pattern.set(j, string(strings, readVarInt(in)));
+                toa.setPattern(pattern);
+            }
+            toa.setSpottingRuleName(string(strings, readVarInt(in)));
+            toa.setTermKey(string(strings, readVarInt(in)));
+            int nbTermWords = readVarInt(in) - 1;
+            if(nbTermWords >= 0) {
+                FSArray termWords = new FSArray(jCas, nbTermWords);
+                for(int j = 0; j < nbTermWords; j++)
+                    termWords.set(j, words[readVarInt(in)]);
+                toa.setWords(termWords);
+            }
+            toa.addToIndexes();
+        }
+
+        /*
+         * Fixed expressions
+         */
+        int nbFixedExpressions = readVarInt(in);
+        lastBegin = 0;
+        for(int i = 0; i < nbFixedExpressions; i++) {
+            int begin = lastBegin + (int)readSignedVarLong(in);
+            int end = begin + readVarInt(in);
+            lastBegin = begin;
+            new FixedExpression(jCas, begin, end).addToIndexes();
+        }
+    }
+
+    private static String string(String[] strings, int ref) throws IOException {
+        if(ref == NULL_REF)
+            return null;
+        if(ref >= strings.length)
+            throw new IOException("Invalid string reference: " + ref);
+        return strings[ref];
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if(shift > 28)
+                throw new IOException("Malformed variable-length integer");
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long readSignedVarLong(DataInput in) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        int b;
+        do {
+            if(shift > 63)
+                throw new IOException("Malformed variable-length integer");
+            b = in.readUnsignedByte();
+            zigzag |= (long)(b & 0x7F) << shift;
+            shift += 7;
+        } while((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
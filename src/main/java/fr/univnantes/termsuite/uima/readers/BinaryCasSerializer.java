@@ -0,0 +1,249 @@
+
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+
+package fr.univnantes.termsuite.uima.readers;
+
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.FLAG_WITH_TEXT;
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.FORMAT_VERSION;
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.MAGIC;
+import static fr.univnantes.termsuite.uima.readers.BinaryCasConstants.NULL_REF;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.cas.StringArray;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import com.google.common.base.Preconditions;
+
+import fr.univnantes.termsuite.types.FixedExpression;
+import fr.univnantes.termsuite.types.SourceDocumentInformation;
+import fr.univnantes.termsuite.types.TermOccAnnotation;
+import fr.univnantes.termsuite.types.WordAnnotation;
+
+/**
+ * Writes a {@link JCas} to the compact binary CAS format.
+ * 
+ * Compared to {@link JsonCasSerializer}, repeated feature values 
+ * are written once in a per-file string table, and offsets are 
+ * delta-encoded. The document text can be dropped, in which case 
+ * only word forms are kept.
+ * 
+ * @see BinaryCasConstants
+ * @see BinaryCasDeserializer
+ */
+public class BinaryCasSerializer {
+
+    public static void serialize(OutputStream outputStream, JCas jCas) throws IOException {
+        serialize(outputStream, jCas, true);
+    }
+
+    /**
+     * Writes a CAS to binary format.
+     * 
+     * @param outputStream
+     *          the output stream, not closed by this method
+     * @param jCas
+     *          the CAS to serialize
+     * @param withText
+     *          <code>false</code> to drop the document text. Only the covered 
+     *          texts of word annotations are written, and the text between 
+     *          words is read back as white spaces.
+     * @throws IOException
+     */
+    public static void serialize(OutputStream outputStream, JCas jCas, boolean withText) throws IOException {
+        String text = jCas.getDocumentText();
+        StringTable strings = new StringTable();
+        ByteArrayOutputStream annotationBytes = new ByteArrayOutputStream();
+        DataOutputStream annotations = new DataOutputStream(annotationBytes);
+        writeSDI(annotations, strings, jCas);
+        Map<WordAnnotation, Integer> wordIndexes = writeWordAnnotations(annotations, strings, jCas, withText ? null : text);
+        writeTermOccAnnotations(annotations, strings, jCas, wordIndexes);
+        writeFixedExpressions(annotations, jCas);
+        annotations.flush();
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        if(withText && text != null) {
+            out.writeByte(FLAG_WITH_TEXT);
+            writeString(out, text);
+        } else {
+            out.writeByte(0);
+            writeVarInt(out, text == null ? 0 : text.length() + 1);
+        }
+        writeVarInt(out, strings.values.size());
+        for(String s:strings.values)
+            writeString(out, s);
+        annotationBytes.writeTo(out);
+        out.flush();
+    }
+
+    private static void writeSDI(DataOutput out, StringTable strings, JCas jCas) throws IOException {
+        FSIterator<Annotation> it = jCas.getAnnotationIndex(SourceDocumentInformation.type).iterator();
+        out.writeBoolean(it.hasNext());
+        if(!it.hasNext())
+            return;
+        SourceDocumentInformation sdi = (SourceDocumentInformation) it.next();
+        writeVarInt(out, strings.ref(sdi.getUri()));
+        writeSignedVarLong(out, sdi.getOffsetInSource());
+        writeSignedVarLong(out, sdi.getDocumentIndex());
+        writeSignedVarLong(out, sdi.getNbDocuments());
+        writeSignedVarLong(out, sdi.getDocumentSize());
+        writeSignedVarLong(out, sdi.getCumulatedDocumentSize());
+        writeSignedVarLong(out, sdi.getCorpusSize());
+        out.writeBoolean(sdi.getLastSegment());
+        writeSignedVarLong(out, sdi.getBegin());
+        writeSignedVarLong(out, sdi.getEnd());
+    }
+
+    private static Map<WordAnnotation, Integer> writeWordAnnotations(DataOutput out, StringTable strings, JCas jCas, String text) throws IOException {
+        Map<WordAnnotation, Integer> wordIndexes = new HashMap<>();
+        FSIterator<Annotation> it = jCas.getAnnotationIndex(WordAnnotation.type).iterator();
+        writeVarInt(out, jCas.getAnnotationIndex(WordAnnotation.type).size());
+        int lastBegin = 0;
+        while(it.hasNext()) {
+            WordAnnotation wa = (WordAnnotation) it.next();
+            wordIndexes.put(wa, wordIndexes.size());
+            lastBegin = writeOffsets(out, wa, lastBegin);
+            writeVarInt(out, strings.ref(wa.getCategory()));
+            writeVarInt(out, strings.ref(wa.getLemma()));
+            writeVarInt(out, strings.ref(wa.getStem()));
+            writeVarInt(out, strings.ref(wa.getTag()));
+            writeVarInt(out, strings.ref(wa.getSubCategory()));
+            writeVarInt(out, strings.ref(wa.getRegexLabel()));
+            writeVarInt(out, strings.ref(wa.getNumber()));
+            writeVarInt(out, strings.ref(wa.getGender()));
+            writeVarInt(out, strings.ref(wa.getCase()));
+            writeVarInt(out, strings.ref(wa.getMood()));
+            writeVarInt(out, strings.ref(wa.getTense()));
+            writeVarInt(out, strings.ref(wa.getPerson()));
+            writeVarInt(out, strings.ref(wa.getDegree()));
+            writeVarInt(out, strings.ref(wa.getFormation()));
+            writeVarInt(out, strings.ref(wa.getLabels()));
+            if(text != null)
+                writeVarInt(out, strings.ref(text.substring(wa.getBegin(), wa.getEnd())));
+        }
+        return wordIndexes;
+    }
+
+    private static void writeTermOccAnnotations(DataOutput out, StringTable strings, JCas jCas, Map<WordAnnotation, Integer> wordIndexes) throws IOException {
+        FSIterator<Annotation> it = jCas.getAnnotationIndex(TermOccAnnotation.type).iterator();
+        writeVarInt(out, jCas.getAnnotationIndex(TermOccAnnotation.type).size());
+        int lastBegin = 0;
+        while(it.hasNext()) {
+            TermOccAnnotation toa = (TermOccAnnotation) it.next();
+            lastBegin = writeOffsets(out, toa, lastBegin);
+            StringArray pattern = toa.getPattern();
+            if(pattern == null)
+                writeVarInt(out, 0);
+            else {
+                writeVarInt(out, pattern.size() + 1);
+                for(int i = 0; i < pattern.size(); i++)
+                    writeVarInt(out, strings.ref(pattern.get(i)));
+            }
+            writeVarInt(out, strings.ref(toa.getSpottingRuleName()));
+            writeVarInt(out, strings.ref(toa.getTermKey()));
+            FSArray words = toa.getWords();
+            if(words == null)
+                writeVarInt(out, 0);
+            else {
+                writeVarInt(out, words.size() + 1);
+                for(int i = 0; i < words.size(); i++) {
+                    Integer index = wordIndexes.get(words.get(i));
+                    Preconditions.checkState(index != null, 
+                            "Word %s of term occurrence %s is not indexed in CAS", 
+                            words.get(i), toa.getTermKey());
+                    writeVarInt(out, index);
+                }
+            }
+        }
+    }
+
+    private static void writeFixedExpressions(DataOutput out, JCas jCas) throws IOException {
+        FSIterator<Annotation> it = jCas.getAnnotationIndex(FixedExpression.type).iterator();
+        writeVarInt(out, jCas.getAnnotationIndex(FixedExpression.type).size());
+        int lastBegin = 0;
+        while(it.hasNext())
+            lastBegin = writeOffsets(out, it.next(), lastBegin);
+    }
+
+    private static int writeOffsets(DataOutput out, Annotation a, int lastBegin) throws IOException {
+        writeSignedVarLong(out, a.getBegin() - lastBegin);
+        writeVarInt(out, a.getEnd() - a.getBegin());
+        return a.getBegin();
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        Preconditions.checkArgument(value >= 0, "Expected a positive value. Got: %s", value);
+        while((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int)((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int)zigzag);
+    }
+
+    private static class StringTable {
+        private Map<String, Integer> refs = new HashMap<>();
+        private List<String> values = new ArrayList<>();
+
+        private int ref(String value) {
+            if(value == null)
+                return NULL_REF;
+            Integer ref = refs.get(value);
+            if(ref == null) {
+                values.add(value);
+                ref = values.size();
+                refs.put(value, ref);
+            }
+            return ref;
+        }
+    }
+}
@@ -57,32 +57,53 @@ import fr.univnantes.termsuite.model.TermWord;
 import fr.univnantes.termsuite.model.Word;
 import fr.univnantes.termsuite.model.occurrences.EmptyOccurrenceStore;
 import fr.univnantes.termsuite.test.mock.MockResourceModule;
+import fr.univnantes.termsuite.test.unit.alignment.DistributionalAlignmentSpec;
+import fr.univnantes.termsuite.test.unit.alignment.NeoclassicalAlignmentSpec;
+import fr.univnantes.termsuite.test.unit.alignment.TranslateVectorSpec;
 import fr.univnantes.termsuite.test.unit.api.ExtractorConfigIOSpec;
+import fr.univnantes.termsuite.test.unit.api.PrefetchingTXTCorpusSpec;
 import fr.univnantes.termsuite.test.unit.api.ResourceConfigSpec;
 import fr.univnantes.termsuite.test.unit.engines.YamlRuleSetIOSpec;
 import fr.univnantes.termsuite.test.unit.engines.YamlRuleSetIOSynonymicSpec;
 import fr.univnantes.termsuite.test.unit.engines.contextualizer.ContextualizerSpec;
+import fr.univnantes.termsuite.test.unit.engines.contextualizer.CooccurrenceCounterSpec;
 import fr.univnantes.termsuite.test.unit.engines.contextualizer.ContextualizerSpec2;
 import fr.univnantes.termsuite.test.unit.engines.contextualizer.DocumentViewSpec;
+import fr.univnantes.termsuite.test.unit.engines.gatherer.GraphicalCandidateIndexSpec;
 import fr.univnantes.termsuite.test.unit.engines.gatherer.GraphicalVariantGathererSpec;
 import fr.univnantes.termsuite.test.unit.engines.gatherer.GroovyServiceSpec;
 import fr.univnantes.termsuite.test.unit.engines.gatherer.RelationPairsBasedGathererSpec;
 import fr.univnantes.termsuite.test.unit.engines.gatherer.TermGathererSpec;
+import fr.univnantes.termsuite.test.unit.engines.gatherer.VariantRuleCompilerSpec;
 import fr.univnantes.termsuite.test.unit.engines.postproc.IndependanceScorerSpec;
 import fr.univnantes.termsuite.test.unit.engines.postproc.VariantScorerSpec;
 import fr.univnantes.termsuite.test.unit.engines.splitter.ManualSuffixDerivationDetecterSpec;
 import fr.univnantes.termsuite.test.unit.engines.splitter.SegmentationSpec;
+import fr.univnantes.termsuite.test.unit.engines.splitter.SegmentMatchCacheSpec;
+import fr.univnantes.termsuite.test.unit.engines.splitter.SegmentationFinderSpec;
 import fr.univnantes.termsuite.test.unit.export.TsvExporterSpec;
+import fr.univnantes.termsuite.test.unit.export.TbxExporterSpec;
+import fr.univnantes.termsuite.test.unit.framework.service.ImporterServiceSpec;
+import fr.univnantes.termsuite.test.unit.framework.service.PreprocessingExecutorSpec;
+import fr.univnantes.termsuite.test.unit.framework.service.TermFrequencyBucketsSpec;
 import fr.univnantes.termsuite.test.unit.framework.service.TerminologyServiceSpec;
+import fr.univnantes.termsuite.test.unit.index.ShardedTermIndexSpec;
+import fr.univnantes.termsuite.test.unit.io.BinaryTerminologyIOSpec;
 import fr.univnantes.termsuite.test.unit.io.JsonTerminologyIOSpec;
 import fr.univnantes.termsuite.test.unit.io.SegmentationParserSpec;
 import fr.univnantes.termsuite.test.unit.metrics.DiacriticInsensitiveLevenshteinSpec;
 import fr.univnantes.termsuite.test.unit.metrics.FastDiacriticInsensitiveLevenshteinSpec;
+import fr.univnantes.termsuite.test.unit.metrics.BandedLevenshteinSpec;
 import fr.univnantes.termsuite.test.unit.metrics.LevenshteinSpec;
 import fr.univnantes.termsuite.test.unit.metrics.SimilarityDistanceSpec;
+import fr.univnantes.termsuite.test.unit.models.ColumnarOccurrenceStoreSpec;
+import fr.univnantes.termsuite.test.unit.models.PropertyColumnsSpec;
 import fr.univnantes.termsuite.test.unit.models.ContextVectorSpec;
 import fr.univnantes.termsuite.test.unit.models.TermValueProvidersSpec;
+import fr.univnantes.termsuite.test.unit.models.XodusOccurrenceStoreSpec;
+import fr.univnantes.termsuite.test.unit.readers.BinaryCasSerializerDeserializerSpec;
 import fr.univnantes.termsuite.test.unit.readers.TermsuiteJsonCasSerializerDeserializerSpec;
+import fr.univnantes.termsuite.test.unit.resources.CompostIndexSpec;
 import fr.univnantes.termsuite.test.unit.resources.PrefixTreeSpec;
 import fr.univnantes.termsuite.test.unit.resources.SuffixDerivationListSpec;
 import fr.univnantes.termsuite.test.unit.resources.SuffixDerivationSpec;
@@ -104,6 +125,14 @@ import fr.univnantes.termsuite.test.unit.utils.TermUtilsSpec;
 	 */
 	ExtractorConfigIOSpec.class,
 	ResourceConfigSpec.class,
+	PrefetchingTXTCorpusSpec.class,
+
+	/*
+	 * Alignment
+	 */
+	DistributionalAlignmentSpec.class,
+	TranslateVectorSpec.class,
+	NeoclassicalAlignmentSpec.class,
 
 	/*
 	 * Command Line API
@@ -116,13 +145,18 @@ import fr.univnantes.termsuite.test.unit.utils.TermUtilsSpec;
 	ContextualizerSpec.class,
 	ContextualizerSpec2.class, 
 	DocumentViewSpec.class,
+	CooccurrenceCounterSpec.class,
 	GraphicalVariantGathererSpec.class,
+	GraphicalCandidateIndexSpec.class,
 	GroovyServiceSpec.class, 
+	VariantRuleCompilerSpec.class,
 	TermGathererSpec.class,
 	RelationPairsBasedGathererSpec.class,
 	IndependanceScorerSpec.class,
 	VariantScorerSpec.class,
 	SegmentationSpec.class, 
+	SegmentationFinderSpec.class,
+	SegmentMatchCacheSpec.class,
 	ManualSuffixDerivationDetecterSpec.class,
 	YamlRuleSetIOSpec.class,
 	YamlRuleSetIOSynonymicSpec.class,
@@ -131,11 +165,20 @@ import fr.univnantes.termsuite.test.unit.utils.TermUtilsSpec;
 	 * Framework
 	 */
 	TerminologyServiceSpec.class,
+	TermFrequencyBucketsSpec.class,
+	ImporterServiceSpec.class,
+	PreprocessingExecutorSpec.class,
+
+	/*
+	 * Index
+	 */
+	ShardedTermIndexSpec.class,
 
 	/*
 	 * IO
 	 */
 	JsonTerminologyIOSpec.class,
+	BinaryTerminologyIOSpec.class,
 	SegmentationParserSpec.class,
 
 	/*
@@ -144,27 +187,34 @@ import fr.univnantes.termsuite.test.unit.utils.TermUtilsSpec;
 	DiacriticInsensitiveLevenshteinSpec.class,
 	FastDiacriticInsensitiveLevenshteinSpec.class,
 	LevenshteinSpec.class,
+	BandedLevenshteinSpec.class,
 	SimilarityDistanceSpec.class,
 
 	/*
 	 * Export
 	 */
 	TsvExporterSpec.class,
+	TbxExporterSpec.class,
 	
 	/*
 	 * Models
 	 */
+	ColumnarOccurrenceStoreSpec.class,
+	PropertyColumnsSpec.class,
 	ContextVectorSpec.class,
 	TermValueProvidersSpec.class,
+	XodusOccurrenceStoreSpec.class,
 
 	/*
 	 * Readers
 	 */
 	TermsuiteJsonCasSerializerDeserializerSpec.class,
+	BinaryCasSerializerDeserializerSpec.class,
 	
 	/*
 	 * Resources
 	 */
+	CompostIndexSpec.class,
 	PrefixTreeSpec.class,
 	SuffixDerivationListSpec.class,
 	SuffixDerivationSpec.class,
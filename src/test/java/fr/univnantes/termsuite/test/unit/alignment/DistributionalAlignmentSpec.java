@@ -0,0 +1,145 @@
+package fr.univnantes.termsuite.test.unit.alignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.alignment.BilingualAlignmentService;
+import fr.univnantes.termsuite.alignment.TranslationCandidate;
+import fr.univnantes.termsuite.api.BilingualAligner;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.framework.service.TerminologyService;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.test.mock.TermFactory;
+
+public class DistributionalAlignmentSpec {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Random random = new Random(7);
+	private Terminology frTermino;
+	private Terminology enTermino;
+	private BilingualAligner aligner;
+	
+	@Before
+	public void setup() throws IOException {
+		frTermino = TermSuiteFactory.createTerminology(Lang.FR, "fr");
+		enTermino = TermSuiteFactory.createTerminology(Lang.EN, "en");
+		List<Term> frTerms = createTerms(frTermino, "fr", 40);
+		List<Term> enTerms = createTerms(enTermino, "en", 80);
+		
+		List<String> dicoLines = Lists.newArrayList();
+		for(int i = 0; i < frTerms.size(); i++) {
+			dicoLines.add(String.format("fr%d\ten%d", i, i));
+			dicoLines.add(String.format("fr%d\ten%d", i, random.nextInt(enTerms.size())));
+		}
+		File dico = folder.newFile("fr-en.txt");
+		Files.write(dico.toPath(), dicoLines, StandardCharsets.UTF_8);
+		
+		aligner = new BilingualAligner()
+				.setSourceTerminology(frTermino)
+				.setTargetTerminology(enTermino)
+				.setDicoPath(dico.toPath())
+				.setDistanceCosine();
+	}
+
+	private List<Term> createTerms(Terminology termino, String prefix, int nbTerms) {
+		TermFactory termFactory = new TermFactory(termino);
+		List<Term> terms = Lists.newArrayList();
+		for(int i = 0; i < nbTerms; i++) {
+			String lemma = prefix + i;
+			Term term = termFactory.create(String.format("N:%s|%s", lemma, lemma));
+			term.setProperty(TermProperty.FREQUENCY, 1 + random.nextInt(5));
+			term.setProperty(TermProperty.SPECIFICITY, random.nextDouble());
+			terms.add(term);
+		}
+		for(Term term:terms) {
+			ContextVector vector = new ContextVector(term);
+			int nbCoTerms = 1 + random.nextInt(8);
+			for(int i = 0; i < nbCoTerms; i++)
+				vector.addEntry(terms.get(random.nextInt(nbTerms)), 1 + random.nextInt(10), random.nextInt(4) / 2d);
+			term.setContext(vector);
+		}
+		return terms;
+	}
+	
+	private List<String> align(BilingualAlignmentService service, Term sourceTerm, int nbCandidates, int minFrequency) {
+		return service.alignDistributional(new TerminologyService(frTermino).asTermService(sourceTerm), nbCandidates, minFrequency)
+			.stream()
+			.sorted()
+			.map(c -> String.format("%s:%.9f:%s", c.getTerm().getGroupingKey(), c.getScore(), c.getExplanation().getText()))
+			.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testIndexGivesSameCandidatesAsFullScan() {
+		BilingualAlignmentService scanService = aligner.create();
+		BilingualAlignmentService indexService = aligner.setDistributionalIndex(true).create();
+		assertThat(scanService.isDistributionalIndexEnabled()).isFalse();
+		assertThat(indexService.isDistributionalIndexEnabled()).isTrue();
+		
+		for(Term sourceTerm:frTermino.getTerms().values()) {
+			for(int nbCandidates:new int[]{1, 3, 10, 200}) {
+				for(int minFrequency:new int[]{1, 3}) {
+					List<String> expected = align(scanService, sourceTerm, nbCandidates, minFrequency);
+					assertThat(align(indexService, sourceTerm, nbCandidates, minFrequency))
+						.as("Candidates of %s", sourceTerm)
+						.isEqualTo(expected);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testIndexRequiresCosine() {
+		BilingualAlignmentService service = aligner.setDistanceJaccard().create();
+		try {
+			service.setDistributionalIndexEnabled(true);
+		} catch(IllegalStateException e) {
+			assertThat(e.getMessage()).contains("Cosine");
+			return;
+		}
+		throw new AssertionError("Expected IllegalStateException");
+	}
+
+	@Test
+	public void testAlignAllGivesSameResultsInSameOrder() {
+		BilingualAlignmentService service = aligner.setDistributionalIndex(true).create();
+		List<Term> sourceTerms = Lists.newArrayList(frTermino.getTerms().values());
+		List<String> expected = Lists.newArrayList();
+		for(Term sourceTerm:sourceTerms)
+			expected.add(sourceTerm + "=" + toString(service.align(sourceTerm, 5, 1)));
+		assertThat(expected.stream().filter(e -> !e.endsWith("=")).count()).isGreaterThan(0);
+		
+		for(int nbThreads:new int[]{1, 2, 4}) {
+			List<String> actual = Lists.newArrayList();
+			service.alignAll(sourceTerms.stream(), 5, 1, nbThreads, 
+					(sourceTerm, candidates) -> actual.add(sourceTerm + "=" + toString(candidates)));
+			assertThat(actual).isEqualTo(expected);
+		}
+	}
+
+	private static String toString(List<TranslationCandidate> candidates) {
+		return candidates.stream()
+				.map(c -> String.format("%s:%.9f", c.getTerm().getGroupingKey(), c.getScore()))
+				.collect(Collectors.joining(","));
+	}
+}
@@ -0,0 +1,113 @@
+package fr.univnantes.termsuite.test.unit.alignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.alignment.AlignmentMethod;
+import fr.univnantes.termsuite.alignment.BilingualAlignmentService;
+import fr.univnantes.termsuite.api.BilingualAligner;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.CompoundType;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.model.Word;
+import fr.univnantes.termsuite.test.mock.TermFactory;
+
+public class NeoclassicalAlignmentSpec {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Terminology frTermino;
+	private Terminology enTermino;
+	private BilingualAlignmentService aligner;
+	
+	@Before
+	public void setup() throws IOException {
+		frTermino = TermSuiteFactory.createTerminology(Lang.FR, "fr");
+		enTermino = TermSuiteFactory.createTerminology(Lang.EN, "en");
+		TermFactory frFactory = new TermFactory(frTermino);
+		TermFactory enFactory = new TermFactory(enTermino);
+		
+		Term frElectricite = term(frFactory, "électricité");
+		neoclassical(frFactory, term(frFactory, "hydroélectricité"), "hydro|hydro", "électricité|électricité");
+		neoclassical(frFactory, term(frFactory, "géologie"), "géo|géo", "logie|logie");
+		
+		Term enElectricity = term(enFactory, "electricity");
+		neoclassical(enFactory, term(enFactory, "hydroelectricity"), "hydro|hydro", "electricity|electricity");
+		neoclassical(enFactory, term(enFactory, "aeroelectricity"), "aero|aero", "electricity|electricity");
+		neoclassical(enFactory, term(enFactory, "geology"), "geo|geo", "logy|logy");
+		neoclassical(enFactory, term(enFactory, "geography"), "geo|geo", "graphy|graphy");
+		neoclassical(enFactory, term(enFactory, "biology"), "bio|bio", "logy|logy");
+		
+		context(frElectricite, frElectricite);
+		context(enElectricity, enElectricity);
+		
+		File dico = folder.newFile("fr-en.txt");
+		Files.write(dico.toPath(), Lists.newArrayList(
+				"hydro-\thydro-", 
+				"électricité\telectricity"), StandardCharsets.UTF_8);
+		aligner = new BilingualAligner()
+				.setSourceTerminology(frTermino)
+				.setTargetTerminology(enTermino)
+				.setDicoPath(dico.toPath())
+				.create();
+	}
+
+	private static Term term(TermFactory factory, String lemma) {
+		Term term = factory.create(String.format("N:%s|%s", lemma, lemma));
+		term.setProperty(TermProperty.FREQUENCY, 3);
+		term.setProperty(TermProperty.SPECIFICITY, 1d);
+		return term;
+	}
+
+	private static void neoclassical(TermFactory factory, Term term, String affixSpec, String... componentSpecs) {
+		String[] specs = Lists.asList(affixSpec, componentSpecs).toArray(new String[componentSpecs.length + 1]);
+		Word word = term.getWords().get(0).getWord();
+		factory.wordComposition(CompoundType.NEOCLASSICAL, word.getLemma(), specs);
+		word.getComponents().get(0).setNeoclassicalAffix(true);
+	}
+
+	private void context(Term term, Term coTerm) {
+		ContextVector vector = new ContextVector(term);
+		vector.addEntry(coTerm, 1, 1d);
+		term.setContext(vector);
+	}
+	
+	@Test
+	public void testAlignWithDicoAffixTranslation() {
+		Term source = frTermino.getTerms().get("n: hydroélectricité");
+		assertThat(aligner.alignNeoclassical(source, 10, 1))
+			.extracting(c -> c.getTerm().getGroupingKey(), c -> c.getMethod())
+			.containsExactly(tuple("n: hydroelectricity", AlignmentMethod.NEOCLASSICAL));
+	}
+
+	@Test
+	public void testAlignWithGraphicalAffixEquality() {
+		Term source = frTermino.getTerms().get("n: géologie");
+		assertThat(aligner.alignNeoclassical(source, 10, 1))
+			.extracting(c -> c.getTerm().getGroupingKey())
+			.containsOnly("n: geology", "n: geography");
+	}
+	
+	@Test
+	public void testNotNeoclassical() {
+		Term source = frTermino.getTerms().get("n: électricité");
+		assertThat(aligner.alignNeoclassical(source, 10, 1)).isEmpty();
+	}
+}
@@ -0,0 +1,151 @@
+package fr.univnantes.termsuite.test.unit.alignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.alignment.BilingualAlignmentService;
+import fr.univnantes.termsuite.api.BilingualAligner;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.resources.BilingualDictionary;
+import fr.univnantes.termsuite.test.mock.TermFactory;
+
+public class TranslateVectorSpec {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Term chat, noir, chien, black, dark, dog, cat;
+	private BilingualAlignmentService aligner;
+	
+	@Before
+	public void setup() throws IOException {
+		Terminology frTermino = TermSuiteFactory.createTerminology(Lang.FR, "fr");
+		Terminology enTermino = TermSuiteFactory.createTerminology(Lang.EN, "en");
+		TermFactory frFactory = new TermFactory(frTermino);
+		TermFactory enFactory = new TermFactory(enTermino);
+		chat = term(frFactory, "chat", 10, 1d);
+		noir = term(frFactory, "noir", 10, 1d);
+		chien = term(frFactory, "chien", 10, 1d);
+		black = term(enFactory, "black", 35, 100d);
+		dark = term(enFactory, "dark", 15, 1d);
+		dog = term(enFactory, "dog", 7, 1d);
+		cat = term(enFactory, "cat", 7, 1d);
+
+		ContextVector chatVector = new ContextVector(chat);
+		chatVector.addEntry(noir, 10, 0.5d);
+		chatVector.addEntry(chien, 3, 0.25d);
+		chat.setContext(chatVector);
+		ContextVector catVector = new ContextVector(cat);
+		catVector.addEntry(dog, 3, 0.25d);
+		cat.setContext(catVector);
+		
+		aligner = new BilingualAligner()
+				.setSourceTerminology(frTermino)
+				.setTargetTerminology(enTermino)
+				.setDicoPath(dico("fr-en.txt", "noir\tblack", "noir\tdark", "chien\tdog", "Chat\tcat"))
+				.create();
+	}
+
+	private Path dico(String name, String... lines) throws IOException {
+		File dico = folder.newFile(name);
+		Files.write(dico.toPath(), Lists.newArrayList(lines), StandardCharsets.UTF_8);
+		return dico.toPath();
+	}
+
+	private static Term term(TermFactory factory, String lemma, int frequency, double specificity) {
+		Term term = factory.create(String.format("N:%s|%s", lemma, lemma));
+		term.setProperty(TermProperty.FREQUENCY, frequency);
+		term.setProperty(TermProperty.SPECIFICITY, specificity);
+		return term;
+	}
+	
+	private ContextVector translate(int strategy) {
+		return aligner.translateVector(chat.getContext(), aligner.getDico(), strategy, null);
+	}
+
+	@Test
+	public void testProrata() {
+		assertThat(translate(BilingualAlignmentService.TRANSLATION_STRATEGY_PRORATA).getEntries())
+			.extracting("coTerm", "nbCooccs", "assocRate")
+			.containsOnly(
+					tuple(black, 7, 0.5d),
+					tuple(dark, 3, 0.5d),
+					tuple(dog, 3, 0.25d)
+			);
+	}
+
+	@Test
+	public void testMostFrequent() {
+		assertThat(translate(BilingualAlignmentService.TRANSLATION_STRATEGY_MOST_FREQUENT).getEntries())
+			.extracting("coTerm", "nbCooccs", "assocRate")
+			.containsOnly(
+					tuple(black, 10, 0.5d),
+					tuple(dog, 3, 0.25d)
+			);
+	}
+
+	@Test
+	public void testMostSpecific() {
+		assertThat(translate(BilingualAlignmentService.TRANSLATION_STRATEGY_MOST_SPECIFIC).getEntries())
+			.extracting("coTerm", "nbCooccs", "assocRate")
+			.containsOnly(
+					tuple(black, 10, 0.5d),
+					tuple(dog, 3, 0.25d)
+			);
+	}
+
+	@Test
+	public void testTranslationsAreReusedAcrossVectors() {
+		ContextVector v1 = translate(BilingualAlignmentService.TRANSLATION_STRATEGY_PRORATA);
+		ContextVector v2 = translate(BilingualAlignmentService.TRANSLATION_STRATEGY_PRORATA);
+		assertThat(v2.getEntries()).isEqualTo(v1.getEntries());
+		
+		ContextVector chienVector = new ContextVector();
+		chienVector.addEntry(chien, 8, 1d);
+		chienVector.addEntry(chat, 2, 2d);
+		assertThat(aligner.translateVector(chienVector, aligner.getDico(), BilingualAlignmentService.TRANSLATION_STRATEGY_PRORATA, null).getEntries())
+			.extracting("coTerm", "nbCooccs", "assocRate")
+			.containsOnly(
+					tuple(dog, 8, 1d),
+					tuple(cat, 2, 2d)
+			);
+	}
+
+	@Test
+	public void testOtherDictionary() throws IOException {
+		BilingualDictionary other = BilingualDictionary.load(dico("other.txt", "noir\tdark", "chien\tcat").toString());
+		ContextVector translated = aligner.translateVector(chat.getContext(), other, BilingualAlignmentService.TRANSLATION_STRATEGY_PRORATA, null);
+		assertThat(translated.getEntries())
+			.extracting("coTerm", "nbCooccs", "assocRate")
+			.containsOnly(
+					tuple(dark, 10, 0.5d),
+					tuple(cat, 3, 0.25d)
+			);
+		assertThat(translate(BilingualAlignmentService.TRANSLATION_STRATEGY_PRORATA).getEntries())
+			.extracting("coTerm")
+			.containsOnly(black, dark, dog);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidStrategy() {
+		translate(17);
+	}
+}
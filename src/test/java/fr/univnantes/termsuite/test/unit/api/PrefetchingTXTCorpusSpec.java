@@ -0,0 +1,98 @@
+package fr.univnantes.termsuite.test.unit.api;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.univnantes.termsuite.api.PrefetchingTXTCorpus;
+import fr.univnantes.termsuite.api.TXTCorpus;
+import fr.univnantes.termsuite.framework.service.CorpusService;
+import fr.univnantes.termsuite.model.CorpusMetadata;
+import fr.univnantes.termsuite.model.Document;
+import fr.univnantes.termsuite.model.Lang;
+
+public class PrefetchingTXTCorpusSpec {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path root;
+
+	@Before
+	public void setup() throws IOException {
+		root = folder.getRoot().toPath();
+		Files.createDirectories(root.resolve("sub"));
+		for(int i = 0; i < 10; i++)
+			Files.write(root.resolve("doc" + i + ".txt"), ("Document numéro " + i).getBytes(StandardCharsets.UTF_8));
+		Files.write(root.resolve("sub").resolve("doc10.txt"), "Sub document".getBytes(StandardCharsets.UTF_8));
+		Files.write(root.resolve("notes.md"), "Not a txt document".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testMetadataFromFileSizes() throws IOException {
+		TXTCorpus corpus = new TXTCorpus(Lang.FR, root);
+		long expectedSize = 10 * "Document numéro 0".getBytes(StandardCharsets.UTF_8).length
+				+ "Sub document".length();
+		assertThat(corpus.getNbDocuments()).isEqualTo(11);
+		assertThat(corpus.getTotalSize()).isEqualTo(expectedSize);
+
+		CorpusMetadata metadata = new CorpusService().computeMetadata(corpus);
+		assertThat(metadata.getNbDocuments()).isEqualTo(11);
+		assertThat(metadata.getTotalSize()).isEqualTo(expectedSize);
+	}
+
+	@Test
+	public void testMetadataResetWhenRootChanges() throws IOException {
+		TXTCorpus corpus = new TXTCorpus(Lang.FR, root);
+		assertThat(corpus.getNbDocuments()).isEqualTo(11);
+		corpus.setRootDirectory(root.resolve("sub"));
+		assertThat(corpus.getNbDocuments()).isEqualTo(1);
+	}
+
+	@Test
+	public void testPrefetchedDocumentsAreSameAsTXTCorpus() {
+		TXTCorpus corpus = new TXTCorpus(Lang.FR, root);
+		PrefetchingTXTCorpus prefetching = new PrefetchingTXTCorpus(Lang.FR, root, 3);
+
+		List<String> expected;
+		try(Stream<Document> documents = corpus.documents()) {
+			expected = documents.map(corpus::readDocumentText).sorted().collect(toList());
+		}
+		List<String> actual;
+		try(Stream<Document> documents = prefetching.documents()) {
+			actual = documents.map(prefetching::readDocumentText).sorted().collect(toList());
+		}
+		assertThat(actual).hasSize(11).isEqualTo(expected);
+		assertThat(actual).contains("Document numéro 3", "Sub document");
+	}
+
+	@Test
+	public void testPrefetchingCorpusIsReiterable() {
+		PrefetchingTXTCorpus prefetching = new PrefetchingTXTCorpus(Lang.FR, root, 2);
+		try(Stream<Document> documents = prefetching.documents()) {
+			assertThat(documents.limit(2).count()).isEqualTo(2);
+		}
+		try(Stream<Document> documents = prefetching.documents()) {
+			assertThat(documents.count()).isEqualTo(11);
+		}
+		assertThat(prefetching.getNbDocuments()).isEqualTo(11);
+	}
+
+	@Test
+	public void testReadDocumentNotPrefetched() {
+		PrefetchingTXTCorpus prefetching = new PrefetchingTXTCorpus(Lang.FR, root, 2);
+		Document doc = new Document(Lang.FR, root.resolve("doc1.txt").toString());
+		assertThat(prefetching.readDocumentText(doc)).isEqualTo("Document numéro 1");
+	}
+}
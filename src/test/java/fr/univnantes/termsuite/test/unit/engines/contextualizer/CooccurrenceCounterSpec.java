@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.engines.contextualizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.api.TermSuite;
+import fr.univnantes.termsuite.engines.contextualizer.Contextualizer;
+import fr.univnantes.termsuite.engines.contextualizer.ContextualizerOptions;
+import fr.univnantes.termsuite.engines.contextualizer.SparseIntVector;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.IndexedCorpus;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermBuilder;
+import fr.univnantes.termsuite.model.Word;
+import fr.univnantes.termsuite.test.unit.UnitTests;
+
+public class CooccurrenceCounterSpec {
+
+	private IndexedCorpus corpus;
+	private OccurrenceStore occurrenceStore;
+	private Terminology termino;
+	private Term t1;
+	private Term t2;
+	private Term t3;
+	private Term t4;
+	
+	@Before
+	public void init() {
+		corpus = TermSuiteFactory.createIndexedCorpus(Lang.FR, "");
+		occurrenceStore = corpus.getOccurrenceStore();
+		termino = corpus.getTerminology();
+		
+		t1 = addTerm("T1");
+		t2 = addTerm("T2");
+		t3 = addTerm("T3");
+		t4 = addTerm("T4");
+		Term t1t2 = new TermBuilder()
+				.setGroupingKey("T1 T2")
+				.addWord(new Word("T1", "T1"), "N", true)
+				.addWord(new Word("T2", "T2"), "N", false)
+				.create();
+		UnitTests.addTerm(termino, t1t2);
+		
+		// doc1: T1 T2 T3 T1 T3 T3 T1 T4 T4 T2, with T4 overlapping T3
+		addOcc(t1, "doc1", 0, 10);
+		addOcc(t2, "doc1", 11, 20);
+		addOcc(t1t2, "doc1", 0, 20);
+		addOcc(t3, "doc1", 21, 30);
+		addOcc(t1, "doc1", 31, 40);
+		addOcc(t3, "doc1", 41, 50);
+		addOcc(t4, "doc1", 45, 55);
+		addOcc(t3, "doc1", 56, 60);
+		addOcc(t1, "doc1", 61, 70);
+		addOcc(t4, "doc1", 71, 80);
+		addOcc(t4, "doc1", 81, 90);
+		addOcc(t2, "doc1", 91, 99);
+
+		// doc2: T2 T4 T1 T3
+		addOcc(t2, "doc2", 0, 5);
+		addOcc(t4, "doc2", 6, 10);
+		addOcc(t1, "doc2", 11, 15);
+		addOcc(t3, "doc2", 16, 20);
+	}
+
+	private void addOcc(Term t, String doc, int begin, int end) {
+		occurrenceStore.addOccurrence(t, doc, begin, end, t.getGroupingKey().toLowerCase());
+	}
+
+	private Term addTerm(String gKey) {
+		Word word = new Word(gKey, gKey);
+		Term term = new TermBuilder().setGroupingKey(gKey).addWord(word, "N", true).create();
+		UnitTests.addTerm(termino, term);
+		return term;
+	}
+	
+	private Contextualizer createContextualizer(int scope, int cooccTh) {
+		ContextualizerOptions options = TermSuite.getDefaultExtractorConfig(Lang.FR).getContextualizerOptions();
+		options.setMinimumCooccFrequencyThreshold(cooccTh);
+		options.setScope(scope);
+		return UnitTests.createSimpleEngine(
+				corpus, 
+				Contextualizer.class, 
+				options);
+	}
+	
+	private Map<String, Map<String, Integer>> contexts() {
+		return termino.getTerms().values().stream()
+				.filter(t -> t.getContext() != null)
+				.collect(Collectors.toMap(
+						Term::getGroupingKey, 
+						t -> t.getContext().getEntries().stream().collect(Collectors.toMap(
+								e -> e.getCoTerm().getGroupingKey(), 
+								ContextVector.Entry::getNbCooccs))));
+	}
+	
+	private void assertSameContexts(int scope, int cooccTh) {
+		Contextualizer sequential = createContextualizer(scope, cooccTh);
+		sequential.computeDocumentViews();
+		sequential.setContexts();
+		Map<String, Map<String, Integer>> expected = contexts();
+		
+		termino.getTerms().values().forEach(t -> t.setContext(null));
+		createContextualizer(scope, cooccTh).setContextsInParallel();
+		assertThat(contexts()).isEqualTo(expected);
+	}
+	
+	@Test
+	public void testSameContextsAsDocumentViews() {
+		for(int scope = 1; scope <= 4; scope++)
+			for(int cooccTh = 1; cooccTh <= 3; cooccTh++)
+				assertSameContexts(scope, cooccTh);
+	}
+
+	@Test
+	public void testParallelContexts() {
+		createContextualizer(1, 1).setContextsInParallel();
+		assertThat(t2.getContext().getEntries())
+			.extracting("coTerm", "nbCooccs")
+			.containsOnly(
+					tuple(t1, 1),
+					tuple(t3, 1),
+					tuple(t4, 2)
+				);
+		assertThat(t4.getContext().getEntries())
+			.extracting("coTerm", "nbCooccs")
+			.containsOnly(
+					tuple(t1, 3),
+					tuple(t2, 2),
+					tuple(t3, 1)
+				);
+		assertThat(termino.getTerms().get("T1 T2").getContext()).isNull();
+	}
+
+	@Test
+	public void testSparseIntVector() {
+		SparseIntVector v = new SparseIntVector(2);
+		for(int i = 0; i < 1000; i++) {
+			v.increment(i * 7);
+			v.add(i * 7, i);
+		}
+		assertThat(v.size()).isEqualTo(1000);
+		assertThat(v.get(0)).isEqualTo(1);
+		assertThat(v.get(7 * 999)).isEqualTo(1000);
+		assertThat(v.get(1)).isEqualTo(0);
+		
+		SparseIntVector other = new SparseIntVector();
+		other.add(7, 10);
+		other.add(3, 1);
+		v.addAll(other);
+		assertThat(v.size()).isEqualTo(1001);
+		assertThat(v.get(7)).isEqualTo(12);
+		assertThat(v.get(3)).isEqualTo(1);
+	}
+}
@@ -0,0 +1,117 @@
+package fr.univnantes.termsuite.test.unit.engines.gatherer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import fr.univnantes.termsuite.engines.gatherer.GraphicalCandidateIndex;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.metrics.FastDiacriticInsensitiveLevenshtein;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.test.mock.TermFactory;
+
+public class GraphicalCandidateIndexSpec {
+	
+	private static final String ALPHABET = "abcéèE";
+	
+	private List<Term> terms;
+	
+	@Before
+	public void setup() {
+		Terminology termino = TermSuiteFactory.createIndexedCorpus(Lang.FR, "").getTerminology();
+		TermFactory termFactory = new TermFactory(termino);
+		Random random = new Random(42);
+		terms = Lists.newArrayList();
+		List<String> lemmas = Lists.newArrayList();
+		while(lemmas.size() < 300) {
+			String lemma;
+			if(!lemmas.isEmpty() && random.nextBoolean())
+				lemma = mutate(lemmas.get(random.nextInt(lemmas.size())), random);
+			else
+				lemma = randomString(random, 1 + random.nextInt(15));
+			if(!lemmas.contains(lemma)) {
+				lemmas.add(lemma);
+				terms.add(termFactory.create(String.format("N:%s|%s", lemma, lemma)));
+			}
+		}
+	}
+
+	private static String randomString(Random random, int length) {
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		return builder.toString();
+	}
+
+	private static String mutate(String lemma, Random random) {
+		StringBuilder builder = new StringBuilder(lemma);
+		int pos = random.nextInt(builder.length() + 1);
+		switch(random.nextInt(3)) {
+		case 0:
+			builder.insert(pos, randomString(random, 1));
+			break;
+		case 1:
+			if(pos < builder.length())
+				builder.deleteCharAt(pos);
+			break;
+		default:
+			if(pos < builder.length())
+				builder.setCharAt(pos, randomString(random, 1).charAt(0));
+		}
+		return builder.toString();
+	}
+
+	private static String key(Term t1, Term t2) {
+		return t1.getGroupingKey().compareTo(t2.getGroupingKey()) < 0 ?
+				t1.getGroupingKey() + "/" + t2.getGroupingKey()
+				: t2.getGroupingKey() + "/" + t1.getGroupingKey();
+	}
+
+	private void checkSameAsAllPairs(double threshold) {
+		FastDiacriticInsensitiveLevenshtein distance = new FastDiacriticInsensitiveLevenshtein(false);
+		Map<String, Double> expected = Maps.newHashMap();
+		for(int i = 0; i < terms.size(); i++) {
+			for(int j = i + 1; j < terms.size(); j++) {
+				Term t1 = terms.get(i);
+				Term t2 = terms.get(j);
+				double similarity = distance.computeNormalized(t1.getLemma(), t2.getLemma(), threshold);
+				if(similarity >= threshold)
+					expected.put(key(t1, t2), similarity);
+			}
+		}
+		
+		Map<String, Double> actual = Maps.newHashMap();
+		GraphicalCandidateIndex index = new GraphicalCandidateIndex(terms, threshold);
+		index.forEachSimilarPair((t1, t2, similarity) -> {
+			assertThat(actual.put(key(t1, t2), similarity)).isNull();
+		});
+		
+		assertThat(actual).isEqualTo(expected);
+		assertThat(index.getNbComparisons()).isLessThan(terms.size() * (terms.size() - 1) / 2);
+	}
+	
+	@Test
+	public void testSameAsAllPairs0_9() {
+		checkSameAsAllPairs(0.9);
+	}
+
+	@Test
+	public void testSameAsAllPairs0_8() {
+		checkSameAsAllPairs(0.8);
+	}
+
+	@Test
+	public void testSameAsAllPairs1() {
+		checkSameAsAllPairs(1);
+	}
+}
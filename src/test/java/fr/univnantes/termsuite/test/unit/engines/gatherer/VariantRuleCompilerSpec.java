@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.engines.gatherer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.engines.gatherer.GroovyHelper;
+import fr.univnantes.termsuite.engines.gatherer.GroovyService;
+import fr.univnantes.termsuite.engines.gatherer.GroovyTerm;
+import fr.univnantes.termsuite.engines.gatherer.GroovyWord;
+import fr.univnantes.termsuite.engines.gatherer.VariantRule;
+import fr.univnantes.termsuite.engines.gatherer.VariantRuleCompiler;
+import fr.univnantes.termsuite.engines.gatherer.VariantRuleCompiler.CompiledRule;
+import fr.univnantes.termsuite.engines.gatherer.YamlRuleSetIO;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.IndexedCorpus;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.test.mock.Fixtures;
+import fr.univnantes.termsuite.test.unit.UnitTests;
+import fr.univnantes.termsuite.test.util.TestUtil;
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+
+public class VariantRuleCompilerSpec {
+	
+	private static final String[] VARIANT_RULE_FILES = new String[] {
+			"fr/univnantes/termsuite/resources/de/german-variants.yaml",
+			"fr/univnantes/termsuite/resources/en/english-variants.yaml",
+			"fr/univnantes/termsuite/resources/es/spanish-variants.yaml",
+			"fr/univnantes/termsuite/resources/fr/french-variants.yaml",
+			"fr/univnantes/termsuite/resources/it/italian-variants.yaml",
+			"fr/univnantes/termsuite/resources/ru/russian-variants.yaml",
+			"fr/univnantes/termsuite/resources/zh/chinese-variants.yaml"
+	};
+
+	private GroovyHelper helper;
+	private List<GroovyTerm> terms;
+	
+	@Before
+	public void setup() throws Exception {
+		IndexedCorpus indexedCorpus = TermSuiteFactory.createIndexedCorpus(Lang.FR, "tata");
+		Terminology terminology = indexedCorpus.getTerminology();
+		helper = new GroovyHelper() {
+			@Override
+			public boolean areSynonym(GroovyWord s, GroovyWord t) {
+				return s.lemma.equals(t.lemma);
+			}
+		};
+		UnitTests.setField(helper, "termino", UnitTests.getTerminologyService(indexedCorpus));
+		
+		GroovyService groovyService = new GroovyService();
+		terms = Lists.newArrayList(
+				groovyService.asGroovyTerm(Fixtures.term1(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term2(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term3(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term4(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term5(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term7(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term8(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term9(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term10(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term11(terminology)),
+				groovyService.asGroovyTerm(Fixtures.term12(terminology))
+			);
+	}
+	
+	private boolean compiles(String expression) {
+		return VariantRuleCompiler.compile(expression, helper).isPresent();
+	}
+
+	@Test
+	public void testSupportedExpressions() {
+		assertThat(compiles("s[0]==t[0] && s[1]==t[1]")).isTrue();
+		assertThat(compiles("s[0][0]==t[2] && s[0][1] == t[0]")).isTrue();
+		assertThat(compiles("s[0]==t[0] && ( s[1]==t[1] || s[1]==t[2] )")).isTrue();
+		assertThat(compiles("s[0].stem==t[0].stem && s[1]==t[2] && t[1]==\"von\"")).isTrue();
+		assertThat(compiles("s[1].compound && s[1][0]!=t[1]")).isTrue();
+		assertThat(compiles("s[0].components.size()==t.words.size()")).isTrue();
+		assertThat(compiles("s[0]==t[0] && deriv(\"N A\", s[2], t[1])")).isTrue();
+		assertThat(compiles("!prefix(t[1],s[1]) && synonym(t[0],s[0])")).isTrue();
+	}
+
+	@Test
+	public void testUnsupportedExpressions() {
+		assertThat(compiles("t[1][0] ==(\"an\"||\"ante\")")).isFalse();
+		assertThat(compiles("s[0].foo == t[0]")).isFalse();
+		assertThat(compiles("s[0] == t[0] &&")).isFalse();
+		assertThat(compiles("s[0].lemma")).isFalse();
+		assertThat(compiles("derivNN(s[0], t[0])")).isFalse();
+		assertThat(compiles("\"of\" == t[0]")).isFalse();
+	}
+
+	private List<List<Integer>> lemmaEqualities(String expression) {
+		List<List<Integer>> equalities = Lists.newArrayList();
+		for(int[] eq:VariantRuleCompiler.getLemmaEqualities(expression))
+			equalities.add(Lists.newArrayList(eq[0], eq[1]));
+		return equalities;
+	}
+
+	@Test
+	public void testLemmaEqualities() {
+		assertThat(lemmaEqualities("s[0]==t[0] && s[1]==t[2]"))
+			.containsExactly(Lists.newArrayList(0, 0), Lists.newArrayList(1, 2));
+		assertThat(lemmaEqualities("t[1]==s[0] && s[2].lemma==t[0].lemma && t[3]==\"of\""))
+			.containsExactly(Lists.newArrayList(0, 1), Lists.newArrayList(2, 0));
+		assertThat(lemmaEqualities("s[0]==t[0] && ( s[1]==t[1] || s[1]==t[2] )"))
+			.containsExactly(Lists.newArrayList(0, 0));
+		assertThat(lemmaEqualities("s[0][0]==t[2] && s[1].stem==t[1].stem && s[2]!=t[2] && !(s[3]==t[3])"))
+			.isEmpty();
+		assertThat(lemmaEqualities("s[0]==t[0] || s[1]==t[1]")).isEmpty();
+		assertThat(lemmaEqualities("s[0]==t[0] && t[1][0] ==(\"an\"||\"ante\")")).isEmpty();
+	}
+
+	@Test
+	public void testIndexOutOfBounds() {
+		CompiledRule rule = VariantRuleCompiler.compile("s[3]==t[0]", helper).get();
+		try {
+			rule.matches(terms.get(0), terms.get(1));
+			org.junit.Assert.fail("IndexOutOfBoundsException expected");
+		} catch(IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCompiledRulesBehaveLikeGroovyRules() {
+		int nbCompiled = 0;
+		int nbMatches = 0;
+		for(String file:VARIANT_RULE_FILES) {
+			for(VariantRule rule:YamlRuleSetIO.fromYaml(TestUtil.readFile(file)).getVariantRules()) {
+				Optional<CompiledRule> compiled = VariantRuleCompiler.compile(rule.getExpression(), helper);
+				if(!compiled.isPresent())
+					continue;
+				nbCompiled++;
+				Script script = groovyScript(rule.getExpression());
+				for(GroovyTerm s:terms) {
+					for(GroovyTerm t:terms) {
+						script.getBinding().setVariable("s", s);
+						script.getBinding().setVariable("t", t);
+						boolean matches = matches(compiled.get(), s, t);
+						assertThat(matches)
+							.as("Rule %s (%s) on pair (%s, %s)", rule.getName(), rule.getExpression(), s.lemma, t.lemma)
+							.isEqualTo(matches(script));
+						if(matches)
+							nbMatches++;
+					}
+				}
+			}
+		}
+		assertThat(nbCompiled).isGreaterThan(200);
+		assertThat(nbMatches).isGreaterThan(0);
+	}
+
+	private Script groovyScript(String expression) {
+		Binding binding = new Binding();
+		binding.setVariable("helper", helper);
+		return new GroovyShell(binding).parse(""
+				+ "def prefix(s,t){return helper.isPrefixOf(s,t);}\n"
+				+ "def synonym(s,t){return helper.areSynonym(s,t);}\n"
+				+ "def deriv(p,s,t){return helper.derivesInto(p,s,t);}\n"
+				+ expression);
+	}
+
+	private boolean matches(Script script) {
+		try {
+			return (Boolean) script.run();
+		} catch(IndexOutOfBoundsException e) {
+			return false;
+		}
+	}
+
+	private boolean matches(CompiledRule rule, GroovyTerm s, GroovyTerm t) {
+		try {
+			return rule.matches(s, t);
+		} catch(IndexOutOfBoundsException e) {
+			return false;
+		}
+	}
+}
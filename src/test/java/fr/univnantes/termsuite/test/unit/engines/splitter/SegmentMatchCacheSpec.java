@@ -0,0 +1,161 @@
+package fr.univnantes.termsuite.test.unit.engines.splitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.univnantes.termsuite.engines.splitter.SegmentMatchCache;
+import fr.univnantes.termsuite.engines.splitter.SegmentMatchCache.SegmentMatch;
+import fr.univnantes.termsuite.model.Lang;
+
+public class SegmentMatchCacheSpec {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private Path directory;
+	private AtomicInteger nbLoads;
+	private Function<String, SegmentMatch> loader;
+	
+	@Before
+	public void setup() throws IOException {
+		directory = folder.getRoot().toPath().resolve("cache");
+		nbLoads = new AtomicInteger(0);
+		loader = segment -> {
+			nbLoads.incrementAndGet();
+			return segment.startsWith("x") ? 
+					SegmentMatch.NO_MATCH : 
+						new SegmentMatch(segment + "e", 0.8);
+		};
+	}
+	
+	@Test
+	public void testHitsAndMisses() {
+		SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.get("haus", loader).getText()).isEqualTo("hause");
+		assertThat(cache.get("haus", loader).getSimilarity()).isEqualTo(0.8);
+		assertThat(cache.get("xyz", loader).isMatch()).isFalse();
+		assertThat(cache.get("xyz", loader).isMatch()).isFalse();
+		assertThat(nbLoads.get()).isEqualTo(2);
+		assertThat(cache.stats().hitCount()).isEqualTo(2);
+		assertThat(cache.stats().missCount()).isEqualTo(2);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void testSharedAcrossRuns() {
+		SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		cache.get("haus", loader);
+		cache.get("xyz", loader);
+		cache.save();
+		assertThat(Files.exists(cache.getPath())).isTrue();
+		assertThat(cache.getPath().getFileName().toString()).contains("de").contains("v1");
+		
+		SegmentMatchCache reopened = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		assertThat(reopened.size()).isEqualTo(2);
+		assertThat(reopened.get("haus", loader).getText()).isEqualTo("hause");
+		assertThat(reopened.get("xyz", loader).isMatch()).isFalse();
+		assertThat(nbLoads.get()).isEqualTo(2);
+		assertThat(reopened.stats().hitCount()).isEqualTo(2);
+		assertThat(reopened.stats().missCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testVersionAndLanguageAreSeparated() {
+		SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		cache.get("haus", loader);
+		cache.save();
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v2").size()).isEqualTo(0);
+		assertThat(SegmentMatchCache.open(directory, Lang.RU, "v1").size()).isEqualTo(0);
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v1").size()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testConcurrentSavesAreMerged() {
+		SegmentMatchCache cache1 = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		SegmentMatchCache cache2 = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		cache1.get("haus", loader);
+		cache2.get("baum", loader);
+		cache1.save();
+		cache2.save();
+		SegmentMatchCache reopened = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		assertThat(reopened.size()).isEqualTo(2);
+		assertThat(reopened.get("haus", loader).getText()).isEqualTo("hause");
+		assertThat(reopened.get("baum", loader).getText()).isEqualTo("baume");
+	}
+
+	@Test
+	public void testParallelSavesAreMerged() {
+		IntStream.range(0, 8).parallel().forEach(i -> {
+			SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1");
+			cache.get("haus" + i, loader);
+			cache.save();
+		});
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v1").size()).isEqualTo(8);
+		assertThat(Files.exists(directory.resolve(
+				SegmentMatchCache.open(directory, Lang.DE, "v1").getPath().getFileName() + ".lock"))).isTrue();
+	}
+
+	@Test
+	public void testMaxEntries() {
+		SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1", 3);
+		for(String segment:new String[]{"a", "b", "c", "d", "e"})
+			cache.get(segment, loader);
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.get("e", loader).getText()).isEqualTo("ee");
+		assertThat(nbLoads.get()).isEqualTo(6);
+		cache.save();
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v1", 3).size()).isEqualTo(3);
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v1", 2).size()).isEqualTo(2);
+	}
+
+	@Test
+	public void testEntriesNotUsedRecentlyAreEvicted() {
+		SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1", 3);
+		for(String segment:new String[]{"a", "b", "c"})
+			cache.get(segment, loader);
+		cache.save();
+		
+		cache = SegmentMatchCache.open(directory, Lang.DE, "v1", 4);
+		cache.get("c", loader);
+		cache.get("d", loader);
+		cache.save();
+		
+		cache = SegmentMatchCache.open(directory, Lang.DE, "v1", 3);
+		cache.get("d", loader);
+		cache.get("e", loader);
+		cache.save();
+		
+		nbLoads.set(0);
+		cache = SegmentMatchCache.open(directory, Lang.DE, "v1", 3);
+		assertThat(cache.size()).isEqualTo(3);
+		cache.get("c", loader);
+		cache.get("d", loader);
+		cache.get("e", loader);
+		assertThat(nbLoads.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void testCorruptedFileIsIgnored() throws IOException {
+		SegmentMatchCache cache = SegmentMatchCache.open(directory, Lang.DE, "v1");
+		cache.get("haus", loader);
+		cache.save();
+		byte[] bytes = Files.readAllBytes(cache.getPath());
+		Files.write(cache.getPath(), Arrays.copyOf(bytes, bytes.length - 5));
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v1").size()).isEqualTo(0);
+		Files.write(cache.getPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+		assertThat(SegmentMatchCache.open(directory, Lang.DE, "v1").size()).isEqualTo(0);
+	}
+}
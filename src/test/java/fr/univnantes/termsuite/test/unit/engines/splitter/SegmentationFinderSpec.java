@@ -0,0 +1,108 @@
+package fr.univnantes.termsuite.test.unit.engines.splitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import fr.univnantes.termsuite.engines.splitter.Segment;
+import fr.univnantes.termsuite.engines.splitter.Segmentation;
+import fr.univnantes.termsuite.engines.splitter.SegmentationFinder;
+import fr.univnantes.termsuite.engines.splitter.SegmentationFinder.SegmentScorer;
+
+public class SegmentationFinderSpec {
+
+	private static SegmentScorer randomScorer(String word, long seed) {
+		Map<String, Double> scores = Maps.newHashMap();
+		Random random = new Random(seed);
+		return (begin, end) -> scores.computeIfAbsent(
+				begin + ":" + end, 
+				k -> random.nextInt(4) == 0 ? 0d : random.nextDouble());
+	}
+	
+	private static double score(Segmentation segmentation, SegmentScorer scorer) {
+		double sum = 0;
+		for(Segment s:segmentation.getSegments())
+			sum += scorer.getScore(s.getBegin(), s.getEnd());
+		return sum / segmentation.size();
+	}
+	
+	/*
+	 * Scores every enumerated segmentation
+	 */
+	private static List<String> bruteForce(String word, int nbMaxComponents, int minComponentSize, SegmentScorer scorer, double threshold, int nb) {
+		List<Segmentation> segmentations = Segmentation.getSegmentations(word, nbMaxComponents, minComponentSize)
+			.stream()
+			.filter(s -> score(s, scorer) >= threshold)
+			.sorted((o1, o2) -> SegmentationFinder.compare(o1, score(o1, scorer), o2, score(o2, scorer)))
+			.collect(Collectors.toList());
+		return segmentations.subList(0, Math.min(nb, segmentations.size()))
+				.stream()
+				.map(Segmentation::toString)
+				.collect(Collectors.toList());
+	}
+
+	private static List<String> find(String word, int nbMaxComponents, int minComponentSize, SegmentScorer scorer, double threshold, int nb) {
+		return new SegmentationFinder(word, nbMaxComponents, minComponentSize, scorer)
+			.findBestSegmentations(threshold, nb)
+			.stream()
+			.map(Segmentation::toString)
+			.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testSameAsBruteForce() {
+		List<String> words = Lists.newArrayList(
+				"abcdefghijkl", 
+				"homme-grenouille", 
+				"homme-greno-uille", 
+				"abcdefghi-jklmnopqrs-tuv", 
+				"ab-cdefghijklmnop",
+				"abcdefghijklmnopqrstu");
+		long seed = 0;
+		for(String word:words) {
+			for(int nbMaxComponents = 1; nbMaxComponents <= 4; nbMaxComponents++) {
+				for(double threshold:new double[]{0d, 0.3, 0.6, 0.9}) {
+					for(int nb:new int[]{1, 3, Integer.MAX_VALUE}) {
+						SegmentScorer scorer = randomScorer(word, seed++);
+						assertThat(find(word, nbMaxComponents, 3, scorer, threshold, nb))
+							.as("%s, %s components, threshold %s, top %s", word, nbMaxComponents, threshold, nb)
+							.isEqualTo(bruteForce(word, nbMaxComponents, 3, scorer, threshold, nb));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBestSegmentation() {
+		String word = "hommegrenouille";
+		SegmentScorer scorer = (begin, end) -> {
+			String segment = word.substring(begin, end);
+			return segment.equals("homme") || segment.equals("grenouille") ? 1d : 0.1;
+		};
+		assertThat(find(word, 3, 3, scorer, 0.5, 1)).containsExactly("homme+grenouille");
+		assertThat(find(word, 3, 3, scorer, 0.5, 5)).containsExactly("homme+grenouille");
+		assertThat(find(word, 3, 3, scorer, 1.1, 5)).isEmpty();
+		assertThat(find(word, 3, 3, scorer, 0, 3)).hasSize(3).startsWith("homme+grenouille");
+	}
+	
+	@Test
+	public void testSegmentsAreScoredOnce() {
+		String word = "abcdefghijklmnopqrstu";
+		Map<String, Integer> calls = Maps.newHashMap();
+		SegmentScorer scorer = (begin, end) -> {
+			calls.merge(begin + ":" + end, 1, Integer::sum);
+			return 0.5;
+		};
+		find(word, 4, 3, scorer, 0, Integer.MAX_VALUE);
+		assertThat(calls.values()).isNotEmpty().containsOnly(1);
+	}
+}
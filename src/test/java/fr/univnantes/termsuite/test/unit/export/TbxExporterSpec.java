@@ -0,0 +1,149 @@
+package fr.univnantes.termsuite.test.unit.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Locale;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import com.google.common.collect.Lists;
+
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Relation;
+import fr.univnantes.termsuite.model.RelationType;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.test.mock.TermFactory;
+
+public class TbxExporterSpec {
+
+	private Terminology termino;
+	private OccurrenceStore store;
+	private Term term1, term2, term3;
+	private Locale defaultLocale;
+	
+	@Before
+	public void setup() {
+		defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.ENGLISH);
+		termino = TermSuiteFactory.createTerminology(Lang.FR, "");
+		TermFactory termFactory = new TermFactory(termino);
+		term1 = termFactory.create("N:énergie|énergi");
+		term2 = termFactory.create("N:énergie|énergi", "A:éolien|éolien");
+		term3 = termFactory.create("N:vent|vent");
+		for(Term t:Lists.newArrayList(term1, term2, term3)) {
+			t.setProperty(TermProperty.FREQUENCY, 2);
+			t.setProperty(TermProperty.SPECIFICITY, 1.5);
+			t.setProperty(TermProperty.PILOT, t.getGroupingKey());
+		}
+		termino.getRelations().add(new Relation(RelationType.VARIATION, term1, term2));
+		store = TermSuiteFactory.createColumnarOccurrenceStore(Lang.FR);
+		store.addOccurrence(term1, "doc1", 0, 7, "énergie");
+		store.addOccurrence(term1, "doc1", 10, 17, "Énergie");
+		store.addOccurrence(term1, "doc2", 0, 7, "énergie");
+		store.addOccurrence(term2, "doc1", 20, 35, "énergie éolienne");
+	}
+	
+	@After
+	public void tearDown() {
+		Locale.setDefault(defaultLocale);
+	}
+
+	private Document export() throws Exception {
+		String tbx = TermSuiteFactory.createTbxExporter()
+				.exportToString(TermSuiteFactory.createIndexedCorpus(termino, store));
+		assertThat(tbx)
+			.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+			.contains("<!DOCTYPE martif SYSTEM \"http://ttc-project.googlecode.com/files/tbxcore.dtd\">")
+			.contains("\n  <martifHeader>");
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		return factory.newDocumentBuilder().parse(new InputSource(new StringReader(tbx)));
+	}
+	
+	private static List<Element> elements(Element parent, String tagName) {
+		List<Element> elements = Lists.newArrayList();
+		NodeList nodes = parent.getElementsByTagName(tagName);
+		for(int i = 0; i < nodes.getLength(); i++)
+			elements.add((Element)nodes.item(i));
+		return elements;
+	}
+	
+	private static Element entry(Document document, String groupingKey) {
+		for(Element termEntry:elements(document.getDocumentElement(), "termEntry"))
+			if(elements(termEntry, "term").get(0).getTextContent().equals(groupingKey))
+				return termEntry;
+		throw new AssertionError("No entry for " + groupingKey);
+	}
+	
+	private static String descrip(Element parent, String type) {
+		for(Element descrip:elements(parent, "descrip"))
+			if(descrip.getAttribute("type").equals(type))
+				return descrip.getTextContent();
+		return null;
+	}
+
+	private static String note(Element parent, String type) {
+		for(Element note:elements(parent, "termNote"))
+			if(note.getAttribute("type").equals(type))
+				return note.getTextContent();
+		return null;
+	}
+
+	@Test
+	public void testStructure() throws Exception {
+		Document document = export();
+		Element martif = document.getDocumentElement();
+		assertThat(martif.getTagName()).isEqualTo("martif");
+		assertThat(martif.getAttribute("type")).isEqualTo("TBX");
+		assertThat(elements(martif, "martifHeader")).hasSize(1);
+		assertThat(elements(martif, "body")).hasSize(1);
+		assertThat(elements(martif, "termEntry"))
+			.extracting(e -> elements(e, "term").get(0).getTextContent())
+			.containsOnly(term1.getGroupingKey(), term2.getGroupingKey(), term3.getGroupingKey())
+			.doesNotHaveDuplicates();
+		assertThat(elements(martif, "termEntry"))
+			.extracting(e -> e.getAttribute("xml:id"))
+			.doesNotHaveDuplicates();
+	}
+
+	@Test
+	public void testEntries() throws Exception {
+		Document document = export();
+		Element entry1 = entry(document, term1.getGroupingKey());
+		Element entry2 = entry(document, term2.getGroupingKey());
+		Element langSet1 = elements(entry1, "langSet").get(0);
+		assertThat(langSet1.getAttribute("xml:lang")).isEqualTo("fr");
+		assertThat(langSet1.getAttribute("xml:id")).isEqualTo(entry1.getAttribute("xml:id").replace("entry-", "langset-"));
+		
+		assertThat(note(entry1, "termType")).isEqualTo("termEntry");
+		assertThat(note(entry2, "termType")).isEqualTo("variant");
+		assertThat(note(entry1, "termComplexity")).isEqualTo("single-word");
+		assertThat(note(entry2, "termComplexity")).isEqualTo("multi-word");
+		assertThat(note(entry2, "partOfSpeech")).isEqualTo("noun");
+		assertThat(note(entry1, "termPilot")).isEqualTo(term1.getGroupingKey());
+		
+		assertThat(descrip(entry1, "nbOccurrences")).isEqualTo("3");
+		assertThat(descrip(entry1, "termSpecificity")).isEqualTo("1.5000");
+		assertThat(descrip(entry1, "formList")).isEqualTo("[{term=\"énergie\", count=2}, {term=\"Énergie\", count=1}]");
+
+		Element variant = elements(entry1, "descrip").stream().filter(d -> d.getAttribute("type").equals("termVariant")).findFirst().get();
+		assertThat(variant.getAttribute("target")).isEqualTo("#" + elements(entry2, "langSet").get(0).getAttribute("xml:id"));
+		assertThat(variant.getTextContent()).isEqualTo(term2.getGroupingKey());
+		Element base = elements(entry2, "descrip").stream().filter(d -> d.getAttribute("type").equals("termBase")).findFirst().get();
+		assertThat(base.getAttribute("target")).isEqualTo("#" + term1.getGroupingKey());
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.framework.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.cas.StringArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.api.TermSuite;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.framework.service.ImporterService;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.IndexedCorpus;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.types.SourceDocumentInformation;
+import fr.univnantes.termsuite.types.TermOccAnnotation;
+import fr.univnantes.termsuite.types.WordAnnotation;
+
+public class ImporterServiceSpec {
+	
+	private static final String[] LEMMAS = {"alpha", "beta", "gamma", "delta"};
+	private static final int NB_CASES = 64;
+
+	private IndexedCorpus corpus;
+	private Terminology terminology;
+	private List<JCas> cases;
+	
+	@Before
+	public void setup() {
+		corpus = TermSuiteFactory.createIndexedCorpus(Lang.EN, "");
+		terminology = corpus.getTerminology();
+		cases = IntStream.range(0, NB_CASES)
+				.mapToObj(this::createCas)
+				.collect(Collectors.toList());
+	}
+	
+	/*
+	 * A CAS with text "alpha beta gamma delta", one single-word 
+	 * term per word, and the multi-word term "alpha beta".
+	 */
+	private JCas createCas(int i) {
+		try {
+			JCas cas = JCasFactory.createJCas();
+			StringBuilder text = new StringBuilder();
+			WordAnnotation[] words = new WordAnnotation[LEMMAS.length];
+			for(int w = 0; w < LEMMAS.length; w++) {
+				if(w > 0)
+					text.append(' ');
+				int begin = text.length();
+				text.append(LEMMAS[w]);
+				words[w] = (WordAnnotation) cas.getCas().createAnnotation(
+						cas.getCasType(WordAnnotation.type), begin, text.length());
+				words[w].setLemma(LEMMAS[w]);
+				words[w].setStem(LEMMAS[w].substring(0, 3));
+				words[w].addToIndexes();
+				addTermOcc(cas, words[w]);
+			}
+			addTermOcc(cas, words[0], words[1]);
+			cas.setDocumentText(text.toString());
+			SourceDocumentInformation sdi = (SourceDocumentInformation) cas.getCas()
+					.createAnnotation(cas.getCasType(SourceDocumentInformation.type), 0, text.length());
+			sdi.setUri("doc" + i);
+			sdi.addToIndexes();
+			return cas;
+		} catch (UIMAException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void addTermOcc(JCas cas, WordAnnotation... words) {
+		TermOccAnnotation toa = (TermOccAnnotation) cas.getCas().createAnnotation(
+				cas.getCasType(TermOccAnnotation.type), 
+				words[0].getBegin(), 
+				words[words.length - 1].getEnd());
+		StringArray pattern = new StringArray(cas, words.length);
+		FSArray fs = new FSArray(cas, words.length);
+		for(int i = 0; i < words.length; i++) {
+			pattern.set(i, "N");
+			fs.set(i, words[i]);
+		}
+		toa.setPattern(pattern);
+		toa.setWords(fs);
+		toa.setSpottingRuleName(words.length == 1 ? "n" : "nn");
+		toa.addToIndexes();
+	}
+	
+	@Test
+	public void testConcurrentImport() {
+		ImporterService importer = TermSuite.terminologyImporter(corpus, -1);
+		cases.parallelStream().forEach(importer::importCas);
+		
+		assertThat(terminology.getTerms().values())
+			.extracting("groupingKey", "frequency")
+			.containsOnly(
+					tuple("n: alpha", NB_CASES),
+					tuple("n: beta", NB_CASES),
+					tuple("n: gamma", NB_CASES),
+					tuple("n: delta", NB_CASES),
+					tuple("nn: alpha beta", NB_CASES)
+				);
+		assertThat(terminology.getWords()).hasSize(LEMMAS.length);
+		assertThat(corpus.getOccurrenceStore().getDocuments()).hasSize(NB_CASES);
+		assertThat(corpus.getOccurrenceStore().size()).isEqualTo(5L * NB_CASES);
+		assertThat(terminology.getNbSpottedTerms().intValue()).isEqualTo(5 * NB_CASES);
+		assertThat(terminology.getNbWordAnnotations().intValue()).isEqualTo(4 * NB_CASES);
+		assertThat(terminology.getTerms().get("nn: alpha beta").getSpottingRule()).isEqualTo("nn");
+	}
+	
+	@Test
+	public void testConcurrentImportWithFrequencyBuckets() {
+		ImporterService importer = TermSuite.terminologyImporter(corpus, 100);
+		cases.parallelStream().forEach(importer::importCas);
+		assertThat(terminology.getTerms().values())
+			.extracting("frequency")
+			.containsOnly(NB_CASES);
+	}
+}
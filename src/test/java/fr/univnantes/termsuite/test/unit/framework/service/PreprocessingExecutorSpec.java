@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.framework.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.component.NoOpAnnotator;
+import org.apache.uima.fit.factory.AnalysisEngineFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Guice;
+
+import fr.univnantes.termsuite.api.Preprocessor;
+import fr.univnantes.termsuite.api.TermSuiteException;
+import fr.univnantes.termsuite.framework.modules.PreprocessingModule;
+import fr.univnantes.termsuite.framework.modules.TermSuiteModule;
+import fr.univnantes.termsuite.framework.service.JCasPool;
+import fr.univnantes.termsuite.framework.service.PreprocessingExecutor;
+import fr.univnantes.termsuite.framework.service.PreprocessorService;
+import fr.univnantes.termsuite.model.Document;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.utils.JCasUtils;
+
+public class PreprocessingExecutorSpec {
+	private static final int NB_THREADS = 3;
+	private static final int NB_DOCUMENTS = 50;
+
+	private PreprocessorService preprocessorService;
+	private List<Document> documents;
+	
+	@Before
+	public void setup() throws Exception {
+		AnalysisEngine engine = UIMAFramework.produceAnalysisEngine(
+				AnalysisEngineFactory.createEngineDescription(NoOpAnnotator.class),
+				ImmutableMap.of(AnalysisEngine.PARAM_NUM_SIMULTANEOUS_REQUESTS, NB_THREADS));
+		preprocessorService = Guice.createInjector(
+					new TermSuiteModule(),
+					new PreprocessingModule(Lang.EN, engine))
+				.getInstance(PreprocessorService.class);
+		documents = IntStream.range(0, NB_DOCUMENTS)
+				.mapToObj(i -> new Document(Lang.EN, "doc" + i))
+				.collect(Collectors.toList());
+	}
+	
+	private static String text(Document doc) {
+		return "Text of " + doc.getUrl();
+	}
+	
+	@Test
+	public void testProcessRecyclesCases() {
+		List<String> texts = new CopyOnWriteArrayList<>();
+		Set<JCas> cases = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		new PreprocessingExecutor(preprocessorService, NB_THREADS).process(
+				documents.stream(), 
+				(cas, doc) -> Preprocessor.initCas(cas, doc, text(doc), NB_DOCUMENTS, -1), 
+				cas -> {
+					assertThat(cas.getDocumentText())
+						.isEqualTo("Text of " + JCasUtils.getSourceDocumentAnnotation(cas).get().getUri());
+					texts.add(cas.getDocumentText());
+					cases.add(cas);
+				});
+		assertThat(texts)
+			.hasSize(NB_DOCUMENTS)
+			.containsOnlyElementsOf(documents.stream().map(PreprocessingExecutorSpec::text).collect(Collectors.toList()));
+		assertThat(cases.size()).isLessThanOrEqualTo(2 * NB_THREADS);
+	}
+
+	@Test
+	public void testProcessCases() {
+		List<String> texts = new CopyOnWriteArrayList<>();
+		new PreprocessingExecutor(preprocessorService, NB_THREADS).processCases(
+				documents.stream().map(doc -> Preprocessor.toCas(doc, text(doc), NB_DOCUMENTS, -1)), 
+				cas -> texts.add(cas.getDocumentText()));
+		assertThat(texts).hasSize(NB_DOCUMENTS);
+	}
+	
+	@Test
+	public void testFailureIsPropagated() {
+		try {
+			new PreprocessingExecutor(preprocessorService, NB_THREADS).process(
+					documents.stream(), 
+					(cas, doc) -> Preprocessor.initCas(cas, doc, text(doc), NB_DOCUMENTS, -1), 
+					cas -> {
+						throw new IllegalStateException("consumer failure");
+					});
+			fail("Should have raised an exception");
+		} catch(TermSuiteException e) {
+			assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	public void testJCasPool() throws InterruptedException {
+		JCasPool pool = new JCasPool(2);
+		JCas cas1 = pool.acquire();
+		cas1.setDocumentText("text");
+		JCas cas2 = pool.acquire();
+		assertThat(cas2).isNotSameAs(cas1);
+		pool.release(cas1);
+		JCas cas3 = pool.acquire();
+		assertThat(cas3).isSameAs(cas1);
+		assertThat(cas3.getDocumentText()).isNull();
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.framework.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.framework.service.TermFrequencyBuckets;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermBuilder;
+import fr.univnantes.termsuite.model.TermProperty;
+
+public class TermFrequencyBucketsSpec {
+
+	private TermFrequencyBuckets buckets;
+	private Term term1;
+	private Term term2;
+	private Term term3;
+	private Term term4;
+
+	@Before
+	public void setup() {
+		term1 = new TermBuilder().setGroupingKey("t1").setFrequency(1).create();
+		term2 = new TermBuilder().setGroupingKey("t2").setFrequency(1).create();
+		term3 = new TermBuilder().setGroupingKey("t3").setFrequency(3).create();
+		term4 = new TermBuilder().setGroupingKey("t4").setFrequency(5).create();
+		buckets = new TermFrequencyBuckets();
+		buckets.add(term1);
+		buckets.add(term2);
+		buckets.addAll(Arrays.asList(term3, term4));
+	}
+	
+	private void increment(Term term, int increment) {
+		term.setProperty(TermProperty.FREQUENCY, term.getFrequency() + increment);
+		buckets.incremented(term, increment);
+	}
+	
+	@Test
+	public void testRemoveBelow() {
+		assertThat(buckets.size()).isEqualTo(4);
+		assertThat(buckets.removeBelow(1)).isEmpty();
+		assertThat(buckets.removeBelow(2)).containsOnly(term1, term2);
+		assertThat(buckets.size()).isEqualTo(2);
+		assertThat(buckets.removeBelow(2)).isEmpty();
+		assertThat(buckets.removeBelow(6)).containsOnly(term3, term4);
+		assertThat(buckets.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void testIncremented() {
+		increment(term1, 1);
+		increment(term2, 3);
+		increment(term3, 1);
+		assertThat(buckets.size()).isEqualTo(4);
+		assertThat(buckets.removeBelow(3)).containsOnly(term1);
+		assertThat(buckets.removeBelow(5)).containsOnly(term2, term3);
+		assertThat(buckets.removeBelow(6)).containsOnly(term4);
+	}
+	
+	@Test
+	public void testIncrementedAddsUntrackedTerms() {
+		Term term5 = new TermBuilder().setGroupingKey("t5").setFrequency(0).create();
+		increment(term5, 1);
+		assertThat(buckets.size()).isEqualTo(5);
+		assertThat(buckets.removeBelow(2)).containsOnly(term1, term2, term5);
+	}
+}
@@ -2,10 +2,12 @@ package fr.univnantes.termsuite.test.unit.framework.service;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.Assert.fail;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -200,4 +202,54 @@ public class TerminologyServiceSpec {
 		;
 	}
 
+	@Test
+	public void testRelationsByType() {
+		terminologyService.addRelation(new Relation(RelationType.VARIATION, term1, term2));
+		terminologyService.addRelation(new Relation(RelationType.HAS_EXTENSION, term1, term3));
+		terminologyService.addRelation(new Relation(RelationType.HAS_EXTENSION, term4, term3));
+		terminologyService.addRelation(new Relation(RelationType.DERIVES_INTO, term4, term5));
+		
+		assertThat(terminologyService.variations().map(RelationService::getRelation).collect(toList()))
+			.extracting("from", "to")
+			.containsOnly(tuple(term1, term2));
+		assertThat(terminologyService.extensions().map(RelationService::getRelation).collect(toList()))
+			.extracting("from", "to")
+			.containsOnly(tuple(term1, term3), tuple(term4, term3));
+		assertThat(terminologyService.relations(RelationType.DERIVES_INTO, RelationType.VARIATION).map(RelationService::getRelation).collect(toList()))
+			.extracting("from", "to")
+			.containsOnly(tuple(term1, term2), tuple(term4, term5));
+		assertThat(terminologyService.relations(RelationType.IS_PREFIX_OF).collect(toList()))
+			.isEmpty();
+		
+		terminologyService.removeTerm(term3);
+		assertThat(terminologyService.extensions().collect(toList())).isEmpty();
+		assertThat(terminologyService.relations().collect(toList())).hasSize(2);
+	}
+
+	@Test
+	public void testGetRelation() {
+		terminologyService.addRelation(new Relation(RelationType.VARIATION, term1, term2));
+		assertThat(terminologyService.getRelation(term1, RelationType.VARIATION, term2).isPresent()).isTrue();
+		assertThat(terminologyService.getRelation(term1, RelationType.HAS_EXTENSION, term2).isPresent()).isFalse();
+		assertThat(terminologyService.getRelation(term2, RelationType.VARIATION, term1).isPresent()).isFalse();
+		assertThat(terminologyService.getVariation(term1, term2).isPresent()).isTrue();
+		
+		RelationService r1 = terminologyService.getRelationOrCreate(term1, RelationType.HAS_EXTENSION, term2);
+		RelationService r2 = terminologyService.getRelationOrCreate(term1, RelationType.HAS_EXTENSION, term2);
+		assertThat(r1.getRelation()).isSameAs(r2.getRelation());
+		assertThat(terminologyService.relations().collect(toList())).hasSize(2);
+	}
+
+	@Test
+	public void testCreateVariationConcurrently() {
+		List<RelationService> created = IntStream.range(0, 1000)
+			.parallel()
+			.mapToObj(i -> terminologyService.createVariation(VariationType.SYNTAGMATIC, i % 2 == 0 ? term1 : term2, term3))
+			.collect(toList());
+		
+		assertThat(created.stream().map(RelationService::getRelation).distinct().count()).isEqualTo(2);
+		assertThat(terminology.getRelations()).hasSize(2);
+		assertThat(inRels(term3)).hasSize(2);
+		assertThat(outRels(term1)).hasSize(1);
+	}
 }
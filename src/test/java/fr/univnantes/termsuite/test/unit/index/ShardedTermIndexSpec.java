@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.ShardedTermIndex;
+import fr.univnantes.termsuite.index.TermIndex;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.index.providers.SwtLemmasProvider;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.test.mock.TermFactory;
+
+public class ShardedTermIndexSpec {
+
+	private List<Term> terms;
+	private Term t1, t2, t3;
+	
+	@Before
+	public void setup() {
+		Terminology terminology = TermSuiteFactory.createTerminology(Lang.EN, "");
+		TermFactory termFactory = new TermFactory(terminology);
+		t1 = termFactory.create("N:energy|energ");
+		t2 = termFactory.create("A:wind|wind", "N:energy|energ");
+		t3 = termFactory.create("N:wind|wind");
+		terms = new ArrayList<>();
+		terms.add(t1);
+		terms.add(t2);
+		terms.add(t3);
+		for(int i = 0; i < 5000; i++)
+			terms.add(termFactory.create("A:adj" + (i % 37) + "|adj", "N:noun" + (i % 101) + "|noun"));
+	}
+	
+	@Test
+	public void testAddToIndex() {
+		ShardedTermIndex index = new ShardedTermIndex(new SwtLemmasProvider(), 4);
+		index.addToIndex(t1);
+		index.addToIndex(t2);
+		index.addToIndex(t3);
+		assertThat(index.keySet()).containsOnly("energy", "wind");
+		assertThat(index.getTerms("energy")).containsExactly(t1, t2);
+		assertThat(index.getTerms("wind")).containsExactly(t2, t3);
+		assertThat(index.size()).isEqualTo(4);
+		assertThat(index.containsKey("wind")).isTrue();
+		assertThat(index.containsKey("blade")).isFalse();
+	}
+
+	@Test
+	public void testRemoveTermAndDropEntry() {
+		ShardedTermIndex index = new ShardedTermIndex(new SwtLemmasProvider(), 4);
+		index.addAll(terms.subList(0, 3));
+		index.removeTerm(t2);
+		assertThat(index.getTerms("energy")).containsExactly(t1);
+		assertThat(index.getTerms("wind")).containsExactly(t3);
+		index.dropEntry("wind");
+		assertThat(index.keySet()).containsOnly("energy");
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testAddAllPreservesOrderOfPlainIndex() {
+		TermIndex plainIndex = new TermIndex(new SwtLemmasProvider());
+		terms.forEach(plainIndex::addToIndex);
+		
+		ShardedTermIndex shardedIndex = new ShardedTermIndex(new SwtLemmasProvider(), 7);
+		shardedIndex.addAll(terms);
+		
+		assertThat(shardedIndex.size()).isEqualTo(plainIndex.size());
+		assertThat(shardedIndex.keySet()).hasSameElementsAs(plainIndex.keySet());
+		for(String key:plainIndex.keySet())
+			assertThat(shardedIndex.getTerms(key)).containsExactlyElementsOf(plainIndex.getTerms(key));
+		assertThat(shardedIndex.getClasses()).isEqualTo(plainIndex.getClasses());
+	}
+}
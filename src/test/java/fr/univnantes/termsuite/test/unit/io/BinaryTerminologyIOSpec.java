@@ -0,0 +1,231 @@
+package fr.univnantes.termsuite.test.unit.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+
+import fr.univnantes.termsuite.api.IndexedCorpusIO;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.io.bin.BinaryOptions;
+import fr.univnantes.termsuite.io.bin.BinaryTerminologyIO;
+import fr.univnantes.termsuite.model.CompoundType;
+import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.IndexedCorpus;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Relation;
+import fr.univnantes.termsuite.model.RelationProperty;
+import fr.univnantes.termsuite.model.RelationType;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermBuilder;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.model.Word;
+import fr.univnantes.termsuite.model.WordBuilder;
+import fr.univnantes.termsuite.test.unit.UnitTests;
+
+public class BinaryTerminologyIOSpec {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private IndexedCorpus indexedCorpus;
+	private Term term1;
+	private Term term2;
+	private Path path;
+
+	@Before
+	public void setup() throws IOException {
+		indexedCorpus = TermSuiteFactory.createIndexedCorpus(Lang.FR, "Titi va voir Toto");
+		Terminology termino = indexedCorpus.getTerminology();
+		OccurrenceStore store = indexedCorpus.getOccurrenceStore();
+
+		termino.setCorpusId("ccid");
+		termino.setNbWordAnnotations(new AtomicLong(222));
+		termino.setNbSpottedTerms(new AtomicLong(111));
+		Word word1 = new Word("word1", "stem1");
+		Word word2 = new Word("word2", "stem2");
+		Word word3 = new WordBuilder()
+				.setLemma("word3")
+				.setStem("stem3")
+				.addComponent(0, 2, "wop", "wop", true)
+				.addComponent(2, 5, "rd3")
+				.setCompoundType(CompoundType.NEOCLASSICAL)
+				.create();
+		termino.getWords().put(word1.getLemma(), word1);
+		termino.getWords().put(word2.getLemma(), word2);
+		termino.getWords().put(word3.getLemma(), word3);
+		term1 = TermBuilder.start(termino)
+			.setRank(1)
+			.setFrequency(2)
+			.addWord(word1, "L1", true)
+			.addWord(word2, "L2", true)
+			.setSpottingRule("spotRule1")
+			.setSpecificity(1.1)
+			.create();
+		term1.setProperty(TermProperty.FILTERED, true);
+		store.addOccurrence(term1, "source2", 10, 12, "coveredText 3");
+		store.addOccurrence(term1, "source3", 20, 30, "coveredText 4");
+		UnitTests.addTerm(termino, term1);
+		term2 = TermBuilder.start(termino)
+				.setRank(3)
+				.setFrequency(2)
+				.addWord(word1, "L1", true)
+				.addWord(word2, "L2", false)
+				.addWord(word3, "L3", true)
+				.setSpecificity(2.2)
+				.create();
+		store.addOccurrence(term2, "source2", 0, 2, "coveredText 1");
+		store.addOccurrence(term2, "source1", 10, 12, "coveredText 2");
+		UnitTests.addTerm(termino, term2);
+		Relation rel1 = new Relation(RelationType.VARIATION, term1, term2);
+		rel1.setProperty(RelationProperty.IS_SYNTAGMATIC, true);
+		rel1.setProperty(RelationProperty.VARIATION_RULES, Sets.newHashSet("variationRule1", "variationRule2"));
+		termino.getRelations().add(rel1);
+		Relation rel2 = new Relation(RelationType.HAS_EXTENSION, term1, term2);
+		rel2.setProperty(RelationProperty.GRAPHICAL_SIMILARITY, 0.956d);
+		termino.getRelations().add(rel2);
+
+		ContextVector v = new ContextVector(term1);
+		v.addEntry(term2, 21, 2.0);
+		term1.setContext(v);
+
+		path = folder.getRoot().toPath().resolve("termino.bin");
+	}
+
+	@Test
+	public void testSaveLoadReturn() throws IOException {
+		IndexedCorpusIO.toBinary(indexedCorpus, path);
+		IndexedCorpus corpus2 = IndexedCorpusIO.fromBinary(path);
+		Terminology termino = indexedCorpus.getTerminology();
+		Terminology termino2 = corpus2.getTerminology();
+
+		assertThat(termino2.getName()).isEqualTo("Titi va voir Toto");
+		assertThat(termino2.getLang()).isEqualTo(Lang.FR);
+		assertThat(termino2.getCorpusId()).isEqualTo("ccid");
+		assertThat(termino2.getNbSpottedTerms().intValue()).isEqualTo(111);
+		assertThat(termino2.getNbWordAnnotations().intValue()).isEqualTo(222);
+		assertThat(termino2.getTerms().values()).hasSameElementsAs(termino.getTerms().values());
+		assertThat(termino2.getRelations()).hasSameElementsAs(termino.getRelations());
+		for(Term t:termino.getTerms().values()) {
+			Term t2 = termino2.getTerms().get(t.getGroupingKey());
+			assertThat(t2.getProperties()).isEqualTo(t.getProperties());
+			assertThat(t2.getWords()).isEqualTo(t.getWords());
+			assertThat(corpus2.getOccurrenceStore().getOccurrences(t2))
+				.hasSameElementsAs(indexedCorpus.getOccurrenceStore().getOccurrences(t));
+		}
+		for(Word w:termino.getWords().values()) {
+			Word w2 = termino2.getWords().get(w.getLemma());
+			assertThat(w2.getStem()).isEqualTo(w.getStem());
+			assertThat(w2.getCompoundType()).isEqualTo(w.getCompoundType());
+			assertThat(w2.getComponents()).hasSameElementsAs(w.getComponents());
+		}
+		Word word3 = termino2.getWords().get("word3");
+		assertThat(word3.getNeoclassicalAffix().getSubstring()).isEqualTo("wop");
+
+		Term t1 = termino2.getTerms().get(term1.getGroupingKey());
+		Term t2 = termino2.getTerms().get(term2.getGroupingKey());
+		assertThat(t1.getContext()).isEqualTo(term1.getContext());
+		assertThat(t1.getContext().getEntries())
+			.extracting("coTerm", "nbCooccs", "assocRate")
+			.containsExactly(tuple(t2, 21, 2.0d));
+		assertThat(t2.getContext()).isNull();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testRelationProperties() throws IOException {
+		IndexedCorpusIO.toBinary(indexedCorpus, path);
+		Terminology termino2 = IndexedCorpusIO.fromBinary(path).getTerminology();
+		Relation variation = termino2.getRelations().stream()
+				.filter(r -> r.getType() == RelationType.VARIATION)
+				.findFirst().get();
+		assertThat(variation.getBoolean(RelationProperty.IS_SYNTAGMATIC)).isTrue();
+		assertThat((Set<String>)variation.get(RelationProperty.VARIATION_RULES))
+			.containsOnly("variationRule1", "variationRule2");
+		Relation extension = termino2.getRelations().stream()
+				.filter(r -> r.getType() == RelationType.HAS_EXTENSION)
+				.findFirst().get();
+		assertThat(extension.getDouble(RelationProperty.GRAPHICAL_SIMILARITY)).isEqualTo(0.956d);
+		assertThat(extension.isPropertySet(RelationProperty.IS_SYNTAGMATIC)).isFalse();
+	}
+
+	@Test
+	public void testLoadWithoutContextsAndOccurrences() throws IOException {
+		IndexedCorpusIO.toBinary(indexedCorpus, path);
+		IndexedCorpus corpus2 = IndexedCorpusIO.fromBinary(path, new BinaryOptions()
+				.withContexts(false)
+				.withOccurrences(false));
+		Term t1 = corpus2.getTerminology().getTerms().get(term1.getGroupingKey());
+		assertThat(t1).isNotNull();
+		assertThat(t1.getContext()).isNull();
+		assertThat(corpus2.getOccurrenceStore().getOccurrences(t1)).isEmpty();
+	}
+
+	@Test
+	public void testSaveWithoutContextsAndOccurrences() throws IOException {
+		IndexedCorpusIO.toBinary(indexedCorpus, path, new BinaryOptions()
+				.withContexts(false)
+				.withOccurrences(false));
+		IndexedCorpus corpus2 = IndexedCorpusIO.fromBinary(path);
+		Term t1 = corpus2.getTerminology().getTerms().get(term1.getGroupingKey());
+		assertThat(corpus2.getTerminology().getTerms()).hasSize(2);
+		assertThat(t1.getContext()).isNull();
+		assertThat(corpus2.getOccurrenceStore().getOccurrences(t1)).isEmpty();
+	}
+
+	@Test
+	public void testLoadMetadataOnly() throws IOException {
+		IndexedCorpusIO.toBinary(indexedCorpus, path);
+		IndexedCorpus corpus2 = IndexedCorpusIO.fromBinary(path, new BinaryOptions().metadataOnly(true));
+		assertThat(corpus2.getTerminology().getName()).isEqualTo("Titi va voir Toto");
+		assertThat(corpus2.getTerminology().getCorpusId()).isEqualTo("ccid");
+		assertThat(corpus2.getTerminology().getTerms()).isEmpty();
+		assertThat(corpus2.getTerminology().getWords()).isEmpty();
+	}
+
+	@Test
+	public void testColumnarTerminologyRoundTrip() throws IOException {
+		Terminology columnar = TermSuiteFactory.createColumnarTerminology(Lang.EN, "columnar");
+		Word word = new Word("word1", "stem1");
+		columnar.getWords().put(word.getLemma(), word);
+		Term term = TermBuilder.start(columnar)
+				.addWord(word, "N", true)
+				.setFrequency(5)
+				.setSpecificity(3.5)
+				.create();
+		UnitTests.addTerm(columnar, term);
+		IndexedCorpusIO.toBinary(TermSuiteFactory.createIndexedCorpus(columnar,
+				TermSuiteFactory.createMemoryOccurrenceStore(Lang.EN)), path);
+
+		Terminology termino2 = IndexedCorpusIO.fromBinary(path).getTerminology();
+		assertThat(termino2.hasColumnarProperties()).isTrue();
+		Term term2 = termino2.getTerms().get(term.getGroupingKey());
+		assertThat(term2.getFrequency()).isEqualTo(5);
+		assertThat(term2.getSpecificity()).isEqualTo(3.5);
+		assertThat(term2.getProperties()).isEqualTo(term.getProperties());
+	}
+
+	@Test
+	public void testFromFileDetectsFormat() throws IOException {
+		IndexedCorpusIO.toBinary(indexedCorpus, path);
+		Path jsonPath = folder.getRoot().toPath().resolve("termino.json");
+		IndexedCorpusIO.toJson(indexedCorpus, jsonPath);
+
+		assertThat(BinaryTerminologyIO.isBinaryTerminology(path)).isTrue();
+		assertThat(BinaryTerminologyIO.isBinaryTerminology(jsonPath)).isFalse();
+		assertThat(IndexedCorpusIO.fromFile(path).getTerminology().getTerms().keySet())
+			.isEqualTo(IndexedCorpusIO.fromFile(jsonPath).getTerminology().getTerms().keySet());
+	}
+}
@@ -444,4 +444,75 @@ public class JsonTerminologyIOSpec {
 				tuple("l1l2: word1 word2",20, 30, Integer.parseInt(sources.inverse().get("source3")), "coveredText 4")
 			);
 	}
+
+	@Test
+	public void testParallelLoadingManyTerms() throws IOException {
+		Terminology termino = indexedCorpus.getTerminology();
+		Term previous = term1;
+		for(int i = 0; i < 2500; i++) {
+			Word word = new Word("w" + i, "s" + i);
+			Term term = TermBuilder.start(termino)
+					.addWord(word, "N", true)
+					.setFrequency(i + 1)
+					.setSpecificity(i / 10d)
+					.create();
+			UnitTests.addTerm(termino, term);
+			termino.getRelations().add(new Relation(RelationType.VARIATION, previous, term));
+			ContextVector v = new ContextVector(term);
+			v.addEntry(previous, i, 0.5);
+			term.setContext(v);
+			previous = term;
+		}
+		StringWriter writer = new StringWriter();
+		JsonTerminologyIO.save(writer, indexedCorpus, new JsonOptions());
+		String string = writer.toString();
+		
+		IndexedCorpus sequential = JsonTerminologyIO.load(new StringReader(string), new JsonOptions());
+		IndexedCorpus parallel = JsonTerminologyIO.load(new StringReader(string), new JsonOptions().loadingThreads(4));
+		Terminology termino1 = sequential.getTerminology();
+		Terminology termino2 = parallel.getTerminology();
+		assertThat(termino2.getTerms()).hasSize(2502);
+		assertThat(termino2.getTerms().keySet()).isEqualTo(termino1.getTerms().keySet());
+		assertThat(termino2.getRelations()).hasSize(2502).hasSameElementsAs(termino1.getRelations());
+		for(Term t:termino1.getTerms().values()) {
+			Term t2 = termino2.getTerms().get(t.getGroupingKey());
+			assertThat(t2.getProperties()).isEqualTo(t.getProperties());
+			assertThat(t2.getWords()).isEqualTo(t.getWords());
+			assertThat(t2.getContext()).isEqualTo(t.getContext());
+			assertThat(parallel.getOccurrenceStore().getOccurrences(t2))
+				.hasSameElementsAs(sequential.getOccurrenceStore().getOccurrences(t));
+		}
+	}
+
+	@Test
+	public void testPartialLoading() throws IOException {
+		StringWriter writer = new StringWriter();
+		JsonTerminologyIO.save(writer, indexedCorpus, new JsonOptions());
+		IndexedCorpus corpus2 = JsonTerminologyIO.load(new StringReader(writer.toString()), new JsonOptions()
+				.withRelations(false)
+				.withOccurrences(false)
+				.withContexts(false));
+		Terminology termino2 = corpus2.getTerminology();
+		assertThat(termino2.getTerms().keySet()).containsOnly(term1.getGroupingKey(), term2.getGroupingKey());
+		assertThat(termino2.getRelations()).isEmpty();
+		Term t1 = termino2.getTerms().get(term1.getGroupingKey());
+		assertThat(t1.getRank()).isEqualTo(1);
+		assertThat(t1.getSpecificity()).isEqualTo(1.1);
+		assertNull(t1.getContext());
+		assertThat(corpus2.getOccurrenceStore().getOccurrences(t1)).isEmpty();
+	}
+
+	@Test
+	public void testParallelLoadingWithPartialOptions() throws IOException {
+		StringWriter writer = new StringWriter();
+		JsonTerminologyIO.save(writer, indexedCorpus, new JsonOptions());
+		IndexedCorpus corpus2 = JsonTerminologyIO.load(new StringReader(writer.toString()), new JsonOptions()
+				.loadingThreads(2)
+				.withOccurrences(false));
+		Terminology termino2 = corpus2.getTerminology();
+		assertThat(termino2.getRelations()).hasSameElementsAs(indexedCorpus.getTerminology().getRelations());
+		Term t1 = termino2.getTerms().get(term1.getGroupingKey());
+		assertThat(t1.getContext()).isEqualTo(term1.getContext());
+		assertThat(corpus2.getOccurrenceStore().getOccurrences(t1)).isEmpty();
+	}
 }
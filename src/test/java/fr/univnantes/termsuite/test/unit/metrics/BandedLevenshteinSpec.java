@@ -0,0 +1,60 @@
+package fr.univnantes.termsuite.test.unit.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.metrics.BandedLevenshtein;
+import fr.univnantes.termsuite.metrics.Levenshtein;
+
+public class BandedLevenshteinSpec {
+
+	BandedLevenshtein dist;
+	
+	@Before
+	public void setup() {
+		dist = new BandedLevenshtein();
+	}
+	
+	@Test
+	public void testDistanceWithinBand() {
+		assertEquals(0, dist.compute("abcdefghij", "abcdefghij", 0));
+		assertEquals(1, dist.compute("abcdefghij", "abcdefzghij", 1));
+		assertEquals(1, dist.compute("abcdefghij", "azcdefghij", 2));
+		assertEquals(1, dist.compute("abcdefghij", "abcdeghij", 1));
+		assertEquals(2, dist.compute("abcdefghij", "azbzcdefghij", 2));
+		assertEquals(3, dist.compute("", "abc", 3));
+	}
+
+	@Test
+	public void testDistanceOutOfBand() {
+		assertEquals(3, dist.compute("abcdefghij", "azbzczdzezfzgzhzizj", 2));
+		assertEquals(3, dist.compute("abcdefghij", "azbzczdefghij", 2));
+		assertEquals(1, dist.compute("abcdefghij", "abcdefghix", 0));
+		assertEquals(2, dist.compute("", "abc", 1));
+	}
+
+	@Test
+	public void testSameAsLevenshtein() {
+		Levenshtein levenshtein = new Levenshtein();
+		Random random = new Random(17);
+		for(int i = 0; i < 5000; i++) {
+			String s1 = randomString(random);
+			String s2 = randomString(random);
+			int maxDistance = random.nextInt(5);
+			int expected = levenshtein.compute(s1, s2, Math.max(s1.length(), s2.length()));
+			assertEquals(s1 + "/" + s2, Math.min(expected, maxDistance + 1), dist.compute(s1, s2, maxDistance));
+		}
+	}
+
+	private static String randomString(Random random) {
+		StringBuilder builder = new StringBuilder();
+		int length = random.nextInt(12);
+		for(int i = 0; i < length; i++)
+			builder.append((char)('a' + random.nextInt(3)));
+		return builder.toString();
+	}
+}
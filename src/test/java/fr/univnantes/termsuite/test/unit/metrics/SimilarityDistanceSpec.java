@@ -23,14 +23,21 @@ package fr.univnantes.termsuite.test.unit.metrics;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 import fr.univnantes.termsuite.framework.TermSuiteFactory;
 import fr.univnantes.termsuite.index.Terminology;
 import fr.univnantes.termsuite.metrics.Cosine;
+import fr.univnantes.termsuite.metrics.ExplainedValue;
 import fr.univnantes.termsuite.metrics.Jaccard;
+import fr.univnantes.termsuite.model.CoTermIds;
 import fr.univnantes.termsuite.model.ContextVector;
+import fr.univnantes.termsuite.model.FrozenContextVector;
 import fr.univnantes.termsuite.model.Lang;
 import fr.univnantes.termsuite.model.Term;
 import fr.univnantes.termsuite.test.mock.Fixtures;
@@ -176,6 +183,64 @@ public class SimilarityDistanceSpec {
 		
 	}
 
+	@Test
+	public void testBatchValues() {
+		List<ContextVector> targets = Lists.newArrayList(v1, v2, v3, v4, v5, v6, v7);
+		for(ContextVector source:targets) {
+			double[] cosines = cosine.getValues(source, targets);
+			double[] jaccards = jaccard.getValues(source, targets);
+			List<ExplainedValue> explainedCosines = cosine.getExplainedValues(source, targets);
+			for(int i = 0; i < targets.size(); i++) {
+				assertThat(cosines[i]).isEqualTo(cosine.getValue(source, targets.get(i)));
+				assertThat(jaccards[i]).isEqualTo(jaccard.getValue(source, targets.get(i)));
+				assertThat(explainedCosines.get(i).getValue()).isEqualTo(cosines[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testExplanation() {
+		assertThat(cosine.getExplainedValue(v4, v6).getExplanation().getTopNFeatures())
+			.extracting("coTerm")
+			.containsExactly(term1, term2);
+		assertThat(jaccard.getExplainedValue(v5, v6).getExplanation().getTopNFeatures())
+			.extracting("coTerm")
+			.containsExactly(term1);
+	}
+
+	@Test
+	public void testValueChangesWhenVectorIsModified() {
+		cos(v1, v4, 1d*2d / Math.sqrt(1*1 * (2*2 + 1*1)));
+		v4.removeCoTerm(term2);
+		cos(v1, v4, 1d);
+		v4.addEntry(term3, 1234, 2d);
+		cos(v1, v4, 1d*2d / Math.sqrt(1*1 * (2*2 + 2*2)));
+		v4.normalize();
+		cos(v1, v4, 1d*0.5d / Math.sqrt(1*1 * (0.5*0.5 + 0.5*0.5)));
+		jac(v1, v4, 0.5d / (1d + 0.5d));
+	}
+
+	@Test
+	public void testFreezeWithScopedCoTermIds() {
+		CoTermIds ids1 = new CoTermIds();
+		CoTermIds ids2 = new CoTermIds();
+		FrozenContextVector frozen = v7.freeze(ids1);
+		assertThat(v7.freeze(ids1)).isSameAs(frozen);
+		assertThat(ids1.size()).isEqualTo(2);
+
+		v5.freeze(ids2);
+		FrozenContextVector other = v7.freeze(ids2);
+		assertThat(other).isNotSameAs(frozen);
+		assertThat(other.getCoTermIds()).isSameAs(ids2);
+		assertThat(ids2.size()).isEqualTo(4);
+		assertThat(ids1.size()).isEqualTo(2);
+		
+		// same distance whatever the dictionary vectors were last frozen with
+		cos(v5, v7, 0d);
+		cos(v6, v7, 1d*1d / Math.sqrt((1*1 + 1*1) * (3*3 + 1*1)));
+		assertThat(new Cosine().getValue(v6, v7)).isEqualTo(cosine.getValue(v6, v7));
+	}
+
 	private void cos(ContextVector v1, ContextVector v2, Number expected) {
 		assertThat(cosine.getValue(v1, v2)).isEqualTo(expected);
 		assertThat(cosine.getValue(v2, v1)).isEqualTo(expected);
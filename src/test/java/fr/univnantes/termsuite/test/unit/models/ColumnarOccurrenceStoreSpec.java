@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.OccurrenceStore;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.occurrences.ColumnarOccurrenceStore;
+import fr.univnantes.termsuite.model.occurrences.MemoryOccurrenceStore;
+import fr.univnantes.termsuite.test.mock.Fixtures;
+
+public class ColumnarOccurrenceStoreSpec {
+
+	private OccurrenceStore store;
+	private OccurrenceStore memoryStore;
+	private Term term1, term2, term3;
+	
+	@Before
+	public void setup() {
+		Terminology terminology = TermSuiteFactory.createTerminology(Lang.EN, "");
+		term1 = Fixtures.term1(terminology);
+		term2 = Fixtures.term2(terminology);
+		term3 = Fixtures.term3(terminology);
+		store = new ColumnarOccurrenceStore(Lang.EN);
+		memoryStore = new MemoryOccurrenceStore(Lang.EN);
+		for(OccurrenceStore s:new OccurrenceStore[]{store, memoryStore}) {
+			s.addOccurrence(term1, "doc1", 10, 12, "t1");
+			s.addOccurrence(term2, "doc1", 20, 25, "t2");
+			s.addOccurrence(term1, "doc1", 30, 32, "T1");
+			s.addOccurrence(term1, "doc2", 5, 7, "t1");
+			s.addOccurrence(term1, "doc2", 50, 52, "t1");
+			s.addOccurrence(term2, "doc3", 0, 5, "t2\n");
+		}
+	}
+	
+	@Test
+	public void testGetOccurrences() {
+		assertThat(store.getOccurrences(term1))
+			.extracting("sourceDocument.url", "begin", "end", "coveredText")
+			.containsExactly(
+				tuple("doc1", 10, 12, "t1"),
+				tuple("doc1", 30, 32, "T1"),
+				tuple("doc2", 5, 7, "t1"),
+				tuple("doc2", 50, 52, "t1")
+			);
+		assertThat(store.getOccurrences(term2))
+			.extracting("sourceDocument.url", "begin", "end", "coveredText")
+			.containsExactly(
+				tuple("doc1", 20, 25, "t2"),
+				tuple("doc3", 0, 5, "t2 ")
+			);
+		assertThat(store.getOccurrences(term3)).isEmpty();
+		assertThat(store.getOccurrences(term1)).hasSameElementsAs(memoryStore.getOccurrences(term1));
+	}
+
+	@Test
+	public void testForms() {
+		assertThat(store.getForms(term1))
+			.extracting("text", "count")
+			.containsExactly(
+				tuple("t1", 3),
+				tuple("T1", 1)
+			);
+		assertThat(store.getForms(term1)).isEqualTo(memoryStore.getForms(term1));
+		assertThat(store.getMostFrequentForm(term1)).isEqualTo("t1");
+		assertThat(store.getMostFrequentForm(term3)).isNull();
+	}
+
+	@Test
+	public void testFormsOnlyCountTermOccurrences() {
+		store.addOccurrence(term3, "doc1", 60, 62, "T1");
+		store.addOccurrence(term3, "doc1", 70, 72, "t3");
+		store.addOccurrence(term3, "doc2", 70, 72, "T1");
+		store.addOccurrence(term3, "doc2", 80, 82, null);
+		assertThat(store.getForms(term3))
+			.extracting("text", "count")
+			.containsExactly(
+				tuple("T1", 2),
+				tuple("t3", 1)
+			);
+		assertThat(store.getMostFrequentForm(term3)).isEqualTo("T1");
+		assertThat(store.getForms(term2))
+			.extracting("text", "count")
+			.containsExactly(tuple("t2", 1), tuple("t2 ", 1));
+	}
+
+	@Test
+	public void testGetOccurrenceCount() {
+		store.addOccurrence(term1, "doc2", 5, 7, "t1");
+		store.addOccurrence(term1, "doc2", 5, 8, "t1");
+		assertThat(store.getOccurrenceCount(term1))
+			.isEqualTo(store.getOccurrences(term1).size())
+			.isEqualTo(5);
+		assertThat(store.getOccurrenceCount(term2)).isEqualTo(2);
+		assertThat(store.getOccurrenceCount(term3)).isEqualTo(0);
+		assertThat(memoryStore.getOccurrenceCount(term1)).isEqualTo(4);
+	}
+
+	@Test
+	public void testSameOccurrenceAddedTwice() {
+		store.addOccurrence(term1, "doc1", 10, 12, "t1");
+		store.addOccurrence(term1, "doc1", 10, 12, "T1");
+		memoryStore.addOccurrence(term1, "doc1", 10, 12, "T1");
+		assertThat(store.size()).isEqualTo(6);
+		assertThat(store.getOccurrenceCount(term1)).isEqualTo(4);
+		assertThat(store.getOccurrences(term1)).hasSize(4).hasSameElementsAs(memoryStore.getOccurrences(term1));
+		assertThat(store.getForms(term1))
+			.extracting("text", "count")
+			.containsExactly(
+				tuple("t1", 3),
+				tuple("T1", 1)
+			);
+		assertThat(store.getForms(term1)).isEqualTo(memoryStore.getForms(term1));
+	}
+
+	@Test
+	public void testSameOccurrenceAddedTwiceToFrequentTerm() {
+		for(int i = 0; i < 1000; i++) 
+			store.addOccurrence(term3, "doc" + (i % 7), i, i + 2, "t3");
+		for(int i = 0; i < 1000; i += 3) 
+			store.addOccurrence(term3, "doc" + (i % 7), i, i + 2, "T3");
+		store.addOccurrence(term3, "doc0", 0, 3, "T3");
+		assertThat(store.getOccurrenceCount(term3)).isEqualTo(1001);
+		assertThat(store.getOccurrences(term3)).hasSize(1001);
+		assertThat(store.size()).isEqualTo(6 + 1001);
+		assertThat(store.getForms(term3))
+			.extracting("text", "count")
+			.containsExactly(
+				tuple("t3", 1000),
+				tuple("T3", 1)
+			);
+	}
+
+	@Test
+	public void testDocuments() {
+		assertThat(store.getDocuments()).extracting("url").containsOnly("doc1", "doc2", "doc3");
+		assertThat(store.getDocuments(term1)).extracting("url").containsOnly("doc1", "doc2");
+		assertThat(store.getDocuments(term2)).isEqualTo(memoryStore.getDocuments(term2));
+		assertThat(store.getDocument("doc2").getUrl()).isEqualTo("doc2");
+	}
+
+	@Test
+	public void testRemoveTerm() {
+		assertThat(store.size()).isEqualTo(6);
+		store.removeTerm(term1);
+		assertThat(store.size()).isEqualTo(2);
+		assertThat(store.getOccurrences(term1)).isEmpty();
+		assertThat(store.getOccurrences(term2)).hasSize(2);
+	}
+}
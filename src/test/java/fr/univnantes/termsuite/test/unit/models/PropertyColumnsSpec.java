@@ -0,0 +1,200 @@
+package fr.univnantes.termsuite.test.unit.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.univnantes.termsuite.engines.gatherer.VariationType;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.framework.service.TerminologyService;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.PropertyColumns;
+import fr.univnantes.termsuite.model.Relation;
+import fr.univnantes.termsuite.model.RelationProperty;
+import fr.univnantes.termsuite.model.RelationType;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.TermProperty;
+import fr.univnantes.termsuite.test.mock.Fixtures;
+import fr.univnantes.termsuite.test.unit.UnitTests;
+
+public class PropertyColumnsSpec {
+
+	private Terminology terminology;
+	private Term term1, term2;
+	
+	@Before
+	public void setup() {
+		terminology = TermSuiteFactory.createColumnarTerminology(Lang.FR, "toto");
+		term1 = Fixtures.term1(terminology);
+		term2 = Fixtures.term2(terminology);
+	}
+	
+	@Test
+	public void testSupports() {
+		PropertyColumns<TermProperty> columns = new PropertyColumns<>(TermProperty.class);
+		assertThat(columns.supports(TermProperty.FREQUENCY)).isTrue();
+		assertThat(columns.supports(TermProperty.SPECIFICITY)).isTrue();
+		assertThat(columns.supports(TermProperty.FILTERED)).isTrue();
+		assertThat(columns.supports(TermProperty.PILOT)).isFalse();
+	}
+
+	@Test
+	public void testGetAndSet() {
+		PropertyColumns<TermProperty> columns = new PropertyColumns<>(TermProperty.class);
+		int id1 = columns.allocate();
+		int id2 = columns.allocate();
+		assertThat(columns.isSet(id1, TermProperty.FREQUENCY)).isFalse();
+		assertThat(columns.get(id1, TermProperty.FREQUENCY)).isNull();
+		assertThat(columns.getDouble(id1, TermProperty.SPECIFICITY)).isNaN();
+		
+		columns.set(id1, TermProperty.FREQUENCY, 12);
+		columns.set(id1, TermProperty.SPECIFICITY, -2.5d);
+		columns.set(id2, TermProperty.FILTERED, true);
+		columns.set(id2, TermProperty.IS_SINGLE_WORD, false);
+		
+		assertThat(columns.get(id1, TermProperty.FREQUENCY)).isEqualTo(12);
+		assertThat(columns.get(id1, TermProperty.SPECIFICITY)).isEqualTo(-2.5d);
+		assertThat(columns.getDouble(id1, TermProperty.FREQUENCY)).isEqualTo(12d);
+		assertThat(columns.get(id2, TermProperty.FILTERED)).isEqualTo(true);
+		assertThat(columns.get(id2, TermProperty.IS_SINGLE_WORD)).isEqualTo(false);
+		assertThat(columns.isSet(id2, TermProperty.FREQUENCY)).isFalse();
+		assertThat(columns.isSet(id1, TermProperty.FILTERED)).isFalse();
+	}
+
+	@Test
+	public void testGrowsConcurrently() {
+		PropertyColumns<TermProperty> columns = new PropertyColumns<>(TermProperty.class);
+		IntStream.range(0, 50000).parallel().forEach(i -> {
+			int id = columns.allocate();
+			columns.set(id, TermProperty.RANK, id);
+			columns.set(id, TermProperty.FILTERED, id % 2 == 0);
+		});
+		assertThat(columns.size()).isEqualTo(50000);
+		for(int id = 0; id < 50000; id++) {
+			assertThat(columns.get(id, TermProperty.RANK)).isEqualTo(id);
+			assertThat(columns.get(id, TermProperty.FILTERED)).isEqualTo(id % 2 == 0);
+		}
+	}
+
+	@Test
+	public void testBoundTermKeepsPropertyHolderApi() {
+		term1.setProperty(TermProperty.FREQUENCY, 3);
+		term1.setProperty(TermProperty.PILOT, "énergie éolienne");
+		terminology.bindProperties(term1);
+		
+		assertThat(term1.getFrequency()).isEqualTo(3);
+		assertThat(term1.getPilot()).isEqualTo("énergie éolienne");
+		
+		term1.setProperty(TermProperty.SPECIFICITY, 1.5d);
+		assertThat(term1.isPropertySet(TermProperty.SPECIFICITY)).isTrue();
+		assertThat(term1.getDouble(TermProperty.SPECIFICITY)).isEqualTo(1.5d);
+		assertThat(term1.isPropertySet(TermProperty.RANK)).isFalse();
+		assertThat(term1.getProperties())
+			.contains(
+				entry(TermProperty.FREQUENCY, 3), 
+				entry(TermProperty.SPECIFICITY, 1.5d), 
+				entry(TermProperty.PILOT, "énergie éolienne"))
+			.doesNotContainKey(TermProperty.RANK);
+	}
+
+	@Test
+	public void testBoundRelation() {
+		Relation relation = new Relation(RelationType.VARIATION, term1, term2);
+		relation.setProperty(RelationProperty.IS_SYNTAGMATIC, true);
+		terminology.bindProperties(relation);
+		relation.setProperty(RelationProperty.VARIANT_SCORE, 0.8d);
+		relation.setProperty(RelationProperty.DERIVATION_TYPE, "N A");
+		
+		assertThat(relation.getBoolean(RelationProperty.IS_SYNTAGMATIC)).isTrue();
+		assertThat(relation.isPropertySet(RelationProperty.IS_MORPHOLOGICAL)).isFalse();
+		assertThat(relation.getDouble(RelationProperty.VARIANT_SCORE)).isEqualTo(0.8d);
+		assertThat(relation.getString(RelationProperty.DERIVATION_TYPE)).isEqualTo("N A");
+		assertThat(relation.isNumericValueGT(RelationProperty.VARIANT_SCORE, 0.5d)).isTrue();
+	}
+
+	@Test
+	public void testBoundTermReadsColumns() {
+		terminology.bindProperties(term1);
+		assertThat(term1.getProperties()).doesNotContainKey(TermProperty.FREQUENCY);
+		assertThat(term1.getInteger(TermProperty.FREQUENCY)).isNull();
+		assertThat(term1.getBoolean(TermProperty.FILTERED)).isNull();
+
+		term1.setProperty(TermProperty.FREQUENCY, 7);
+		term1.setProperty(TermProperty.SPECIFICITY, 2.25d);
+		term1.setProperty(TermProperty.FILTERED, true);
+		assertThat(term1.getInteger(TermProperty.FREQUENCY)).isEqualTo(7);
+		assertThat(term1.getDouble(TermProperty.SPECIFICITY)).isEqualTo(2.25d);
+		assertThat(term1.getBoolean(TermProperty.FILTERED)).isTrue();
+		assertThat(term1.compareNumericValue(TermProperty.FREQUENCY, 7L)).isEqualTo(0);
+		assertThat(term1.compareNumericValue(TermProperty.FREQUENCY, 6.5d)).isPositive();
+		assertThat(term1.compareNumericValue(TermProperty.SPECIFICITY, 3L)).isNegative();
+		assertThat(term1.isNumericValueLTE(TermProperty.SPECIFICITY, 2.25d)).isTrue();
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testCompareUnsetColumnValue() {
+		terminology.bindProperties(term1);
+		term1.compareNumericValue(TermProperty.SPECIFICITY, 1d);
+	}
+
+	@Test
+	public void testReleasedIdsAreReused() {
+		PropertyColumns<TermProperty> columns = new PropertyColumns<>(TermProperty.class);
+		int id1 = columns.allocate();
+		int id2 = columns.allocate();
+		columns.set(id1, TermProperty.FREQUENCY, 12);
+		columns.set(id1, TermProperty.FILTERED, true);
+		columns.release(id1);
+		assertThat(columns.size()).isEqualTo(1);
+		
+		assertThat(columns.allocate()).isEqualTo(id1);
+		assertThat(columns.isSet(id1, TermProperty.FREQUENCY)).isFalse();
+		assertThat(columns.isSet(id1, TermProperty.FILTERED)).isFalse();
+		assertThat(columns.getBoolean(id1, TermProperty.FILTERED)).isFalse();
+		assertThat(columns.allocate()).isEqualTo(id2 + 1);
+		assertThat(columns.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void testRemovedTermsAndRelationsReleaseIds() {
+		Terminology termino = TermSuiteFactory.createColumnarTerminology(Lang.FR, "titi");
+		TerminologyService service = UnitTests.getTerminologyService(
+				TermSuiteFactory.createIndexedCorpus(termino, TermSuiteFactory.createMemoryOccurrenceStore(Lang.FR)));
+		Term a = UnitTests.createTerm("n: a");
+		Term b = UnitTests.createTerm("n: b");
+		Term c = UnitTests.createTerm("n: c");
+		a.setProperty(TermProperty.FREQUENCY, 5);
+		service.addTerm(a);
+		service.addTerm(b);
+		service.createVariation(VariationType.PREFIXATION, a, b).setProperty(RelationProperty.VARIANT_SCORE, 0.5d);
+		assertThat(termino.getTermColumns().size()).isEqualTo(2);
+		assertThat(termino.getRelationColumns().size()).isEqualTo(1);
+
+		Relation duplicate = new Relation(RelationType.VARIATION, a, b);
+		try {
+			service.addRelation(duplicate);
+			fail("Expected IllegalArgumentException");
+		} catch(IllegalArgumentException e) {
+			assertThat(termino.getRelationColumns().size()).isEqualTo(1);
+		}
+		
+		Relation relation = service.getVariation(a, b).get().getRelation();
+		service.removeTerm(a);
+		assertThat(termino.getTermColumns().size()).isEqualTo(1);
+		assertThat(termino.getRelationColumns().size()).isEqualTo(0);
+		assertThat(a.getFrequency()).isEqualTo(5);
+		assertThat(relation.getDouble(RelationProperty.VARIANT_SCORE)).isEqualTo(0.5d);
+		
+		service.addTerm(c);
+		assertThat(termino.getTermColumns().size()).isEqualTo(2);
+		assertThat(c.isPropertySet(TermProperty.FREQUENCY)).isFalse();
+		c.setProperty(TermProperty.FREQUENCY, 7);
+		assertThat(a.getFrequency()).isEqualTo(5);
+	}
+}
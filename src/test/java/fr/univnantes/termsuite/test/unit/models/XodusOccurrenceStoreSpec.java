@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright 2015-2016 - CNRS (Centre National de Recherche Scientifique)
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *******************************************************************************/
+package fr.univnantes.termsuite.test.unit.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.index.Terminology;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.model.Term;
+import fr.univnantes.termsuite.model.occurrences.XodusOccurrenceStore;
+import fr.univnantes.termsuite.test.mock.Fixtures;
+
+public class XodusOccurrenceStoreSpec {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	
+	private String storeUrl;
+	private XodusOccurrenceStore store;
+	private Term term1, term2;
+	
+	@Before
+	public void setup() throws Exception {
+		Terminology terminology = TermSuiteFactory.createTerminology(Lang.EN, "");
+		term1 = Fixtures.term1(terminology);
+		term2 = Fixtures.term2(terminology);
+		storeUrl = temporaryFolder.newFolder("store").getAbsolutePath();
+		store = new XodusOccurrenceStore(Lang.EN, storeUrl, 3, 100, 2);
+		store.addOccurrence(term1, "doc1", 10, 12, "t1");
+		store.addOccurrence(term2, "doc1", 20, 25, "t2");
+		store.addOccurrence(term1, "doc1", 30, 32, "T1");
+		store.addOccurrence(term1, "doc2", 5, 7, "t1");
+		store.flush();
+		store.addOccurrence(term1, "doc2", 50, 52, "t1");
+		store.addOccurrence(term2, "doc3", 0, 5, "t2\n");
+		store.flush();
+	}
+	
+	@After
+	public void tearDown() {
+		if(store != null)
+			store.close();
+	}
+	
+	@Test
+	public void testGetOccurrences() {
+		assertThat(store.size()).isEqualTo(6);
+		assertThat(store.getOccurrences(term1))
+			.extracting("sourceDocument.url", "begin", "end", "coveredText")
+			.containsOnly(
+				tuple("doc1", 10, 12, "t1"),
+				tuple("doc1", 30, 32, "T1"),
+				tuple("doc2", 5, 7, "t1"),
+				tuple("doc2", 50, 52, "t1")
+			);
+		assertThat(store.getOccurrences(term2))
+			.extracting("sourceDocument.url", "begin", "end", "coveredText")
+			.containsOnly(
+				tuple("doc1", 20, 25, "t2"),
+				tuple("doc3", 0, 5, "t2 ")
+			);
+	}
+
+	@Test
+	public void testGetOccurrencesNotFlushed() {
+		store.addOccurrence(term2, "doc4", 100, 105, "t2");
+		assertThat(store.getOccurrences(term2))
+			.extracting("sourceDocument.url", "begin")
+			.containsOnly(
+				tuple("doc1", 20),
+				tuple("doc3", 0),
+				tuple("doc4", 100)
+			);
+	}
+
+	@Test
+	public void testReadsOnlySyncUncommittedBatches() {
+		store.close();
+		store = new XodusOccurrenceStore(Lang.EN, storeUrl, 1000, 60000, 10);
+		assertThat(store.getNbUncommittedBatches()).isEqualTo(0);
+		assertThat(store.getOccurrences(term1)).hasSize(4);
+		
+		store.addOccurrence(term1, "doc5", 0, 2, "t1");
+		store.addOccurrence(term2, "doc5", 3, 5, "t2");
+		store.flush();
+		assertThat(store.getNbUncommittedBatches()).isEqualTo(2);
+		assertThat(store.getOccurrences(term1)).hasSize(5);
+		assertThat(store.getNbUncommittedBatches()).isEqualTo(0);
+		assertThat(store.getOccurrences(term2)).hasSize(3);
+	}
+
+	@Test
+	public void testReopen() {
+		store.close();
+		store = new XodusOccurrenceStore(Lang.EN, storeUrl);
+		assertThat(store.getOccurrences(term1))
+			.extracting("sourceDocument.url", "begin", "end")
+			.containsOnly(
+				tuple("doc1", 10, 12),
+				tuple("doc1", 30, 32),
+				tuple("doc2", 5, 7),
+				tuple("doc2", 50, 52)
+			);
+	}
+}
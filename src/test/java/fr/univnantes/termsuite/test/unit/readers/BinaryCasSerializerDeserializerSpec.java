@@ -0,0 +1,202 @@
+package fr.univnantes.termsuite.test.unit.readers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.cas.StringArray;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.univnantes.termsuite.api.XMICorpus;
+import fr.univnantes.termsuite.framework.TermSuiteFactory;
+import fr.univnantes.termsuite.model.Lang;
+import fr.univnantes.termsuite.types.FixedExpression;
+import fr.univnantes.termsuite.types.SourceDocumentInformation;
+import fr.univnantes.termsuite.types.TermOccAnnotation;
+import fr.univnantes.termsuite.types.WordAnnotation;
+import fr.univnantes.termsuite.uima.readers.BinaryCasDeserializer;
+import fr.univnantes.termsuite.uima.readers.BinaryCasSerializer;
+import fr.univnantes.termsuite.uima.readers.JsonCasSerializer;
+
+public class BinaryCasSerializerDeserializerSpec {
+	private static final String TEXT = "le recouvrement\nparfaitement total du chat";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private JCas fixtureCas;
+
+	@Before
+	public void setup() throws UIMAException {
+		fixtureCas = JCasFactory.createJCas();
+		fixtureCas.setDocumentText(TEXT);
+
+		SourceDocumentInformation sdi = new SourceDocumentInformation(fixtureCas, 0, TEXT.length());
+		sdi.setUri("/corpus/doc1.txt");
+		sdi.setOffsetInSource(0);
+		sdi.setDocumentIndex(1);
+		sdi.setNbDocuments(-1);
+		sdi.setDocumentSize(TEXT.length());
+		sdi.setCumulatedDocumentSize(1234567890123L);
+		sdi.setCorpusSize(-1);
+		sdi.setLastSegment(true);
+		sdi.addToIndexes();
+
+		WordAnnotation le = word(0, 2, "article", "le", "D", "DET:ART");
+		le.setNumber("sg");
+		le.setGender("ms");
+		WordAnnotation recouvrement = word(3, 15, "noun", "recouvrement", "N", "NOM");
+		recouvrement.setLabels("label");
+		word(16, 28, "adverb", "parfaitement", "R", "ADV");
+		WordAnnotation total = word(29, 34, "adjective", "total", "A", "ADJ");
+		word(35, 37, "preposition", "du", "P", "PRP");
+		WordAnnotation chat = word(38, 42, "noun", "chat", "N", "NOM");
+
+		termOcc(3, 34, "na: recouvrement total", "na", recouvrement, total);
+		termOcc(38, 42, "n: chat", "n", chat);
+		TermOccAnnotation noWords = new TermOccAnnotation(fixtureCas, 0, 2);
+		noWords.setTermKey("d: le");
+		noWords.addToIndexes();
+
+		new FixedExpression(fixtureCas, 16, 34).addToIndexes();
+	}
+
+	private WordAnnotation word(int begin, int end, String category, String lemma, String regexLabel, String tag) {
+		WordAnnotation wa = new WordAnnotation(fixtureCas, begin, end);
+		wa.setCategory(category);
+		wa.setLemma(lemma);
+		wa.setStem(lemma);
+		wa.setRegexLabel(regexLabel);
+		wa.setTag(tag);
+		wa.addToIndexes();
+		return wa;
+	}
+
+	private void termOcc(int begin, int end, String key, String rule, WordAnnotation... words) {
+		TermOccAnnotation toa = new TermOccAnnotation(fixtureCas, begin, end);
+		StringArray pattern = new StringArray(fixtureCas, words.length);
+		FSArray fs = new FSArray(fixtureCas, words.length);
+		for(int i = 0; i < words.length; i++) {
+			pattern.set(i, words[i].getRegexLabel());
+			fs.set(i, words[i]);
+		}
+		toa.setPattern(pattern);
+		toa.setWords(fs);
+		toa.setTermKey(key);
+		toa.setSpottingRuleName(rule);
+		toa.addToIndexes();
+	}
+
+	private JCas roundTrip(boolean withText) throws IOException, UIMAException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryCasSerializer.serialize(bytes, fixtureCas, withText);
+		JCas jCas = JCasFactory.createJCas();
+		BinaryCasDeserializer.deserialize(new ByteArrayInputStream(bytes.toByteArray()), jCas);
+		return jCas;
+	}
+
+	private static List<String> toStrings(JCas jCas, Class<? extends org.apache.uima.jcas.tcas.Annotation> type) {
+		return JCasUtil.select(jCas, type).stream().map(Object::toString).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testRoundTripWithText() throws IOException, UIMAException {
+		JCas jCas = roundTrip(true);
+		assertThat(jCas.getDocumentText()).isEqualTo(TEXT);
+		assertThat(toStrings(jCas, SourceDocumentInformation.class))
+			.isEqualTo(toStrings(fixtureCas, SourceDocumentInformation.class));
+		assertThat(toStrings(jCas, WordAnnotation.class))
+			.isEqualTo(toStrings(fixtureCas, WordAnnotation.class));
+		assertThat(toStrings(jCas, FixedExpression.class))
+			.isEqualTo(toStrings(fixtureCas, FixedExpression.class));
+		assertThat(JCasUtil.select(jCas, TermOccAnnotation.class))
+			.extracting("begin", "end", "termKey", "spottingRuleName", "coveredText")
+			.containsExactly(
+					tuple(0, 2, "d: le", null, "le"),
+					tuple(3, 34, "na: recouvrement total", "na", "recouvrement\nparfaitement total"),
+					tuple(38, 42, "n: chat", "n", "chat"));
+	}
+
+	@Test
+	public void testTermOccurrenceWordsAreIndexedWords() throws IOException, UIMAException {
+		JCas jCas = roundTrip(true);
+		List<WordAnnotation> words = JCasUtil.select(jCas, WordAnnotation.class).stream().collect(Collectors.toList());
+		List<TermOccAnnotation> occs = JCasUtil.select(jCas, TermOccAnnotation.class).stream().collect(Collectors.toList());
+
+		assertThat(occs.get(0).getWords()).isNull();
+		assertThat(occs.get(0).getPattern()).isNull();
+		TermOccAnnotation na = occs.get(1);
+		assertThat(na.getPattern().toArray()).containsExactly("N", "A");
+		assertThat(na.getWords().size()).isEqualTo(2);
+		assertThat(na.getWords(0)).isEqualTo(words.get(1));
+		assertThat(na.getWords(1)).isEqualTo(words.get(3));
+		assertThat(na.getWords(1).getLemma()).isEqualTo("total");
+	}
+
+	@Test
+	public void testRoundTripWithoutText() throws IOException, UIMAException {
+		JCas jCas = roundTrip(false);
+		assertThat(jCas.getDocumentText()).isEqualTo("le recouvrement parfaitement total du chat");
+		assertThat(JCasUtil.select(jCas, WordAnnotation.class))
+			.extracting("coveredText")
+			.containsExactly("le", "recouvrement", "parfaitement", "total", "du", "chat");
+		assertThat(toStrings(jCas, WordAnnotation.class))
+			.isEqualTo(toStrings(fixtureCas, WordAnnotation.class));
+		assertThat(JCasUtil.select(jCas, TermOccAnnotation.class))
+			.extracting("coveredText")
+			.containsExactly("le", "recouvrement parfaitement total", "chat");
+	}
+
+	@Test
+	public void testBinaryIsSmallerThanJson() throws IOException {
+		ByteArrayOutputStream withText = new ByteArrayOutputStream();
+		BinaryCasSerializer.serialize(withText, fixtureCas, true);
+		ByteArrayOutputStream withoutText = new ByteArrayOutputStream();
+		BinaryCasSerializer.serialize(withoutText, fixtureCas, false);
+		StringWriter json = new StringWriter();
+		JsonCasSerializer.serialize(json, fixtureCas);
+
+		assertThat(withText.size()).isLessThan(json.toString().length() / 4);
+		assertThat(withoutText.size()).isLessThan(withText.size());
+	}
+
+	@Test(expected=IOException.class)
+	public void testRejectsNonBinaryStream() throws IOException, UIMAException {
+		BinaryCasDeserializer.deserialize(
+				new ByteArrayInputStream("{\"sdi\":{}}".getBytes()),
+				JCasFactory.createJCas());
+	}
+
+	@Test
+	public void testPreprocessedCorpusDetection() throws IOException {
+		Path root = folder.getRoot().toPath();
+		for(String name:new String[]{"doc1", "doc2"})
+			try(OutputStream os = Files.newOutputStream(root.resolve(name + "." + XMICorpus.BINARY_EXTENSION))) {
+				BinaryCasSerializer.serialize(os, fixtureCas);
+			}
+
+		XMICorpus corpus = TermSuiteFactory.createPreprocessedCorpus(Lang.FR, root);
+		assertThat(corpus.getExtension()).isEqualTo(XMICorpus.BINARY_EXTENSION);
+		assertThat(corpus.cases()
+				.map(cas -> JCasUtil.select(cas, TermOccAnnotation.class).size())
+				.collect(Collectors.toList()))
+			.containsExactly(3, 3);
+	}
+}
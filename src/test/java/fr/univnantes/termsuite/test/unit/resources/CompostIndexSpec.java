@@ -0,0 +1,113 @@
+package fr.univnantes.termsuite.test.unit.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import fr.univnantes.termsuite.engines.splitter.CompostIndexEntry;
+import fr.univnantes.termsuite.metrics.Levenshtein;
+import fr.univnantes.termsuite.resources.CompostIndex;
+import fr.univnantes.termsuite.utils.TermSuiteUtils;
+
+public class CompostIndexSpec {
+
+	private CompostIndex index;
+	private List<String> words;
+	
+	@Before
+	public void setup() {
+		index = new CompostIndex(TermSuiteUtils.KEY_THREE_FIRST_LETTERS);
+		words = Lists.newArrayList();
+		Random random = new Random(17);
+		for(int i = 0; i < 2000; i++) {
+			StringBuilder sb = new StringBuilder("ab");
+			int length = 1 + random.nextInt(8);
+			for(int j = 0; j < length; j++)
+				sb.append((char)('a' + random.nextInt(4)));
+			words.add(sb.toString());
+		}
+		words.add("ab");
+		for(String word:words)
+			index.addDicoWord(word);
+		index.addInCorpus("abab");
+		index.addNeoclassicalPrefix("abc");
+	}
+	
+	private static List<String> texts(List<CompostIndexEntry> entries) {
+		return entries.stream().map(CompostIndexEntry::getText).collect(Collectors.toList());
+	}
+	
+	@Test
+	public void testEntries() {
+		assertThat(index.size()).isEqualTo(Sets.newHashSet(words).size());
+		assertThat(index.getEntry("abab").isInDico()).isTrue();
+		assertThat(index.getEntry("abab").isInCorpus()).isTrue();
+		assertThat(index.isNeoclassical("abc")).isTrue();
+		assertThat(index.isNeoclassical("abab")).isFalse();
+		assertThat(index.getEntry("zzz")).isNull();
+	}
+
+	@Test
+	public void testGetCloseEntriesExactMatch() {
+		assertThat(texts(index.getCloseEntries("abab", 0))).containsExactly("abab");
+		assertThat(texts(index.getCloseEntries("abzz", 0))).isEmpty();
+		assertThat(texts(index.getCloseEntries("zzzz", 3))).isEmpty();
+	}
+
+	@Test
+	public void testGetCloseEntriesAreSorted() {
+		List<String> texts = texts(index.getCloseEntries("abcabca", 2));
+		assertThat(texts).isNotEmpty().isSorted();
+	}
+
+	@Test
+	public void testGetCloseEntriesIsSameAsBruteForce() {
+		Levenshtein levenshtein = new Levenshtein();
+		for(String segment:Lists.newArrayList("abcd", "abcdabcd", "abdddd", "abacabad", "abcbca", "ab", "abxd")) {
+			for(int maxDistance = 0; maxDistance <= 4; maxDistance++) {
+				List<String> expected = Lists.newArrayList();
+				for(String text:Sets.newTreeSet(words))
+					if(TermSuiteUtils.KEY_THREE_FIRST_LETTERS.getIndexKey(text).equals(TermSuiteUtils.KEY_THREE_FIRST_LETTERS.getIndexKey(segment))
+							&& levenshtein.compute(segment, text, Integer.MAX_VALUE) <= maxDistance)
+						expected.add(text);
+				assertThat(texts(index.getCloseEntries(segment, maxDistance)))
+					.as("%s at distance %s", segment, maxDistance)
+					.isEqualTo(expected);
+			}
+		}
+	}
+	
+	@Test
+	public void testClosedEntryCandidateIterator() {
+		List<String> candidates = Lists.newArrayList();
+		index.closedEntryCandidateIterator("abcd").forEachRemaining(e -> candidates.add(e.getText()));
+		assertThat(candidates)
+			.isSubsetOf(words)
+			.allMatch(text -> text.startsWith("abc"))
+			.hasSize((int)Sets.newHashSet(words).stream().filter(w -> w.startsWith("abc")).count());
+	}
+
+	@Test
+	public void testDictionaryAndCorpusEntries() {
+		CompostIndex index = new CompostIndex(TermSuiteUtils.KEY_THREE_FIRST_LETTERS);
+		index.addDicoWord("abcde");
+		index.addNeoclassicalPrefix("abcdf");
+		index.addInCorpus("abcdf");
+		index.addInCorpus("abcdg");
+		index.addInCorpus("abcdh");
+		index.addDicoWord("abcdh");
+		assertThat(texts(index.getCloseDictionaryEntries("abcdx", 1))).containsExactly("abcde", "abcdf", "abcdh");
+		assertThat(texts(index.getCloseCorpusEntries("abcdx", 1))).containsExactly("abcdg");
+		assertThat(texts(index.getCloseEntries("abcdx", 1))).containsExactly("abcde", "abcdf", "abcdg", "abcdh");
+		assertThat(index.getEntry("abcdh").isInCorpus()).isTrue();
+		assertThat(index.getEntry("abcdh").isInDico()).isTrue();
+	}
+}